@@ -0,0 +1,714 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Generates synthetic Verbnet corpora for scale testing. Each generated file
+ * holds one root verb class in the same XML form as the files of the Verbnet
+ * distribution: members with wordnet keys and groupings, thematic roles with
+ * selectional restrictions, frames with examples, syntax, and semantics, and
+ * nested subclasses.
+ * <p>
+ * The number of root classes is exact; every other count is a maximum, and the
+ * actual count for each element is drawn uniformly at random. The output
+ * depends only on the settings and the seed, so a corpus can be regenerated
+ * exactly.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class CorpusGenerator {
+
+	// vocabulary
+	private static final String[] words = {"walk", "run", "carry", "give", "send", "throw", "push", "pull", "see", "hear", "eat", "drink", "make", "take", "bring", "hold", "move", "put", "set", "lay"};
+	private static final String[] roles = {"Agent", "Theme", "Patient", "Destination", "Source", "Instrument", "Location", "Recipient", "Topic", "Experiencer"};
+	private static final String[] restrictions = {"animate", "concrete", "organization", "human", "location", "abstract", "solid", "machine"};
+	private static final String[] predicates = {"cause", "motion", "location", "has_possession", "transfer", "contact", "exert_force", "perceive", "state", "body_motion"};
+	private static final String[] events = {"E", "during(E)", "end(E)", "start(E)", "result(E)"};
+	private static final String[] primaries = {"NP V NP", "NP V", "NP V NP PP", "NP V PP", "NP V NP NP", "NP V S", "NP V ADV"};
+	private static final String[] secondaries = {"", "Destination-PP", "Source-PP", "Instrument-PP", "Locative", "Transitive"};
+	private static final String[] descNums = {"0.1", "0.2", "1.1", "2.2", "8.1"};
+	private static final String[] preps = {"to", "with", "from", "in", "on", "at", "for", "into"};
+
+	// settings
+	private long seed = 0;
+	private int classCount = 100;
+	private int subclassDepth = 2;
+	private int subclassesPerClass = 2;
+	private int membersPerClass = 8;
+	private int keysPerMember = 3;
+	private int groupingsPerMember = 2;
+	private int rolesPerClass = 4;
+	private int framesPerClass = 6;
+	private int examplesPerFrame = 2;
+	private int restrictionDepth = 1;
+
+	// generation state
+	private Random random;
+	private int memberCount;
+
+	/**
+	 * Sets the seed of the random number generator. The default is zero.
+	 *
+	 * @param seed
+	 *            the seed
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setSeed(long seed){
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the seed of the random number generator.
+	 *
+	 * @return the seed
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getSeed(){
+		return seed;
+	}
+
+	/**
+	 * Sets the number of root classes, and so the number of files, to
+	 * generate. The default is 100.
+	 *
+	 * @param count
+	 *            the number of root classes; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the count is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setClassCount(int count){
+		classCount = checkCount("class count", count);
+	}
+
+	/**
+	 * Returns the number of root classes to generate.
+	 *
+	 * @return the number of root classes
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getClassCount(){
+		return classCount;
+	}
+
+	/**
+	 * Sets the maximum depth of subclasses below a root class; zero means no
+	 * subclasses. The default is 2.
+	 *
+	 * @param depth
+	 *            the maximum subclass depth; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the depth is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setSubclassDepth(int depth){
+		subclassDepth = checkCount("subclass depth", depth);
+	}
+
+	/**
+	 * Returns the maximum depth of subclasses below a root class.
+	 *
+	 * @return the maximum subclass depth
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getSubclassDepth(){
+		return subclassDepth;
+	}
+
+	/**
+	 * Sets the maximum number of direct subclasses of a class. The default is
+	 * 2.
+	 *
+	 * @param count
+	 *            the maximum number of subclasses; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the count is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setSubclassesPerClass(int count){
+		subclassesPerClass = checkCount("subclass count", count);
+	}
+
+	/**
+	 * Returns the maximum number of direct subclasses of a class.
+	 *
+	 * @return the maximum number of subclasses
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getSubclassesPerClass(){
+		return subclassesPerClass;
+	}
+
+	/**
+	 * Sets the maximum number of members of a class; every class has at least
+	 * one member. The default is 8.
+	 *
+	 * @param count
+	 *            the maximum number of members; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setMembersPerClass(int count){
+		membersPerClass = checkPositive("member count", count);
+	}
+
+	/**
+	 * Returns the maximum number of members of a class.
+	 *
+	 * @return the maximum number of members
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getMembersPerClass(){
+		return membersPerClass;
+	}
+
+	/**
+	 * Sets the maximum number of wordnet keys of a member. The default is 3.
+	 *
+	 * @param count
+	 *            the maximum number of keys; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the count is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setKeysPerMember(int count){
+		keysPerMember = checkCount("key count", count);
+	}
+
+	/**
+	 * Returns the maximum number of wordnet keys of a member.
+	 *
+	 * @return the maximum number of keys
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getKeysPerMember(){
+		return keysPerMember;
+	}
+
+	/**
+	 * Sets the maximum number of groupings of a member. The default is 2.
+	 *
+	 * @param count
+	 *            the maximum number of groupings; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the count is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setGroupingsPerMember(int count){
+		groupingsPerMember = checkCount("grouping count", count);
+	}
+
+	/**
+	 * Returns the maximum number of groupings of a member.
+	 *
+	 * @return the maximum number of groupings
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getGroupingsPerMember(){
+		return groupingsPerMember;
+	}
+
+	/**
+	 * Sets the maximum number of thematic roles of a class; every class has at
+	 * least one role. The default is 4.
+	 *
+	 * @param count
+	 *            the maximum number of roles; must be between 1 and the number
+	 *            of role names the generator knows
+	 * @throws IllegalArgumentException
+	 *             if the count is out of range
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setRolesPerClass(int count){
+		if(count > roles.length)
+			throw new IllegalArgumentException("role count may not exceed " + roles.length);
+		rolesPerClass = checkPositive("role count", count);
+	}
+
+	/**
+	 * Returns the maximum number of thematic roles of a class.
+	 *
+	 * @return the maximum number of roles
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getRolesPerClass(){
+		return rolesPerClass;
+	}
+
+	/**
+	 * Sets the maximum number of frames of a class; every class has at least
+	 * one frame. The default is 6.
+	 *
+	 * @param count
+	 *            the maximum number of frames; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setFramesPerClass(int count){
+		framesPerClass = checkPositive("frame count", count);
+	}
+
+	/**
+	 * Returns the maximum number of frames of a class.
+	 *
+	 * @return the maximum number of frames
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getFramesPerClass(){
+		return framesPerClass;
+	}
+
+	/**
+	 * Sets the maximum number of examples of a frame; every frame has at
+	 * least one example. The default is 2.
+	 *
+	 * @param count
+	 *            the maximum number of examples; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setExamplesPerFrame(int count){
+		examplesPerFrame = checkPositive("example count", count);
+	}
+
+	/**
+	 * Returns the maximum number of examples of a frame.
+	 *
+	 * @return the maximum number of examples
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getExamplesPerFrame(){
+		return examplesPerFrame;
+	}
+
+	/**
+	 * Sets the maximum number of selectional restriction blocks nested inside
+	 * a top-level restriction block; zero means no nesting. The default is 1.
+	 *
+	 * @param depth
+	 *            the maximum nesting depth; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the depth is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setRestrictionDepth(int depth){
+		restrictionDepth = checkCount("restriction depth", depth);
+	}
+
+	/**
+	 * Returns the maximum nesting depth of selectional restriction blocks.
+	 *
+	 * @return the maximum nesting depth
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getRestrictionDepth(){
+		return restrictionDepth;
+	}
+
+	/**
+	 * Generates a corpus into the specified directory, which is created if
+	 * necessary. Each root class is written to its own file, named after the
+	 * class id.
+	 *
+	 * @param dir
+	 *            the output directory; may not be <code>null</code>
+	 * @return the number of files written
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @throws IOException
+	 *             if the directory cannot be created or a file cannot be
+	 *             written
+	 * @since JVerbnet 1.3.0
+	 */
+	public int generate(File dir) throws IOException {
+		NotNull.check("dir", dir);
+		if(!dir.isDirectory() && !dir.mkdirs())
+			throw new IOException("unable to create directory " + dir);
+		random = new Random(seed);
+		memberCount = 0;
+		for(int i = 0; i < classCount; i++){
+			String id = pick(words) + "-" + i + "." + (1 + random.nextInt(9));
+			Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(dir, id + ".xml")), "UTF-8"));
+			try {
+				writeClass(out, id);
+			} finally {
+				out.close();
+			}
+		}
+		return classCount;
+	}
+
+	/**
+	 * Generates a corpus with the default settings into a new temporary
+	 * directory, which is deleted when the virtual machine exits.
+	 *
+	 * @return the temporary corpus directory
+	 * @throws IOException
+	 *             if the corpus cannot be written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static File generateTemporaryCorpus() throws IOException {
+		File dir = File.createTempFile("jverbnet-corpus", "");
+		if(!dir.delete() || !dir.mkdir())
+			throw new IOException("unable to create directory " + dir);
+		dir.deleteOnExit();
+		new CorpusGenerator().generate(dir);
+		for(File f : dir.listFiles())
+			f.deleteOnExit();
+		return dir;
+	}
+
+	/**
+	 * Writes a single XML document holding a root class with the specified
+	 * id, and its subclasses. This method draws from the random number
+	 * generator set up by {@link #generate(File)}, or from a new generator
+	 * with the configured seed if none is set up.
+	 *
+	 * @param out
+	 *            the writer for the document; may not be <code>null</code>
+	 * @param id
+	 *            the id of the root class; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @throws IOException
+	 *             if the document cannot be written
+	 * @since JVerbnet 1.3.0
+	 */
+	public void writeClass(Writer out, String id) throws IOException {
+		NotNull.check("out", out);
+		NotNull.check("id", id);
+		if(random == null)
+			random = new Random(seed);
+		StringBuilder sb = new StringBuilder(4096);
+		sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		sb.append("<!DOCTYPE VNCLASS SYSTEM \"vn_class-3.dtd\">\n");
+		appendClass(sb, "VNCLASS", id, 0, "");
+		out.write(sb.toString());
+	}
+
+	/**
+	 * Appends a class or subclass element.
+	 *
+	 * @param sb
+	 *            the builder to append to
+	 * @param tag
+	 *            the tag of the element
+	 * @param id
+	 *            the id of the class
+	 * @param depth
+	 *            the depth of the class below the root class
+	 * @param indent
+	 *            the indentation of the element
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void appendClass(StringBuilder sb, String tag, String id, int depth, String indent){
+		String in1 = indent + "    ";
+		String in2 = in1 + "    ";
+		sb.append(indent).append('<').append(tag).append(" ID=\"").append(id).append("\">\n");
+
+		// members
+		sb.append(in1).append("<MEMBERS>\n");
+		for(int i = 1 + random.nextInt(membersPerClass); i > 0; i--)
+			appendMember(sb, in2);
+		sb.append(in1).append("</MEMBERS>\n");
+
+		// thematic roles
+		sb.append(in1).append("<THEMROLES>\n");
+		int[] order = shuffledIndexes(roles.length);
+		for(int i = 0, n = 1 + random.nextInt(rolesPerClass); i < n; i++){
+			sb.append(in2).append("<THEMROLE type=\"").append(roles[order[i]]).append("\">");
+			appendSelRestrs(sb, random.nextBoolean() ? 0 : 1 + random.nextInt(2), 0);
+			sb.append("</THEMROLE>\n");
+		}
+		sb.append(in1).append("</THEMROLES>\n");
+
+		// frames
+		sb.append(in1).append("<FRAMES>\n");
+		for(int i = 1 + random.nextInt(framesPerClass); i > 0; i--)
+			appendFrame(sb, in2);
+		sb.append(in1).append("</FRAMES>\n");
+
+		// subclasses
+		sb.append(in1).append("<SUBCLASSES>\n");
+		if(depth < subclassDepth)
+			for(int i = 0, n = random.nextInt(subclassesPerClass+1); i < n; i++)
+				appendClass(sb, "VNSUBCLASS", id + "-" + (i+1), depth+1, in2);
+		sb.append(in1).append("</SUBCLASSES>\n");
+
+		sb.append(indent).append("</").append(tag).append(">\n");
+	}
+
+	/**
+	 * Appends a member element.
+	 *
+	 * @param sb
+	 *            the builder to append to
+	 * @param indent
+	 *            the indentation of the element
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void appendMember(StringBuilder sb, String indent){
+		String name = pick(words) + (memberCount++);
+		sb.append(indent).append("<MEMBER name=\"").append(name).append("\" wn=\"");
+		for(int i = 0, n = random.nextInt(keysPerMember+1); i < n; i++){
+			if(i > 0)
+				sb.append(' ');
+			if(random.nextInt(10) == 0)
+				sb.append('?');
+			sb.append(name).append("%2:");
+			appendTwoDigits(sb, 29 + random.nextInt(15));
+			sb.append(':');
+			appendTwoDigits(sb, random.nextInt(6));
+		}
+		sb.append("\" grouping=\"");
+		for(int i = 0, n = random.nextInt(groupingsPerMember+1); i < n; i++){
+			if(i > 0)
+				sb.append(' ');
+			sb.append(name).append('.');
+			appendTwoDigits(sb, i+1);
+		}
+		sb.append("\"/>\n");
+	}
+
+	/**
+	 * Appends a frame element.
+	 *
+	 * @param sb
+	 *            the builder to append to
+	 * @param indent
+	 *            the indentation of the element
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void appendFrame(StringBuilder sb, String indent){
+		String in1 = indent + "    ";
+		String in2 = in1 + "    ";
+		sb.append(indent).append("<FRAME>\n");
+		sb.append(in1).append("<DESCRIPTION descriptionNumber=\"").append(pick(descNums))
+			.append("\" primary=\"").append(pick(primaries))
+			.append("\" secondary=\"").append(pick(secondaries))
+			.append("\" xtag=\"").append(random.nextBoolean() ? "" : pick(descNums)).append("\"/>\n");
+
+		// examples
+		sb.append(in1).append("<EXAMPLES>\n");
+		for(int i = 1 + random.nextInt(examplesPerFrame); i > 0; i--)
+			sb.append(in2).append("<EXAMPLE>Example sentence number ").append(random.nextInt(1000000)).append(".</EXAMPLE>\n");
+		sb.append(in1).append("</EXAMPLES>\n");
+
+		// syntax
+		sb.append(in1).append("<SYNTAX>\n");
+		sb.append(in2).append("<NP value=\"").append(pick(roles)).append("\"><SYNRESTRS/></NP>\n");
+		sb.append(in2).append("<VERB/>\n");
+		sb.append(in2).append("<NP value=\"").append(pick(roles)).append("\">");
+		if(random.nextInt(10) < 7){
+			sb.append("<SYNRESTRS/>");
+		} else {
+			appendSelRestrs(sb, 1 + random.nextInt(2), 0);
+		}
+		sb.append("</NP>\n");
+		if(random.nextBoolean()){
+			sb.append(in2).append("<PREP value=\"").append(pick(preps)).append("\"><SELRESTRS/></PREP>\n");
+			sb.append(in2).append("<NP value=\"").append(pick(roles)).append("\"><SYNRESTRS/></NP>\n");
+		}
+		sb.append(in1).append("</SYNTAX>\n");
+
+		// semantics
+		sb.append(in1).append("<SEMANTICS>\n");
+		for(int i = 1 + random.nextInt(3); i > 0; i--){
+			sb.append(in2).append("<PRED ");
+			if(random.nextInt(10) == 0)
+				sb.append("bool=\"!\" ");
+			sb.append("value=\"").append(pick(predicates)).append("\">");
+			sb.append("<ARGS><ARG type=\"Event\" value=\"").append(pick(events)).append("\"/>");
+			sb.append("<ARG type=\"ThemRole\" value=\"").append(pick(roles)).append("\"/></ARGS></PRED>\n");
+		}
+		sb.append(in1).append("</SEMANTICS>\n");
+		sb.append(indent).append("</FRAME>\n");
+	}
+
+	/**
+	 * Appends a selectional restrictions element with the specified number of
+	 * restrictions, possibly with a nested restrictions element.
+	 *
+	 * @param sb
+	 *            the builder to append to
+	 * @param count
+	 *            the number of restrictions; zero for an empty element
+	 * @param depth
+	 *            the nesting depth of this element
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void appendSelRestrs(StringBuilder sb, int count, int depth){
+		if(count == 0){
+			sb.append("<SELRESTRS/>");
+			return;
+		}
+		sb.append(random.nextInt(10) < 3 ? "<SELRESTRS logic=\"or\">" : "<SELRESTRS>");
+		for(int i = 0; i < count; i++)
+			sb.append("<SELRESTR Value=\"").append(random.nextBoolean() ? '+' : '-')
+				.append("\" type=\"").append(pick(restrictions)).append("\"/>");
+		if(depth < restrictionDepth && random.nextInt(5) == 0)
+			appendSelRestrs(sb, 1 + random.nextInt(2), depth+1);
+		sb.append("</SELRESTRS>");
+	}
+
+	/**
+	 * Returns a random element of the specified array.
+	 *
+	 * @param values
+	 *            the array to pick from
+	 * @return a random element of the array
+	 * @since JVerbnet 1.3.0
+	 */
+	protected String pick(String[] values){
+		return values[random.nextInt(values.length)];
+	}
+
+	/**
+	 * Returns a random permutation of the indexes of an array of the specified
+	 * length.
+	 *
+	 * @param length
+	 *            the length of the array
+	 * @return a random permutation of the indexes
+	 * @since JVerbnet 1.3.0
+	 */
+	protected int[] shuffledIndexes(int length){
+		int[] result = new int[length];
+		for(int i = 0; i < length; i++)
+			result[i] = i;
+		for(int i = length-1; i > 0; i--){
+			int j = random.nextInt(i+1);
+			int tmp = result[i];
+			result[i] = result[j];
+			result[j] = tmp;
+		}
+		return result;
+	}
+
+	/**
+	 * Appends a number in the range 0-99 as two digits.
+	 *
+	 * @param sb
+	 *            the builder to append to
+	 * @param n
+	 *            the number to append
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static void appendTwoDigits(StringBuilder sb, int n){
+		sb.append((char)('0' + n / 10)).append((char)('0' + n % 10));
+	}
+
+	/**
+	 * Throws an exception if the specified count is negative.
+	 *
+	 * @param name
+	 *            the name of the count, for the exception message
+	 * @param count
+	 *            the count to check
+	 * @return the count
+	 * @throws IllegalArgumentException
+	 *             if the count is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int checkCount(String name, int count){
+		if(count < 0)
+			throw new IllegalArgumentException(name + " may not be negative");
+		return count;
+	}
+
+	/**
+	 * Throws an exception if the specified count is not positive.
+	 *
+	 * @param name
+	 *            the name of the count, for the exception message
+	 * @param count
+	 *            the count to check
+	 * @return the count
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int checkPositive(String name, int count){
+		if(count < 1)
+			throw new IllegalArgumentException(name + " must be positive");
+		return count;
+	}
+
+	/**
+	 * Generates a corpus from the command line. The first argument is the
+	 * output directory. It may be followed by options of the form
+	 * <code>-name value</code>, where the names are <code>seed</code>,
+	 * <code>classes</code>, <code>depth</code>, <code>subclasses</code>,
+	 * <code>members</code>, <code>keys</code>, <code>groupings</code>,
+	 * <code>roles</code>, <code>frames</code>, <code>examples</code>, and
+	 * <code>restrictions</code>, corresponding to the setters of this class.
+	 *
+	 * @param args
+	 *            the output directory followed by options
+	 * @throws IOException
+	 *             if the corpus cannot be written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1 || args.length % 2 == 0){
+			System.err.println("usage: CorpusGenerator <output dir> [-seed n] [-classes n] [-depth n] [-subclasses n] [-members n] [-keys n] [-groupings n] [-roles n] [-frames n] [-examples n] [-restrictions n]");
+			System.exit(1);
+		}
+		CorpusGenerator gen = new CorpusGenerator();
+		for(int i = 1; i < args.length; i += 2){
+			String opt = args[i];
+			int value = Integer.parseInt(args[i+1]);
+			if(opt.equals("-seed")){
+				gen.setSeed(value);
+			} else if(opt.equals("-classes")){
+				gen.setClassCount(value);
+			} else if(opt.equals("-depth")){
+				gen.setSubclassDepth(value);
+			} else if(opt.equals("-subclasses")){
+				gen.setSubclassesPerClass(value);
+			} else if(opt.equals("-members")){
+				gen.setMembersPerClass(value);
+			} else if(opt.equals("-keys")){
+				gen.setKeysPerMember(value);
+			} else if(opt.equals("-groupings")){
+				gen.setGroupingsPerMember(value);
+			} else if(opt.equals("-roles")){
+				gen.setRolesPerClass(value);
+			} else if(opt.equals("-frames")){
+				gen.setFramesPerClass(value);
+			} else if(opt.equals("-examples")){
+				gen.setExamplesPerFrame(value);
+			} else if(opt.equals("-restrictions")){
+				gen.setRestrictionDepth(value);
+			} else {
+				throw new IllegalArgumentException("unknown option: " + opt);
+			}
+		}
+		int files = gen.generate(new File(args[0]));
+		System.out.println("Wrote " + files + " files to " + args[0]);
+	}
+
+}
@@ -0,0 +1,686 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.Buffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.mit.jverbnet.data.IFrame;
+import edu.mit.jverbnet.data.IMember;
+import edu.mit.jverbnet.data.IThematicRole;
+import edu.mit.jverbnet.data.IVerbClass;
+import edu.mit.jverbnet.data.IVerbnetType;
+import edu.mit.jverbnet.data.IWordnetKey;
+import edu.mit.jverbnet.data.selection.ISelRestrictions;
+import edu.mit.jverbnet.data.semantics.ISemanticDesc;
+import edu.mit.jverbnet.data.syntax.ISyntaxDesc;
+import edu.mit.jverbnet.index.VerbIndex;
+import edu.mit.jverbnet.util.collection.OffHeapStrings;
+
+/**
+ * Estimates the heap footprint of an open verb index, or of any other object
+ * graph built from this library. The analyzer walks every object reachable
+ * from the root, counting each object once, and attributes its size both to
+ * its type and to a structure category, such as the frames or the member
+ * indexes of the verb index. An object belongs to the category of the first
+ * path on which it is reached, unless its own type places it in a category
+ * of its own; see {@link #categoryOf(Object, String, String)}. Along the way,
+ * strings and value objects of the data package are checked for instances
+ * that are equal to one another, which could be shared.
+ * <p>
+ * Sizes are estimates for a 64-bit virtual machine with compressed
+ * references: objects have a {@value #OBJECT_HEADER}-byte header and are
+ * aligned to {@value #ALIGNMENT} bytes. The fields of the objects of this
+ * library are read by reflection. The internals of the collections of the
+ * Java platform are not, since they are not accessible on all virtual
+ * machines; instead, their sizes are estimated from their types and
+ * element counts, and their elements are reached through their public
+ * methods. Static fields, classes, and enum constants are not counted.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FootprintAnalyzer {
+
+	/**
+	 * The estimated size of an object header, in bytes
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int OBJECT_HEADER = 12;
+
+	/**
+	 * The estimated size of an array header, in bytes
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int ARRAY_HEADER = 16;
+
+	/**
+	 * The estimated size of a reference, in bytes
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int REFERENCE = 4;
+
+	/**
+	 * The alignment of objects, in bytes
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int ALIGNMENT = 8;
+
+	/**
+	 * The category of objects that are not placed in any other category
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final String CATEGORY_OTHER = "other";
+
+	// whether strings store their characters as bytes where possible
+	private static final boolean COMPACT_STRINGS = hasField(String.class, "coder");
+
+	// shallow sizes, by class
+	private final Map<Class<?>, Long> shallowSizes = new HashMap<Class<?>, Long>();
+
+	// instance fields, by class, or null if the fields are not accessible
+	private final Map<Class<?>, Field[]> fields = new HashMap<Class<?>, Field[]>();
+
+	// whether the instances of a class are checked for duplicates, by class
+	private final Map<Class<?>, Boolean> valueTypes = new HashMap<Class<?>, Boolean>();
+
+	// the state of the current walk
+	private Map<Object, Object> visited;
+	private Map<String, long[]> categories;
+	private Map<String, long[]> types;
+	private Map<Class<?>, Map<Object, Object>> values;
+	private Map<Class<?>, long[]> valueStats;
+	private long offHeapBytes;
+
+	/**
+	 * Estimates the footprint of the object graph reachable from the
+	 * specified root.
+	 *
+	 * @param root
+	 *            the root of the graph; may not be <code>null</code>
+	 * @return the footprint of the graph
+	 * @throws NullPointerException
+	 *             if the root is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized FootprintReport analyze(Object root){
+		NotNull.check("root", root);
+		visited = new IdentityHashMap<Object, Object>();
+		categories = new LinkedHashMap<String, long[]>();
+		types = new HashMap<String, long[]>();
+		values = new HashMap<Class<?>, Map<Object, Object>>();
+		valueStats = new HashMap<Class<?>, long[]>();
+		offHeapBytes = 0;
+		try {
+			walk(root);
+			List<FootprintReport.Duplication> dups = new ArrayList<FootprintReport.Duplication>();
+			for(Map.Entry<Class<?>, long[]> e : valueStats.entrySet()){
+				long[] stats = e.getValue();
+				dups.add(new FootprintReport.Duplication(e.getKey().getName(), stats[0], values.get(e.getKey()).size(), stats[1]));
+			}
+			return new FootprintReport(FootprintReport.toUsages(categories), FootprintReport.toUsages(types), dups, offHeapBytes);
+		} finally {
+			visited = null;
+			categories = null;
+			types = null;
+			values = null;
+			valueStats = null;
+		}
+	}
+
+	/**
+	 * Walks the graph from the specified root. The walk is depth-first, and
+	 * uses an explicit stack, so that deep graphs do not overflow the call
+	 * stack.
+	 *
+	 * @param root
+	 *            the root of the graph
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void walk(Object root){
+		List<Object> objs = new ArrayList<Object>();
+		List<String> cats = new ArrayList<String>();
+		objs.add(root);
+		cats.add(categoryOf(root, null, CATEGORY_OTHER));
+		List<Object> children = new ArrayList<Object>();
+		List<String> names = new ArrayList<String>();
+		while(!objs.isEmpty()){
+			Object obj = objs.remove(objs.size()-1);
+			String category = cats.remove(cats.size()-1);
+			if(visited.put(obj, obj) != null)
+				continue;
+
+			// measure
+			long size = sizeOf(obj);
+			add(categories, category, size);
+			add(types, obj.getClass().getName(), size);
+			checkDuplicate(obj, size);
+
+			// push the children in reverse, so that they are walked in order
+			children.clear();
+			names.clear();
+			addChildren(obj, children, names);
+			for(int i = children.size()-1; i >= 0; i--){
+				Object child = children.get(i);
+				if(child == null || isShared(child) || visited.containsKey(child))
+					continue;
+				objs.add(child);
+				cats.add(categoryOf(child, names.get(i), category));
+			}
+		}
+	}
+
+	/**
+	 * Returns the structure category of an object. This implementation
+	 * places the verb classes, members, roles, frames, examples, selectional
+	 * restrictions, syntax and semantics, wordnet keys, and Verbnet types in
+	 * categories of their own, and the collections held by the fields of a
+	 * verb index in a category named after the field. Other objects inherit
+	 * the category of the object from which they are reached. Subclasses may
+	 * override this method to refine the categories.
+	 *
+	 * @param obj
+	 *            the object; never <code>null</code>
+	 * @param field
+	 *            the name of the field from which the object is reached, or
+	 *            <code>null</code> if it is the root, an array element, or a
+	 *            collection element
+	 * @param parent
+	 *            the category of the object from which it is reached
+	 * @return the category of the object; never <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected String categoryOf(Object obj, String field, String parent){
+		if(obj instanceof VerbIndex)
+			return "index";
+		if(obj instanceof IVerbClass)
+			return "verb classes";
+		if(obj instanceof IMember)
+			return "members";
+		if(obj instanceof IThematicRole)
+			return "thematic roles";
+		if(obj instanceof IFrame)
+			return "frames";
+		if(obj instanceof ISelRestrictions)
+			return "restrictions";
+		if(obj instanceof ISyntaxDesc)
+			return "syntax";
+		if(obj instanceof ISemanticDesc)
+			return "semantics";
+		if(obj instanceof IWordnetKey)
+			return "wordnet keys";
+		if(obj instanceof IVerbnetType)
+			return "verbnet types";
+		if(obj instanceof OffHeapStrings)
+			return "examples";
+		if(field == null)
+			return parent;
+		if(parent.equals("frames") && field.equals("examples"))
+			return "examples";
+		if(parent.equals("index")){
+			if(field.equals("verbsById"))
+				return "verbsById";
+			if(field.equals("membersByKeys") || field.equals("membersWithNoKey"))
+				return "membersByKeys";
+			if(field.equals("membersByGroups") || field.equals("membersWithNoGroup"))
+				return "membersByGroups";
+		}
+		return parent;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified object is shared by the
+	 * whole virtual machine, and so is not counted: classes, enum constants,
+	 * threads, and class loaders.
+	 *
+	 * @param obj
+	 *            the object; never <code>null</code>
+	 * @return <code>true</code> if the object is not counted;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean isShared(Object obj){
+		return obj instanceof Class<?> ||
+				obj instanceof Enum<?> ||
+				obj instanceof Thread ||
+				obj instanceof ClassLoader;
+	}
+
+	/**
+	 * Adds the objects referred to by the specified object to the list of
+	 * children, along with the names of the fields that refer to them.
+	 *
+	 * @param obj
+	 *            the object
+	 * @param children
+	 *            the list to which the children are added
+	 * @param names
+	 *            the list to which the field names are added, or
+	 *            <code>null</code> for elements of arrays and collections
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void addChildren(Object obj, List<Object> children, List<String> names){
+		Class<?> c = obj.getClass();
+		if(c.isArray()){
+			if(c.getComponentType().isPrimitive())
+				return;
+			for(Object elem : (Object[])obj){
+				children.add(elem);
+				names.add(null);
+			}
+			return;
+		}
+		Field[] fs = getFields(c);
+		if(fs != null){
+			for(Field f : fs){
+				try {
+					children.add(f.get(obj));
+					names.add(f.getName());
+				} catch (IllegalAccessException e) {
+					// skip the field
+				}
+			}
+		} else if(obj instanceof Map<?,?>){
+			for(Map.Entry<?,?> e : ((Map<?,?>)obj).entrySet()){
+				children.add(e.getKey());
+				names.add(null);
+				children.add(e.getValue());
+				names.add(null);
+			}
+		} else if(obj instanceof Collection<?>){
+			for(Object elem : (Collection<?>)obj){
+				children.add(elem);
+				names.add(null);
+			}
+		}
+	}
+
+	/**
+	 * Returns the estimated size of the specified object, in bytes. For
+	 * strings, the size includes the character array; for collections of the
+	 * Java platform, it includes the estimated internal arrays and entries;
+	 * and for buffers, the size of the backing store is added to the
+	 * off-heap total if the buffer is direct.
+	 *
+	 * @param obj
+	 *            the object
+	 * @return the estimated size of the object
+	 * @since JVerbnet 1.3.0
+	 */
+	protected long sizeOf(Object obj){
+		Class<?> c = obj.getClass();
+		if(c.isArray())
+			return arraySize(c.getComponentType(), Array.getLength(obj));
+		long size = shallowSize(c);
+		if(getFields(c) != null)
+			return size;
+		if(obj instanceof String){
+			String s = (String)obj;
+			boolean wide = !COMPACT_STRINGS;
+			for(int i = 0; !wide && i < s.length(); i++)
+				wide = s.charAt(i) > 0xFF;
+			return size + arraySize(wide ? char.class : byte.class, s.length());
+		}
+		if(obj instanceof Buffer){
+			Buffer b = (Buffer)obj;
+			if(b.isDirect())
+				offHeapBytes += b.capacity();
+			return size;
+		}
+		if(obj instanceof Map<?,?>)
+			return size + collectionSize(c.getName(), ((Map<?,?>)obj).size(), true);
+		if(obj instanceof Collection<?>)
+			return size + collectionSize(c.getName(), ((Collection<?>)obj).size(), false);
+		return size;
+	}
+
+	/**
+	 * Returns the estimated size of the internal arrays and entries of a
+	 * collection of the Java platform, in bytes, excluding the collection
+	 * object itself and its elements.
+	 *
+	 * @param className
+	 *            the name of the class of the collection
+	 * @param n
+	 *            the number of elements in the collection
+	 * @param isMap
+	 *            <code>true</code> if the collection is a map;
+	 *            <code>false</code> otherwise
+	 * @return the estimated internal size of the collection
+	 * @since JVerbnet 1.3.0
+	 */
+	protected long collectionSize(String className, int n, boolean isMap){
+		if(className.startsWith("java.util.Collections$Empty") || className.startsWith("java.util.Collections$Singleton"))
+			return 0;
+		if(className.startsWith("java.util.Collections$"))
+			// wrappers, whose wrapped collection is estimated as a tree map
+			// or array list
+			return (n == 0) ? 0 : isMap ?
+					n * shallowSize("java.util.TreeMap$Entry", 40) + shallowSize("java.util.TreeMap", 48) :
+						arraySize(Object.class, n) + shallowSize("java.util.ArrayList", 24);
+		if(className.contains("Tree"))
+			return n * shallowSize("java.util.TreeMap$Entry", 40) + (isMap ? 0 : shallowSize("java.util.TreeMap", 48));
+		if(className.contains("Hash")){
+			boolean linked = className.contains("Linked");
+			long entry = linked ?
+					shallowSize("java.util.LinkedHashMap$Entry", 40) :
+						shallowSize("java.util.HashMap$Node", 32);
+			int capacity = 16;
+			while(capacity * 3 / 4 < n)
+				capacity <<= 1;
+			long size = n * entry + arraySize(Object.class, capacity);
+			if(!isMap)
+				size += shallowSize(linked ? "java.util.LinkedHashMap" : "java.util.HashMap", 48);
+			return size;
+		}
+		if(className.contains("Linked"))
+			return n * shallowSize("java.util.LinkedList$Node", 24);
+		return arraySize(Object.class, n);
+	}
+
+	/**
+	 * Records the specified object, if it is a string or a value object of
+	 * the data package, so that duplicates can be counted.
+	 *
+	 * @param obj
+	 *            the object
+	 * @param size
+	 *            the estimated size of the object
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void checkDuplicate(Object obj, long size){
+		Class<?> c = obj.getClass();
+		if(!isValueType(c))
+			return;
+		Map<Object, Object> seen = values.get(c);
+		long[] stats = valueStats.get(c);
+		if(seen == null){
+			seen = new HashMap<Object, Object>();
+			values.put(c, seen);
+			stats = new long[2];
+			valueStats.put(c, stats);
+		}
+		stats[0]++;
+		if(seen.put(obj, obj) != null)
+			stats[1] += size;
+	}
+
+	/**
+	 * Returns <code>true</code> if the instances of the specified class are
+	 * checked for duplicates. This implementation checks strings, and the
+	 * classes of the data package that define equality by value.
+	 *
+	 * @param c
+	 *            the class
+	 * @return <code>true</code> if the instances of the class are checked for
+	 *         duplicates; <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean isValueType(Class<?> c){
+		Boolean result = valueTypes.get(c);
+		if(result == null){
+			boolean value = c == String.class;
+			if(!value && c.getName().startsWith("edu.mit.jverbnet.data.")){
+				try {
+					value = c.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+				} catch (NoSuchMethodException e) {
+					value = false;
+				}
+			}
+			result = Boolean.valueOf(value);
+			valueTypes.put(c, result);
+		}
+		return result.booleanValue();
+	}
+
+	/**
+	 * Returns the instance fields of the specified class and its
+	 * superclasses, made accessible, or <code>null</code> if the class
+	 * belongs to the Java platform, whose fields are not read.
+	 *
+	 * @param c
+	 *            the class
+	 * @return the accessible instance fields of the class, or
+	 *         <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected Field[] getFields(Class<?> c){
+		if(fields.containsKey(c))
+			return fields.get(c);
+		Field[] result = null;
+		if(!isPlatformClass(c)){
+			List<Field> list = new ArrayList<Field>();
+			for(Class<?> k = c; k != null; k = k.getSuperclass()){
+				if(isPlatformClass(k))
+					continue;
+				for(Field f : k.getDeclaredFields()){
+					if(Modifier.isStatic(f.getModifiers()) || f.getType().isPrimitive())
+						continue;
+					f.setAccessible(true);
+					list.add(f);
+				}
+			}
+			result = list.toArray(new Field[list.size()]);
+		}
+		fields.put(c, result);
+		return result;
+	}
+
+	/**
+	 * Returns the estimated shallow size of an instance of the specified
+	 * class: its header, plus its instance fields, including inherited ones,
+	 * rounded up to the alignment.
+	 *
+	 * @param c
+	 *            the class
+	 * @return the estimated shallow size of an instance of the class
+	 * @since JVerbnet 1.3.0
+	 */
+	protected long shallowSize(Class<?> c){
+		Long result = shallowSizes.get(c);
+		if(result == null){
+			long size = OBJECT_HEADER;
+			for(Class<?> k = c; k != null; k = k.getSuperclass())
+				for(Field f : k.getDeclaredFields())
+					if(!Modifier.isStatic(f.getModifiers()))
+						size += fieldSize(f.getType());
+			result = Long.valueOf(align(size));
+			shallowSizes.put(c, result);
+		}
+		return result.longValue();
+	}
+
+	/**
+	 * Returns the estimated shallow size of an instance of the named class,
+	 * or the specified default if the class cannot be found.
+	 *
+	 * @param className
+	 *            the name of the class
+	 * @param defaultSize
+	 *            the size to use if the class cannot be found
+	 * @return the estimated shallow size of an instance of the class
+	 * @since JVerbnet 1.3.0
+	 */
+	protected long shallowSize(String className, long defaultSize){
+		try {
+			return shallowSize(Class.forName(className));
+		} catch (ClassNotFoundException e) {
+			return defaultSize;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified class belongs to the Java
+	 * platform.
+	 *
+	 * @param c
+	 *            the class
+	 * @return <code>true</code> if the class belongs to the Java platform;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean isPlatformClass(Class<?> c){
+		String name = c.getName();
+		return name.startsWith("java.") ||
+				name.startsWith("javax.") ||
+				name.startsWith("sun.") ||
+				name.startsWith("com.sun.") ||
+				name.startsWith("jdk.");
+	}
+
+	/**
+	 * Returns the estimated size of an array, in bytes.
+	 *
+	 * @param type
+	 *            the component type of the array
+	 * @param length
+	 *            the length of the array
+	 * @return the estimated size of the array
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static long arraySize(Class<?> type, int length){
+		return align(ARRAY_HEADER + (long)length * fieldSize(type));
+	}
+
+	/**
+	 * Returns the size of a field or array element of the specified type, in
+	 * bytes.
+	 *
+	 * @param type
+	 *            the type of the field
+	 * @return the size of the field
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int fieldSize(Class<?> type){
+		if(!type.isPrimitive())
+			return REFERENCE;
+		if(type == long.class || type == double.class)
+			return 8;
+		if(type == int.class || type == float.class)
+			return 4;
+		if(type == short.class || type == char.class)
+			return 2;
+		return 1;
+	}
+
+	/**
+	 * Rounds the specified size up to the alignment.
+	 *
+	 * @param size
+	 *            the size
+	 * @return the aligned size
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static long align(long size){
+		return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	/**
+	 * Adds an object of the specified size to the named accumulator.
+	 *
+	 * @param map
+	 *            the accumulators
+	 * @param name
+	 *            the name of the accumulator
+	 * @param size
+	 *            the size of the object
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static void add(Map<String, long[]> map, String name, long size){
+		long[] acc = map.get(name);
+		if(acc == null){
+			acc = new long[2];
+			map.put(name, acc);
+		}
+		acc[0]++;
+		acc[1] += size;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified class declares a field with
+	 * the specified name.
+	 *
+	 * @param c
+	 *            the class
+	 * @param name
+	 *            the name of the field
+	 * @return <code>true</code> if the field exists; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean hasField(Class<?> c, String name){
+		try {
+			c.getDeclaredField(name);
+			return true;
+		} catch (NoSuchFieldException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Prints the footprint of a verb index to standard out. The last argument
+	 * is the location of the Verbnet data, or <code>-</code> to use a
+	 * generated corpus, which is also used if there are no arguments. It may
+	 * be preceded by the options <code>-nopool</code>, <code>-noshare</code>,
+	 * and <code>-offheap</code>, which turn off string pooling, turn off
+	 * value sharing, and turn on off-heap examples, respectively.
+	 *
+	 * @param args
+	 *            the options, followed by the data location
+	 * @throws Exception
+	 *             if the index cannot be opened
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws Exception {
+		String path = (args.length < 1) ? "-" : args[args.length-1];
+		File data = path.equals("-") ?
+				CorpusGenerator.generateTemporaryCorpus() :
+					new File(path);
+		VerbIndex index = new VerbIndex(data);
+		for(int i = 0; i < args.length-1; i++){
+			String opt = args[i];
+			if(opt.equals("-nopool")){
+				index.setPoolStrings(false);
+			} else if(opt.equals("-noshare")){
+				index.setShareValues(false);
+			} else if(opt.equals("-offheap")){
+				index.setOffHeapExamples(true);
+			} else {
+				throw new IllegalArgumentException("unknown option: " + opt);
+			}
+		}
+		if(!index.open())
+			throw new IllegalStateException("unable to open index at " + data);
+		System.out.println("Footprint of " + data);
+		System.out.println();
+		System.out.print(new FootprintAnalyzer().analyze(index));
+		index.close();
+	}
+
+}
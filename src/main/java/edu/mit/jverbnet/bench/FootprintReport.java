@@ -0,0 +1,452 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The estimated heap footprint of an object graph, as computed by a
+ * {@link FootprintAnalyzer}. The footprint is broken down by structure
+ * category and by object type, and is accompanied by the duplication found
+ * among strings and value objects. All sizes are in bytes.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FootprintReport {
+
+	// unchanging fields
+	private final List<Usage> categories;
+	private final List<Usage> types;
+	private final List<Duplication> duplications;
+	private final long offHeapBytes;
+
+	/**
+	 * Creates a new footprint report.
+	 *
+	 * @param categories
+	 *            the usage of each structure category; may not be
+	 *            <code>null</code>
+	 * @param types
+	 *            the usage of each object type; may not be <code>null</code>
+	 * @param duplications
+	 *            the duplication found for each type that was checked; may
+	 *            not be <code>null</code>
+	 * @param offHeapBytes
+	 *            the number of bytes held outside of the heap by direct
+	 *            buffers in the graph
+	 * @throws NullPointerException
+	 *             if any of the lists is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public FootprintReport(List<Usage> categories, List<Usage> types, List<Duplication> duplications, long offHeapBytes){
+		this.categories = sorted(NotNull.check("categories", categories));
+		this.types = sorted(NotNull.check("types", types));
+		this.duplications = sorted(NotNull.check("duplications", duplications));
+		this.offHeapBytes = offHeapBytes;
+	}
+
+	/**
+	 * Returns the usage of each structure category, largest first.
+	 *
+	 * @return an unmodifiable list of category usages
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Usage> getCategories(){
+		return categories;
+	}
+
+	/**
+	 * Returns the usage of each object type, largest first.
+	 *
+	 * @return an unmodifiable list of type usages
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Usage> getTypes(){
+		return types;
+	}
+
+	/**
+	 * Returns the duplication found for each type that was checked, most
+	 * wasteful first.
+	 *
+	 * @return an unmodifiable list of duplications
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Duplication> getDuplications(){
+		return duplications;
+	}
+
+	/**
+	 * Returns the usage of the specified category or type, or
+	 * <code>null</code> if there is none.
+	 *
+	 * @param usages
+	 *            the usages to search
+	 * @param name
+	 *            the name of the category or type
+	 * @return the usage with the name, or <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Usage find(List<Usage> usages, String name){
+		for(Usage u : usages)
+			if(u.getName().equals(name))
+				return u;
+		return null;
+	}
+
+	/**
+	 * Returns the estimated number of bytes the graph occupies on the heap.
+	 *
+	 * @return the estimated heap bytes of the graph
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getTotalBytes(){
+		long total = 0;
+		for(Usage u : categories)
+			total += u.getBytes();
+		return total;
+	}
+
+	/**
+	 * Returns the number of objects in the graph.
+	 *
+	 * @return the number of objects in the graph
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getTotalCount(){
+		long total = 0;
+		for(Usage u : categories)
+			total += u.getCount();
+		return total;
+	}
+
+	/**
+	 * Returns the number of bytes held outside of the heap by direct buffers
+	 * in the graph.
+	 *
+	 * @return the number of off-heap bytes
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getOffHeapBytes(){
+		return offHeapBytes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		Formatter f = new Formatter();
+		long total = getTotalBytes();
+		f.format("Total: %,d bytes in %,d objects", total, getTotalCount());
+		if(offHeapBytes > 0)
+			f.format(", plus %,d bytes off-heap", offHeapBytes);
+		f.format("%n%nBy category:%n");
+		for(Usage u : categories)
+			f.format("  %-56s %s%n", u.getName(), u.toString(total));
+		f.format("%nBy type:%n");
+		for(Usage u : types)
+			f.format("  %-56s %s%n", u.getName(), u.toString(total));
+		f.format("%nDuplication:%n");
+		for(Duplication d : duplications)
+			f.format("  %s%n", d);
+		return f.toString();
+	}
+
+	/**
+	 * Returns an unmodifiable copy of the specified list, sorted in
+	 * descending order of size.
+	 *
+	 * @param list
+	 *            the list to sort
+	 * @return the sorted, unmodifiable copy
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static <T extends Sized> List<T> sorted(List<T> list){
+		List<T> result = new ArrayList<T>(list);
+		Collections.sort(result, new Comparator<T>() {
+			public int compare(T a, T b) {
+				long x = a.getSortBytes(), y = b.getSortBytes();
+				return (x < y) ? 1 : (x == y) ? 0 : -1;
+			}
+		});
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns usages for the specified accumulators, in the order of the
+	 * map.
+	 *
+	 * @param map
+	 *            a map from names to accumulated counts and bytes
+	 * @return a list of usages
+	 * @since JVerbnet 1.3.0
+	 */
+	public static List<Usage> toUsages(Map<String, long[]> map){
+		List<Usage> result = new ArrayList<Usage>(map.size());
+		for(Map.Entry<String, long[]> e : map.entrySet())
+			result.add(new Usage(e.getKey(), e.getValue()[0], e.getValue()[1]));
+		return result;
+	}
+
+	/**
+	 * An entry of the report that can be sorted by size.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected interface Sized {
+
+		/**
+		 * Returns the number of bytes by which the entry is sorted.
+		 *
+		 * @return the number of bytes by which the entry is sorted
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getSortBytes();
+
+	}
+
+	/**
+	 * The number of objects and bytes attributed to a structure category or
+	 * object type.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public static class Usage implements Sized {
+
+		// unchanging fields
+		private final String name;
+		private final long count;
+		private final long bytes;
+
+		/**
+		 * Creates a new usage.
+		 *
+		 * @param name
+		 *            the name of the category or type; may not be
+		 *            <code>null</code>, empty, or all whitespace
+		 * @param count
+		 *            the number of objects
+		 * @param bytes
+		 *            the estimated number of bytes
+		 * @throws NullPointerException
+		 *             if the name is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the name is empty or all whitespace
+		 * @since JVerbnet 1.3.0
+		 */
+		public Usage(String name, long count, long bytes){
+			this.name = NotNullEmptyOrBlank.check("name", name);
+			this.count = count;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Returns the name of the category or type.
+		 *
+		 * @return the name of the category or type
+		 * @since JVerbnet 1.3.0
+		 */
+		public String getName(){
+			return name;
+		}
+
+		/**
+		 * Returns the number of objects.
+		 *
+		 * @return the number of objects
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getCount(){
+			return count;
+		}
+
+		/**
+		 * Returns the estimated number of bytes.
+		 *
+		 * @return the estimated number of bytes
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getBytes(){
+			return bytes;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see edu.mit.jverbnet.bench.FootprintReport.Sized#getSortBytes()
+		 */
+		public long getSortBytes() {
+			return bytes;
+		}
+
+		/**
+		 * Renders this usage, including its share of the specified total.
+		 *
+		 * @param total
+		 *            the total number of bytes
+		 * @return the rendered usage
+		 * @since JVerbnet 1.3.0
+		 */
+		public String toString(long total){
+			Formatter f = new Formatter();
+			f.format("%,14d bytes %5.1f%% %,12d objects", bytes, (total == 0) ? 0.0 : 100.0 * bytes / total, count);
+			return f.toString();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return name + ": " + bytes + " bytes in " + count + " objects";
+		}
+
+	}
+
+	/**
+	 * The duplication found among the objects of a single type: how many
+	 * instances are equal to an instance seen earlier, and how many bytes the
+	 * extra instances occupy. For strings, the bytes include the character
+	 * arrays; for other types, only the duplicate objects themselves are
+	 * counted, not the objects they refer to.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public static class Duplication implements Sized {
+
+		// unchanging fields
+		private final String type;
+		private final long instances;
+		private final long distinct;
+		private final long wastedBytes;
+
+		/**
+		 * Creates a new duplication.
+		 *
+		 * @param type
+		 *            the name of the type; may not be <code>null</code>,
+		 *            empty, or all whitespace
+		 * @param instances
+		 *            the number of instances of the type
+		 * @param distinct
+		 *            the number of distinct values among the instances
+		 * @param wastedBytes
+		 *            the estimated number of bytes occupied by instances
+		 *            equal to an earlier instance
+		 * @throws NullPointerException
+		 *             if the type is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the type is empty or all whitespace
+		 * @since JVerbnet 1.3.0
+		 */
+		public Duplication(String type, long instances, long distinct, long wastedBytes){
+			this.type = NotNullEmptyOrBlank.check("type", type);
+			this.instances = instances;
+			this.distinct = distinct;
+			this.wastedBytes = wastedBytes;
+		}
+
+		/**
+		 * Returns the name of the type.
+		 *
+		 * @return the name of the type
+		 * @since JVerbnet 1.3.0
+		 */
+		public String getType(){
+			return type;
+		}
+
+		/**
+		 * Returns the number of instances of the type.
+		 *
+		 * @return the number of instances
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getInstances(){
+			return instances;
+		}
+
+		/**
+		 * Returns the number of distinct values among the instances.
+		 *
+		 * @return the number of distinct values
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getDistinct(){
+			return distinct;
+		}
+
+		/**
+		 * Returns the number of instances equal to an earlier instance.
+		 *
+		 * @return the number of duplicate instances
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getDuplicates(){
+			return instances - distinct;
+		}
+
+		/**
+		 * Returns the estimated number of bytes occupied by the duplicate
+		 * instances.
+		 *
+		 * @return the estimated number of wasted bytes
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getWastedBytes(){
+			return wastedBytes;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see edu.mit.jverbnet.bench.FootprintReport.Sized#getSortBytes()
+		 */
+		public long getSortBytes() {
+			return wastedBytes;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			Formatter f = new Formatter();
+			f.format("%-56s %,10d instances %,10d distinct %,10d duplicates %,14d bytes wasted", type, instances, distinct, getDuplicates(), wastedBytes);
+			return f.toString();
+		}
+
+	}
+
+}
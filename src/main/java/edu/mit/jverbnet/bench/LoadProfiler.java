@@ -0,0 +1,793 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import edu.mit.jverbnet.data.IVerbClass;
+import edu.mit.jverbnet.data.IWordnetKey;
+import edu.mit.jverbnet.index.LoadPhase;
+import edu.mit.jverbnet.index.LoadReport;
+import edu.mit.jverbnet.index.Lookup;
+import edu.mit.jverbnet.index.LookupMetrics;
+import edu.mit.jverbnet.index.VerbIndex;
+import edu.mit.jverbnet.util.metrics.LatencyHistogram;
+
+/**
+ * Profiles the loading and querying of Verbnet data from the command line.
+ * The data may be a directory of XML files, a single XML file, a URL, or a
+ * zip or jar archive, whose XML entries are extracted to a temporary
+ * directory first. The profile lists:
+ * <ul>
+ * <li>the time of each phase of the load, as reported to a
+ * {@link LoadReport};</li>
+ * <li>the numbers of verb classes, members, wordnet keys, groupings,
+ * thematic roles, and frames in the index;</li>
+ * <li>the warnings and errors of the load;</li>
+ * <li>the peak heap during the load, as the sum of the peak usage of each
+ * heap memory pool, which is an upper bound, and the heap retained by the
+ * loaded index, measured after garbage collection; and</li>
+ * <li>the throughput and latency percentiles of a workload of random
+ * lookups.</li>
+ * </ul>
+ * The workload is a mix of the four lookup methods of the index, chosen at
+ * random in configurable proportions, with a configurable fraction of
+ * lookups for ids and groupings that are not in the index. The operations
+ * are generated in advance, and run three times: once to warm up, once
+ * without metrics to measure throughput, and once with {@link LookupMetrics}
+ * attached to measure latency, so that the cost of timing each lookup does
+ * not reduce the throughput.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class LoadProfiler {
+
+	/**
+	 * The default number of lookups in the workload
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_OPERATIONS = 1000000;
+
+	/**
+	 * The default mix of lookups in the workload
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final String DEFAULT_MIX = "verb:4,root:1,key:3,group:2";
+
+	/**
+	 * The names of the lookups in a mix, in the order of {@link #LOOKUPS}
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static final String[] MIX_NAMES = { "verb", "root", "key", "group" };
+
+	/**
+	 * The lookups that make up the workload
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static final Lookup[] LOOKUPS = {
+		Lookup.GET_VERB,
+		Lookup.GET_ROOT_VERB,
+		Lookup.GET_MEMBERS_BY_KEY,
+		Lookup.GET_MEMBERS_BY_GROUP,
+	};
+
+	// the number of warnings and errors printed in full
+	private static final int MAX_PROBLEMS = 20;
+
+	// configuration
+	private int operations = DEFAULT_OPERATIONS;
+	private int threads = 1;
+	private String mix = DEFAULT_MIX;
+	private int[] weights = parseMix(DEFAULT_MIX);
+	private double missRate = 0;
+	private long seed = 0;
+	private PrintStream out = System.out;
+
+	/**
+	 * Sets the number of lookups in the workload.
+	 *
+	 * @param count
+	 *            the number of lookups; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the count is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setOperations(int count){
+		if(count < 0)
+			throw new IllegalArgumentException("operation count may not be negative");
+		operations = count;
+	}
+
+	/**
+	 * Returns the number of lookups in the workload.
+	 *
+	 * @return the number of lookups
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getOperations(){
+		return operations;
+	}
+
+	/**
+	 * Sets the number of threads that run the workload, which is divided
+	 * evenly among them.
+	 *
+	 * @param count
+	 *            the number of threads; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setThreads(int count){
+		if(count < 1)
+			throw new IllegalArgumentException("thread count must be positive");
+		threads = count;
+	}
+
+	/**
+	 * Returns the number of threads that run the workload.
+	 *
+	 * @return the number of threads
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getThreads(){
+		return threads;
+	}
+
+	/**
+	 * Sets the mix of lookups in the workload, as a comma-separated list of
+	 * <code>name:weight</code> pairs, where the names are <code>verb</code>,
+	 * <code>root</code>, <code>key</code>, and <code>group</code>, for
+	 * {@link VerbIndex#getVerb(String)}, {@link VerbIndex#getRootVerb(String)},
+	 * {@link VerbIndex#getMembers(IWordnetKey)}, and
+	 * {@link VerbIndex#getMembers(String)}. Lookups that are not listed are not
+	 * performed.
+	 *
+	 * @param mix
+	 *            the mix; may not be <code>null</code>, empty, or all
+	 *            whitespace
+	 * @throws NullPointerException
+	 *             if the mix is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the mix is empty, all whitespace, or malformed, or its
+	 *             weights do not add up to a positive number
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setMix(String mix){
+		mix = NotNullEmptyOrBlank.check("mix", mix);
+		weights = parseMix(mix);
+		this.mix = mix;
+	}
+
+	/**
+	 * Returns the mix of lookups in the workload.
+	 *
+	 * @return the mix of lookups
+	 * @since JVerbnet 1.3.0
+	 */
+	public String getMix(){
+		return mix;
+	}
+
+	/**
+	 * Sets the fraction of verb class and grouping lookups that are for ids
+	 * and groupings that are not in the index.
+	 *
+	 * @param rate
+	 *            the miss rate, between 0 and 1 inclusive
+	 * @throws IllegalArgumentException
+	 *             if the rate is not between 0 and 1
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setMissRate(double rate){
+		if(rate < 0 || rate > 1)
+			throw new IllegalArgumentException("miss rate must be between 0 and 1");
+		missRate = rate;
+	}
+
+	/**
+	 * Returns the fraction of verb class and grouping lookups that are for
+	 * ids and groupings that are not in the index.
+	 *
+	 * @return the miss rate
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getMissRate(){
+		return missRate;
+	}
+
+	/**
+	 * Sets the seed from which the workload is generated.
+	 *
+	 * @param seed
+	 *            the seed
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setSeed(long seed){
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the seed from which the workload is generated.
+	 *
+	 * @return the seed
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getSeed(){
+		return seed;
+	}
+
+	/**
+	 * Sets the stream to which the profile is printed.
+	 *
+	 * @param out
+	 *            the stream; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the stream is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setOut(PrintStream out){
+		this.out = NotNull.check("out", out);
+	}
+
+	/**
+	 * Loads the specified index, which must not be open, prints its profile,
+	 * runs the workload against it, and closes it.
+	 *
+	 * @param index
+	 *            the index to profile; may not be <code>null</code>
+	 * @return <code>true</code> if the index was loaded; <code>false</code>
+	 *         otherwise
+	 * @throws NullPointerException
+	 *             if the index is <code>null</code>
+	 * @throws IllegalStateException
+	 *             if the index is already open
+	 * @throws IOException
+	 *             if there is an IO error while loading
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean profile(VerbIndex index) throws IOException, InterruptedException {
+		NotNull.check("index", index);
+		if(index.isOpen())
+			throw new IllegalStateException("index is already open");
+
+		// load
+		LoadReport report = new LoadReport();
+		index.setLoadListener(report);
+		long before = usedHeapAfterGC();
+		List<MemoryPoolMXBean> pools = heapPools();
+		for(MemoryPoolMXBean pool : pools)
+			pool.resetPeakUsage();
+		boolean loaded = index.open();
+		long peak = 0;
+		for(MemoryPoolMXBean pool : pools)
+			peak += pool.getPeakUsage().getUsed();
+		index.setLoadListener(null);
+		try {
+			printLoad(report);
+			if(!loaded)
+				return false;
+			long retained = usedHeapAfterGC() - before;
+			printContents(index);
+			out.println();
+			out.println("Heap:");
+			out.format("  peak during load     %,14d bytes%n", peak);
+			out.format("  retained by index    %,14d bytes%n", Math.max(0, retained));
+			if(operations > 0){
+				out.println();
+				runWorkload(index);
+			}
+			return true;
+		} finally {
+			index.close();
+		}
+	}
+
+	/**
+	 * Prints the time of each phase, and the warnings and errors, of a load.
+	 *
+	 * @param report
+	 *            the report of the load
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void printLoad(LoadReport report){
+		out.format("Load of %s %s in %.1f ms%n", report.getURL(), report.isSuccessful() ? "succeeded" : "failed", report.getTotalNanos() / 1e6);
+		out.format("  files: %,d, bytes: %,d%n", report.getFiles().size(), report.getTotalBytes());
+		out.println("  phases:");
+		for(LoadPhase phase : LoadPhase.values())
+			out.format("    %-16s %10.1f ms%n", phase, report.getPhaseNanos(phase) / 1e6);
+		printProblems("warnings", report.getWarnings());
+		printProblems("errors", report.getErrors());
+	}
+
+	/**
+	 * Prints a list of problems, truncated if it is long.
+	 *
+	 * @param label
+	 *            the label of the list
+	 * @param problems
+	 *            the problems
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void printProblems(String label, List<String> problems){
+		out.format("  %s: %,d%n", label, problems.size());
+		for(String p : problems.subList(0, Math.min(MAX_PROBLEMS, problems.size())))
+			out.println("    " + p);
+		if(problems.size() > MAX_PROBLEMS)
+			out.format("    ... and %,d more%n", problems.size() - MAX_PROBLEMS);
+	}
+
+	/**
+	 * Prints the numbers of the objects in the specified open index.
+	 *
+	 * @param index
+	 *            the open index
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void printContents(VerbIndex index){
+		int classes = 0, roots = 0, members = 0, roles = 0, frames = 0, keys = 0, groups = 0;
+		for(Iterator<IVerbClass> i = index.iterator(); i.hasNext(); ){
+			IVerbClass vc = i.next();
+			classes++;
+			if(vc.isRoot())
+				roots++;
+			members += vc.getMembers().size();
+			roles += vc.getThematicRoles().size();
+			frames += vc.getFrames().size();
+		}
+		for(Iterator<IWordnetKey> i = index.iteratorWordnetKeys(); i.hasNext(); i.next())
+			keys++;
+		for(Iterator<String> i = index.iteratorGroups(); i.hasNext(); i.next())
+			groups++;
+		out.println();
+		out.println("Contents:");
+		out.format("  verb classes         %,14d (%,d root)%n", classes, roots);
+		out.format("  members              %,14d%n", members);
+		out.format("  wordnet keys         %,14d%n", keys);
+		out.format("  groupings            %,14d%n", groups);
+		out.format("  thematic roles       %,14d%n", roles);
+		out.format("  frames               %,14d%n", frames);
+	}
+
+	/**
+	 * Generates and runs the workload against the specified open index, and
+	 * prints its throughput and latencies.
+	 *
+	 * @param index
+	 *            the open index
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void runWorkload(VerbIndex index) throws InterruptedException {
+		// inputs
+		List<String> idList = new ArrayList<String>();
+		for(Iterator<IVerbClass> i = index.iterator(); i.hasNext(); )
+			idList.add(i.next().getID());
+		List<String> rootList = new ArrayList<String>();
+		for(Iterator<IVerbClass> i = index.iteratorRoots(); i.hasNext(); )
+			rootList.add(i.next().getID());
+		List<IWordnetKey> keyList = new ArrayList<IWordnetKey>();
+		for(Iterator<IWordnetKey> i = index.iteratorWordnetKeys(); i.hasNext(); )
+			keyList.add(i.next());
+		List<String> groupList = new ArrayList<String>();
+		for(Iterator<String> i = index.iteratorGroups(); i.hasNext(); )
+			groupList.add(i.next());
+		Object[][] inputs = {
+			idList.toArray(),
+			rootList.toArray(),
+			keyList.toArray(),
+			groupList.toArray(),
+		};
+
+		// generate the operations of each thread
+		int[] w = weights.clone();
+		for(int i = 0; i < w.length; i++)
+			if(inputs[i].length == 0)
+				w[i] = 0;
+		int total = 0;
+		for(int x : w)
+			total += x;
+		if(total == 0){
+			out.println("Workload: no lookups possible on an empty index");
+			return;
+		}
+		Workload[] workloads = new Workload[threads];
+		for(int t = 0; t < threads; t++){
+			int n = operations / threads + ((t < operations % threads) ? 1 : 0);
+			workloads[t] = new Workload(n, w, total, inputs, missRate, new Random(seed + t));
+		}
+
+		// warm up, measure throughput, then measure latency
+		run(index, workloads);
+		long nanos = run(index, workloads);
+		LookupMetrics metrics = new LookupMetrics();
+		index.setLookupMetrics(metrics);
+		try {
+			run(index, workloads);
+		} finally {
+			index.setLookupMetrics(null);
+		}
+
+		out.format("Workload: %,d lookups on %d thread%s, mix %s, miss rate %.2f, seed %d%n", operations, threads, (threads == 1) ? "" : "s", mix, missRate, seed);
+		out.format("  throughput           %,14.0f ops/s%n", (nanos == 0) ? 0.0 : operations * 1e9 / nanos);
+		out.println("  latency (ns):");
+		out.format("    %-22s %12s %8s %8s %8s %8s %8s %8s %10s%n", "lookup", "count", "miss", "mean", "p50", "p90", "p99", "p99.9", "max");
+		for(Lookup type : LOOKUPS){
+			LatencyHistogram h = metrics.getLatencies(type);
+			if(h.getCount() == 0)
+				continue;
+			out.format("    %-22s %,12d %7.1f%% %8.0f %8d %8d %8d %8d %10d%n", type, h.getCount(),
+					100 * metrics.getMissRate(type), h.getMean(),
+					h.getValueAtQuantile(0.5), h.getValueAtQuantile(0.9),
+					h.getValueAtQuantile(0.99), h.getValueAtQuantile(0.999),
+					h.getMax());
+		}
+	}
+
+	/**
+	 * Runs each of the specified workloads on its own thread, and returns the
+	 * time from their start until the last one finished.
+	 *
+	 * @param index
+	 *            the open index
+	 * @param workloads
+	 *            the workloads, one for each thread
+	 * @return the elapsed time, in nanoseconds
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted
+	 * @since JVerbnet 1.3.0
+	 */
+	protected long run(final VerbIndex index, Workload[] workloads) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[workloads.length];
+		for(int t = 0; t < workloads.length; t++){
+			final Workload workload = workloads[t];
+			workers[t] = new Thread("workload-" + t) {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					workload.run(index);
+				}
+			};
+			workers[t].setDaemon(true);
+			workers[t].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for(Thread w : workers)
+			w.join();
+		return System.nanoTime() - begin;
+	}
+
+	/**
+	 * Parses a mix of lookups.
+	 *
+	 * @param mix
+	 *            the mix, as described in {@link #setMix(String)}
+	 * @return the weight of each lookup, in the order of {@link #MIX_NAMES}
+	 * @throws IllegalArgumentException
+	 *             if the mix is malformed, or its weights do not add up to a
+	 *             positive number
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int[] parseMix(String mix){
+		int[] result = new int[MIX_NAMES.length];
+		int total = 0;
+		for(String part : mix.split(",")){
+			int colon = part.indexOf(':');
+			if(colon < 0)
+				throw new IllegalArgumentException("mix entry is not of the form name:weight: " + part);
+			String name = part.substring(0, colon).trim();
+			int weight;
+			try {
+				weight = Integer.parseInt(part.substring(colon+1).trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("mix weight is not a number: " + part);
+			}
+			if(weight < 0)
+				throw new IllegalArgumentException("mix weight may not be negative: " + part);
+			int i = 0;
+			while(i < MIX_NAMES.length && !MIX_NAMES[i].equals(name))
+				i++;
+			if(i == MIX_NAMES.length)
+				throw new IllegalArgumentException("unknown lookup in mix: " + name);
+			result[i] = weight;
+			total += weight;
+		}
+		if(total <= 0)
+			throw new IllegalArgumentException("mix weights must add up to a positive number");
+		return result;
+	}
+
+	/**
+	 * Returns the heap memory pools of this virtual machine.
+	 *
+	 * @return the heap memory pools
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static List<MemoryPoolMXBean> heapPools(){
+		List<MemoryPoolMXBean> result = new ArrayList<MemoryPoolMXBean>();
+		for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if(pool.getType() == MemoryType.HEAP && pool.isValid())
+				result.add(pool);
+		return result;
+	}
+
+	/**
+	 * Collects garbage, and returns the number of bytes of heap in use
+	 * afterwards.
+	 *
+	 * @return the used heap, in bytes
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static long usedHeapAfterGC() throws InterruptedException {
+		Runtime rt = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for(int i = 0; i < 3; i++){
+			System.gc();
+			Thread.sleep(50);
+			used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+		}
+		return used;
+	}
+
+	/**
+	 * Extracts the XML entries of the specified zip or jar archive into a
+	 * new temporary directory, which is deleted when the virtual machine
+	 * exits. Directories within the archive are flattened.
+	 *
+	 * @param archive
+	 *            the archive; may not be <code>null</code>
+	 * @return the directory holding the extracted files
+	 * @throws NullPointerException
+	 *             if the archive is <code>null</code>
+	 * @throws IOException
+	 *             if the archive cannot be read, or the files cannot be
+	 *             written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static File extract(File archive) throws IOException {
+		NotNull.check("archive", archive);
+		File dir = File.createTempFile("jverbnet-archive", "");
+		if(!dir.delete() || !dir.mkdir())
+			throw new IOException("unable to create directory " + dir);
+		dir.deleteOnExit();
+		ZipFile zip = new ZipFile(archive);
+		try {
+			byte[] buf = new byte[8192];
+			for(Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ){
+				ZipEntry entry = e.nextElement();
+				String name = entry.getName();
+				if(entry.isDirectory() || !name.endsWith(".xml"))
+					continue;
+				File file = new File(dir, name.substring(name.lastIndexOf('/') + 1));
+				file.deleteOnExit();
+				InputStream in = zip.getInputStream(entry);
+				OutputStream out = new FileOutputStream(file);
+				try {
+					for(int n = in.read(buf); n >= 0; n = in.read(buf))
+						out.write(buf, 0, n);
+				} finally {
+					out.close();
+					in.close();
+				}
+			}
+		} finally {
+			zip.close();
+		}
+		return dir;
+	}
+
+	/**
+	 * Profiles Verbnet data from the command line. The last argument is the
+	 * location of the data: a directory, an XML file, a zip or jar archive, a
+	 * URL, or <code>-</code> to use a generated corpus, which is also used if
+	 * there are no arguments. It may be preceded by options of the form
+	 * <code>-name value</code>:
+	 * <ul>
+	 * <li><code>-ops</code>, the number of lookups in the workload, or 0 for
+	 * none; by default, {@value #DEFAULT_OPERATIONS};</li>
+	 * <li><code>-threads</code>, the number of threads that run the workload;
+	 * by default, 1;</li>
+	 * <li><code>-mix</code>, the mix of lookups, as described in
+	 * {@link #setMix(String)}; by default, <code>{@value #DEFAULT_MIX}</code>;</li>
+	 * <li><code>-miss</code>, the fraction of verb class and grouping lookups
+	 * that miss; by default, 0; and</li>
+	 * <li><code>-seed</code>, the seed of the workload; by default, 0.</li>
+	 * </ul>
+	 * The options <code>-nopool</code>, <code>-noshare</code>, and
+	 * <code>-offheap</code>, which take no value, turn off string pooling,
+	 * turn off value sharing, and turn on off-heap examples in the index,
+	 * respectively. Exits with status 1 if the data cannot be loaded.
+	 *
+	 * @param args
+	 *            the options, followed by the data location
+	 * @throws Exception
+	 *             if the data cannot be read
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws Exception {
+		LoadProfiler profiler = new LoadProfiler();
+		boolean pool = true, share = true, offHeap = false;
+		int last = args.length - 1;
+		for(int i = 0; i < last; i++){
+			String opt = args[i];
+			if(opt.equals("-nopool")){
+				pool = false;
+				continue;
+			} else if(opt.equals("-noshare")){
+				share = false;
+				continue;
+			} else if(opt.equals("-offheap")){
+				offHeap = true;
+				continue;
+			}
+			if(i + 1 >= last)
+				throw new IllegalArgumentException("missing value for option: " + opt);
+			String value = args[++i];
+			if(opt.equals("-ops")){
+				profiler.setOperations(Integer.parseInt(value));
+			} else if(opt.equals("-threads")){
+				profiler.setThreads(Integer.parseInt(value));
+			} else if(opt.equals("-mix")){
+				profiler.setMix(value);
+			} else if(opt.equals("-miss")){
+				profiler.setMissRate(Double.parseDouble(value));
+			} else if(opt.equals("-seed")){
+				profiler.setSeed(Long.parseLong(value));
+			} else {
+				throw new IllegalArgumentException("unknown option: " + opt);
+			}
+		}
+
+		// resolve the data
+		String path = (args.length < 1) ? "-" : args[last];
+		VerbIndex index;
+		if(path.equals("-")){
+			index = new VerbIndex(CorpusGenerator.generateTemporaryCorpus());
+		} else if(path.indexOf("://") > 0){
+			index = new VerbIndex(new URL(path));
+		} else {
+			File file = new File(path);
+			String name = file.getName().toLowerCase();
+			if(file.isFile() && (name.endsWith(".zip") || name.endsWith(".jar"))){
+				long start = System.nanoTime();
+				File dir = extract(file);
+				System.out.format("Extracted %s in %.1f ms%n", file, (System.nanoTime() - start) / 1e6);
+				file = dir;
+			}
+			index = new VerbIndex(file);
+		}
+		index.setPoolStrings(pool);
+		index.setShareValues(share);
+		index.setOffHeapExamples(offHeap);
+		if(!profiler.profile(index))
+			System.exit(1);
+	}
+
+	/**
+	 * A sequence of random lookups, generated in advance, for one thread.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class Workload {
+
+		// unchanging fields
+		private final byte[] kinds;
+		private final Object[] args;
+
+		// consumes the results of lookups
+		protected volatile int sink;
+
+		/**
+		 * Generates a new workload.
+		 *
+		 * @param size
+		 *            the number of lookups
+		 * @param weights
+		 *            the weight of each lookup, in the order of
+		 *            {@link LoadProfiler#LOOKUPS}
+		 * @param total
+		 *            the sum of the weights; must be positive
+		 * @param inputs
+		 *            the inputs that hit, for each lookup
+		 * @param missRate
+		 *            the fraction of verb class and grouping lookups that
+		 *            miss
+		 * @param random
+		 *            the source of randomness
+		 * @since JVerbnet 1.3.0
+		 */
+		public Workload(int size, int[] weights, int total, Object[][] inputs, double missRate, Random random){
+			kinds = new byte[size];
+			args = new Object[size];
+			for(int i = 0; i < size; i++){
+				int r = random.nextInt(total);
+				int kind = 0;
+				while(r >= weights[kind])
+					r -= weights[kind++];
+				kinds[i] = (byte)kind;
+				boolean miss = kind != 2 && random.nextDouble() < missRate;
+				args[i] = miss ?
+						"missing." + random.nextInt(1000) :
+							inputs[kind][random.nextInt(inputs[kind].length)];
+			}
+		}
+
+		/**
+		 * Performs the lookups of this workload on the specified index.
+		 *
+		 * @param index
+		 *            the open index
+		 * @since JVerbnet 1.3.0
+		 */
+		public void run(VerbIndex index){
+			int folded = 0;
+			for(int i = 0; i < kinds.length; i++){
+				Object result;
+				switch(kinds[i]){
+				case 0:
+					result = index.getVerb((String)args[i]);
+					break;
+				case 1:
+					result = index.getRootVerb((String)args[i]);
+					break;
+				case 2:
+					result = index.getMembers((IWordnetKey)args[i]);
+					break;
+				default:
+					result = index.getMembers((String)args[i]);
+				}
+				folded += System.identityHashCode(result);
+			}
+			sink += folded;
+		}
+
+	}
+
+}
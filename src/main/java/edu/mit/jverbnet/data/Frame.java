@@ -14,17 +14,18 @@ import static edu.mit.jverbnet.util.Checks.IsNull;
 import static edu.mit.jverbnet.util.Checks.IsNullOrEmpty;
 import static edu.mit.jverbnet.util.Checks.NotNull;
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
-import static edu.mit.jverbnet.util.Checks.UnmodifiableMaskNullWithEmpty;
-import static edu.mit.jverbnet.util.Checks.allElementsAre;
 import static edu.mit.jverbnet.util.Checks.thisMethodShouldNeverBeCalled;
+import static edu.mit.jverbnet.util.Checks.toCheckedArray;
 import static edu.mit.jverbnet.util.Checks.trimAndMask;
+import static edu.mit.jverbnet.util.collection.CompactCollections.wrapList;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import edu.mit.jverbnet.data.semantics.ISemanticDesc;
 import edu.mit.jverbnet.data.syntax.ISyntaxDesc;
 import edu.mit.jverbnet.data.syntax.SyntaxDesc;
+import edu.mit.jverbnet.util.collection.OffHeapStringList;
 
 /** 
  * Default implementation of the {@link IFrame} interface.
@@ -59,7 +60,9 @@ public class Frame implements IFrame {
 	 * @param xTag
 	 *            the xtag; may be <code>null</code>
 	 * @param examples
-	 *            the examples for the frame; may be <code>null</code> or empty
+	 *            the examples for the frame; may be <code>null</code> or
+	 *            empty; an {@link OffHeapStringList} is checked but not
+	 *            copied
 	 * @param syntaxDesc
 	 *            the syntactic descriptor; may be <code>null</code>
 	 * @param semDesc
@@ -67,16 +70,43 @@ public class Frame implements IFrame {
 	 * @since JVerbnet 1.0.0
 	 */
 	public Frame(IVerbClass parent, String descNum, FrameType firstType, FrameType secondType, String xTag, List<String> examples, ISyntaxDesc syntaxDesc, ISemanticDesc semDesc){
-		// check arguments
-		NotNull.check("parent", parent);
-		descNum = trimAndMask(NotNull, descNum, IsNullOrEmpty, null);
-		NotNull.check("firstType", firstType);
-		xTag = trimAndMask(NotNull, xTag, IsNullOrEmpty, null);
-		examples = allElementsAre(NotNullEmptyOrBlank, "examples", examples, UnmodifiableMaskNullWithEmpty);
-		syntaxDesc = IsNull.mask(syntaxDesc, SyntaxDesc.EMPTY_SYNTAX);
-		NotNull.check("semDesc", semDesc);
-		
-		// assign fields
+		this(NotNull.check("parent", parent), 
+				trimAndMask(NotNull, descNum, IsNullOrEmpty, null), 
+				NotNull.check("firstType", firstType), 
+				secondType, 
+				trimAndMask(NotNull, xTag, IsNullOrEmpty, null), 
+				IsNull.mask(syntaxDesc, SyntaxDesc.EMPTY_SYNTAX), 
+				NotNull.check("semDesc", semDesc), 
+				checkExamples(examples));
+	}
+
+	/**
+	 * Assigns the fields of a new frame from arguments that the public
+	 * constructor has already checked and copied, in a single pass: strings
+	 * trimmed, empty strings replaced by <code>null</code>, and a
+	 * non-<code>null</code> syntax descriptor. The new frame takes ownership
+	 * of the example list, which must be unmodifiable.
+	 * 
+	 * @param parent
+	 *            the parent of this frame
+	 * @param descNum
+	 *            the description number
+	 * @param firstType
+	 *            the primary type
+	 * @param secondType
+	 *            the secondary type
+	 * @param xTag
+	 *            the xtag
+	 * @param syntaxDesc
+	 *            the syntactic descriptor
+	 * @param semDesc
+	 *            the semantic descriptor
+	 * @param examples
+	 *            the unmodifiable list of examples for the frame; may not be
+	 *            <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	private Frame(IVerbClass parent, String descNum, FrameType firstType, FrameType secondType, String xTag, ISyntaxDesc syntaxDesc, ISemanticDesc semDesc, List<String> examples){
 		this.parent = parent;
 		this.descNum = descNum;
 		this.firstType = firstType;
@@ -87,6 +117,32 @@ public class Frame implements IFrame {
 		this.semDesc = semDesc;
 	}
 
+	/**
+	 * Checks the specified list of examples, and returns an unmodifiable copy.
+	 * Examples held off the heap are checked where they are stored, and
+	 * returned as is: they are already unmodifiable, and copying them would
+	 * bring them back onto the heap.
+	 * 
+	 * @param examples
+	 *            the examples to check; may be <code>null</code>
+	 * @return an unmodifiable list of the examples
+	 * @throws NullPointerException
+	 *             if any example is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if any example is empty or all whitespace
+	 * @since JVerbnet 1.3.0
+	 */
+	private static List<String> checkExamples(List<String> examples){
+		if(examples instanceof OffHeapStringList){
+			OffHeapStringList offHeap = (OffHeapStringList)examples;
+			for(int i = 0; i < offHeap.size(); i++)
+				if(offHeap.isEmptyOrBlank(i))
+					NotNullEmptyOrBlank.check("element of examples", offHeap.get(i));
+			return examples;
+		}
+		return wrapList(toCheckedArray(NotNullEmptyOrBlank, "examples", examples, new String[0]));
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -174,7 +230,7 @@ public class Frame implements IFrame {
 		private String xTag;
 		private ISyntaxDesc syntaxD;
 		private ISemanticDesc semanticD;
-		private List<String> examples = new LinkedList<String>();
+		private List<String> examples = new ArrayList<String>();
 		
 		/* 
 		 * (non-Javadoc) 
@@ -284,6 +340,21 @@ public class Frame implements IFrame {
 			this.xTag = xTag;
 		}
 
+		/**
+		 * Replaces the list of examples of this builder. The list is used as
+		 * is; if it is unmodifiable, then examples can no longer be added
+		 * through {@link #getExamples()}.
+		 * 
+		 * @param examples
+		 *            the new list of examples; may not be <code>null</code>
+		 * @throws NullPointerException
+		 *             if the list is <code>null</code>
+		 * @since JVerbnet 1.3.0
+		 */
+		public void setExamples(List<String> examples) {
+			this.examples = NotNull.check("examples", examples);
+		}
+
 		/* 
 		 * (non-Javadoc) 
 		 *
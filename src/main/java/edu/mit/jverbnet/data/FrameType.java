@@ -12,8 +12,8 @@ package edu.mit.jverbnet.data;
 
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
 
-import java.util.HashMap;
-import java.util.Map;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.TypeRegistry;
 
 /**
  * Primary description types. The values in this enum correspond to
@@ -24,7 +24,7 @@ import java.util.Map;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public class FrameType implements IVerbnetType {
+public class FrameType implements IVerbnetType, IHasOrdinal {
 	
 	/** 
 	 * The name of the xsd:simpleType entry that describes this verbnet type in the XSD file.
@@ -35,20 +35,28 @@ public class FrameType implements IVerbnetType {
 
 	// final fields
 	private final String id;
+	private final int ordinal;
 	
 	/**
 	 * Constructor that creates a new frame type.
 	 * 
 	 * @param id
 	 *            The id of the value
+	 * @param ordinal
+	 *            the ordinal of the value, which must be the number of values
+	 *            of this type created before it
 	 * @since JVerbnet 1.0.0
 	 * @throws NullPointerException
 	 *             if the id is <code>null</code>
 	 * @throws IllegalArgumentException
-	 *             if the id is empty or all whitespace
+	 *             if the id is empty or all whitespace, or the ordinal is
+	 *             negative
 	 */
-	protected FrameType(String id){
+	protected FrameType(String id, int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("ordinal may not be negative");
 		this.id = NotNullEmptyOrBlank.check("id", id);
+		this.ordinal = ordinal;
 	}
 	
 	/* 
@@ -60,8 +68,21 @@ public class FrameType implements IVerbnetType {
 		return id;
 	}
 	
-	// id map
-	private static final Map<String, FrameType> idMap = new HashMap<String, FrameType>();
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.IHasOrdinal#ordinal()
+	 */
+	public int ordinal(){
+		return ordinal;
+	}
+	
+	// id registry
+	private static final TypeRegistry<FrameType> registry = new TypeRegistry<FrameType>(new TypeRegistry.IFactory<FrameType>() {
+		public FrameType create(String id, int ordinal) {
+			return new FrameType(id, ordinal);
+		}
+	});
 
 	/**
 	 * Returns the object corresponding to the specified xsd name. The id is
@@ -86,12 +107,7 @@ public class FrameType implements IVerbnetType {
 	 */
 	public static FrameType getById(String id){
 		NotNullEmptyOrBlank.check("id", id);
-		FrameType result = idMap.get(id.toLowerCase());
-		
-		if(result == null){
-			result = new FrameType(id);
-			idMap.put(id.toLowerCase(), result);
-		}
+		FrameType result = registry.intern(id);
 		
 		// print warnings
 		if(!result.getID().equals(id))
@@ -0,0 +1,57 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.data;
+
+/**
+ * Looks up the values of a verbnet type by id, and provides the name of the
+ * type in the Verbnet xsd file. Lookups let {@link VerbnetTypes} find values
+ * of a type given only its class, without reflection.
+ *
+ * @param <T>
+ *            the verbnet type
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public interface ITypeLookup<T extends IVerbnetType> {
+
+	/**
+	 * Returns the verbnet type whose values this lookup finds.
+	 *
+	 * @return the class of the verbnet type; will not be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public Class<T> getType();
+
+	/**
+	 * Returns the name of the xsd:simpleType entry that describes the verbnet
+	 * type in the XSD file.
+	 *
+	 * @return the xsd type name of the verbnet type
+	 * @throws IllegalStateException
+	 *             if the type has no xsd type name
+	 * @since JVerbnet 1.3.0
+	 */
+	public String getXSDTypeName();
+
+	/**
+	 * Returns the value of the verbnet type with the specified id, as the
+	 * type's static <code>getById</code> method does.
+	 *
+	 * @param id
+	 *            the id of the value
+	 * @return the value with the specified id, or <code>null</code> if the
+	 *         type has none and does not create new values
+	 * @since JVerbnet 1.3.0
+	 */
+	public T getById(String id);
+
+}
@@ -14,6 +14,13 @@ import edu.mit.jverbnet.util.IHasID;
 
 /**
  * A verbnet type is (generally) a type that is found in the verbnet XSD file.
+ * <p>
+ * The built-in verbnet types also implement {@link edu.mit.jverbnet.util.IHasOrdinal}:
+ * the constants of the enumerated types use their enum ordinals, and the
+ * types whose values are created as they are encountered number them in
+ * order of creation. Maps of values of a single such type are indexed by
+ * ordinal. Other implementations of this interface need not have ordinals,
+ * and are kept in ordinary maps.
  * 
  * @author Mark A. Finlayson
  * @version 1.2.0
@@ -12,13 +12,14 @@ package edu.mit.jverbnet.data;
 
 import static edu.mit.jverbnet.util.Checks.NotNull;
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
-import static edu.mit.jverbnet.util.Checks.UnmodifiableMaskNullWithEmpty;
-import static edu.mit.jverbnet.util.Checks.allElementsAre;
+import static edu.mit.jverbnet.util.Checks.UnmodifiableCompactMaskNullWithEmpty;
 import static edu.mit.jverbnet.util.Checks.allKeysAndValuesAre;
 import static edu.mit.jverbnet.util.Checks.thisMethodShouldNeverBeCalled;
+import static edu.mit.jverbnet.util.Checks.toCheckedArray;
+import static edu.mit.jverbnet.util.collection.CompactCollections.wrapList;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -60,15 +61,32 @@ public class Member implements IMember {
 	 * @since JVerbnet 1.1.0
 	 */
 	public Member(IVerbClass verbCls, String name, Map<IWordnetKey, Boolean> keys, List<String> groupings){
-		NotNull.check("verbCls", verbCls);
-		name = NotNullEmptyOrBlank.check("name", name);
-		keys = allKeysAndValuesAre(NotNull, "keys", keys, UnmodifiableMaskNullWithEmpty);
-		groupings = allElementsAre(NotNullEmptyOrBlank, "groupings", groupings, UnmodifiableMaskNullWithEmpty);
-		
+		this(NotNull.check("verbCls", verbCls), 
+				NotNullEmptyOrBlank.check("name", name), 
+				allKeysAndValuesAre(NotNull, "keys", keys, UnmodifiableCompactMaskNullWithEmpty), 
+				toCheckedArray(NotNullEmptyOrBlank, "groupings", groupings, new String[0]));
+	}
+
+	/**
+	 * Assigns the fields of a new member from arguments that the public
+	 * constructor has already checked and copied, in a single pass. The new
+	 * member takes ownership of the key map and the groupings array.
+	 * 
+	 * @param verbCls
+	 *            the verb class of this member
+	 * @param name
+	 *            the trimmed name
+	 * @param keys
+	 *            the unmodifiable map of keys
+	 * @param groupings
+	 *            the groupings; may be <code>null</code> or empty
+	 * @since JVerbnet 1.3.0
+	 */
+	private Member(IVerbClass verbCls, String name, Map<IWordnetKey, Boolean> keys, String[] groupings){
 		this.verbCls = verbCls;
 		this.name = name;
 		this.keys = keys;
-		this.groupings = groupings;
+		this.groupings = wrapList(groupings);
 	}
 
 	/* 
@@ -119,7 +137,7 @@ public class Member implements IMember {
 		// fields
 		private String name;
 		private Map<IWordnetKey, Boolean> keys = new LinkedHashMap<IWordnetKey, Boolean>();
-		private List<String> groupings = new LinkedList<String>();
+		private List<String> groupings = new ArrayList<String>();
 		
 
 		/* 
@@ -12,12 +12,11 @@ package edu.mit.jverbnet.data;
 
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import edu.mit.jverbnet.data.semantics.ArgType;
 import edu.mit.jverbnet.data.semantics.ISemanticArgType;
 import edu.mit.jverbnet.data.syntax.INounPhraseType;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.TypeRegistry;
 
 /**
  * Selection restriction value types. The values in this enum correspond to
@@ -28,7 +27,7 @@ import edu.mit.jverbnet.data.syntax.INounPhraseType;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public class ThematicRoleType implements INounPhraseType, ISemanticArgType {
+public class ThematicRoleType implements INounPhraseType, ISemanticArgType, IHasOrdinal {
 
 	/** 
 	 * The name of the xsd:simpleType entry that describes this verbnet type in the XSD file.
@@ -39,20 +38,28 @@ public class ThematicRoleType implements INounPhraseType, ISemanticArgType {
 	
 	// final fields
 	private final String id;
+	private final int ordinal;
 	
 	/**
 	 * Constructor that creates a new frame type.
 	 * 
 	 * @param id
 	 *            The id of the value
+	 * @param ordinal
+	 *            the ordinal of the value, which must be the number of values
+	 *            of this type created before it
 	 * @since JVerbnet 1.0.0
 	 * @throws NullPointerException
 	 *             if the id is <code>null</code>
 	 * @throws IllegalArgumentException
-	 *             if the id is empty or all whitespace
+	 *             if the id is empty or all whitespace, or the ordinal is
+	 *             negative
 	 */
-	protected ThematicRoleType(String id){
+	protected ThematicRoleType(String id, int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("ordinal may not be negative");
 		this.id = NotNullEmptyOrBlank.check("id", id);
+		this.ordinal = ordinal;
 	}
 	
 	/* 
@@ -64,6 +71,15 @@ public class ThematicRoleType implements INounPhraseType, ISemanticArgType {
 		return id;
 	}
 	
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.IHasOrdinal#ordinal()
+	 */
+	public int ordinal(){
+		return ordinal;
+	}
+	
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -73,8 +89,12 @@ public class ThematicRoleType implements INounPhraseType, ISemanticArgType {
 		return ArgType.ThemRole;
 	}
 	
-	// id map
-	private static final Map<String, ThematicRoleType> idMap = new HashMap<String, ThematicRoleType>();
+	// id registry
+	private static final TypeRegistry<ThematicRoleType> registry = new TypeRegistry<ThematicRoleType>(new TypeRegistry.IFactory<ThematicRoleType>() {
+		public ThematicRoleType create(String id, int ordinal) {
+			return new ThematicRoleType(id, ordinal);
+		}
+	});
 
 	/**
 	 * Returns the object corresponding to the specified xsd name. The id is
@@ -99,12 +119,7 @@ public class ThematicRoleType implements INounPhraseType, ISemanticArgType {
 	 */
 	public static ThematicRoleType getById(String id){
 		NotNullEmptyOrBlank.check("id", id);
-		ThematicRoleType result = idMap.get(id.toLowerCase());
-		
-		if(result == null){
-			result = new ThematicRoleType(id);
-			idMap.put(id.toLowerCase(), result);
-		}
+		ThematicRoleType result = registry.intern(id);
 		
 		// print warnings
 		if(!result.getID().equals(id))
@@ -12,11 +12,10 @@ package edu.mit.jverbnet.data;
 
 import static edu.mit.jverbnet.util.Checks.NotEmptyOrBlank;
 import static edu.mit.jverbnet.util.Checks.NotNull;
-import static edu.mit.jverbnet.util.Checks.UnmodifiableMaskNullWithEmpty;
-import static edu.mit.jverbnet.util.Checks.allElementsAre;
 import static edu.mit.jverbnet.util.Checks.minSizeAndNotNull;
+import static edu.mit.jverbnet.util.Checks.toCheckedArray;
+import static edu.mit.jverbnet.util.collection.CompactCollections.wrapList;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import edu.mit.jverbnet.data.IFrame.IFrameBuilder;
@@ -40,8 +39,8 @@ public class VerbClass implements IVerbClass {
 	private final List<IVerbClass> subclasses;
 	
 	// changeable fields
-	private boolean isParentSet = false;
-	private IVerbClass parent = null;
+	private volatile boolean isParentSet = false;
+	private volatile IVerbClass parent = null;
 
 	/**
 	 * Creates a new verb class with the specified parameters
@@ -65,38 +64,74 @@ public class VerbClass implements IVerbClass {
 	 * @since JVerbnet 1.0.0
 	 */
 	public VerbClass(String id, List<IMemberBuilder> memberBs, List<IThematicRoleBuilder> roleBs, List<IFrameBuilder> frameBs, List<IVerbClass> subclasses){
-		// check arguments;
-		id = NotEmptyOrBlank.check("id", id);
-		minSizeAndNotNull(1).check("builders", memberBs);
-		minSizeAndNotNull(1).check("roles", roleBs);
-		minSizeAndNotNull(1).check("frames", frameBs);
-		
-		memberBs = allElementsAre(NotNull, "builders", memberBs, null);
-		roleBs = allElementsAre(NotNull, "roles", roleBs, null);
-		frameBs = allElementsAre(NotNull, "frames", frameBs, null);
-		subclasses = allElementsAre(NotNull, "subclasses", subclasses, UnmodifiableMaskNullWithEmpty);
-				
+		this(NotEmptyOrBlank.check("id", id), 
+				checkBuilders("builders", memberBs, new IMemberBuilder[0]), 
+				checkBuilders("roles", roleBs, new IThematicRoleBuilder[0]), 
+				checkBuilders("frames", frameBs, new IFrameBuilder[0]), 
+				toCheckedArray(NotNull, "subclasses", subclasses, new IVerbClass[0]));
+	}
+
+	/**
+	 * Creates a new verb class from arguments that the public constructor has
+	 * already checked and copied into arrays, in a single pass. The members,
+	 * roles, and frames are created directly into exact-size arrays that
+	 * back their lists. The new verb class takes ownership of the subclass
+	 * array.
+	 * 
+	 * @param id
+	 *            the trimmed id of the verb class
+	 * @param memberBs
+	 *            the builders that will create the members
+	 * @param roleBs
+	 *            the builders that will create the thematic roles
+	 * @param frameBs
+	 *            the builders that will create the frames
+	 * @param subclasses
+	 *            the subclasses of this verb class; should not have their
+	 *            parents set; may be <code>null</code> or empty
+	 * @since JVerbnet 1.3.0
+	 */
+	private VerbClass(String id, IMemberBuilder[] memberBs, IThematicRoleBuilder[] roleBs, IFrameBuilder[] frameBs, IVerbClass[] subclasses){
 		// create from builders
-		List<IMember> members = new LinkedList<IMember>();
-		List<IThematicRole> roles = new LinkedList<IThematicRole>();
-		List<IFrame> frames = new LinkedList<IFrame>();
-		for(IMemberBuilder b : memberBs)
-			members.add(b.create(this));
-		for(IThematicRoleBuilder b : roleBs)
-			roles.add(b.create(this));
-		for(IFrameBuilder b : frameBs)
-			frames.add(b.create(this));
+		IMember[] members = new IMember[memberBs.length];
+		IThematicRole[] roles = new IThematicRole[roleBs.length];
+		IFrame[] frames = new IFrame[frameBs.length];
+		for(int i = 0; i < memberBs.length; i++)
+			members[i] = memberBs[i].create(this);
+		for(int i = 0; i < roleBs.length; i++)
+			roles[i] = roleBs[i].create(this);
+		for(int i = 0; i < frameBs.length; i++)
+			frames[i] = frameBs[i].create(this);
 		
 		// set parent on subclasses
-		for(IVerbClass child : subclasses)
-			child.setParent(this);
+		if(subclasses != null)
+			for(IVerbClass child : subclasses)
+				child.setParent(this);
 		
 		// assign fields;
 		this.id = id;
-		this.members = UnmodifiableMaskNullWithEmpty.reallocate(members);
-		this.roles = UnmodifiableMaskNullWithEmpty.reallocate(roles);
-		this.frames = UnmodifiableMaskNullWithEmpty.reallocate(frames);
-		this.subclasses = subclasses;
+		this.members = wrapList(members);
+		this.roles = wrapList(roles);
+		this.frames = wrapList(frames);
+		this.subclasses = wrapList(subclasses);
+	}
+
+	/**
+	 * Checks that the specified list of builders has at least one element and
+	 * contains no <code>null</code>s, and returns its elements in an array.
+	 * 
+	 * @param varName
+	 *            the variable name to be used in exception messages
+	 * @param builders
+	 *            the builders to check
+	 * @param a
+	 *            an array of the desired runtime type
+	 * @return an array containing the builders
+	 * @since JVerbnet 1.3.0
+	 */
+	private static <B> B[] checkBuilders(String varName, List<? extends B> builders, B[] a){
+		minSizeAndNotNull(1).check(varName, builders);
+		return toCheckedArray(NotNull, varName, builders, a);
 	}
 
 	/* 
@@ -135,8 +170,9 @@ public class VerbClass implements IVerbClass {
 	 */
 	public synchronized void setParent(IVerbClass parent) {
 		checkParentSet(false);
-		isParentSet = true;
+		// set the parent before the flag, so readers who see the flag see the parent
 		this.parent = parent;
+		isParentSet = true;
 	}
 
 	/**
@@ -10,17 +10,37 @@
 
 package edu.mit.jverbnet.data;
 
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import edu.mit.jverbnet.data.selection.PrepRestrType;
+import edu.mit.jverbnet.data.selection.SemRestrType;
+import edu.mit.jverbnet.data.selection.SynRestrType;
+import edu.mit.jverbnet.data.semantics.ArgType;
+import edu.mit.jverbnet.data.semantics.ArgTypeConstant;
+import edu.mit.jverbnet.data.semantics.ArgTypeEvent;
+import edu.mit.jverbnet.data.semantics.ArgTypeVerbSpecific;
+import edu.mit.jverbnet.data.semantics.PredicateType;
 import edu.mit.jverbnet.data.syntax.AuxNounPhraseType;
 import edu.mit.jverbnet.data.syntax.INounPhraseType;
+import edu.mit.jverbnet.data.syntax.SyntaxArgType;
 import edu.mit.jverbnet.util.IHasID;
 
 
 /** 
- * Utility class for verbnet types
+ * Utility class for verbnet types.
+ * <p>
+ * Lookups of values by class go through a table of {@link ITypeLookup}
+ * objects, one per verbnet type. The lookups for the types of this library
+ * are registered in advance and call the types' <code>getById</code> methods
+ * directly. The lookups for other types are built by reflection the first
+ * time the type is used, and may be replaced with direct lookups by
+ * {@link #registerLookup(ITypeLookup)}.
  *
  * @author Mark A. Finlayson
  * @version 1.2.0
@@ -31,6 +51,115 @@ public class VerbnetTypes {
 	public static final String plus = "+";
 	public static final String minus = "-";
 	
+	// lookups by type
+	private static final ConcurrentMap<Class<?>, ITypeLookup<?>> lookups = new ConcurrentHashMap<Class<?>, ITypeLookup<?>>(32);
+	
+	// the following code registers the lookups of the built-in types
+	static {
+		registerLookup(new TypeLookup<ArgType>(ArgType.class, ArgType.XSD_TYPE_NAME) {
+			public ArgType getById(String id) {
+				return ArgType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<ArgTypeConstant>(ArgTypeConstant.class, ArgTypeConstant.XSD_TYPE_NAME) {
+			public ArgTypeConstant getById(String id) {
+				return ArgTypeConstant.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<ArgTypeEvent>(ArgTypeEvent.class, ArgTypeEvent.XSD_TYPE_NAME) {
+			public ArgTypeEvent getById(String id) {
+				return ArgTypeEvent.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<ArgTypeVerbSpecific>(ArgTypeVerbSpecific.class, ArgTypeVerbSpecific.XSD_TYPE_NAME) {
+			public ArgTypeVerbSpecific getById(String id) {
+				return ArgTypeVerbSpecific.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<AuxNounPhraseType>(AuxNounPhraseType.class, AuxNounPhraseType.XSD_TYPE_NAME) {
+			public AuxNounPhraseType getById(String id) {
+				return AuxNounPhraseType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<FrameType>(FrameType.class, FrameType.XSD_TYPE_NAME) {
+			public FrameType getById(String id) {
+				return FrameType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<PredicateType>(PredicateType.class, PredicateType.XSD_TYPE_NAME) {
+			public PredicateType getById(String id) {
+				return PredicateType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<PrepRestrType>(PrepRestrType.class, PrepRestrType.XSD_TYPE_NAME) {
+			public PrepRestrType getById(String id) {
+				return PrepRestrType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<SemRestrType>(SemRestrType.class, SemRestrType.XSD_TYPE_NAME) {
+			public SemRestrType getById(String id) {
+				return SemRestrType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<SynRestrType>(SynRestrType.class, SynRestrType.XSD_TYPE_NAME) {
+			public SynRestrType getById(String id) {
+				return SynRestrType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<SyntaxArgType>(SyntaxArgType.class, SyntaxArgType.XSD_TYPE_NAME) {
+			public SyntaxArgType getById(String id) {
+				return SyntaxArgType.getById(id);
+			}
+		});
+		registerLookup(new TypeLookup<ThematicRoleType>(ThematicRoleType.class, ThematicRoleType.XSD_TYPE_NAME) {
+			public ThematicRoleType getById(String id) {
+				return ThematicRoleType.getById(id);
+			}
+		});
+	}
+	
+	/**
+	 * Returns the lookup for the specified verbnet type. If no lookup has been
+	 * registered for the type, one is built by reflection on the type's
+	 * static <code>getById</code> method and xsd type name field, and
+	 * registered.
+	 * 
+	 * @param cls
+	 *            the verbnet type; may not be <code>null</code>
+	 * @return the lookup for the type
+	 * @throws NullPointerException
+	 *             if the class is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends IVerbnetType> ITypeLookup<T> getLookup(Class<T> cls){
+		ITypeLookup<?> result = lookups.get(NotNull.check("cls", cls));
+		if(result == null){
+			result = new ReflectiveTypeLookup<T>(cls);
+			ITypeLookup<?> existing = lookups.putIfAbsent(cls, result);
+			if(existing != null)
+				result = existing;
+		}
+		return (ITypeLookup<T>)result;
+	}
+	
+	/**
+	 * Registers the specified lookup for its type, replacing any lookup
+	 * previously registered for the type. Types outside this library may use
+	 * this method to avoid reflection when their values are looked up through
+	 * this class.
+	 * 
+	 * @param lookup
+	 *            the lookup to register; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the lookup, or its type, is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <T extends IVerbnetType> void registerLookup(ITypeLookup<T> lookup){
+		NotNull.check("lookup", lookup);
+		lookups.put(NotNull.check("type", lookup.getType()), lookup);
+	}
+	
 	/**
 	 * Invokes the static getById method on a given verbnet type. If the
 	 * specified id is not found, prints a warning to standard err.
@@ -51,7 +180,8 @@ public class VerbnetTypes {
 	}
 	
 	/**
-	 * Invokes the static getById method on a given verbnet type. 
+	 * Invokes the static getById method on a given verbnet type, through the
+	 * type's lookup.
 	 * 
 	 * @param cls
 	 *            the verbnet type from which to retrieve the value
@@ -60,48 +190,35 @@ public class VerbnetTypes {
 	 * @return the retrieved object, or <code>null</code> if none found
 	 * @throws NullPointerException
 	 *             if the class is <code>null</code>
-	 *             @throws IllegalStateException if the class does not have an accessible getById method
+	 *             @throws IllegalStateException if the class does not have an accessible getById method, or the method fails
+	 * @see #getLookup(Class)
 	 * @since JVerbnet 1.0.0
 	 */
-	@SuppressWarnings("unchecked")
 	public static <T extends IVerbnetType> T getTypeByIdNoWarnings(Class<T> cls, String id){
+		ITypeLookup<T> lookup = getLookup(cls);
 		try {
-			Method method = cls.getMethod(IVerbnetType.METHOD_NAME_getById, String.class);
-			if(!Modifier.isStatic(method.getModifiers()))
-				throw new IllegalStateException(IVerbnetType.METHOD_NAME_getById + " method on " + cls.getName() + " is not static");
-			return (T)method.invoke(null, id);
-		} catch (Exception e) {
+			return lookup.getById(id);
+		} catch (IllegalStateException e) {
+			throw e;
+		} catch (RuntimeException e) {
 			throw new IllegalStateException(e);
 		} 
 	}
 	
 	/**
 	 * Retrieves the value of the static field containing the XSD type name for
-	 * a verbnet type.
+	 * a verbnet type, through the type's lookup.
 	 * 
 	 * @param c
 	 *            the type for which the name should be retrieved
 	 * @return the value of the field
 	 * @throws IllegalStateException
 	 *             if the class does not have an accessible xsd type name field
+	 * @see #getLookup(Class)
 	 * @since JVerbnet 1.0.0
 	 */
 	public static String getXSDSimpleTypeName(Class<? extends IVerbnetType> c){
-		
-		// obtain the field
-		Field field = null;
-		try {
-			field = c.getField(IVerbnetType.FIELD_NAME_XSD_TYPE_NAME);
-		} catch (Exception e) {
-			throw new IllegalStateException(e);
-		}
-		
-		// get the value
-		try {
-			return (String)field.get(null);
-		} catch (Exception e) {
-			throw new IllegalStateException(e);
-		} 
+		return getLookup(c).getXSDTypeName();
 	}
 
 	/**
@@ -143,7 +260,7 @@ public class VerbnetTypes {
 	}
 
 	// flag for printing id warnings
-	private static boolean isPrintingIdWarnings = false;
+	private static volatile boolean isPrintingIdWarnings = false;
 
 
 	/** 
@@ -216,4 +333,155 @@ public class VerbnetTypes {
 			System.err.println("Normalization of id '" + id + "' was required to retrieve the value for type " + type.getSimpleName());
 	}
 	
+	/** 
+	 * Base class for lookups that are given their type and xsd type name, and
+	 * call the type's <code>getById</code> method directly.
+	 *
+	 * @param <T> the verbnet type
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public abstract static class TypeLookup<T extends IVerbnetType> implements ITypeLookup<T> {
+		
+		// unchanging fields
+		private final Class<T> type;
+		private final String xsdTypeName;
+		
+		/**
+		 * Creates a new lookup for the specified type.
+		 * 
+		 * @param type
+		 *            the verbnet type; may not be <code>null</code>
+		 * @param xsdTypeName
+		 *            the xsd type name of the verbnet type; may not be
+		 *            <code>null</code>
+		 * @throws NullPointerException
+		 *             if either argument is <code>null</code>
+		 * @since JVerbnet 1.3.0
+		 */
+		public TypeLookup(Class<T> type, String xsdTypeName){
+			this.type = NotNull.check("type", type);
+			this.xsdTypeName = NotNull.check("xsdTypeName", xsdTypeName);
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jverbnet.data.ITypeLookup#getType()
+		 */
+		public Class<T> getType() {
+			return type;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jverbnet.data.ITypeLookup#getXSDTypeName()
+		 */
+		public String getXSDTypeName() {
+			return xsdTypeName;
+		}
+		
+	}
+	
+	/** 
+	 * A lookup for a type that has not registered one, which finds the type's
+	 * static <code>getById</code> method and xsd type name field by reflection
+	 * when it is created. Only the invocation of the method is left for each
+	 * lookup.
+	 *
+	 * @param <T> the verbnet type
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class ReflectiveTypeLookup<T extends IVerbnetType> implements ITypeLookup<T> {
+		
+		// unchanging fields
+		private final Class<T> type;
+		private final Method method;
+		private final String xsdTypeName;
+		private final IllegalStateException methodError;
+		private final IllegalStateException fieldError;
+		
+		/**
+		 * Creates a new reflective lookup for the specified type. Failures to
+		 * find the method or the field are not reported until the lookup is
+		 * asked for them.
+		 * 
+		 * @param type
+		 *            the verbnet type; may not be <code>null</code>
+		 * @throws NullPointerException
+		 *             if the type is <code>null</code>
+		 * @since JVerbnet 1.3.0
+		 */
+		public ReflectiveTypeLookup(Class<T> type){
+			this.type = NotNull.check("type", type);
+			
+			// obtain the method
+			Method method = null;
+			IllegalStateException methodError = null;
+			try {
+				method = type.getMethod(IVerbnetType.METHOD_NAME_getById, String.class);
+				if(!Modifier.isStatic(method.getModifiers()))
+					throw new IllegalStateException(IVerbnetType.METHOD_NAME_getById + " method on " + type.getName() + " is not static");
+			} catch (Exception e) {
+				method = null;
+				methodError = new IllegalStateException(e);
+			}
+			
+			// obtain the field value
+			String xsdTypeName = null;
+			IllegalStateException fieldError = null;
+			try {
+				Field field = type.getField(IVerbnetType.FIELD_NAME_XSD_TYPE_NAME);
+				xsdTypeName = (String)field.get(null);
+			} catch (Exception e) {
+				fieldError = new IllegalStateException(e);
+			}
+			
+			this.method = method;
+			this.methodError = methodError;
+			this.xsdTypeName = xsdTypeName;
+			this.fieldError = fieldError;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jverbnet.data.ITypeLookup#getType()
+		 */
+		public Class<T> getType() {
+			return type;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jverbnet.data.ITypeLookup#getXSDTypeName()
+		 */
+		public String getXSDTypeName() {
+			if(fieldError != null)
+				throw new IllegalStateException(fieldError.getCause());
+			return xsdTypeName;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jverbnet.data.ITypeLookup#getById(java.lang.String)
+		 */
+		public T getById(String id) {
+			if(methodError != null)
+				throw new IllegalStateException(methodError.getCause());
+			try {
+				return type.cast(method.invoke(null, id));
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			} 
+		}
+		
+	}
+	
 }
@@ -12,10 +12,9 @@ package edu.mit.jverbnet.data.selection;
 
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.TypeRegistry;
 
 /**
  * Preposition restriction types. The values in this enum correspond to
@@ -26,7 +25,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public class PrepRestrType implements IRestrType {
+public class PrepRestrType implements IRestrType, IHasOrdinal {
 	
 	/** 
 	 * The name of the xsd:simpleType entry that describes this verbnet type in the XSD file.
@@ -37,20 +36,28 @@ public class PrepRestrType implements IRestrType {
     
 	// final fields
 	private final String id;
+	private final int ordinal;
 	
 	/**
 	 * Creates a new type.
 	 * 
 	 * @param id
 	 *            The id of the value
+	 * @param ordinal
+	 *            the ordinal of the value, which must be the number of values
+	 *            of this type created before it
 	 * @since JVerbnet 1.0.0
 	 * @throws NullPointerException
 	 *             if the id is <code>null</code>
 	 * @throws IllegalArgumentException
-	 *             if the id is empty or all whitespace
+	 *             if the id is empty or all whitespace, or the ordinal is
+	 *             negative
 	 */
-	protected PrepRestrType(String id){
+	protected PrepRestrType(String id, int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("ordinal may not be negative");
 		this.id = NotNullEmptyOrBlank.check("id", id);
+		this.ordinal = ordinal;
 	}
 	
 	/* 
@@ -62,8 +69,21 @@ public class PrepRestrType implements IRestrType {
 		return id;
 	}
 	
-	// id map
-	private static final Map<String, PrepRestrType> idMap = new HashMap<String, PrepRestrType>();
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.IHasOrdinal#ordinal()
+	 */
+	public int ordinal(){
+		return ordinal;
+	}
+	
+	// id registry
+	private static final TypeRegistry<PrepRestrType> registry = new TypeRegistry<PrepRestrType>(new TypeRegistry.IFactory<PrepRestrType>() {
+		public PrepRestrType create(String id, int ordinal) {
+			return new PrepRestrType(id, ordinal);
+		}
+	});
 
 	/**
 	 * Returns the object corresponding to the specified xsd name. The id is
@@ -88,12 +108,7 @@ public class PrepRestrType implements IRestrType {
 	 */
 	public static PrepRestrType getById(String id){
 		NotNullEmptyOrBlank.check("id", id);
-		PrepRestrType result = idMap.get(id.toLowerCase());
-		
-		if(result == null){
-			result = new PrepRestrType(id);
-			idMap.put(id.toLowerCase(), result);
-		}
+		PrepRestrType result = registry.intern(id);
 		
 		// print warnings
 		if(!result.getID().equals(id))
@@ -11,17 +11,22 @@
 package edu.mit.jverbnet.data.selection;
 
 import static edu.mit.jverbnet.util.Checks.NotNull;
-import static edu.mit.jverbnet.util.Checks.UnmodifiableMaskNullWithEmpty;
+import static edu.mit.jverbnet.util.Checks.UnmodifiableCompactMaskNullWithEmpty;
 import static edu.mit.jverbnet.util.Checks.allElementsAre;
 import static edu.mit.jverbnet.util.Checks.allKeysAndValuesAre;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import edu.mit.jverbnet.data.IVerbnetType;
 
 /** 
- * A set of selectional restrictions.
+ * A set of selectional restrictions. Two sets of selectional restrictions are
+ * equal if they have the same logic, the same type restrictions in the same
+ * order, and equal subrestrictions, so identical restrictions parsed from
+ * different places may be shared without changing their iteration order.
  *
  * @param <T> the verbnet type found in this restriction object
  * @author Mark A. Finlayson
@@ -63,8 +68,8 @@ public class SelRestrictions<T extends IVerbnetType> implements ISelRestrictions
 	 */
 	public SelRestrictions(Logic logic, Map<T, Boolean> typeRestrs, List<ISelRestrictions<T>> subRestrs){
 		// check arguments
-		typeRestrs = allKeysAndValuesAre(NotNull, "typeRestrs", typeRestrs, UnmodifiableMaskNullWithEmpty);
-		subRestrs = allElementsAre(NotNull, "subRestrs", subRestrs, UnmodifiableMaskNullWithEmpty);
+		typeRestrs = allKeysAndValuesAre(NotNull, "typeRestrs", typeRestrs, UnmodifiableCompactMaskNullWithEmpty);
+		subRestrs = allElementsAre(NotNull, "subRestrs", subRestrs, UnmodifiableCompactMaskNullWithEmpty);
 		
 		// if logic is non-null, the list or map must be non-empty
 		int elements = typeRestrs.size() + subRestrs.size();
@@ -119,4 +124,78 @@ public class SelRestrictions<T extends IVerbnetType> implements ISelRestrictions
 		return true;
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return hashCode(this);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(obj == null)
+			return false;
+		if(!(obj instanceof ISelRestrictions<?>))
+			return false;
+		final ISelRestrictions<?> other = (ISelRestrictions<?>)obj;
+		if(logic != other.getLogic())
+			return false;
+		if(!equalsInOrder(typeRestrs, other.getTypeRestrictions()))
+			return false;
+		if(!subRestrs.equals(other.getSubSelRestrictions()))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the two maps have equal entries in the same
+	 * iteration order.
+	 * 
+	 * @param a
+	 *            the first map; may not be <code>null</code>
+	 * @param b
+	 *            the second map; may not be <code>null</code>
+	 * @return <code>true</code> if the maps have equal entries in the same
+	 *         order; <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean equalsInOrder(Map<?,?> a, Map<?,?> b){
+		if(a.size() != b.size())
+			return false;
+		Iterator<? extends Entry<?,?>> i = a.entrySet().iterator();
+		Iterator<? extends Entry<?,?>> j = b.entrySet().iterator();
+		while(i.hasNext())
+			if(!i.next().equals(j.next()))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Calculates a hash code for a selectional restrictions object.
+	 * 
+	 * @param restrs
+	 *            the selectional restrictions for which to calculate a hash
+	 *            code
+	 * @return the hash code for the object
+	 * @since JVerbnet 1.3.0
+	 */
+	public static int hashCode(ISelRestrictions<?> restrs){
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((restrs.getLogic() == null) ? 0 : restrs.getLogic().ordinal()+1);
+		result = prime * result + restrs.getTypeRestrictions().hashCode();
+		result = prime * result + restrs.getSubSelRestrictions().hashCode();
+		return result;
+	}
+
 }
@@ -12,10 +12,9 @@ package edu.mit.jverbnet.data.selection;
 
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.TypeRegistry;
 
 /**
  * Semantic restriction types. The values in this enum correspond to the
@@ -26,7 +25,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public class SemRestrType implements IRestrType {
+public class SemRestrType implements IRestrType, IHasOrdinal {
     
 	/** 
 	 * The name of the xsd:simpleType entry that describes this verbnet type in the XSD file.
@@ -37,20 +36,28 @@ public class SemRestrType implements IRestrType {
 	
 	// final fields
 	private final String id;
+	private final int ordinal;
 	
 	/**
 	 * Creates a new type.
 	 * 
 	 * @param id
 	 *            The id of the value
+	 * @param ordinal
+	 *            the ordinal of the value, which must be the number of values
+	 *            of this type created before it
 	 * @since JVerbnet 1.0.0
 	 * @throws NullPointerException
 	 *             if the id is <code>null</code>
 	 * @throws IllegalArgumentException
-	 *             if the id is empty or all whitespace
+	 *             if the id is empty or all whitespace, or the ordinal is
+	 *             negative
 	 */
-	protected SemRestrType(String id){
+	protected SemRestrType(String id, int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("ordinal may not be negative");
 		this.id = NotNullEmptyOrBlank.check("id", id);
+		this.ordinal = ordinal;
 	}
 	
 	/* 
@@ -62,8 +69,21 @@ public class SemRestrType implements IRestrType {
 		return id;
 	}
 	
-	// id map
-	private static final Map<String, SemRestrType> idMap = new HashMap<String, SemRestrType>();
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.IHasOrdinal#ordinal()
+	 */
+	public int ordinal(){
+		return ordinal;
+	}
+	
+	// id registry
+	private static final TypeRegistry<SemRestrType> registry = new TypeRegistry<SemRestrType>(new TypeRegistry.IFactory<SemRestrType>() {
+		public SemRestrType create(String id, int ordinal) {
+			return new SemRestrType(id, ordinal);
+		}
+	});
 
 	/**
 	 * Returns the object corresponding to the specified xsd name. The id is
@@ -88,12 +108,7 @@ public class SemRestrType implements IRestrType {
 	 */
 	public static SemRestrType getById(String id){
 		NotNullEmptyOrBlank.check("id", id);
-		SemRestrType result = idMap.get(id.toLowerCase());
-		
-		if(result == null){
-			result = new SemRestrType(id);
-			idMap.put(id.toLowerCase(), result);
-		}
+		SemRestrType result = registry.intern(id);
 		
 		// print warnings
 		if(!result.getID().equals(id))
@@ -12,10 +12,9 @@ package edu.mit.jverbnet.data.selection;
 
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.TypeRegistry;
 
 /**
  * Syntactic restriction types. The values in this enum correspond to the
@@ -26,7 +25,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public class SynRestrType implements IRestrType {
+public class SynRestrType implements IRestrType, IHasOrdinal {
 
 	/** 
 	 * The name of the xsd:simpleType entry that describes this verbnet type in the XSD file.
@@ -37,20 +36,28 @@ public class SynRestrType implements IRestrType {
 	
 	// final fields
 	private final String id;
+	private final int ordinal;
 	
 	/**
 	 * Creates a new type.
 	 * 
 	 * @param id
 	 *            The id of the value
+	 * @param ordinal
+	 *            the ordinal of the value, which must be the number of values
+	 *            of this type created before it
 	 * @since JVerbnet 1.0.0
 	 * @throws NullPointerException
 	 *             if the id is <code>null</code>
 	 * @throws IllegalArgumentException
-	 *             if the id is empty or all whitespace
+	 *             if the id is empty or all whitespace, or the ordinal is
+	 *             negative
 	 */
-	protected SynRestrType(String id){
+	protected SynRestrType(String id, int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("ordinal may not be negative");
 		this.id = NotNullEmptyOrBlank.check("id", id);
+		this.ordinal = ordinal;
 	}
 	
 	/* 
@@ -62,8 +69,21 @@ public class SynRestrType implements IRestrType {
 		return id;
 	}
 	
-	// id map
-	private static final Map<String, SynRestrType> idMap = new HashMap<String, SynRestrType>();
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.IHasOrdinal#ordinal()
+	 */
+	public int ordinal(){
+		return ordinal;
+	}
+	
+	// id registry
+	private static final TypeRegistry<SynRestrType> registry = new TypeRegistry<SynRestrType>(new TypeRegistry.IFactory<SynRestrType>() {
+		public SynRestrType create(String id, int ordinal) {
+			return new SynRestrType(id, ordinal);
+		}
+	});
 
 	/**
 	 * Returns the object corresponding to the specified xsd name. The id is
@@ -88,12 +108,7 @@ public class SynRestrType implements IRestrType {
 	 */
 	public static SynRestrType getById(String id){
 		NotNullEmptyOrBlank.check("id", id);
-		SynRestrType result = idMap.get(id.toLowerCase());
-		
-		if(result == null){
-			result = new SynRestrType(id);
-			idMap.put(id.toLowerCase(), result);
-		}
+		SynRestrType result = registry.intern(id);
 		
 		// print warnings
 		if(!result.getID().equals(id))
@@ -19,6 +19,7 @@ import java.util.Map;
 import edu.mit.jverbnet.data.IVerbnetType;
 import edu.mit.jverbnet.data.ThematicRoleType;
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
 
 /**
  * Argument types. The values in this enum correspond to the elements of
@@ -28,7 +29,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public enum ArgType implements IVerbnetType {
+public enum ArgType implements IVerbnetType, IHasOrdinal {
 	
 	Constant     ("Constant",     ArgTypeConstant.class),
 	Event        ("Event",        ArgTypeEvent.class),
@@ -12,10 +12,9 @@ package edu.mit.jverbnet.data.semantics;
 
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.TypeRegistry;
 
 /**
  * The subtypes of constant argument type. The values in this enum
@@ -26,7 +25,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public class ArgTypeConstant implements ISemanticArgType {
+public class ArgTypeConstant implements ISemanticArgType, IHasOrdinal {
 
 	/** 
 	 * The name of the xsd:simpleType entry that describes this verbnet type in the XSD file.
@@ -37,20 +36,28 @@ public class ArgTypeConstant implements ISemanticArgType {
 	
 	// final fields
 	private final String id;
+	private final int ordinal;
 	
 	/**
 	 * Constructor that creates a new frame type.
 	 * 
 	 * @param id
 	 *            The id of the value
+	 * @param ordinal
+	 *            the ordinal of the value, which must be the number of values
+	 *            of this type created before it
 	 * @since JVerbnet 1.0.0
 	 * @throws NullPointerException
 	 *             if the id is <code>null</code>
 	 * @throws IllegalArgumentException
-	 *             if the id is empty or all whitespace
+	 *             if the id is empty or all whitespace, or the ordinal is
+	 *             negative
 	 */
-	protected ArgTypeConstant(String id){
+	protected ArgTypeConstant(String id, int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("ordinal may not be negative");
 		this.id = NotNullEmptyOrBlank.check("id", id);
+		this.ordinal = ordinal;
 	}
 	
 	/* 
@@ -62,6 +69,15 @@ public class ArgTypeConstant implements ISemanticArgType {
 		return id;
 	}
 	
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.IHasOrdinal#ordinal()
+	 */
+	public int ordinal(){
+		return ordinal;
+	}
+	
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -71,8 +87,12 @@ public class ArgTypeConstant implements ISemanticArgType {
 		return ArgType.Constant;
 	}
 
-	// id map
-	private static final Map<String, ArgTypeConstant> idMap = new HashMap<String, ArgTypeConstant>();
+	// id registry
+	private static final TypeRegistry<ArgTypeConstant> registry = new TypeRegistry<ArgTypeConstant>(new TypeRegistry.IFactory<ArgTypeConstant>() {
+		public ArgTypeConstant create(String id, int ordinal) {
+			return new ArgTypeConstant(id, ordinal);
+		}
+	});
 
 	/**
 	 * Returns the object corresponding to the specified xsd name. The id is
@@ -97,12 +117,7 @@ public class ArgTypeConstant implements ISemanticArgType {
 	 */
 	public static ArgTypeConstant getById(String id){
 		NotNullEmptyOrBlank.check("id", id);
-		ArgTypeConstant result = idMap.get(id.toLowerCase());
-		
-		if(result == null){
-			result = new ArgTypeConstant(id);
-			idMap.put(id.toLowerCase(), result);
-		}
+		ArgTypeConstant result = registry.intern(id);
 		
 		// print warnings
 		if(!result.getID().equals(id))
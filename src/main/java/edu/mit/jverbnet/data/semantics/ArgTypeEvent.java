@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
 
 /**
  * The subtypes of event argument type. The values in this enum correspond to
@@ -26,7 +27,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public enum ArgTypeEvent implements ISemanticArgType {
+public enum ArgTypeEvent implements ISemanticArgType, IHasOrdinal {
 	
 	E       ("E"),
 	E0      ("E0"),
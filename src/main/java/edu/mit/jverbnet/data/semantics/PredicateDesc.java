@@ -11,7 +11,7 @@
 package edu.mit.jverbnet.data.semantics;
 
 import static edu.mit.jverbnet.util.Checks.NotNull;
-import static edu.mit.jverbnet.util.Checks.UnmodifiableMaskNullWithEmpty;
+import static edu.mit.jverbnet.util.Checks.UnmodifiableCompactMaskNullWithEmpty;
 import static edu.mit.jverbnet.util.Checks.allElementsAre;
 import static edu.mit.jverbnet.util.Checks.minSizeAndNotNull;
 
@@ -48,7 +48,7 @@ public class PredicateDesc implements IPredicateDesc {
 		// check arguments
 		NotNull.check("value", value);
 		minSizeAndNotNull(1).check("argTypes", argTypes);
-		argTypes = allElementsAre(NotNull, "argTypes", argTypes, UnmodifiableMaskNullWithEmpty);
+		argTypes = allElementsAre(NotNull, "argTypes", argTypes, UnmodifiableCompactMaskNullWithEmpty);
 		
 		// assign fields
 		this.value = value;
@@ -83,6 +83,56 @@ public class PredicateDesc implements IPredicateDesc {
 		return argTypes;
 	}
 	
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return hashCode(this);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(obj == null)
+			return false;
+		if(!(obj instanceof IPredicateDesc))
+			return false;
+		final IPredicateDesc other = (IPredicateDesc)obj;
+		if(value != other.getValue())
+			return false;
+		if(bool != other.getBool())
+			return false;
+		if(!argTypes.equals(other.getArgumentTypes()))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Calculates a hash code for a predicate description.
+	 * 
+	 * @param pred
+	 *            the predicate description for which to calculate a hash code
+	 * @return the hash code for the object
+	 * @since JVerbnet 1.3.0
+	 */
+	public static int hashCode(IPredicateDesc pred){
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + pred.getValue().hashCode();
+		result = prime * result + (pred.getBool() ? 1231 : 1237);
+		result = prime * result + pred.getArgumentTypes().hashCode();
+		return result;
+	}
+	
 	// cache the string form
 	private transient String toStr; 
 	
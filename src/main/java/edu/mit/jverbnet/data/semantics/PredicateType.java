@@ -12,11 +12,10 @@ package edu.mit.jverbnet.data.semantics;
 
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import edu.mit.jverbnet.data.IVerbnetType;
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.TypeRegistry;
 
 /**
  * Predicate types. The values in this enum correspond to
@@ -27,7 +26,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public class PredicateType implements IVerbnetType {
+public class PredicateType implements IVerbnetType, IHasOrdinal {
     
 	/** 
 	 * The name of the xsd:simpleType entry that describes this verbnet type in the XSD file.
@@ -38,20 +37,28 @@ public class PredicateType implements IVerbnetType {
 	
 	// final fields
 	private final String id;
+	private final int ordinal;
 
 	/**
 	 * Constructor that creates a new frame type.
 	 * 
 	 * @param id
 	 *            The id of the value
+	 * @param ordinal
+	 *            the ordinal of the value, which must be the number of values
+	 *            of this type created before it
 	 * @since JVerbnet 1.0.0
 	 * @throws NullPointerException
 	 *             if the id is <code>null</code>
 	 * @throws IllegalArgumentException
-	 *             if the id is empty or all whitespace
+	 *             if the id is empty or all whitespace, or the ordinal is
+	 *             negative
 	 */
-	protected PredicateType(String id){
+	protected PredicateType(String id, int ordinal){
+		if(ordinal < 0)
+			throw new IllegalArgumentException("ordinal may not be negative");
 		this.id = NotNullEmptyOrBlank.check("id", id);
+		this.ordinal = ordinal;
 	}
 	
 	/* 
@@ -63,8 +70,21 @@ public class PredicateType implements IVerbnetType {
 		return id;
 	}
 	
-	// id map
-	private static final Map<String, PredicateType> idMap = new HashMap<String, PredicateType>();
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.IHasOrdinal#ordinal()
+	 */
+	public int ordinal(){
+		return ordinal;
+	}
+	
+	// id registry
+	private static final TypeRegistry<PredicateType> registry = new TypeRegistry<PredicateType>(new TypeRegistry.IFactory<PredicateType>() {
+		public PredicateType create(String id, int ordinal) {
+			return new PredicateType(id, ordinal);
+		}
+	});
 
 	/**
 	 * Returns the object corresponding to the specified xsd name. The id is
@@ -89,12 +109,7 @@ public class PredicateType implements IVerbnetType {
 	 */
 	public static PredicateType getById(String id){
 		NotNullEmptyOrBlank.check("id", id);
-		PredicateType result = idMap.get(id.toLowerCase());
-		
-		if(result == null){
-			result = new PredicateType(id);
-			idMap.put(id.toLowerCase(), result);
-		}
+		PredicateType result = registry.intern(id);
 		
 		// print warnings
 		if(!result.getID().equals(id))
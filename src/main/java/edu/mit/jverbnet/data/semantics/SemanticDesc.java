@@ -11,10 +11,11 @@
 package edu.mit.jverbnet.data.semantics;
 
 import static edu.mit.jverbnet.util.Checks.NotNull;
-import static edu.mit.jverbnet.util.Checks.UnmodifiableMaskNullWithEmpty;
+import static edu.mit.jverbnet.util.Checks.UnmodifiableCompactMaskNullWithEmpty;
 import static edu.mit.jverbnet.util.Checks.allElementsAre;
 import static edu.mit.jverbnet.util.Checks.minSizeAndNotNull;
 
+import java.util.Collections;
 import java.util.List;
 
 /** 
@@ -26,6 +27,14 @@ import java.util.List;
  */
 public class SemanticDesc implements ISemanticDesc {
 	
+	/** 
+	 * Empty semantics object, with no predicates. This is the semantics of
+	 * frames whose semantics were skipped when parsing.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final SemanticDesc EMPTY_SEMANTICS = new SemanticDesc();
+	
 	// unchanging fields
 	private final List<IPredicateDesc> predList;
 
@@ -40,10 +49,19 @@ public class SemanticDesc implements ISemanticDesc {
 	 */
 	public SemanticDesc(List<IPredicateDesc> predList){
 		minSizeAndNotNull(1).check("predList", predList);
-		predList = allElementsAre(NotNull, "predList", predList, UnmodifiableMaskNullWithEmpty);
+		predList = allElementsAre(NotNull, "predList", predList, UnmodifiableCompactMaskNullWithEmpty);
 		this.predList = predList;
 	}
 
+	/**
+	 * Creates the empty semantic description.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	private SemanticDesc(){
+		this.predList = Collections.emptyList();
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
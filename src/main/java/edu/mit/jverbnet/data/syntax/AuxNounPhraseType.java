@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
 
 /**
  * Selection restriction value types. The values in this enum correspond to
@@ -26,7 +27,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public enum AuxNounPhraseType implements INounPhraseType {
+public enum AuxNounPhraseType implements INounPhraseType, IHasOrdinal {
 
     Oblique ("Oblique"),
     Oblique1("Oblique1"),
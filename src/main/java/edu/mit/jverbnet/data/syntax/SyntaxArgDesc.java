@@ -167,6 +167,69 @@ public class SyntaxArgDesc implements ISyntaxArgDesc {
 	public ISelRestrictions<? extends IRestrType> getSelRestrictions() {
 		return selRestrs;
 	}
+
+	/**
+	 * Returns a hash code for this argument. The parent of the argument is not
+	 * included, so that arguments of equal syntax descriptors hash alike.
+	 * 
+	 * @return the hash code for this argument
+	 * @since JVerbnet 1.3.0
+	 */
+	@Override
+	public int hashCode() {
+		return hashCode(this);
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified object is a syntax argument
+	 * with the same type, value, noun phrase type, and selectional
+	 * restrictions as this one. The parents of the two arguments are not
+	 * compared; otherwise no two arguments of different syntax descriptors
+	 * could be equal.
+	 * 
+	 * @param obj
+	 *            the object to compare
+	 * @return <code>true</code> if the object is an equal syntax argument;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(obj == null)
+			return false;
+		if(!(obj instanceof ISyntaxArgDesc))
+			return false;
+		final ISyntaxArgDesc other = (ISyntaxArgDesc)obj;
+		if(type != other.getType())
+			return false;
+		if(value == null ? other.getValue() != null : !value.equals(other.getValue()))
+			return false;
+		if(npType != other.getNounPhraseType())
+			return false;
+		if(!selRestrs.equals(other.getSelRestrictions()))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Calculates a hash code for a syntax argument, excluding its parent.
+	 * 
+	 * @param arg
+	 *            the argument for which to calculate a hash code
+	 * @return the hash code for the object
+	 * @since JVerbnet 1.3.0
+	 */
+	public static int hashCode(ISyntaxArgDesc arg){
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + arg.getType().ordinal();
+		result = prime * result + ((arg.getValue() == null) ? 0 : arg.getValue().hashCode());
+		result = prime * result + ((arg.getNounPhraseType() == null) ? 0 : arg.getNounPhraseType().hashCode());
+		result = prime * result + arg.getSelRestrictions().hashCode();
+		return result;
+	}
 	
 	/** 
 	 * Default implementation of syntax arg descriptor builder interface.
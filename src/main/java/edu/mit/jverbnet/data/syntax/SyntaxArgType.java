@@ -20,6 +20,7 @@ import java.util.Map;
 
 import edu.mit.jverbnet.data.IVerbnetType;
 import edu.mit.jverbnet.data.VerbnetTypes;
+import edu.mit.jverbnet.util.IHasOrdinal;
 
 /**
  * Syntactic argument types. The values in this enum correspond to the named
@@ -30,7 +31,7 @@ import edu.mit.jverbnet.data.VerbnetTypes;
  * @version 1.2.0
  * @since JVerbnet 1.0.0
  */
-public enum SyntaxArgType implements IVerbnetType {
+public enum SyntaxArgType implements IVerbnetType, IHasOrdinal {
 	
 	NP  ("NP",   "Noun Phrase", VALUE_RULE.REQUIRED),
 	ADV ("ADV",  "Adverb",      VALUE_RULE.PROHIBITED),
@@ -15,9 +15,14 @@ import java.util.Collections;
 import java.util.List;
 
 import edu.mit.jverbnet.data.syntax.ISyntaxArgDesc.ISyntaxArgDescBuilder;
+import edu.mit.jverbnet.util.collection.CompactCollections;
 
 /** 
- * Default implementation of {@link ISyntaxDesc}. 
+ * Default implementation of {@link ISyntaxDesc}. Two syntax descriptors are
+ * equal if their argument lists are equal. Each argument points back to the
+ * descriptor that created it, so arguments are never shared between
+ * descriptors; instead, a whole descriptor may be shared between all the
+ * frames that have equal syntax.
  *
  * @author Mark A. Finlayson
  * @version 1.2.0
@@ -59,7 +64,7 @@ public class SyntaxDesc implements ISyntaxDesc {
 			preArgs = new ArrayList<ISyntaxArgDesc>(preArgBs.size());
 			for(ISyntaxArgDescBuilder argB : preArgBs)
 				preArgs.add(argB.create(this));
-			preArgs = Collections.unmodifiableList(preArgs);
+			preArgs = CompactCollections.list(preArgs);
 		}
 		
 		// post-verb arguments
@@ -70,7 +75,7 @@ public class SyntaxDesc implements ISyntaxDesc {
 			postArgs = new ArrayList<ISyntaxArgDesc>(postArgBs.size());
 			for(ISyntaxArgDescBuilder argB : postArgBs)
 				postArgs.add(argB.create(this));
-			postArgs = Collections.unmodifiableList(postArgs);
+			postArgs = CompactCollections.list(postArgs);
 		}
 		
 		// assign fields
@@ -96,4 +101,51 @@ public class SyntaxDesc implements ISyntaxDesc {
 		return postArgs;
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return hashCode(this);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(obj == null)
+			return false;
+		if(!(obj instanceof ISyntaxDesc))
+			return false;
+		final ISyntaxDesc other = (ISyntaxDesc)obj;
+		if(!preArgs.equals(other.getPreVerbDescriptors()))
+			return false;
+		if(!postArgs.equals(other.getPostVerbDescriptors()))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Calculates a hash code for a syntax descriptor.
+	 * 
+	 * @param desc
+	 *            the syntax descriptor for which to calculate a hash code
+	 * @return the hash code for the object
+	 * @since JVerbnet 1.3.0
+	 */
+	public static int hashCode(ISyntaxDesc desc){
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + desc.getPreVerbDescriptors().hashCode();
+		result = prime * result + desc.getPostVerbDescriptors().hashCode();
+		return result;
+	}
+
 }
@@ -0,0 +1,194 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+/**
+ * Statistics about the loading of a single data file, as reported to an
+ * {@link ILoadListener}. Durations are in nanoseconds; the parse duration
+ * excludes the build duration.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FileLoadInfo {
+	
+	// unchanging fields
+	private final String name;
+	private final long bytes;
+	private final long readNanos;
+	private final long parseNanos;
+	private final long buildNanos;
+	private final int classes;
+	private final int members;
+	private final int roles;
+	private final int frames;
+
+	/**
+	 * Creates a new file load info object.
+	 * 
+	 * @param name
+	 *            the name of the file; may not be <code>null</code>
+	 * @param bytes
+	 *            the number of bytes in the file
+	 * @param readNanos
+	 *            the time spent opening the file
+	 * @param parseNanos
+	 *            the time spent parsing the file, excluding the build time
+	 * @param buildNanos
+	 *            the time spent constructing the verb classes of the file
+	 * @param classes
+	 *            the number of verb classes, including subclasses, in the file
+	 * @param members
+	 *            the number of members in the file
+	 * @param roles
+	 *            the number of thematic roles in the file
+	 * @param frames
+	 *            the number of frames in the file
+	 * @throws NullPointerException
+	 *             if the name is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public FileLoadInfo(String name, long bytes, long readNanos, long parseNanos, long buildNanos, int classes, int members, int roles, int frames){
+		this.name = NotNull.check("name", name);
+		this.bytes = bytes;
+		this.readNanos = readNanos;
+		this.parseNanos = parseNanos;
+		this.buildNanos = buildNanos;
+		this.classes = classes;
+		this.members = members;
+		this.roles = roles;
+		this.frames = frames;
+	}
+
+	/**
+	 * Returns the name of the file.
+	 * 
+	 * @return the name of the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of bytes in the file.
+	 * 
+	 * @return the number of bytes in the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the time spent opening the file, in nanoseconds.
+	 * 
+	 * @return the time spent opening the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getReadNanos() {
+		return readNanos;
+	}
+
+	/**
+	 * Returns the time spent parsing the file, excluding the time spent
+	 * constructing its verb classes, in nanoseconds.
+	 * 
+	 * @return the time spent parsing the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getParseNanos() {
+		return parseNanos;
+	}
+
+	/**
+	 * Returns the time spent constructing the verb classes of the file, in
+	 * nanoseconds.
+	 * 
+	 * @return the time spent constructing the verb classes
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getBuildNanos() {
+		return buildNanos;
+	}
+
+	/**
+	 * Returns the number of verb classes, including subclasses, in the file.
+	 * 
+	 * @return the number of verb classes in the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getClassCount() {
+		return classes;
+	}
+
+	/**
+	 * Returns the number of members in the file.
+	 * 
+	 * @return the number of members in the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getMemberCount() {
+		return members;
+	}
+
+	/**
+	 * Returns the number of thematic roles in the file.
+	 * 
+	 * @return the number of thematic roles in the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getRoleCount() {
+		return roles;
+	}
+
+	/**
+	 * Returns the number of frames in the file.
+	 * 
+	 * @return the number of frames in the file
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getFrameCount() {
+		return frames;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(name);
+		sb.append(": bytes=");
+		sb.append(bytes);
+		sb.append(", read=");
+		sb.append(readNanos / 1000);
+		sb.append("us, parse=");
+		sb.append(parseNanos / 1000);
+		sb.append("us, build=");
+		sb.append(buildNanos / 1000);
+		sb.append("us, classes=");
+		sb.append(classes);
+		sb.append(", members=");
+		sb.append(members);
+		sb.append(", roles=");
+		sb.append(roles);
+		sb.append(", frames=");
+		sb.append(frames);
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,559 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.xml.sax.SAXParseException;
+
+/**
+ * Publishes the activity of a verb index as Java Flight Recorder events, so
+ * that loads and lookups can be correlated with garbage collection, thread,
+ * and I/O activity in the same recording. An instance serves one index, and
+ * is attached to it as its load listener, its lookup metrics, or both:
+ *
+ * <pre>
+ * FlightRecorderEvents events = new FlightRecorderEvents(index);
+ * index.setLoadListener(events);
+ * index.setLookupMetrics(events);
+ * </pre>
+ *
+ * The following events are emitted, all in the <code>JVerbnet</code>
+ * category, and all carrying the Verbnet version of the index:
+ * <ul>
+ * <li><code>edu.mit.jverbnet.IndexOpen</code>, spanning each load, with the
+ * number of files, bytes, and classes read;</li>
+ * <li><code>edu.mit.jverbnet.FileParse</code>, for each data file, with its
+ * size, contents, and read, parse, and build times;</li>
+ * <li><code>edu.mit.jverbnet.SnapshotPublished</code>, when the loaded data
+ * becomes visible to queries, with the sizes of the indexes;</li>
+ * <li><code>edu.mit.jverbnet.IndexClose</code>, when the index is closed;
+ * and</li>
+ * <li><code>edu.mit.jverbnet.Lookup</code>, for one lookup in every
+ * {@link #getSampleInterval()}, with its type, time, and whether it
+ * missed.</li>
+ * </ul>
+ * The events are defined at runtime with the <code>jdk.jfr.EventFactory</code>
+ * API of Java 9 and later, so this library does not depend on Flight
+ * Recorder. On virtual machines without it, {@link #isAvailable()} returns
+ * <code>false</code> and all notifications are ignored. Whether each event is
+ * recorded is cached, and refreshed whenever a recording changes state, so
+ * that when Flight Recorder is not recording an event, a notification costs
+ * only the read of a volatile field. In particular, while lookup events are
+ * not recorded, these metrics are not {@linkplain #isEnabled() enabled}, and
+ * the index does not time its lookups at all. While they are recorded, a
+ * lookup that is not sampled costs its timing and an atomic increment. Changes
+ * to the settings of a recording that is already running take effect when
+ * the next recording starts or stops.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FlightRecorderEvents implements ILoadListener, ILookupMetrics {
+
+	/**
+	 * The default number of lookups per sampled lookup event
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_SAMPLE_INTERVAL = 1024;
+
+	// the event types; all null if flight recorder is not available
+	private static final DynamicEventType OPEN, FILE, SNAPSHOT, CLOSE, LOOKUP;
+
+	static {
+		DynamicEventType open = null, file = null, snapshot = null, close = null, lookup = null;
+		try {
+			open = new DynamicEventType("IndexOpen", "Verb Index Open", "A verb index loading its data", new Object[][]{
+					{String.class, "url", "URL", null, null},
+					{String.class, "version", "Verbnet Version", null, null},
+					{boolean.class, "success", "Success", null, null},
+					{int.class, "fileCount", "File Count", null, null},
+					{long.class, "bytes", "Bytes", "jdk.jfr.DataAmount", "BYTES"},
+					{int.class, "classCount", "Class Count", null, null},
+			});
+			file = new DynamicEventType("FileParse", "Verbnet File Parse", "A Verbnet data file loaded into a verb index", new Object[][]{
+					{String.class, "file", "File", null, null},
+					{String.class, "version", "Verbnet Version", null, null},
+					{long.class, "bytes", "Bytes", "jdk.jfr.DataAmount", "BYTES"},
+					{int.class, "classCount", "Class Count", null, null},
+					{int.class, "memberCount", "Member Count", null, null},
+					{int.class, "roleCount", "Role Count", null, null},
+					{int.class, "frameCount", "Frame Count", null, null},
+					{long.class, "readTime", "Read Time", "jdk.jfr.Timespan", "NANOSECONDS"},
+					{long.class, "parseTime", "Parse Time", "jdk.jfr.Timespan", "NANOSECONDS"},
+					{long.class, "buildTime", "Build Time", "jdk.jfr.Timespan", "NANOSECONDS"},
+			});
+			snapshot = new DynamicEventType("SnapshotPublished", "Verb Index Snapshot Published", "Loaded Verbnet data made visible to queries", new Object[][]{
+					{String.class, "url", "URL", null, null},
+					{String.class, "version", "Verbnet Version", null, null},
+					{int.class, "classCount", "Class Count", null, null},
+					{int.class, "memberCount", "Member Count", null, null},
+					{int.class, "keyCount", "Wordnet Key Count", null, null},
+					{int.class, "groupCount", "Grouping Count", null, null},
+			});
+			close = new DynamicEventType("IndexClose", "Verb Index Close", "A verb index releasing its data", new Object[][]{
+					{String.class, "url", "URL", null, null},
+					{String.class, "version", "Verbnet Version", null, null},
+			});
+			lookup = new DynamicEventType("Lookup", "Verb Index Lookup", "A sampled query of a verb index", new Object[][]{
+					{String.class, "lookup", "Lookup", null, null},
+					{String.class, "version", "Verbnet Version", null, null},
+					{boolean.class, "miss", "Miss", null, null},
+					{long.class, "time", "Time", "jdk.jfr.Timespan", "NANOSECONDS"},
+					{int.class, "sampleInterval", "Sample Interval", null, null},
+			});
+		} catch (Throwable t) {
+			open = file = snapshot = close = lookup = null;
+		}
+		OPEN = open;
+		FILE = file;
+		SNAPSHOT = snapshot;
+		CLOSE = close;
+		LOOKUP = lookup;
+		if(OPEN != null)
+			DynamicEventType.listen(OPEN, FILE, SNAPSHOT, CLOSE, LOOKUP);
+	}
+
+	// unchanging fields
+	private final IVerbIndex index;
+
+	// changeable fields
+	private volatile int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+	private final AtomicInteger lookups = new AtomicInteger();
+
+	// current load
+	private URL url;
+	private Object openEvent;
+	private int files, classes, members;
+	private long bytes;
+
+	/**
+	 * Creates a new event publisher for the specified index.
+	 *
+	 * @param index
+	 *            the index whose activity is published; may not be
+	 *            <code>null</code>
+	 * @throws NullPointerException
+	 *             if the index is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public FlightRecorderEvents(IVerbIndex index){
+		this.index = NotNull.check("index", index);
+	}
+
+	/**
+	 * Returns <code>true</code> if Flight Recorder is available on this
+	 * virtual machine, and the events could be defined; <code>false</code>
+	 * otherwise.
+	 *
+	 * @return <code>true</code> if events can be emitted; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public static boolean isAvailable(){
+		return OPEN != null;
+	}
+
+	/**
+	 * Sets the number of lookups per sampled lookup event. An interval of 1
+	 * emits an event for every lookup.
+	 *
+	 * @param interval
+	 *            the sample interval; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the interval is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setSampleInterval(int interval){
+		if(interval < 1)
+			throw new IllegalArgumentException("sample interval must be positive");
+		sampleInterval = interval;
+	}
+
+	/**
+	 * Returns the number of lookups per sampled lookup event.
+	 *
+	 * @return the sample interval
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getSampleInterval(){
+		return sampleInterval;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#loadStarted(java.net.URL)
+	 */
+	public void loadStarted(URL url) {
+		this.url = url;
+		files = classes = members = 0;
+		bytes = 0;
+		openEvent = (OPEN == null) ? null : OPEN.begin();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#warning(java.lang.String, org.xml.sax.SAXParseException)
+	 */
+	public void warning(String file, SAXParseException e) {
+		// not published
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#error(java.lang.String, java.lang.Throwable)
+	 */
+	public void error(String file, Throwable t) {
+		// not published
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#fileLoaded(edu.mit.jverbnet.index.FileLoadInfo)
+	 */
+	public void fileLoaded(FileLoadInfo info) {
+		files++;
+		classes += info.getClassCount();
+		members += info.getMemberCount();
+		if(info.getBytes() > 0)
+			bytes += info.getBytes();
+		if(FILE == null || !FILE.isEnabled())
+			return;
+		FILE.emit(info.getName(),
+				version(),
+				info.getBytes(),
+				info.getClassCount(),
+				info.getMemberCount(),
+				info.getRoleCount(),
+				info.getFrameCount(),
+				info.getReadNanos(),
+				info.getParseNanos(),
+				info.getBuildNanos());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#phaseFinished(edu.mit.jverbnet.index.LoadPhase, long)
+	 */
+	public void phaseFinished(LoadPhase phase, long nanos) {
+		// not published
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#loadFinished(boolean, long)
+	 */
+	public void loadFinished(boolean success, long nanos) {
+		if(openEvent != null){
+			OPEN.finish(openEvent, String.valueOf(url), version(), success, files, bytes, classes);
+			openEvent = null;
+		}
+		if(!success || SNAPSHOT == null || !SNAPSHOT.isEnabled())
+			return;
+		SNAPSHOT.emit(String.valueOf(url), version(), classes, members, count(index.iteratorWordnetKeys()), count(index.iteratorGroups()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#indexClosed(java.net.URL)
+	 */
+	public void indexClosed(URL url) {
+		if(CLOSE == null || !CLOSE.isEnabled())
+			return;
+		CLOSE.emit(String.valueOf(url), version());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILookupMetrics#isEnabled()
+	 */
+	public boolean isEnabled() {
+		return LOOKUP != null && LOOKUP.isEnabled();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILookupMetrics#lookupPerformed(edu.mit.jverbnet.index.Lookup, long, boolean)
+	 */
+	public void lookupPerformed(Lookup type, long nanos, boolean miss) {
+		if(!isEnabled())
+			return;
+		int interval = sampleInterval;
+		if(lookups.incrementAndGet() % interval != 0)
+			return;
+		LOOKUP.emit(type.name(), version(), miss, nanos, interval);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.index.ILookupMetrics#iteratorCreated(edu.mit.jverbnet.index.Lookup)
+	 */
+	public void iteratorCreated(Lookup type) {
+		// not published
+	}
+
+	/**
+	 * Returns the Verbnet version of the index, as a string.
+	 *
+	 * @return the version of the index
+	 * @since JVerbnet 1.3.0
+	 */
+	protected String version(){
+		return String.valueOf(index.getVersion());
+	}
+
+	/**
+	 * Counts the elements returned by the specified iterator.
+	 *
+	 * @param itr
+	 *            the iterator
+	 * @return the number of elements
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int count(Iterator<?> itr){
+		int count = 0;
+		for(; itr.hasNext(); itr.next())
+			count++;
+		return count;
+	}
+
+	/**
+	 * A Flight Recorder event type defined at runtime, and accessed by
+	 * reflection.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class DynamicEventType {
+
+		/**
+		 * The prefix of the names of the event types
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		public static final String PREFIX = "edu.mit.jverbnet.";
+
+		/**
+		 * The category of the event types
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		public static final String CATEGORY = "JVerbnet";
+
+		// unchanging fields
+		private final Object factory;
+		private final Object type;
+		private final Method isEnabled;
+		private final Method newEvent;
+		private final Method set;
+		private final Method begin;
+		private final Method commit;
+
+		// changeable fields
+		private volatile boolean enabled;
+
+		/**
+		 * Defines and registers a new event type. Each field is described by
+		 * an array holding its type, which must be a primitive or string
+		 * class, its name, its label, and the class name and value of an
+		 * optional unit annotation, such as <code>jdk.jfr.Timespan</code>.
+		 *
+		 * @param name
+		 *            the name of the event, without the package prefix
+		 * @param label
+		 *            the human-readable label of the event
+		 * @param description
+		 *            the description of the event
+		 * @param fields
+		 *            the descriptions of the fields of the event
+		 * @throws Exception
+		 *             if Flight Recorder is not available, or the event
+		 *             could not be defined
+		 * @since JVerbnet 1.3.0
+		 */
+		public DynamicEventType(String name, String label, String description, Object[][] fields) throws Exception {
+			Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+			Class<?> eventClass = Class.forName("jdk.jfr.Event");
+			Class<?> elementClass = Class.forName("jdk.jfr.AnnotationElement");
+			Class<?> descriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+			Constructor<?> element = elementClass.getConstructor(Class.class, Object.class);
+			Constructor<?> descriptor = descriptorClass.getConstructor(Class.class, String.class, List.class);
+
+			// event annotations
+			List<Object> annotations = new ArrayList<Object>();
+			annotations.add(element.newInstance(Class.forName("jdk.jfr.Name"), PREFIX + name));
+			annotations.add(element.newInstance(Class.forName("jdk.jfr.Label"), label));
+			annotations.add(element.newInstance(Class.forName("jdk.jfr.Description"), description));
+			annotations.add(element.newInstance(Class.forName("jdk.jfr.Category"), new String[]{CATEGORY}));
+
+			// fields
+			List<Object> descriptors = new ArrayList<Object>(fields.length);
+			for(Object[] field : fields){
+				List<Object> fieldAnnotations = new ArrayList<Object>(2);
+				fieldAnnotations.add(element.newInstance(Class.forName("jdk.jfr.Label"), field[2]));
+				if(field[3] != null)
+					fieldAnnotations.add(element.newInstance(Class.forName((String)field[3]), field[4]));
+				descriptors.add(descriptor.newInstance(field[0], field[1], fieldAnnotations));
+			}
+
+			factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, descriptors);
+			type = factoryClass.getMethod("getEventType").invoke(factory);
+			isEnabled = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+			newEvent = factoryClass.getMethod("newEvent");
+			set = eventClass.getMethod("set", int.class, Object.class);
+			begin = eventClass.getMethod("begin");
+			commit = eventClass.getMethod("commit");
+			refresh();
+		}
+
+		/**
+		 * Registers a Flight Recorder listener that refreshes the specified
+		 * event types whenever a recording changes state. If the listener
+		 * cannot be registered, the types keep the state they were created
+		 * with.
+		 *
+		 * @param types
+		 *            the event types to refresh
+		 * @since JVerbnet 1.3.0
+		 */
+		public static void listen(final DynamicEventType... types){
+			try {
+				Class<?> listenerClass = Class.forName("jdk.jfr.FlightRecorderListener");
+				Object listener = Proxy.newProxyInstance(listenerClass.getClassLoader(), new Class<?>[]{ listenerClass }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if(method.getDeclaringClass() == Object.class){
+							if("equals".equals(method.getName()))
+								return proxy == args[0];
+							if("hashCode".equals(method.getName()))
+								return System.identityHashCode(proxy);
+							return "JVerbnet event listener";
+						}
+						// recorderInitialized or recordingStateChanged
+						for(DynamicEventType type : types)
+							type.refresh();
+						return null;
+					}
+				});
+				Class.forName("jdk.jfr.FlightRecorder").getMethod("addListener", listenerClass).invoke(null, listener);
+			} catch (Exception e) {
+				// the types are not refreshed
+			}
+		}
+
+		/**
+		 * Returns <code>true</code> if a recording is collecting events of
+		 * this type; <code>false</code> otherwise. The answer is cached, and
+		 * brought up to date by {@link #refresh()}.
+		 *
+		 * @return <code>true</code> if events of this type are recorded;
+		 *         <code>false</code> otherwise
+		 * @since JVerbnet 1.3.0
+		 */
+		public boolean isEnabled(){
+			return enabled;
+		}
+
+		/**
+		 * Asks Flight Recorder whether a recording is collecting events of
+		 * this type, and caches the answer for {@link #isEnabled()}.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		public void refresh(){
+			try {
+				enabled = (Boolean)isEnabled.invoke(type);
+			} catch (Exception e) {
+				enabled = false;
+			}
+		}
+
+		/**
+		 * Creates an event of this type and starts its timing, if events of
+		 * this type are recorded.
+		 *
+		 * @return the started event, to be passed to
+		 *         {@link #finish(Object, Object...)}, or <code>null</code> if
+		 *         events of this type are not recorded
+		 * @since JVerbnet 1.3.0
+		 */
+		public Object begin(){
+			if(!isEnabled())
+				return null;
+			try {
+				Object event = newEvent.invoke(factory);
+				begin.invoke(event);
+				return event;
+			} catch (Exception e) {
+				return null;
+			}
+		}
+
+		/**
+		 * Sets the fields of an event started by {@link #begin()}, and
+		 * commits it, ending its timing.
+		 *
+		 * @param event
+		 *            the started event
+		 * @param values
+		 *            the values of the fields, in order of definition
+		 * @since JVerbnet 1.3.0
+		 */
+		public void finish(Object event, Object... values){
+			try {
+				for(int i = 0; i < values.length; i++)
+					set.invoke(event, i, values[i]);
+				commit.invoke(event);
+			} catch (Exception e) {
+				// an event that cannot be committed is dropped
+			}
+		}
+
+		/**
+		 * Creates and commits an event of this type, with no duration.
+		 *
+		 * @param values
+		 *            the values of the fields, in order of definition
+		 * @since JVerbnet 1.3.0
+		 */
+		public void emit(Object... values){
+			try {
+				finish(newEvent.invoke(factory), values);
+			} catch (Exception e) {
+				// an event that cannot be created is dropped
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,115 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+import java.net.URL;
+
+import org.xml.sax.SAXParseException;
+
+/**
+ * Receives notifications about the progress of loading a verb index. A
+ * listener is attached with {@link VerbIndex#setLoadListener(ILoadListener)}.
+ * Notifications are delivered on the thread that opens the index, in the
+ * following order: {@link #loadStarted(URL)}; then, for each data file,
+ * any warnings and errors for that file followed by
+ * {@link #fileLoaded(FileLoadInfo)}; then
+ * {@link #phaseFinished(LoadPhase, long)} once for each phase; and finally
+ * {@link #loadFinished(boolean, long)}. If the load fails, the remaining
+ * file and phase notifications are skipped. If the load succeeds,
+ * {@link #indexClosed(URL)} is called when the index is later closed.
+ * <p>
+ * Listeners should return quickly, as they are called while the index is
+ * loading. All durations are in nanoseconds.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public interface ILoadListener {
+	
+	/**
+	 * Called when the index begins to load.
+	 * 
+	 * @param url
+	 *            the location of the data being loaded; never
+	 *            <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void loadStarted(URL url);
+
+	/**
+	 * Called when the parser or a handler reports a warning or recoverable
+	 * error while loading a file.
+	 * 
+	 * @param file
+	 *            the name of the file being loaded; never <code>null</code>
+	 * @param e
+	 *            the warning; never <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void warning(String file, SAXParseException e);
+
+	/**
+	 * Called when a file could not be loaded. The load fails after this
+	 * notification.
+	 * 
+	 * @param file
+	 *            the name of the file being loaded; never <code>null</code>
+	 * @param t
+	 *            the cause of the failure; never <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void error(String file, Throwable t);
+
+	/**
+	 * Called when a file has been loaded successfully.
+	 * 
+	 * @param info
+	 *            the statistics of the file; never <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void fileLoaded(FileLoadInfo info);
+
+	/**
+	 * Called when a phase of the load has finished.
+	 * 
+	 * @param phase
+	 *            the phase; never <code>null</code>
+	 * @param nanos
+	 *            the total duration of the phase
+	 * @since JVerbnet 1.3.0
+	 */
+	public void phaseFinished(LoadPhase phase, long nanos);
+
+	/**
+	 * Called when the load has finished, whether or not it was successful.
+	 * 
+	 * @param success
+	 *            <code>true</code> if the index was loaded;
+	 *            <code>false</code> otherwise
+	 * @param nanos
+	 *            the duration of the whole load
+	 * @since JVerbnet 1.3.0
+	 */
+	public void loadFinished(boolean success, long nanos);
+
+	/**
+	 * Called when a successfully loaded index is closed, and its data
+	 * released.
+	 * 
+	 * @param url
+	 *            the location of the data that was loaded; never
+	 *            <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void indexClosed(URL url);
+
+}
@@ -0,0 +1,62 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+/**
+ * Receives measurements of the queries made to a verb index. Metrics are
+ * attached with {@link VerbIndex#setLookupMetrics(ILookupMetrics)}. The
+ * methods of this interface are called on the querying threads, often
+ * concurrently, and should be thread-safe and fast.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public interface ILookupMetrics {
+	
+	/**
+	 * Returns <code>true</code> if these metrics are currently recording
+	 * lookups; <code>false</code> otherwise. The index checks this before
+	 * each lookup, and neither times nor reports lookups while it returns
+	 * <code>false</code>, so it should be as cheap as reading a field.
+	 * 
+	 * @return <code>true</code> if lookups are to be measured;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isEnabled();
+	
+	/**
+	 * Called after a lookup has been performed.
+	 * 
+	 * @param type
+	 *            the type of lookup; never <code>null</code>, and never an
+	 *            iterator type
+	 * @param nanos
+	 *            the duration of the lookup, in nanoseconds
+	 * @param miss
+	 *            <code>true</code> if the lookup found nothing, that is,
+	 *            returned <code>null</code> or an empty set;
+	 *            <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public void lookupPerformed(Lookup type, long nanos, boolean miss);
+	
+	/**
+	 * Called after an iterator has been created.
+	 * 
+	 * @param type
+	 *            the type of iterator; never <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void iteratorCreated(Lookup type);
+
+}
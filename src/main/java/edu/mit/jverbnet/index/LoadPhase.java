@@ -0,0 +1,62 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+/**
+ * The phases of loading a verb index, as reported to an
+ * {@link ILoadListener}. The read, parse, and build phases are interleaved
+ * file by file; their durations are summed over all files.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public enum LoadPhase {
+	
+	/**
+	 * Opening the data files or streams. Files are memory-mapped, so the
+	 * actual disk reads are mostly counted in the parse phase.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	READ,
+	
+	/**
+	 * Tokenizing the XML and dispatching it to the handlers, which fill in
+	 * the builders of the data objects. Excludes the build phase.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	PARSE,
+	
+	/**
+	 * Constructing the verb classes from their builders, and adding them to
+	 * the map of classes.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	BUILD_CLASSES,
+	
+	/**
+	 * Building the index of members by wordnet key.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	INDEX_KEYS,
+	
+	/**
+	 * Building the index of members by grouping.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	INDEX_GROUPS;
+
+}
@@ -0,0 +1,347 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.SAXParseException;
+
+/**
+ * Default implementation of the {@link ILoadListener} interface, which
+ * collects the notifications of a load into a structured report. The report
+ * is reset each time a new load starts, so it always describes the most
+ * recent load. The {@link #toString()} method renders the report as
+ * human-readable text.
+ * <p>
+ * The methods of this class are synchronized, so a report may be read from a
+ * different thread than the one loading the index.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class LoadReport implements ILoadListener {
+	
+	/**
+	 * The number of files listed in the text rendering of the report
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int SLOWEST_FILE_COUNT = 10;
+	
+	// changeable fields
+	private URL url;
+	private boolean finished;
+	private boolean success;
+	private long totalNanos;
+	private final Map<LoadPhase, Long> phaseNanos = new EnumMap<LoadPhase, Long>(LoadPhase.class);
+	private final List<FileLoadInfo> files = new ArrayList<FileLoadInfo>();
+	private final List<String> warnings = new ArrayList<String>();
+	private final List<String> errors = new ArrayList<String>();
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#loadStarted(java.net.URL)
+	 */
+	public synchronized void loadStarted(URL url) {
+		this.url = url;
+		finished = false;
+		success = false;
+		totalNanos = 0;
+		phaseNanos.clear();
+		files.clear();
+		warnings.clear();
+		errors.clear();
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#warning(java.lang.String, org.xml.sax.SAXParseException)
+	 */
+	public synchronized void warning(String file, SAXParseException e) {
+		warnings.add(file + ":" + e.getLineNumber() + ":" + e.getColumnNumber() + ": " + e.getMessage());
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#error(java.lang.String, java.lang.Throwable)
+	 */
+	public synchronized void error(String file, Throwable t) {
+		errors.add(file + ": " + t);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#fileLoaded(edu.mit.jverbnet.index.FileLoadInfo)
+	 */
+	public synchronized void fileLoaded(FileLoadInfo info) {
+		files.add(info);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#phaseFinished(edu.mit.jverbnet.index.LoadPhase, long)
+	 */
+	public synchronized void phaseFinished(LoadPhase phase, long nanos) {
+		phaseNanos.put(phase, nanos);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#loadFinished(boolean, long)
+	 */
+	public synchronized void loadFinished(boolean success, long nanos) {
+		this.finished = true;
+		this.success = success;
+		this.totalNanos = nanos;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILoadListener#indexClosed(java.net.URL)
+	 */
+	public void indexClosed(URL url) {
+		// the report of the last load is kept
+	}
+
+	/**
+	 * Returns the location of the data of the most recent load, or
+	 * <code>null</code> if no load has started.
+	 * 
+	 * @return the location of the data, or <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized URL getURL(){
+		return url;
+	}
+
+	/**
+	 * Returns <code>true</code> if the most recent load has finished.
+	 * 
+	 * @return <code>true</code> if the load has finished; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized boolean isFinished(){
+		return finished;
+	}
+
+	/**
+	 * Returns <code>true</code> if the most recent load has finished
+	 * successfully.
+	 * 
+	 * @return <code>true</code> if the load succeeded; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized boolean isSuccessful(){
+		return success;
+	}
+
+	/**
+	 * Returns the duration of the most recent load, in nanoseconds, or zero if
+	 * it has not finished.
+	 * 
+	 * @return the duration of the load
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized long getTotalNanos(){
+		return totalNanos;
+	}
+
+	/**
+	 * Returns the duration of the specified phase of the most recent load, in
+	 * nanoseconds, or zero if the phase has not finished.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the duration of the phase
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized long getPhaseNanos(LoadPhase phase){
+		Long nanos = phaseNanos.get(phase);
+		return (nanos == null) ? 0 : nanos.longValue();
+	}
+
+	/**
+	 * Returns the statistics of the files loaded so far, in the order they
+	 * were loaded.
+	 * 
+	 * @return an unmodifiable copy of the file statistics
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized List<FileLoadInfo> getFiles(){
+		return Collections.unmodifiableList(new ArrayList<FileLoadInfo>(files));
+	}
+
+	/**
+	 * Returns the warnings reported so far, each in the form
+	 * <code>file:line:column: message</code>.
+	 * 
+	 * @return an unmodifiable copy of the warnings
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized List<String> getWarnings(){
+		return Collections.unmodifiableList(new ArrayList<String>(warnings));
+	}
+
+	/**
+	 * Returns the errors reported so far, each in the form
+	 * <code>file: exception</code>.
+	 * 
+	 * @return an unmodifiable copy of the errors
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized List<String> getErrors(){
+		return Collections.unmodifiableList(new ArrayList<String>(errors));
+	}
+
+	/**
+	 * Returns the total number of bytes in the files loaded so far.
+	 * 
+	 * @return the total number of bytes
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized long getTotalBytes(){
+		long result = 0;
+		for(FileLoadInfo f : files)
+			result += f.getBytes();
+		return result;
+	}
+
+	/**
+	 * Returns the total number of verb classes, including subclasses, in the
+	 * files loaded so far.
+	 * 
+	 * @return the total number of verb classes
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized int getClassCount(){
+		int result = 0;
+		for(FileLoadInfo f : files)
+			result += f.getClassCount();
+		return result;
+	}
+
+	/**
+	 * Returns the total number of members in the files loaded so far.
+	 * 
+	 * @return the total number of members
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized int getMemberCount(){
+		int result = 0;
+		for(FileLoadInfo f : files)
+			result += f.getMemberCount();
+		return result;
+	}
+
+	/**
+	 * Returns the total number of frames in the files loaded so far.
+	 * 
+	 * @return the total number of frames
+	 * @since JVerbnet 1.3.0
+	 */
+	public synchronized int getFrameCount(){
+		int result = 0;
+		for(FileLoadInfo f : files)
+			result += f.getFrameCount();
+		return result;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Load of ");
+		sb.append(url);
+		sb.append(": ");
+		sb.append(!finished ? "unfinished" : success ? "succeeded" : "failed");
+		sb.append(" in ");
+		appendMillis(sb, totalNanos);
+		sb.append('\n');
+		
+		// totals
+		sb.append("  files: ").append(files.size());
+		sb.append(", bytes: ").append(getTotalBytes());
+		sb.append(", classes: ").append(getClassCount());
+		sb.append(", members: ").append(getMemberCount());
+		sb.append(", frames: ").append(getFrameCount());
+		sb.append('\n');
+		
+		// phases
+		sb.append("  phases:\n");
+		for(LoadPhase phase : LoadPhase.values()){
+			sb.append("    ");
+			sb.append(phase);
+			for(int i = phase.name().length(); i < 16; i++)
+				sb.append(' ');
+			appendMillis(sb, getPhaseNanos(phase));
+			sb.append('\n');
+		}
+		
+		// slowest files
+		if(!files.isEmpty()){
+			List<FileLoadInfo> sorted = new ArrayList<FileLoadInfo>(files);
+			Collections.sort(sorted, new Comparator<FileLoadInfo>() {
+				public int compare(FileLoadInfo a, FileLoadInfo b) {
+					long ta = a.getReadNanos() + a.getParseNanos() + a.getBuildNanos();
+					long tb = b.getReadNanos() + b.getParseNanos() + b.getBuildNanos();
+					return (ta < tb) ? 1 : (ta == tb) ? 0 : -1;
+				}
+			});
+			sb.append("  slowest files:\n");
+			for(FileLoadInfo f : sorted.subList(0, Math.min(SLOWEST_FILE_COUNT, sorted.size())))
+				sb.append("    ").append(f).append('\n');
+		}
+		
+		// problems
+		sb.append("  warnings: ").append(warnings.size()).append('\n');
+		for(String w : warnings)
+			sb.append("    ").append(w).append('\n');
+		sb.append("  errors: ").append(errors.size()).append('\n');
+		for(String e : errors)
+			sb.append("    ").append(e).append('\n');
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the specified duration in milliseconds, with one decimal place.
+	 * 
+	 * @param sb
+	 *            the builder to append to
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static void appendMillis(StringBuilder sb, long nanos){
+		long tenths = nanos / 100000;
+		sb.append(tenths / 10).append('.').append(tenths % 10).append(" ms");
+	}
+
+}
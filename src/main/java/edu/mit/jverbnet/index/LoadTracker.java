@@ -0,0 +1,272 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import edu.mit.jverbnet.data.IVerbClass;
+
+/**
+ * Collects the statistics of a single load of a verb index and reports them
+ * to a load listener. The tracker also serves as the error handler of the
+ * parser during the load, so that warnings are attributed to the file being
+ * parsed before being passed on to the error handler of the index.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+class LoadTracker implements ErrorHandler {
+	
+	// unchanging fields
+	private final ILoadListener listener;
+	private final ErrorHandler delegate;
+	
+	// current file
+	private String file = "unknown file";
+	private long bytes;
+	private CountingInputStream counter;
+	private long fileBuildNanos;
+	private int classes, members, roles, frames;
+	
+	// phase totals
+	private long readNanos, parseNanos, buildNanos;
+	
+	/**
+	 * Creates a new tracker.
+	 * 
+	 * @param listener
+	 *            the listener to report to; may not be <code>null</code>
+	 * @param delegate
+	 *            the error handler to which warnings and errors are passed
+	 *            on; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public LoadTracker(ILoadListener listener, ErrorHandler delegate){
+		this.listener = NotNull.check("listener", listener);
+		this.delegate = NotNull.check("delegate", delegate);
+	}
+	
+	/**
+	 * Returns the listener of this tracker.
+	 * 
+	 * @return the listener of this tracker
+	 * @since JVerbnet 1.3.0
+	 */
+	public ILoadListener getListener(){
+		return listener;
+	}
+	
+	/**
+	 * Notes the start of a file. If the length of the file is not known, the
+	 * stream is wrapped so that its bytes are counted.
+	 * 
+	 * @param name
+	 *            the name of the file
+	 * @param in
+	 *            the stream for the file
+	 * @param length
+	 *            the length of the file, or -1 if not known
+	 * @return the stream the parser should read
+	 * @since JVerbnet 1.3.0
+	 */
+	public InputStream startFile(String name, InputStream in, long length){
+		file = (name == null) ? "unknown file" : name;
+		bytes = length;
+		fileBuildNanos = 0;
+		classes = members = roles = frames = 0;
+		if(length >= 0){
+			counter = null;
+			return in;
+		}
+		counter = new CountingInputStream(in);
+		return counter;
+	}
+	
+	/**
+	 * Notes that a root verb class was built from the current file.
+	 * 
+	 * @param vc
+	 *            the verb class
+	 * @param nanos
+	 *            the time spent building the class
+	 * @since JVerbnet 1.3.0
+	 */
+	public void classBuilt(IVerbClass vc, long nanos){
+		fileBuildNanos += nanos;
+		count(vc);
+	}
+	
+	/**
+	 * Counts the specified class and its subclasses.
+	 * 
+	 * @param vc
+	 *            the class to count
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void count(IVerbClass vc){
+		classes++;
+		members += vc.getMembers().size();
+		roles += vc.getThematicRoles().size();
+		frames += vc.getFrames().size();
+		for(IVerbClass sub : vc.getSubclasses())
+			count(sub);
+	}
+	
+	/**
+	 * Notes the successful end of the current file, and reports it to the
+	 * listener.
+	 * 
+	 * @param read
+	 *            the time spent opening the file
+	 * @param parse
+	 *            the time spent parsing the file, including the time spent
+	 *            building its classes
+	 * @since JVerbnet 1.3.0
+	 */
+	public void finishFile(long read, long parse){
+		if(counter != null)
+			bytes = counter.count;
+		long parseOnly = parse - fileBuildNanos;
+		readNanos += read;
+		parseNanos += parseOnly;
+		buildNanos += fileBuildNanos;
+		listener.fileLoaded(new FileLoadInfo(file, bytes, read, parseOnly, fileBuildNanos, classes, members, roles, frames));
+	}
+	
+	/**
+	 * Reports the totals of the read, parse, and build phases to the
+	 * listener.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public void finishParsing(){
+		listener.phaseFinished(LoadPhase.READ, readNanos);
+		listener.phaseFinished(LoadPhase.PARSE, parseNanos);
+		listener.phaseFinished(LoadPhase.BUILD_CLASSES, buildNanos);
+	}
+	
+	/**
+	 * Reports that the current file could not be loaded.
+	 * 
+	 * @param t
+	 *            the cause of the failure
+	 * @since JVerbnet 1.3.0
+	 */
+	public void failed(Throwable t){
+		listener.error(file, t);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see org.xml.sax.ErrorHandler#warning(org.xml.sax.SAXParseException)
+	 */
+	public void warning(SAXParseException e) throws SAXException {
+		listener.warning(file, e);
+		delegate.warning(e);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see org.xml.sax.ErrorHandler#error(org.xml.sax.SAXParseException)
+	 */
+	public void error(SAXParseException e) throws SAXException {
+		listener.warning(file, e);
+		delegate.error(e);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see org.xml.sax.ErrorHandler#fatalError(org.xml.sax.SAXParseException)
+	 */
+	public void fatalError(SAXParseException e) throws SAXException {
+		// the parser throws the exception after this call, so the failure
+		// is reported when the exception is caught
+		delegate.fatalError(e);
+	}
+	
+	/**
+	 * An input stream that counts the bytes read through it.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class CountingInputStream extends FilterInputStream {
+		
+		// the number of bytes read
+		protected long count = 0;
+		
+		/**
+		 * Creates a new counting stream.
+		 * 
+		 * @param in
+		 *            the stream to count
+		 * @since JVerbnet 1.3.0
+		 */
+		public CountingInputStream(InputStream in){
+			super(in);
+		}
+		
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.io.FilterInputStream#read()
+		 */
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if(b >= 0)
+				count++;
+			return b;
+		}
+		
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.io.FilterInputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if(n > 0)
+				count += n;
+			return n;
+		}
+		
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.io.FilterInputStream#skip(long)
+		 */
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+		
+	}
+
+}
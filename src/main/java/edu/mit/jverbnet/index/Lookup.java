@@ -0,0 +1,79 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+/**
+ * The query methods of a verb index, as reported to an
+ * {@link ILookupMetrics}.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public enum Lookup {
+	
+	/**
+	 * {@link IVerbIndex#getVerb(String)}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	GET_VERB,
+	
+	/**
+	 * {@link IVerbIndex#getRootVerb(String)}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	GET_ROOT_VERB,
+	
+	/**
+	 * {@link IVerbIndex#getMembers(edu.mit.jverbnet.data.IWordnetKey)}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	GET_MEMBERS_BY_KEY,
+	
+	/**
+	 * {@link IVerbIndex#getMembers(String)}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	GET_MEMBERS_BY_GROUP,
+	
+	/**
+	 * {@link IVerbIndex#iterator()}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	ITERATOR,
+	
+	/**
+	 * {@link IVerbIndex#iteratorRoots()}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	ITERATOR_ROOTS,
+	
+	/**
+	 * {@link IVerbIndex#iteratorWordnetKeys()}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	ITERATOR_WORDNET_KEYS,
+	
+	/**
+	 * {@link IVerbIndex#iteratorGroups()}
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	ITERATOR_GROUPS;
+
+}
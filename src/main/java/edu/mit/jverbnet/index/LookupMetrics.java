@@ -0,0 +1,182 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import edu.mit.jverbnet.util.metrics.LatencyHistogram;
+import edu.mit.jverbnet.util.metrics.StripedCounter;
+
+/**
+ * Default implementation of the {@link ILookupMetrics} interface. For each
+ * type of lookup, this class keeps a latency histogram, whose count is the
+ * number of calls, and a striped counter of misses; for each type of
+ * iterator, it keeps a striped counter of the iterators created. Recording
+ * never blocks.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class LookupMetrics implements ILookupMetrics {
+	
+	// unchanging fields
+	private final StripedCounter[] iterators;
+	private final StripedCounter[] misses;
+	private final LatencyHistogram[] latencies;
+	
+	/**
+	 * Creates a new, empty set of metrics.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public LookupMetrics(){
+		int n = Lookup.values().length;
+		iterators = new StripedCounter[n];
+		misses = new StripedCounter[n];
+		latencies = new LatencyHistogram[n];
+		for(int i = 0; i < n; i++){
+			iterators[i] = new StripedCounter();
+			misses[i] = new StripedCounter();
+			latencies[i] = new LatencyHistogram();
+		}
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILookupMetrics#isEnabled()
+	 */
+	public boolean isEnabled() {
+		return true;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILookupMetrics#lookupPerformed(edu.mit.jverbnet.index.Lookup, long, boolean)
+	 */
+	public void lookupPerformed(Lookup type, long nanos, boolean miss) {
+		int i = type.ordinal();
+		latencies[i].record(nanos);
+		if(miss)
+			misses[i].increment();
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.index.ILookupMetrics#iteratorCreated(edu.mit.jverbnet.index.Lookup)
+	 */
+	public void iteratorCreated(Lookup type) {
+		iterators[type.ordinal()].increment();
+	}
+	
+	/**
+	 * Returns the number of lookups of the specified type, or, for an
+	 * iterator type, the number of iterators created.
+	 * 
+	 * @param type
+	 *            the type of lookup; may not be <code>null</code>
+	 * @return the number of lookups of the type
+	 * @throws NullPointerException
+	 *             if the type is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getCount(Lookup type){
+		int i = NotNull.check("type", type).ordinal();
+		return latencies[i].getCount() + iterators[i].get();
+	}
+	
+	/**
+	 * Returns the number of lookups of the specified type that found nothing.
+	 * 
+	 * @param type
+	 *            the type of lookup; may not be <code>null</code>
+	 * @return the number of misses for the type
+	 * @throws NullPointerException
+	 *             if the type is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getMissCount(Lookup type){
+		return misses[NotNull.check("type", type).ordinal()].get();
+	}
+	
+	/**
+	 * Returns the fraction of lookups of the specified type that found
+	 * nothing, or zero if there have been no lookups.
+	 * 
+	 * @param type
+	 *            the type of lookup; may not be <code>null</code>
+	 * @return the miss rate for the type
+	 * @throws NullPointerException
+	 *             if the type is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getMissRate(Lookup type){
+		long count = getCount(type);
+		return (count == 0) ? 0 : (double)getMissCount(type) / count;
+	}
+	
+	/**
+	 * Returns the latency histogram of the specified type of lookup, in
+	 * nanoseconds. The histogram is live, not a copy. Iterator types have
+	 * empty histograms.
+	 * 
+	 * @param type
+	 *            the type of lookup; may not be <code>null</code>
+	 * @return the latency histogram for the type
+	 * @throws NullPointerException
+	 *             if the type is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public LatencyHistogram getLatencies(Lookup type){
+		return latencies[NotNull.check("type", type).ordinal()];
+	}
+	
+	/**
+	 * Resets all counters and histograms. Measurements recorded during the
+	 * reset may be lost.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public void reset(){
+		for(int i = 0; i < iterators.length; i++){
+			iterators[i].reset();
+			misses[i].reset();
+			latencies[i].reset();
+		}
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for(Lookup type : Lookup.values()){
+			long count = getCount(type);
+			if(count == 0)
+				continue;
+			sb.append(type).append(": calls=").append(count);
+			LatencyHistogram h = latencies[type.ordinal()];
+			if(h.getCount() > 0){
+				sb.append(", misses=").append(getMissCount(type));
+				sb.append(", latency(ns): ").append(h);
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+}
@@ -13,7 +13,7 @@ package edu.mit.jverbnet.index;
 import static edu.mit.jverbnet.util.Checks.IsNullEmptyOrBlank;
 import static edu.mit.jverbnet.util.Checks.NotNull;
 import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
-import static edu.mit.jverbnet.util.Checks.UnmodifiableMaskNullWithEmpty;
+import static edu.mit.jverbnet.util.Checks.UnmodifiableCompactMaskNullWithEmpty;
 import static edu.mit.jverbnet.util.Checks.thisLineShouldNeverBeCalled;
 
 import java.io.BufferedInputStream;
@@ -23,14 +23,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 
@@ -38,20 +43,26 @@ import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.XMLReaderFactory;
 
+import edu.mit.jverbnet.data.IFrame;
 import edu.mit.jverbnet.data.IMember;
 import edu.mit.jverbnet.data.IVerbClass;
 import edu.mit.jverbnet.data.IVersion;
 import edu.mit.jverbnet.data.IWordnetKey;
 import edu.mit.jverbnet.data.Version;
+import edu.mit.jverbnet.parse.ParseContext;
+import edu.mit.jverbnet.parse.ParseProfile;
 import edu.mit.jverbnet.parse.VerbClassHandler;
 import edu.mit.jverbnet.util.AbstractHasLifecycle;
 import edu.mit.jverbnet.util.ByteBufferInputStream;
 import edu.mit.jverbnet.util.FilteringIterator;
 import edu.mit.jverbnet.util.ResourceUtils;
+import edu.mit.jverbnet.util.XMLBundle;
+import edu.mit.jverbnet.util.collection.OffHeapStrings;
+import edu.mit.jverbnet.util.parse.InstancePool;
 import edu.mit.jverbnet.util.parse.MappedHandler;
 import edu.mit.jverbnet.util.parse.NullErrorHandler;
+import edu.mit.jverbnet.util.parse.StringPool;
 
 /** 
  * Default implementation of the {@link IVerbIndex} interface.
@@ -68,17 +79,32 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	// changable fields
 	private boolean isOpen = false;
 	private ErrorHandler errorHandler = NullErrorHandler.getInstance();
+	private boolean poolStrings = true;
+	private long stringPoolSavedBytes = 0;
+	private boolean shareValues = true;
+	private long sharedValueCount = 0;
+	private boolean offHeapExamples = false;
+	private ParseProfile parseProfile = ParseProfile.FULL;
+	private Set<String> selectedClasses = null;
+	private int parseThreads = 1;
+	private ILoadListener loadListener = null;
+	private LoadTracker tracker = null;
+	private volatile ILookupMetrics lookupMetrics = null;
 	private IVersion version;
-	private Map<String, IVerbClass> verbsById;
-	private Map<IWordnetKey, Set<IMember>> membersByKeys;
-	private Map<String, Set<IMember>> membersByGroups;
-	private Set<IMember> membersWithNoKey;
-	private Set<IMember> membersWithNoGroup;
+	
+	// the indexes, which close() clears while queries may be reading them;
+	// each query reads each index once, with indexOf(Object)
+	private volatile Map<String, IVerbClass> verbsById;
+	private volatile Map<IWordnetKey, Set<IMember>> membersByKeys;
+	private volatile Map<String, Set<IMember>> membersByGroups;
+	private volatile Set<IMember> membersWithNoKey;
+	private volatile Set<IMember> membersWithNoGroup;
 	
 	/**
 	 * Creates a new verb index that uses the data at the specified location.
-	 * The file may be a directory (which holds verbnet xml files), or a single
-	 * xml file containing all the verbnet data.
+	 * The file may be a directory (which holds verbnet xml files), a bundle of
+	 * verbnet xml files written by {@link XMLBundle}, or a single xml file
+	 * containing all the verbnet data.
 	 * 
 	 * @param file
 	 *            the file or directory containing the verbnet data
@@ -151,16 +177,45 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	@Override
 	protected boolean doOpen() throws IOException {
+		ILoadListener listener = loadListener;
+		if(listener == null)
+			return load();
+		
+		// track the load
+		long start = System.nanoTime();
+		listener.loadStarted(url);
+		tracker = new LoadTracker(listener, errorHandler);
+		boolean success = false;
+		try {
+			success = load();
+			return success;
+		} finally {
+			tracker = null;
+			listener.loadFinished(success, System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Loads the data and builds the indexes. If a load listener is set, its
+	 * tracker is available in the <code>tracker</code> field during the
+	 * load.
+	 * 
+	 * @return <code>true</code> if the index was loaded; <code>false</code>
+	 *         otherwise
+	 * @throws IOException
+	 *             if there is an IO error
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean load() throws IOException {
 		
 		Map<String, IVerbClass> verbsById = initVerbByIdMap();
 		if(verbsById == null)
 			return false;
 		
-		// populate collections
+		// index members by key
+		long time = System.nanoTime();
 		Map<IWordnetKey, Set<IMember>> membersByKeys = new TreeMap<IWordnetKey, Set<IMember>>();
-		Map<String, Set<IMember>> membersByGroups = new TreeMap<String, Set<IMember>>();
 		Set<IMember> membersWithNoKey = new LinkedHashSet<IMember>();
-		Set<IMember> membersWithNoGroup = new LinkedHashSet<IMember>();
 		for(IVerbClass vc : verbsById.values())
 			for(IMember m : vc.getMembers()){
 				if(m.getWordnetTypes().isEmpty()){
@@ -169,6 +224,18 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 					for(IWordnetKey key : m.getWordnetTypes().keySet())
 						getSetForKey(membersByKeys, key).add(m);
 				}
+			}
+		membersByKeys = compressAndMakeUnmodifiable(membersByKeys);
+		membersWithNoKey = UnmodifiableCompactMaskNullWithEmpty.reallocate(membersWithNoKey);
+		if(tracker != null)
+			tracker.getListener().phaseFinished(LoadPhase.INDEX_KEYS, System.nanoTime() - time);
+		
+		// index members by group
+		time = System.nanoTime();
+		Map<String, Set<IMember>> membersByGroups = new TreeMap<String, Set<IMember>>();
+		Set<IMember> membersWithNoGroup = new LinkedHashSet<IMember>();
+		for(IVerbClass vc : verbsById.values())
+			for(IMember m : vc.getMembers()){
 				if(m.getGroupings().isEmpty()){
 					membersWithNoGroup.add(m);
 				} else {
@@ -176,12 +243,10 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 						getSetForKey(membersByGroups, group).add(m);
 				}
 			}
-		
-		// make unmodifiable
-		membersByKeys = compressAndMakeUnmodifiable(membersByKeys);
 		membersByGroups = compressAndMakeUnmodifiable(membersByGroups);
-		membersWithNoKey = UnmodifiableMaskNullWithEmpty.reallocate(membersWithNoKey);
-		membersWithNoGroup = UnmodifiableMaskNullWithEmpty.reallocate(membersWithNoGroup);
+		membersWithNoGroup = UnmodifiableCompactMaskNullWithEmpty.reallocate(membersWithNoGroup);
+		if(tracker != null)
+			tracker.getListener().phaseFinished(LoadPhase.INDEX_GROUPS, System.nanoTime() - time);
 		
 		// assign fields
 		this.verbsById = verbsById;
@@ -210,6 +275,285 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 					eh;
 	}
 
+	/**
+	 * Sets the listener that is notified of the progress of each load of this
+	 * index, such as a {@link LoadReport}. Without a listener, no statistics
+	 * are collected. This setting will not take effect until the next time
+	 * the index is opened.
+	 * 
+	 * @param listener
+	 *            the load listener; may be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setLoadListener(ILoadListener listener){
+		loadListener = listener;
+	}
+	
+	/**
+	 * Returns the listener that is notified of the progress of each load of
+	 * this index, or <code>null</code> if there is none.
+	 * 
+	 * @return the load listener, or <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public ILoadListener getLoadListener(){
+		return loadListener;
+	}
+
+	/**
+	 * Sets the metrics that record the queries made to this index, such as a
+	 * {@link LookupMetrics}. Without metrics, or while the metrics are not
+	 * {@linkplain ILookupMetrics#isEnabled() enabled}, queries are neither
+	 * counted nor timed. Unlike the other settings, this one takes effect
+	 * immediately, and may be changed while the index is in use.
+	 * 
+	 * @param metrics
+	 *            the lookup metrics; may be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setLookupMetrics(ILookupMetrics metrics){
+		lookupMetrics = metrics;
+	}
+	
+	/**
+	 * Returns the metrics that record the queries made to this index, or
+	 * <code>null</code> if there are none.
+	 * 
+	 * @return the lookup metrics, or <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public ILookupMetrics getLookupMetrics(){
+		return lookupMetrics;
+	}
+
+	/**
+	 * Sets whether the index canonicalizes repeated strings, such as example
+	 * sentences, member names, and groupings, while parsing. Pooling is on by
+	 * default. The pool is discarded once the index is loaded. This setting
+	 * will not take effect until the next time the index is opened.
+	 * 
+	 * @param value
+	 *            <code>true</code> if strings should be pooled while loading;
+	 *            <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setPoolStrings(boolean value){
+		poolStrings = value;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the index canonicalizes repeated strings
+	 * while parsing; <code>false</code> otherwise.
+	 * 
+	 * @return <code>true</code> if the index canonicalizes repeated strings
+	 *         while parsing; <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isPoolStrings(){
+		return poolStrings;
+	}
+	
+	/**
+	 * Returns the estimated number of bytes saved by canonicalizing repeated
+	 * strings during the last load of this index. Returns 0 if the index has
+	 * not been loaded, or if string pooling was off.
+	 * 
+	 * @return the estimated number of bytes saved by string pooling during the
+	 *         last load
+	 * @see StringPool#getSavedBytes()
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getStringPoolSavedBytes(){
+		return stringPoolSavedBytes;
+	}
+
+	/**
+	 * Sets whether the index shares structurally identical selectional
+	 * restrictions, predicate descriptions, and syntax descriptions between
+	 * the frames and roles in which they appear. Sharing is on by default.
+	 * This setting will not take effect until the next time the index is
+	 * opened.
+	 * 
+	 * @param value
+	 *            <code>true</code> if identical values should be shared;
+	 *            <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setShareValues(boolean value){
+		shareValues = value;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the index shares structurally identical
+	 * value objects; <code>false</code> otherwise.
+	 * 
+	 * @return <code>true</code> if the index shares structurally identical
+	 *         value objects; <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isShareValues(){
+		return shareValues;
+	}
+	
+	/**
+	 * Returns the number of parsed value objects that were replaced by an
+	 * identical, shared instance during the last load of this index. Returns
+	 * 0 if the index has not been loaded, or if sharing was off.
+	 * 
+	 * @return the number of value objects replaced by shared instances during
+	 *         the last load
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getSharedValueCount(){
+		return sharedValueCount;
+	}
+
+	/**
+	 * Sets whether the index keeps the example sentences of frames outside of
+	 * the Java heap. If so, the examples are stored as UTF-8 in a direct
+	 * buffer, and the lists returned by {@link IFrame#getExamples()} decode
+	 * each example whenever it is retrieved. This shrinks the heap at the cost
+	 * of slower access to examples. Off-heap examples are off by default. This
+	 * setting will not take effect until the next time the index is opened.
+	 * 
+	 * @param value
+	 *            <code>true</code> if examples should be kept off the heap;
+	 *            <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setOffHeapExamples(boolean value){
+		offHeapExamples = value;
+	}
+	
+	/**
+	 * Sets the parse profile of the index, which selects the parts of the
+	 * data that are loaded. Parts that are left out are passed over when
+	 * parsing, and the accessors for them return the empty values documented
+	 * by {@link ParseProfile.Part}. By default, all the data is loaded. This
+	 * setting will not take effect until the next time the index is opened.
+	 * 
+	 * @param profile
+	 *            the parse profile; if <code>null</code>, all the data is
+	 *            loaded
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setParseProfile(ParseProfile profile){
+		parseProfile = (profile == null) ?
+				ParseProfile.FULL :
+					profile;
+	}
+	
+	/**
+	 * Returns the parse profile of the index.
+	 * 
+	 * @return the parse profile of the index; never <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseProfile getParseProfile(){
+		return parseProfile;
+	}
+	
+	/**
+	 * Selects the verb classes that are loaded from a directory or a bundle,
+	 * by the ids of their root classes. A file or bundle entry is loaded only
+	 * if its name, less the <code>.xml</code> extension, is one of the ids;
+	 * the subclasses of a selected class are loaded with it. A single xml
+	 * file is always loaded whole. By default, all classes are loaded. This
+	 * setting will not take effect until the next time the index is opened.
+	 * 
+	 * @param ids
+	 *            the ids of the root classes to load; if <code>null</code>,
+	 *            all classes are loaded
+	 * @throws NullPointerException
+	 *             if the collection contains <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setSelectedClasses(Collection<String> ids){
+		if(ids == null){
+			selectedClasses = null;
+			return;
+		}
+		Set<String> copy = new HashSet<String>(ids.size());
+		for(String id : ids)
+			copy.add(NotNull.check("id", id));
+		selectedClasses = Collections.unmodifiableSet(copy);
+	}
+	
+	/**
+	 * Returns the ids of the root classes that are loaded from a directory
+	 * or bundle, or <code>null</code> if all classes are loaded.
+	 * 
+	 * @return the unmodifiable set of selected ids, or <code>null</code> if
+	 *         all classes are loaded
+	 * @since JVerbnet 1.3.0
+	 */
+	public Set<String> getSelectedClasses(){
+		return selectedClasses;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the data file or bundle entry with the
+	 * specified name is selected for loading.
+	 * 
+	 * @param filename
+	 *            the name of the file or entry
+	 * @return <code>true</code> if the file should be loaded;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean isSelected(String filename){
+		Set<String> selected = selectedClasses;
+		if(selected == null)
+			return true;
+		String id = filename.endsWith(".xml") ?
+				filename.substring(0, filename.length()-4) :
+					filename;
+		return selected.contains(id);
+	}
+	
+	/**
+	 * Sets the number of threads that parse the entries of a bundle. With
+	 * more than one thread, each thread has its own parser, string pool, and
+	 * value pool, and the error handler of the index must be thread-safe.
+	 * The classes are indexed in the order of the entries, whatever the
+	 * number of threads. A load listener forces a single thread. By default,
+	 * one thread is used. This setting will not take effect until the next
+	 * time the index is opened.
+	 * 
+	 * @param threads
+	 *            the number of parse threads
+	 * @throws IllegalArgumentException
+	 *             if the number is less than one
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setParseThreads(int threads){
+		if(threads < 1)
+			throw new IllegalArgumentException("number of parse threads must be at least one");
+		parseThreads = threads;
+	}
+	
+	/**
+	 * Returns the number of threads that parse the entries of a bundle.
+	 * 
+	 * @return the number of parse threads
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getParseThreads(){
+		return parseThreads;
+	}
+
+	/**
+	 * Returns <code>true</code> if the index keeps the example sentences of
+	 * frames outside of the Java heap; <code>false</code> otherwise.
+	 * 
+	 * @return <code>true</code> if the index keeps examples off the heap;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isOffHeapExamples(){
+		return offHeapExamples;
+	}
+
 	/**
 	 * Initialization code for reading the verbnet XML.
 	 * 
@@ -225,61 +569,256 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 		// create parser
 		XMLReader parser = null;
 		try {
-			parser = XMLReaderFactory.createXMLReader();
-			parser.setFeature("http://xml.org/sax/features/namespaces", false);
-			parser.setFeature("http://xml.org/sax/features/validation", false);
-			parser.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-			parser.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-			parser.setErrorHandler(errorHandler);
+			parser = ParseContext.createXMLReader();
+			parser.setErrorHandler(tracker == null ? errorHandler : tracker);
 		} catch(SAXException e){
 			throw new RuntimeException(e);
 		}
 		
 		// create handler
-		MappedHandler<IVerbClass> handler = new VerbClassHandler(parser, true){
-			@Override
-			public void endTaggedBlock(String uri, String localName, String qName) throws SAXException {
-				putVerbClass(getElement());
-			}
-			protected void putVerbClass(IVerbClass vc){
-				result.put(vc.getID(), vc);
-				for(IVerbClass subvc : vc.getSubclasses())
-					putVerbClass(subvc);
-			}
-		};
+		MappedHandler<IVerbClass> handler = new ClassCollector(parser, result);
 		parser.setContentHandler(handler);
+		if(!parseProfile.isFull())
+			handler.setSkippedElements(parseProfile.getSkippedElements());
+		StringPool pool = poolStrings ? new StringPool() : null;
+		handler.setStringPool(pool);
+		stringPoolSavedBytes = 0;
+		InstancePool values = shareValues ? new InstancePool() : null;
+		handler.setInstancePool(values);
+		sharedValueCount = 0;
+		OffHeapStrings examples = offHeapExamples ? new OffHeapStrings() : null;
+		handler.setTextStore(examples);
 		
 		// parse data
 		File file = ResourceUtils.toFileChecked(url);
 		if(file == null || file.isFile()){
 			if(file == null){
 				// case 1: url is not a file
-				if(parse(parser, new BufferedInputStream(url.openStream()), url.getPath()))
+				if(parseFile(parser, null, url.getPath()))
+					return null;
+			} else if(XMLBundle.isBundle(file)){
+				// case 2: file points to a bundle
+				if(parseBundle(parser, file, result))
 					return null;
 			} else {
-				// case 2: file points to a single file
-				if(parse(parser, new ByteBufferInputStream(file), file.getName()))
+				// case 3: file points to a single file
+				if(parseFile(parser, file, file.getName()))
 					return null;
 			}
 		} else if(file.isDirectory()) {
-			// case 3: file points to a directory
+			// case 4: file points to a directory
 			File[] xmlFiles = file.listFiles(new FileFilter() {
 				public boolean accept(File f) {
 					return f.getName().endsWith(".xml");
 				}
 			});
 			for(File xmlFile : xmlFiles)
-				if(parse(parser, new ByteBufferInputStream(xmlFile), xmlFile.getName()))
+				if(isSelected(xmlFile.getName()) && parseFile(parser, xmlFile, xmlFile.getName()))
 					return null;
 		} else {
 			thisLineShouldNeverBeCalled();
 		}
+		if(tracker != null)
+			tracker.finishParsing();
+		if(pool != null)
+			stringPoolSavedBytes += pool.getSavedBytes();
+		if(values != null)
+			sharedValueCount += values.getHitCount();
+		if(examples != null)
+			examples.compact();
 		
 		// compress and make umodifiable
-		return Collections.unmodifiableMap(new LinkedHashMap<String, IVerbClass>(result));
+		return UnmodifiableCompactMaskNullWithEmpty.reallocate(result);
+		
+	}
+	
+	/**
+	 * Opens and parses a single data file, or the stream of the url of this
+	 * index. If a load listener is set, the file is timed and reported.
+	 * 
+	 * @param parser
+	 *            the parser to use; may not be <code>null</code>
+	 * @param file
+	 *            the file to parse, or <code>null</code> to parse the stream
+	 *            of the url of this index
+	 * @param filename
+	 *            the name of the file, for reporting
+	 * @return <code>true</code> if the parse failed and the initialization
+	 *         should halt; <code>false</code> otherwise
+	 * @throws IOException
+	 *             if there is an IO error when opening or parsing
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean parseFile(XMLReader parser, File file, String filename) throws IOException {
+		if(tracker == null)
+			return parse(parser, openStream(file), filename);
+		long start = System.nanoTime();
+		InputStream in = openStream(file);
+		in = tracker.startFile(filename, in, (file == null) ? -1 : file.length());
+		long read = System.nanoTime();
+		if(parse(parser, in, filename))
+			return true;
+		tracker.finishFile(read - start, System.nanoTime() - read);
+		return false;
+	}
+	
+	/**
+	 * Parses the selected entries of the bundle in the specified file, in
+	 * order, or with the number of threads set by
+	 * {@link #setParseThreads(int)}. The checksum of each entry is verified
+	 * before it is parsed. The bundle is closed before this method returns.
+	 * 
+	 * @param parser
+	 *            the parser to use when parsing on this thread; may not be
+	 *            <code>null</code>
+	 * @param file
+	 *            the bundle file; may not be <code>null</code>
+	 * @param result
+	 *            the map into which classes are put by the handler of the
+	 *            parser
+	 * @return <code>true</code> if the parse failed and the initialization
+	 *         should halt; <code>false</code> otherwise
+	 * @throws IOException
+	 *             if the bundle cannot be read, or an entry is corrupt
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean parseBundle(XMLReader parser, File file, Map<String, IVerbClass> result) throws IOException {
+		XMLBundle bundle = XMLBundle.open(file);
+		try {
+			List<XMLBundle.Entry> entries = new ArrayList<XMLBundle.Entry>(bundle.getEntries().size());
+			for(XMLBundle.Entry entry : bundle.getEntries())
+				if(isSelected(entry.getName()))
+					entries.add(entry);
+			int threads = Math.min(parseThreads, entries.size());
+			if(threads > 1 && tracker == null)
+				return parseEntries(bundle, entries, result, threads);
+			for(XMLBundle.Entry entry : entries)
+				if(parseEntry(parser, bundle, entry))
+					return true;
+			return false;
+		} finally {
+			bundle.close();
+		}
+	}
+	
+	/**
+	 * Parses a single entry of a bundle, after verifying its checksum. If a
+	 * load listener is set, the entry is timed and reported.
+	 * 
+	 * @param parser
+	 *            the parser to use; may not be <code>null</code>
+	 * @param bundle
+	 *            the open bundle; may not be <code>null</code>
+	 * @param entry
+	 *            the entry to parse; may not be <code>null</code>
+	 * @return <code>true</code> if the parse failed and the initialization
+	 *         should halt; <code>false</code> otherwise
+	 * @throws IOException
+	 *             if the checksum of the entry does not match
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean parseEntry(XMLReader parser, XMLBundle bundle, XMLBundle.Entry entry) throws IOException {
+		long start = System.nanoTime();
+		if(!bundle.verify(entry))
+			throw new IOException("Checksum mismatch for bundle entry " + entry.getName());
+		InputStream in = new ByteBufferInputStream(bundle.getData(entry));
+		if(tracker == null)
+			return parse(parser, in, entry.getName());
+		in = tracker.startFile(entry.getName(), in, entry.getLength());
+		long read = System.nanoTime();
+		if(parse(parser, in, entry.getName()))
+			return true;
+		tracker.finishFile(read - start, System.nanoTime() - read);
+		return false;
+	}
+	
+	/**
+	 * Parses the specified entries of a bundle with the specified number of
+	 * threads, each with its own parser and pools. Each entry is parsed into
+	 * a map of its own, and the maps are added to the result in the order of
+	 * the entries once all threads are done. This method does not return or
+	 * throw until every thread has finished, so that the caller may close
+	 * the bundle afterwards; if the calling thread is interrupted, the
+	 * remaining entries are abandoned and an exception is thrown with the
+	 * interrupt status set.
+	 * 
+	 * @param bundle
+	 *            the open bundle; may not be <code>null</code>
+	 * @param entries
+	 *            the entries to parse; may not be <code>null</code>
+	 * @param result
+	 *            the map into which the parsed classes are put
+	 * @param threads
+	 *            the number of threads
+	 * @return <code>true</code> if a parse failed and the initialization
+	 *         should halt; <code>false</code> otherwise
+	 * @throws IOException
+	 *             if the checksum of an entry does not match
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean parseEntries(XMLBundle bundle, List<XMLBundle.Entry> entries, Map<String, IVerbClass> result, int threads) throws IOException {
+		// resolve the version now, as the workers report it on failure
+		getVersion();
+		List<Map<String, IVerbClass>> parsed = new ArrayList<Map<String, IVerbClass>>(Collections.<Map<String, IVerbClass>>nCopies(entries.size(), null));
+		AtomicInteger next = new AtomicInteger();
+		ParseWorker[] workers = new ParseWorker[threads];
+		for(int i = 0; i < workers.length; i++){
+			workers[i] = new ParseWorker(bundle, entries, parsed, next);
+			workers[i].start();
+		}
 		
+		// join every worker before returning or throwing, as the workers
+		// take entry data from the bundle, which is closed by the caller
+		boolean failed = false;
+		boolean interrupted = false;
+		IOException error = null;
+		for(ParseWorker worker : workers){
+			while(worker.isAlive()){
+				try {
+					worker.join();
+				} catch(InterruptedException e){
+					// stop handing out entries, but wait for the workers
+					interrupted = true;
+					next.set(entries.size());
+				}
+			}
+			if(error == null)
+				error = worker.error;
+			failed |= worker.failed;
+			stringPoolSavedBytes += worker.savedBytes;
+			sharedValueCount += worker.sharedValues;
+		}
+		if(interrupted){
+			Thread.currentThread().interrupt();
+			if(error == null)
+				error = new IOException("Interrupted while parsing bundle");
+		}
+		if(error != null)
+			throw error;
+		if(failed)
+			return true;
+		for(Map<String, IVerbClass> classes : parsed)
+			result.putAll(classes);
+		return false;
 	}
 	
+	/**
+	 * Opens a stream on the specified data file, or on the url of this index.
+	 * 
+	 * @param file
+	 *            the file to open, or <code>null</code> to open the url of
+	 *            this index
+	 * @return the opened stream
+	 * @throws IOException
+	 *             if there is an IO error when opening the stream
+	 * @since JVerbnet 1.3.0
+	 */
+	protected InputStream openStream(File file) throws IOException {
+		return (file == null) ?
+				new BufferedInputStream(url.openStream()) :
+					new ByteBufferInputStream(file);
+	}
+
 	/**
 	 * Parses an XML input stream.
 	 * 
@@ -299,6 +838,8 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 		try {
 			parser.parse(new InputSource(in));
 		} catch (Throwable t) {
+			if(tracker != null)
+				tracker.failed(t);
 			StringWriter sb = new StringWriter();
 			sb.append("Parsing problem: ");
 			sb.append(filename == null ? "unknown file" : filename);
@@ -346,10 +887,190 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	protected <K,V> Map<K, Set<V>> compressAndMakeUnmodifiable(Map<K, Set<V>> map) {
 		for(Entry<K, Set<V>> e : map.entrySet())
-			e.setValue(Collections.unmodifiableSet(new LinkedHashSet<V>(e.getValue())));
+			e.setValue(UnmodifiableCompactMaskNullWithEmpty.reallocate(e.getValue()));
 		return Collections.unmodifiableMap(map);
 	}
 
+	/**
+	 * The handler for root verb classes during a load, which puts each class
+	 * and its subclasses into a map. If a load listener is set, the building
+	 * of each class is reported.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected class ClassCollector extends VerbClassHandler {
+		
+		// changeable fields
+		private Map<String, IVerbClass> target;
+		
+		/**
+		 * Creates a new collector that puts classes into the specified map.
+		 * 
+		 * @param parser
+		 *            the parser; may not be <code>null</code>
+		 * @param target
+		 *            the map into which classes are put; may not be
+		 *            <code>null</code>
+		 * @throws NullPointerException
+		 *             if either argument is <code>null</code>
+		 * @since JVerbnet 1.3.0
+		 */
+		public ClassCollector(XMLReader parser, Map<String, IVerbClass> target){
+			super(parser, true);
+			setTarget(target);
+		}
+		
+		/**
+		 * Sets the map into which classes are put.
+		 * 
+		 * @param target
+		 *            the map; may not be <code>null</code>
+		 * @throws NullPointerException
+		 *             if the map is <code>null</code>
+		 * @since JVerbnet 1.3.0
+		 */
+		public void setTarget(Map<String, IVerbClass> target){
+			this.target = NotNull.check("target", target);
+		}
+		
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jverbnet.util.parse.MappedHandler#endTaggedBlock(java.lang.String, java.lang.String, java.lang.String)
+		 */
+		@Override
+		public void endTaggedBlock(String uri, String localName, String qName) throws SAXException {
+			if(tracker == null){
+				putVerbClass(getElement());
+				return;
+			}
+			long time = System.nanoTime();
+			IVerbClass vc = getElement();
+			putVerbClass(vc);
+			tracker.classBuilt(vc, System.nanoTime() - time);
+		}
+		
+		/**
+		 * Puts the specified class and its subclasses into the target map.
+		 * 
+		 * @param vc
+		 *            the class
+		 * @since JVerbnet 1.3.0
+		 */
+		protected void putVerbClass(IVerbClass vc){
+			target.put(vc.getID(), vc);
+			for(IVerbClass subvc : vc.getSubclasses())
+				putVerbClass(subvc);
+		}
+		
+	}
+	
+	/**
+	 * A thread that parses entries of a bundle, taking the index of the next
+	 * entry from a shared counter, with its own parser, handler, and pools.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected class ParseWorker extends Thread {
+		
+		// unchanging fields
+		private final XMLBundle bundle;
+		private final List<XMLBundle.Entry> entries;
+		private final List<Map<String, IVerbClass>> parsed;
+		private final AtomicInteger next;
+		
+		// results, read after the thread is joined
+		protected boolean failed = false;
+		protected IOException error = null;
+		protected long savedBytes = 0;
+		protected long sharedValues = 0;
+		
+		/**
+		 * Creates a new worker.
+		 * 
+		 * @param bundle
+		 *            the open bundle
+		 * @param entries
+		 *            the entries to parse
+		 * @param parsed
+		 *            the list into which the classes of each entry are set,
+		 *            at the index of the entry
+		 * @param next
+		 *            the counter of the next entry to parse
+		 * @since JVerbnet 1.3.0
+		 */
+		public ParseWorker(XMLBundle bundle, List<XMLBundle.Entry> entries, List<Map<String, IVerbClass>> parsed, AtomicInteger next){
+			super("jverbnet-parse");
+			setDaemon(true);
+			this.bundle = bundle;
+			this.entries = entries;
+			this.parsed = parsed;
+			this.next = next;
+		}
+		
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.lang.Thread#run()
+		 */
+		@Override
+		public void run() {
+			XMLReader parser;
+			try {
+				parser = ParseContext.createXMLReader();
+			} catch(SAXException e){
+				error = new IOException("Unable to create parser: " + e.getMessage());
+				error.initCause(e);
+				return;
+			}
+			parser.setErrorHandler(errorHandler);
+			ClassCollector handler = new ClassCollector(parser, new LinkedHashMap<String, IVerbClass>());
+			parser.setContentHandler(handler);
+			if(!parseProfile.isFull())
+				handler.setSkippedElements(parseProfile.getSkippedElements());
+			StringPool pool = poolStrings ? new StringPool() : null;
+			handler.setStringPool(pool);
+			InstancePool values = shareValues ? new InstancePool() : null;
+			handler.setInstancePool(values);
+			OffHeapStrings examples = offHeapExamples ? new OffHeapStrings() : null;
+			handler.setTextStore(examples);
+			
+			try {
+				for(int i = next.getAndIncrement(); i < entries.size(); i = next.getAndIncrement()){
+					Map<String, IVerbClass> classes = new LinkedHashMap<String, IVerbClass>();
+					handler.setTarget(classes);
+					if(parseEntry(parser, bundle, entries.get(i))){
+						failed = true;
+						// stop the other workers
+						next.set(entries.size());
+						return;
+					}
+					parsed.set(i, classes);
+				}
+			} catch(IOException e){
+				error = e;
+				next.set(entries.size());
+				return;
+			} catch(RuntimeException e){
+				error = new IOException("Unable to parse bundle: " + e.getMessage());
+				error.initCause(e);
+				next.set(entries.size());
+				return;
+			}
+			if(pool != null)
+				savedBytes = pool.getSavedBytes();
+			if(values != null)
+				sharedValues = values.getHitCount();
+			if(examples != null)
+				examples.compact();
+		}
+		
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -367,10 +1088,37 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	@Override
 	protected void doClose() {
+		if(isOpen && loadListener != null)
+			loadListener.indexClosed(url);
 		isOpen = false;
 		verbsById = null;
 		membersByKeys = null;
 		membersByGroups = null;
+		membersWithNoKey = null;
+		membersWithNoGroup = null;
+	}
+	
+	/**
+	 * Returns the specified index, which the caller has read from its field,
+	 * or throws an exception if the index has been cleared because this verb
+	 * index was closed. The {@link #checkOpen()} at the start of a query does
+	 * not prevent another thread from closing the index before the query
+	 * reads its fields, so each query reads each field once into a local
+	 * variable, and passes it through this method.
+	 * 
+	 * @param <T>
+	 *            the type of the index
+	 * @param index
+	 *            the index, as read from its field
+	 * @return the index, if it is not <code>null</code>
+	 * @throws ObjectClosedException
+	 *             if the index is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static <T> T indexOf(T index){
+		if(index == null)
+			throw new ObjectClosedException();
+		return index;
 	}
 
 	/* 
@@ -381,7 +1129,14 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	public IVerbClass getVerb(String id) {
 		checkOpen();
 		NotNullEmptyOrBlank.check("id", id);
-		return verbsById.get(id);
+		Map<String, IVerbClass> verbs = indexOf(verbsById);
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics == null || !metrics.isEnabled())
+			return verbs.get(id);
+		long start = System.nanoTime();
+		IVerbClass result = verbs.get(id);
+		metrics.lookupPerformed(Lookup.GET_VERB, System.nanoTime() - start, result == null);
+		return result;
 	}
 	
 	/* 
@@ -390,7 +1145,28 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 * @see edu.mit.jverbnet.index.IVerbIndex#getRootVerb(java.lang.String)
 	 */
 	public IVerbClass getRootVerb(String id) {
-		IVerbClass verb = getVerb(id);
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics == null || !metrics.isEnabled())
+			return rootOrNull(getVerb(id));
+		checkOpen();
+		NotNullEmptyOrBlank.check("id", id);
+		Map<String, IVerbClass> verbs = indexOf(verbsById);
+		long start = System.nanoTime();
+		IVerbClass result = rootOrNull(verbs.get(id));
+		metrics.lookupPerformed(Lookup.GET_ROOT_VERB, System.nanoTime() - start, result == null);
+		return result;
+	}
+	
+	/**
+	 * Returns the specified verb class if it is a root class, and
+	 * <code>null</code> otherwise.
+	 * 
+	 * @param verb
+	 *            the verb class; may be <code>null</code>
+	 * @return the verb class if it is a root class, or <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static IVerbClass rootOrNull(IVerbClass verb){
 		return (verb != null && verb.isRoot()) ?
 				verb : 
 					null;
@@ -403,9 +1179,28 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	public Set<IMember> getMembers(IWordnetKey key) {
 		checkOpen();
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics == null || !metrics.isEnabled())
+			return findMembers(key);
+		long start = System.nanoTime();
+		Set<IMember> result = findMembers(key);
+		metrics.lookupPerformed(Lookup.GET_MEMBERS_BY_KEY, System.nanoTime() - start, result.isEmpty());
+		return result;
+	}
+	
+	/**
+	 * Returns the members with the specified wordnet key.
+	 * 
+	 * @param key
+	 *            the key; may be <code>null</code>
+	 * @return the members with the key, or, if the key is <code>null</code>,
+	 *         the members with no key
+	 * @since JVerbnet 1.3.0
+	 */
+	protected Set<IMember> findMembers(IWordnetKey key){
 		if(key == null)
-			return membersWithNoKey;
-		Set<IMember> result = membersByKeys.get(key);
+			return indexOf(membersWithNoKey);
+		Set<IMember> result = indexOf(membersByKeys).get(key);
 		if(result == null)
 			return Collections.emptySet();
 		return result;
@@ -418,10 +1213,30 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	public Set<IMember> getMembers(String grouping) {
 		checkOpen();
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics == null || !metrics.isEnabled())
+			return findMembers(grouping);
+		long start = System.nanoTime();
+		Set<IMember> result = findMembers(grouping);
+		metrics.lookupPerformed(Lookup.GET_MEMBERS_BY_GROUP, System.nanoTime() - start, result.isEmpty());
+		return result;
+	}
+	
+	/**
+	 * Returns the members with the specified grouping.
+	 * 
+	 * @param grouping
+	 *            the grouping; may be <code>null</code>
+	 * @return the members with the grouping, or, if the grouping is
+	 *         <code>null</code>, empty, or all whitespace, the members with no
+	 *         grouping
+	 * @since JVerbnet 1.3.0
+	 */
+	protected Set<IMember> findMembers(String grouping){
 		grouping = IsNullEmptyOrBlank.mask(grouping, null);
 		if(grouping == null)
-			return membersWithNoGroup;
-		Set<IMember> result = membersByGroups.get(grouping);
+			return indexOf(membersWithNoGroup);
+		Set<IMember> result = indexOf(membersByGroups).get(grouping);
 		if(result == null)
 			return Collections.emptySet();
 		return result;
@@ -434,7 +1249,11 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	public Iterator<IVerbClass> iterator() {
 		checkOpen();
-		return verbsById.values().iterator();
+		Map<String, IVerbClass> verbs = indexOf(verbsById);
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics != null && metrics.isEnabled())
+			metrics.iteratorCreated(Lookup.ITERATOR);
+		return verbs.values().iterator();
 	}
 
 	/* 
@@ -443,8 +1262,12 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 * @see edu.mit.jverbnet.index.IVerbIndex#iteratorRoots()
 	 */
 	public Iterator<IVerbClass> iteratorRoots() {
-		// no need to check open, as this is done in call to getVerbIterator()
-		return new FilteringIterator<IVerbClass>(iterator()) {
+		checkOpen();
+		Map<String, IVerbClass> verbs = indexOf(verbsById);
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics != null && metrics.isEnabled())
+			metrics.iteratorCreated(Lookup.ITERATOR_ROOTS);
+		return new FilteringIterator<IVerbClass>(verbs.values().iterator()) {
 			@Override
 			protected boolean include(IVerbClass e) {
 				return e.isRoot();
@@ -459,7 +1282,11 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	public Iterator<IWordnetKey> iteratorWordnetKeys() {
 		checkOpen();
-		return membersByKeys.keySet().iterator();
+		Map<IWordnetKey, Set<IMember>> keys = indexOf(membersByKeys);
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics != null && metrics.isEnabled())
+			metrics.iteratorCreated(Lookup.ITERATOR_WORDNET_KEYS);
+		return keys.keySet().iterator();
 	}
 
 	/* 
@@ -469,7 +1296,11 @@ public class VerbIndex extends AbstractHasLifecycle implements IVerbIndex {
 	 */
 	public Iterator<String> iteratorGroups() {
 		checkOpen();
-		return membersByGroups.keySet().iterator();
+		Map<String, Set<IMember>> groups = indexOf(membersByGroups);
+		ILookupMetrics metrics = lookupMetrics;
+		if(metrics != null && metrics.isEnabled())
+			metrics.iteratorCreated(Lookup.ITERATOR_GROUPS);
+		return groups.keySet().iterator();
 	}
 
 }
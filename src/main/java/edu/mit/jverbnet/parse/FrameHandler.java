@@ -10,6 +10,10 @@
 
 package edu.mit.jverbnet.parse;
 
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+import static edu.mit.jverbnet.util.Checks.allElementsAre;
+
+import java.util.List;
 import java.util.Map;
 
 import org.xml.sax.Attributes;
@@ -20,7 +24,9 @@ import org.xml.sax.XMLReader;
 import edu.mit.jverbnet.data.Frame.FrameBuilder;
 import edu.mit.jverbnet.data.FrameType;
 import edu.mit.jverbnet.data.semantics.ISemanticDesc;
+import edu.mit.jverbnet.data.semantics.SemanticDesc;
 import edu.mit.jverbnet.data.syntax.ISyntaxDesc;
+import edu.mit.jverbnet.util.collection.OffHeapStrings;
 import edu.mit.jverbnet.util.parse.CDataHandler;
 import edu.mit.jverbnet.util.parse.IHasParserHandler;
 import edu.mit.jverbnet.util.parse.ListHandler;
@@ -41,8 +47,10 @@ public class FrameHandler extends MappedHandler<FrameBuilder> {
 	public static final String XML_TAG_EXAMPLES = "EXAMPLES";
 	public static final String XML_TAG_EXAMPLE = "EXAMPLE";
 	
+	// the handler for the example element
+	private final CDataHandler exampleHandler = new CDataHandler(XML_TAG_EXAMPLE);
 	// the handler for the examples list element
-	private final ListHandler<String> examplesHandler = new ListHandler<String>(this, XML_TAG_EXAMPLES, new CDataHandler(XML_TAG_EXAMPLE));
+	private final ListHandler<String> examplesHandler = new ListHandler<String>(this, XML_TAG_EXAMPLES, exampleHandler);
 	
 	// assignable fields
 	private String descNum;
@@ -96,6 +104,36 @@ public class FrameHandler extends MappedHandler<FrameBuilder> {
 		super(parser, parent, XML_TAG_FRAME);
 	}
 
+	/**
+	 * Returns <code>true</code> if this handler trims leading and trailing
+	 * whitespace from the examples of its frames.
+	 * 
+	 * @return <code>true</code> if examples are trimmed; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isTrimmingExamples(){
+		return exampleHandler.isTrimming();
+	}
+
+	/**
+	 * Sets whether this handler trims leading and trailing whitespace from the
+	 * examples of its frames. Trimming narrows the text range rather than
+	 * copying it, and so costs nothing, but changes examples that have
+	 * surrounding whitespace in the data. Trimming is an opt-in for callers
+	 * that parse with their own handlers; the verb index never turns it on.
+	 * By default, examples are not trimmed, and are returned exactly as they
+	 * appear in the data.
+	 * 
+	 * @param value
+	 *            <code>true</code> if examples should be trimmed;
+	 *            <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setTrimmingExamples(boolean value){
+		exampleHandler.setTrimming(value);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -107,10 +145,10 @@ public class FrameHandler extends MappedHandler<FrameBuilder> {
 		MappedHandler<Object> descHandler = new MappedHandler<Object>(this, XML_TAG_DESCRIPTION) {
 			@Override
 			public void startTaggedBlock(String uri, String localName, String qName, Attributes attrs) throws SAXException {
-				descNum = attrs.getValue("descriptionNumber");
+				descNum = intern(attrs.getValue("descriptionNumber"));
 				String primaryTypeStr = attrs.getValue("primary");
 				String secondaryTypeStr = attrs.getValue("secondary");
-				xTag = attrs.getValue("xtag");
+				xTag = intern(attrs.getValue("xtag"));
 				
 				// get types
 				primaryType = FrameType.getById(primaryTypeStr);
@@ -166,9 +204,19 @@ public class FrameHandler extends MappedHandler<FrameBuilder> {
 		result.setPrimaryType(primaryType);
 		result.setSecondaryType(secondaryType);
 		result.setXTag(xTag);
-		result.getExamples().addAll(examplesHandler.doGetElement());
+		OffHeapStrings store = getTextStore();
+		if(store == null){
+			result.getExamples().addAll(examplesHandler.doGetElement());
+		} else {
+			// check the examples before they are copied off the heap
+			List<String> examples = allElementsAre(NotNullEmptyOrBlank, "examples", examplesHandler.doGetElement(), null);
+			result.setExamples(store.addAll(examples));
+		}
 		result.setSyntax(syntaxDesc);
-		result.setSemantics(semanticDesc);
+		// frames require semantics, so skipped semantics are empty
+		result.setSemantics((semanticDesc == null && isSkipped(SemanticDescHandler.XML_TAG_SEMANTICS)) ?
+				SemanticDesc.EMPTY_SEMANTICS :
+					semanticDesc);
 		return result;
 	}
 
@@ -12,8 +12,8 @@ package edu.mit.jverbnet.parse;
 
 import static edu.mit.jverbnet.util.Checks.trimAndMaskNull;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -99,7 +99,7 @@ public class MemberHandler extends MappedHandler<MemberBuilder> {
 	protected void clearLocal() {
 		name = null;
 		wnTypes = new LinkedHashMap<IWordnetKey, Boolean>();
-		groupings = new LinkedList<String>();
+		groupings = new ArrayList<String>();
 	}
 
 	
@@ -112,7 +112,7 @@ public class MemberHandler extends MappedHandler<MemberBuilder> {
 	 */
 	@Override
 	public void startTaggedBlock(String uri, String localName, String qName, Attributes attrs) throws SAXException {
-		name = attrs.getValue("name");
+		name = intern(attrs.getValue("name"));
 		
 		// wn
 		String wnList = attrs.getValue("wn").trim();
@@ -133,7 +133,7 @@ public class MemberHandler extends MappedHandler<MemberBuilder> {
 		String[] gStrs = listPattern.split(gList);
 		for(String gStr : gStrs)
 			if(gStr.length() > 0)
-				groupings.add(gStr);
+				groupings.add(intern(gStr));
 	}
 
 	/* 
@@ -0,0 +1,269 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.parse;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import edu.mit.jverbnet.data.IVerbClass;
+import edu.mit.jverbnet.util.ByteBufferInputStream;
+import edu.mit.jverbnet.util.parse.NullErrorHandler;
+
+/**
+ * A configured XML parser together with the handler trees for verb classes
+ * and subclasses, which can be used to parse any number of verb class
+ * fragments, one after another. Creating the parser and the handler trees is
+ * the expensive part of parsing a small document; a context does it once,
+ * and only clears the handlers before each parse.
+ * <p>
+ * A fragment is an XML document whose root element is a
+ * {@value VerbClassHandler#XML_TAG_VNCLASS} or
+ * {@value VerbClassHandler#XML_TAG_VNSUBCLASS} element. A root class is
+ * returned with its parent set to <code>null</code>; a subclass is returned
+ * with no parent set, so that the caller may set it.
+ * <p>
+ * This class is not thread-safe; a context should be used by one parse at a
+ * time. Use a {@link ParseContextPool} to share contexts among threads.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ParseContext {
+
+	// unchanging fields
+	private final XMLReader parser;
+	private final FragmentHandler fragmentHandler = new FragmentHandler();
+	private final VerbClassHandler classHandler;
+	private final VerbClassHandler subclassHandler;
+
+	/**
+	 * Creates a new parse context that ignores warnings and errors.
+	 *
+	 * @throws SAXException
+	 *             if the parser cannot be created
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseContext() throws SAXException {
+		this(null);
+	}
+
+	/**
+	 * Creates a new parse context that reports warnings and errors to the
+	 * specified error handler.
+	 *
+	 * @param errorHandler
+	 *            the error handler of the parser; if <code>null</code>,
+	 *            warnings and errors are ignored
+	 * @throws SAXException
+	 *             if the parser cannot be created
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseContext(ErrorHandler errorHandler) throws SAXException {
+		this(errorHandler, null);
+	}
+
+	/**
+	 * Creates a new parse context that reports warnings and errors to the
+	 * specified error handler, and parses the parts of verb classes selected
+	 * by the specified profile.
+	 *
+	 * @param errorHandler
+	 *            the error handler of the parser; if <code>null</code>,
+	 *            warnings and errors are ignored
+	 * @param profile
+	 *            the parse profile; if <code>null</code>, all parts are
+	 *            parsed
+	 * @throws SAXException
+	 *             if the parser cannot be created
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseContext(ErrorHandler errorHandler, ParseProfile profile) throws SAXException {
+		parser = createXMLReader();
+		parser.setErrorHandler(errorHandler == null ?
+				NullErrorHandler.getInstance() :
+					errorHandler);
+		classHandler = new VerbClassHandler(parser, fragmentHandler, true);
+		subclassHandler = new VerbClassHandler(parser, fragmentHandler, false);
+		if(profile != null && !profile.isFull()){
+			classHandler.setSkippedElements(profile.getSkippedElements());
+			subclassHandler.setSkippedElements(profile.getSkippedElements());
+		}
+	}
+
+	/**
+	 * Returns the parser of this context.
+	 *
+	 * @return the parser of this context
+	 * @since JVerbnet 1.3.0
+	 */
+	public XMLReader getParser(){
+		return parser;
+	}
+
+	/**
+	 * Parses the verb class fragment in the specified string.
+	 *
+	 * @param xml
+	 *            the fragment; may not be <code>null</code>
+	 * @return the parsed verb class
+	 * @throws NullPointerException
+	 *             if the string is <code>null</code>
+	 * @throws IOException
+	 *             if there is an IO error
+	 * @throws SAXException
+	 *             if the fragment is not well-formed, or is not a verb class
+	 * @since JVerbnet 1.3.0
+	 */
+	public IVerbClass parse(String xml) throws IOException, SAXException {
+		NotNull.check("xml", xml);
+		return parse(new InputSource(new StringReader(xml)));
+	}
+
+	/**
+	 * Parses the verb class fragment in the remaining bytes of the specified
+	 * buffer. The encoding is detected from the bytes, as for a file. The
+	 * position of the buffer is not changed.
+	 *
+	 * @param buffer
+	 *            the buffer holding the fragment; may not be
+	 *            <code>null</code>
+	 * @return the parsed verb class
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @throws IOException
+	 *             if there is an IO error
+	 * @throws SAXException
+	 *             if the fragment is not well-formed, or is not a verb class
+	 * @since JVerbnet 1.3.0
+	 */
+	public IVerbClass parse(ByteBuffer buffer) throws IOException, SAXException {
+		NotNull.check("buffer", buffer);
+		return parse(new InputSource(new ByteBufferInputStream(buffer.duplicate())));
+	}
+
+	/**
+	 * Parses the verb class fragment from the specified input source.
+	 *
+	 * @param in
+	 *            the input source; may not be <code>null</code>
+	 * @return the parsed verb class
+	 * @throws NullPointerException
+	 *             if the input source is <code>null</code>
+	 * @throws IOException
+	 *             if there is an IO error
+	 * @throws SAXException
+	 *             if the fragment is not well-formed, or is not a verb class
+	 * @since JVerbnet 1.3.0
+	 */
+	public IVerbClass parse(InputSource in) throws IOException, SAXException {
+		NotNull.check("in", in);
+
+		// clear the state of the last parse, which may have failed
+		fragmentHandler.found = null;
+		classHandler.clear();
+		subclassHandler.clear();
+		parser.setContentHandler(fragmentHandler);
+
+		parser.parse(in);
+		if(fragmentHandler.found == null)
+			throw new SAXException("No verb class found");
+		return fragmentHandler.found.getElement();
+	}
+
+	/**
+	 * Returns a new XML reader configured as for reading Verbnet data: without
+	 * namespaces or validation, and without loading external DTDs, which are
+	 * often not present. The reader is obtained through the JAXP
+	 * {@link SAXParserFactory}.
+	 *
+	 * @return a new configured XML reader
+	 * @throws SAXException
+	 *             if the reader cannot be created or configured
+	 * @since JVerbnet 1.3.0
+	 */
+	public static XMLReader createXMLReader() throws SAXException {
+		XMLReader parser;
+		try {
+			SAXParserFactory factory = SAXParserFactory.newInstance();
+			factory.setNamespaceAware(false);
+			factory.setValidating(false);
+			parser = factory.newSAXParser().getXMLReader();
+		} catch(ParserConfigurationException e){
+			throw new SAXException(e);
+		}
+		parser.setFeature("http://xml.org/sax/features/namespaces", false);
+		parser.setFeature("http://xml.org/sax/features/validation", false);
+		parser.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
+		parser.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		return parser;
+	}
+
+	/**
+	 * Receives the root element of a fragment and hands it to the class or
+	 * subclass handler, which hands control back when the element ends.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected class FragmentHandler extends DefaultHandler {
+
+		// the handler of the root element of the current fragment
+		protected VerbClassHandler found;
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.xml.sax.helpers.DefaultHandler#setDocumentLocator(org.xml.sax.Locator)
+		 */
+		@Override
+		public void setDocumentLocator(Locator locator) {
+			classHandler.setDocumentLocator(locator);
+			subclassHandler.setDocumentLocator(locator);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.xml.sax.helpers.DefaultHandler#startElement(java.lang.String, java.lang.String, java.lang.String, org.xml.sax.Attributes)
+		 */
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attrs) throws SAXException {
+			if(found != null)
+				throw new SAXException("Found element after verb class: " + qName);
+			if(VerbClassHandler.XML_TAG_VNCLASS.equals(qName)){
+				found = classHandler;
+			} else if(VerbClassHandler.XML_TAG_VNSUBCLASS.equals(qName)){
+				found = subclassHandler;
+			} else {
+				throw new SAXException("Not a verb class: " + qName);
+			}
+			found.startElement(uri, localName, qName, attrs);
+		}
+
+	}
+
+}
@@ -0,0 +1,271 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.parse;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import edu.mit.jverbnet.data.IVerbClass;
+
+/**
+ * A pool of {@link ParseContext} objects, for services that parse many verb
+ * class fragments. Each parse borrows an idle context, or creates one if none
+ * is idle, and returns it to the pool afterwards, so that parsers and handler
+ * trees are created only as often as there are concurrent parses.
+ * <p>
+ * The pool keeps at most a fixed number of idle contexts; contexts returned
+ * beyond that number are dropped. All the contexts of a pool report to the
+ * same error handler, which must therefore be thread-safe if the pool is used
+ * by more than one thread.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ParseContextPool {
+
+	/**
+	 * The default maximum number of idle contexts
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_MAX_IDLE = 16;
+
+	// unchanging fields
+	private final ErrorHandler errorHandler;
+	private final ParseProfile profile;
+	private final int maxIdle;
+	private final ConcurrentLinkedQueue<ParseContext> idle = new ConcurrentLinkedQueue<ParseContext>();
+	private final AtomicInteger idleCount = new AtomicInteger();
+	private final AtomicInteger createdCount = new AtomicInteger();
+
+	/**
+	 * Creates a new pool whose contexts ignore warnings and errors, and which
+	 * keeps the default maximum number of idle contexts.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseContextPool(){
+		this(null, DEFAULT_MAX_IDLE);
+	}
+
+	/**
+	 * Creates a new pool whose contexts report to the specified error handler.
+	 *
+	 * @param errorHandler
+	 *            the error handler of the contexts; if <code>null</code>,
+	 *            warnings and errors are ignored
+	 * @param maxIdle
+	 *            the maximum number of idle contexts the pool keeps
+	 * @throws IllegalArgumentException
+	 *             if the maximum is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseContextPool(ErrorHandler errorHandler, int maxIdle){
+		this(errorHandler, null, maxIdle);
+	}
+
+	/**
+	 * Creates a new pool whose contexts report to the specified error handler
+	 * and parse the parts selected by the specified profile.
+	 *
+	 * @param errorHandler
+	 *            the error handler of the contexts; if <code>null</code>,
+	 *            warnings and errors are ignored
+	 * @param profile
+	 *            the parse profile of the contexts; if <code>null</code>, all
+	 *            parts are parsed
+	 * @param maxIdle
+	 *            the maximum number of idle contexts the pool keeps
+	 * @throws IllegalArgumentException
+	 *             if the maximum is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseContextPool(ErrorHandler errorHandler, ParseProfile profile, int maxIdle){
+		if(maxIdle < 0)
+			throw new IllegalArgumentException("maximum number of idle contexts may not be negative");
+		this.errorHandler = errorHandler;
+		this.profile = profile;
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Returns the maximum number of idle contexts this pool keeps.
+	 *
+	 * @return the maximum number of idle contexts
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getMaxIdle(){
+		return maxIdle;
+	}
+
+	/**
+	 * Returns the number of contexts currently idle in the pool.
+	 *
+	 * @return the number of idle contexts
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getIdleCount(){
+		return idleCount.get();
+	}
+
+	/**
+	 * Returns the number of contexts this pool has created.
+	 *
+	 * @return the number of contexts created
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getCreatedCount(){
+		return createdCount.get();
+	}
+
+	/**
+	 * Borrows a context from the pool, creating one if none is idle. The
+	 * context should be handed back with {@link #release(ParseContext)} when
+	 * the caller is done with it.
+	 *
+	 * @return a context for the exclusive use of the caller
+	 * @throws SAXException
+	 *             if a new context cannot be created
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseContext acquire() throws SAXException {
+		ParseContext result = idle.poll();
+		if(result != null){
+			idleCount.decrementAndGet();
+			return result;
+		}
+		result = createContext();
+		createdCount.incrementAndGet();
+		return result;
+	}
+
+	/**
+	 * Returns a context to the pool. The caller must not use the context
+	 * afterwards. If the pool already holds its maximum number of idle
+	 * contexts, the context is dropped.
+	 *
+	 * @param context
+	 *            the context to return; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the context is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void release(ParseContext context){
+		NotNull.check("context", context);
+		if(idleCount.incrementAndGet() > maxIdle){
+			idleCount.decrementAndGet();
+			return;
+		}
+		idle.offer(context);
+	}
+
+	/**
+	 * Creates a new context for this pool. Subclasses may override this
+	 * method to configure the contexts.
+	 *
+	 * @return a new context
+	 * @throws SAXException
+	 *             if the context cannot be created
+	 * @since JVerbnet 1.3.0
+	 */
+	protected ParseContext createContext() throws SAXException {
+		return new ParseContext(errorHandler, profile);
+	}
+
+	/**
+	 * Parses the verb class fragment in the specified string with a pooled
+	 * context.
+	 *
+	 * @param xml
+	 *            the fragment; may not be <code>null</code>
+	 * @return the parsed verb class
+	 * @throws NullPointerException
+	 *             if the string is <code>null</code>
+	 * @throws IOException
+	 *             if there is an IO error
+	 * @throws SAXException
+	 *             if the fragment is not well-formed, or is not a verb class
+	 * @see ParseContext#parse(String)
+	 * @since JVerbnet 1.3.0
+	 */
+	public IVerbClass parse(String xml) throws IOException, SAXException {
+		ParseContext context = acquire();
+		try {
+			return context.parse(xml);
+		} finally {
+			release(context);
+		}
+	}
+
+	/**
+	 * Parses the verb class fragment in the remaining bytes of the specified
+	 * buffer with a pooled context. The position of the buffer is not
+	 * changed.
+	 *
+	 * @param buffer
+	 *            the buffer holding the fragment; may not be
+	 *            <code>null</code>
+	 * @return the parsed verb class
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @throws IOException
+	 *             if there is an IO error
+	 * @throws SAXException
+	 *             if the fragment is not well-formed, or is not a verb class
+	 * @see ParseContext#parse(ByteBuffer)
+	 * @since JVerbnet 1.3.0
+	 */
+	public IVerbClass parse(ByteBuffer buffer) throws IOException, SAXException {
+		ParseContext context = acquire();
+		try {
+			return context.parse(buffer);
+		} finally {
+			release(context);
+		}
+	}
+
+	/**
+	 * Parses the verb class fragment from the specified input source with a
+	 * pooled context.
+	 *
+	 * @param in
+	 *            the input source; may not be <code>null</code>
+	 * @return the parsed verb class
+	 * @throws NullPointerException
+	 *             if the input source is <code>null</code>
+	 * @throws IOException
+	 *             if there is an IO error
+	 * @throws SAXException
+	 *             if the fragment is not well-formed, or is not a verb class
+	 * @see ParseContext#parse(InputSource)
+	 * @since JVerbnet 1.3.0
+	 */
+	public IVerbClass parse(InputSource in) throws IOException, SAXException {
+		ParseContext context = acquire();
+		try {
+			return context.parse(in);
+		} finally {
+			release(context);
+		}
+	}
+
+}
@@ -0,0 +1,316 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.parse;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.mit.jverbnet.data.IFrame;
+import edu.mit.jverbnet.data.IThematicRole;
+import edu.mit.jverbnet.data.IVerbClass;
+import edu.mit.jverbnet.data.selection.SelRestrictions;
+import edu.mit.jverbnet.data.semantics.SemanticDesc;
+import edu.mit.jverbnet.data.syntax.ISyntaxArgDesc;
+import edu.mit.jverbnet.data.syntax.SyntaxDesc;
+
+/**
+ * Selects the parts of the Verbnet data that are parsed. The verb classes,
+ * their ids, and the class hierarchy are always parsed; each of the
+ * {@link Part}s may be left out. The elements of a part that is left out are
+ * passed over as a whole, without their handlers being invoked, so that no
+ * objects are built for them; the documentation of each part states what the
+ * accessors of the skipped data return.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ParseProfile {
+
+	/**
+	 * The profile that parses all the parts
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final ParseProfile FULL = new ParseProfile(EnumSet.allOf(Part.class));
+
+	/**
+	 * The profile that parses only the members, and so their wordnet keys and
+	 * groupings, along with the class hierarchy
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final ParseProfile MEMBERS_ONLY = new ParseProfile(EnumSet.of(Part.MEMBERS));
+
+	// unchanging fields
+	private final Set<Part> parts;
+	private final Set<String> skippedElements;
+
+	/**
+	 * Creates a new profile that parses the specified parts.
+	 *
+	 * @param parts
+	 *            the parts to parse; may not be <code>null</code> or contain
+	 *            <code>null</code>
+	 * @throws NullPointerException
+	 *             if the collection is <code>null</code> or contains
+	 *             <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseProfile(Collection<Part> parts){
+		NotNull.check("parts", parts);
+		Set<Part> copy = EnumSet.noneOf(Part.class);
+		for(Part part : parts)
+			copy.add(NotNull.check("part", part));
+		this.parts = Collections.unmodifiableSet(copy);
+		Set<String> skipped = new HashSet<String>();
+		for(Part part : Part.values())
+			if(!copy.contains(part))
+				Collections.addAll(skipped, part.elements);
+		this.skippedElements = Collections.unmodifiableSet(skipped);
+	}
+
+	/**
+	 * Returns a profile that parses the specified parts.
+	 *
+	 * @param parts
+	 *            the parts to parse; may not be <code>null</code> or contain
+	 *            <code>null</code>
+	 * @return a profile that parses the parts
+	 * @throws NullPointerException
+	 *             if the array is <code>null</code> or contains
+	 *             <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static ParseProfile of(Part... parts){
+		NotNull.check("parts", parts);
+		Set<Part> set = EnumSet.noneOf(Part.class);
+		for(Part part : parts)
+			set.add(NotNull.check("part", part));
+		return new ParseProfile(set);
+	}
+
+	/**
+	 * Returns the parts this profile parses.
+	 *
+	 * @return the unmodifiable set of parts this profile parses
+	 * @since JVerbnet 1.3.0
+	 */
+	public Set<Part> getParts(){
+		return parts;
+	}
+
+	/**
+	 * Returns <code>true</code> if this profile parses the specified part.
+	 *
+	 * @param part
+	 *            the part to test
+	 * @return <code>true</code> if the part is parsed; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean includes(Part part){
+		return parts.contains(part);
+	}
+
+	/**
+	 * Returns <code>true</code> if this profile parses all the parts.
+	 *
+	 * @return <code>true</code> if nothing is skipped; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isFull(){
+		return skippedElements.isEmpty();
+	}
+
+	/**
+	 * Returns a profile that parses the parts of this profile and the
+	 * specified part.
+	 *
+	 * @param part
+	 *            the part to add; may not be <code>null</code>
+	 * @return a profile that also parses the part
+	 * @throws NullPointerException
+	 *             if the part is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseProfile with(Part part){
+		NotNull.check("part", part);
+		if(parts.contains(part))
+			return this;
+		Set<Part> set = EnumSet.copyOf(parts);
+		set.add(part);
+		return new ParseProfile(set);
+	}
+
+	/**
+	 * Returns a profile that parses the parts of this profile except the
+	 * specified part.
+	 *
+	 * @param part
+	 *            the part to remove; may not be <code>null</code>
+	 * @return a profile that does not parse the part
+	 * @throws NullPointerException
+	 *             if the part is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public ParseProfile without(Part part){
+		NotNull.check("part", part);
+		if(!parts.contains(part))
+			return this;
+		Set<Part> set = EnumSet.noneOf(Part.class);
+		set.addAll(parts);
+		set.remove(part);
+		return new ParseProfile(set);
+	}
+
+	/**
+	 * Returns the names of the XML elements that are passed over under this
+	 * profile, for use with
+	 * {@link edu.mit.jverbnet.util.parse.MappedHandler#setSkippedElements(Set)}.
+	 *
+	 * @return the unmodifiable set of names of the skipped elements
+	 * @since JVerbnet 1.3.0
+	 */
+	public Set<String> getSkippedElements(){
+		return skippedElements;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return parts.hashCode();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(!(obj instanceof ParseProfile))
+			return false;
+		return parts.equals(((ParseProfile)obj).parts);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ParseProfile" + parts;
+	}
+
+	/**
+	 * The parts of the Verbnet data that may be left out of a parse.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public enum Part {
+
+		/**
+		 * The members of verb classes. If skipped,
+		 * {@link IVerbClass#getMembers()} returns an empty list, and an index
+		 * has no wordnet keys or groupings.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		MEMBERS(MemberHandler.XML_TAG_MEMBERS),
+
+		/**
+		 * The thematic roles of verb classes. If skipped,
+		 * {@link IVerbClass#getThematicRoles()} returns an empty list.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		ROLES(ThematicRoleHandler.XML_TAG_THEMROLES),
+
+		/**
+		 * The frames of verb classes. If skipped,
+		 * {@link IVerbClass#getFrames()} returns an empty list, and the
+		 * syntax, semantics, and examples parts have no effect.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		FRAMES(FrameHandler.XML_TAG_FRAMES),
+
+		/**
+		 * The syntax of frames. If skipped, {@link IFrame#getSyntax()} returns
+		 * {@link SyntaxDesc#EMPTY_SYNTAX}.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		SYNTAX(SyntaxDescHandler.XML_TAG_SYNTAX),
+
+		/**
+		 * The semantics of frames. If skipped, {@link IFrame#getSemantics()}
+		 * returns {@link SemanticDesc#EMPTY_SEMANTICS}, which has no
+		 * predicates.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		SEMANTICS(SemanticDescHandler.XML_TAG_SEMANTICS),
+
+		/**
+		 * The example sentences of frames. If skipped,
+		 * {@link IFrame#getExamples()} returns an empty list.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		EXAMPLES(FrameHandler.XML_TAG_EXAMPLES),
+
+		/**
+		 * The selectional and syntactic restrictions of thematic roles and
+		 * syntax arguments. If skipped,
+		 * {@link IThematicRole#getSelRestrictions()} and
+		 * {@link ISyntaxArgDesc#getSelRestrictions()} return
+		 * {@link SelRestrictions#emptyRestrictions()}.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		RESTRICTIONS(SelRestrictionsHandler.XML_TAG_SELRESTRS, SelRestrictionsHandler.XML_TAG_SYNRESTRS);
+
+		// unchanging fields
+		private final String[] elements;
+
+		/**
+		 * Creates a new part made of the elements with the specified names.
+		 *
+		 * @param elements
+		 *            the names of the elements of the part
+		 * @since JVerbnet 1.3.0
+		 */
+		private Part(String... elements){
+			this.elements = elements;
+		}
+
+	}
+
+}
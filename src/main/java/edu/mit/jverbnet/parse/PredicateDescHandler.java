@@ -125,7 +125,7 @@ public class PredicateDescHandler extends MappedHandler<PredicateDesc> {
 	 * @see edu.mit.jverbnet.util.parse.MappedHandler#doGetElement()
 	 */
 	public PredicateDesc doGetElement() {
-		return new PredicateDesc(predType, bool, argListHandler.getElement());
+		return share(new PredicateDesc(predType, bool, argListHandler.getElement()));
 	}
 
 }
@@ -13,8 +13,8 @@ package edu.mit.jverbnet.parse;
 import static edu.mit.jverbnet.util.Checks.IsNullEmptyOrBlank;
 import static edu.mit.jverbnet.util.Checks.NotNull;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,6 +28,8 @@ import edu.mit.jverbnet.data.IVerbnetType;
 import edu.mit.jverbnet.data.selection.ISelRestrictions;
 import edu.mit.jverbnet.data.selection.ISelRestrictions.Logic;
 import edu.mit.jverbnet.data.selection.SelRestrictions;
+import edu.mit.jverbnet.util.IHasOrdinal;
+import edu.mit.jverbnet.util.collection.OrdinalMap;
 import edu.mit.jverbnet.util.parse.IHasParserHandler;
 import edu.mit.jverbnet.util.parse.ITaggedHandler;
 import edu.mit.jverbnet.util.parse.LazyForwardingHandler;
@@ -164,8 +166,30 @@ public class SelRestrictionsHandler<T extends IVerbnetType> extends MappedHandle
 	@Override
 	protected void clearLocal() {
 		logic = null;
-		restrictionMap = new LinkedHashMap<T, Boolean>();
-		subRestrs = new LinkedList<ISelRestrictions<T>>();
+		restrictionMap = createRestrictionMap(verbnetTypeClass);
+		subRestrs = new ArrayList<ISelRestrictions<T>>();
+	}
+	
+	/**
+	 * Returns a new, empty map for the restrictions of the specified type.
+	 * Both kinds of map keep the restrictions in insertion order. The map is
+	 * an {@link OrdinalMap} if the type has ordinals, as the built-in
+	 * restriction types do, and a {@link LinkedHashMap} otherwise.
+	 * 
+	 * @param <T>
+	 *            the type of the restrictions
+	 * @param type
+	 *            the class of the type
+	 * @return a new, empty map for restrictions of the type
+	 * @since JVerbnet 1.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T> Map<T, Boolean> createRestrictionMap(Class<T> type){
+		if(IHasOrdinal.class.isAssignableFrom(type)){
+			Map<?, Boolean> map = new OrdinalMap<IHasOrdinal, Boolean>();
+			return (Map<T, Boolean>)map;
+		}
+		return new LinkedHashMap<T, Boolean>();
 	}
 
 	/* 
@@ -192,7 +216,7 @@ public class SelRestrictionsHandler<T extends IVerbnetType> extends MappedHandle
 		// nothing to do
 		if(restrictionMap.isEmpty() && subRestrs.isEmpty())
 			return null;
-		return new SelRestrictions<T>(logic, restrictionMap, subRestrs);
+		return share(new SelRestrictions<T>(logic, restrictionMap, subRestrs));
 	}
 
 }
@@ -10,7 +10,7 @@
 
 package edu.mit.jverbnet.parse;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -104,7 +104,7 @@ public class SemanticDescHandler extends MappedHandler<SemanticDesc> {
 	 */
 	@Override
 	protected void clearLocal() {
-		predList = new LinkedList<IPredicateDesc>();
+		predList = new ArrayList<IPredicateDesc>();
 	}
 
 	/* 
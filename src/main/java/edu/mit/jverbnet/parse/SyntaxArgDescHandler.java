@@ -178,7 +178,7 @@ public class SyntaxArgDescHandler extends MappedHandler<SyntaxArgDescBuilder> {
 		value = type.getValueRule().checkValue(value);
 		if(type == SyntaxArgType.NP)
 			npType = VerbnetTypes.getNounPhraseTypeById(value);
-		this.value = value;
+		this.value = intern(value);
 	}
 
 	/* 
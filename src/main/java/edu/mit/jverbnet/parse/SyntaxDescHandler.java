@@ -10,7 +10,7 @@
 
 package edu.mit.jverbnet.parse;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -131,8 +131,8 @@ public class SyntaxDescHandler extends MappedHandler<SyntaxDesc> {
 	@Override
 	protected void clearLocal() {
 		isAfterVerb = false;
-		preArgs = new LinkedList<ISyntaxArgDescBuilder>();
-		postArgs = new LinkedList<ISyntaxArgDescBuilder>();
+		preArgs = new ArrayList<ISyntaxArgDescBuilder>();
+		postArgs = new ArrayList<ISyntaxArgDescBuilder>();
 	}
 
 	/* 
@@ -141,7 +141,7 @@ public class SyntaxDescHandler extends MappedHandler<SyntaxDesc> {
 	 * @see edu.mit.jverbnet.util.parse.MappedHandler#doGetElement()
 	 */
 	public SyntaxDesc doGetElement() {
-		return new SyntaxDesc(preArgs, postArgs);
+		return share(new SyntaxDesc(preArgs, postArgs));
 	}
 
 }
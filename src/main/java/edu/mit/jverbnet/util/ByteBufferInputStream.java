@@ -17,7 +17,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
 
 /** 
  * Adapts a {@link ByteBuffer} to an {@link InputStream}.
@@ -32,6 +31,9 @@ public class ByteBufferInputStream extends InputStream {
 	protected ByteBuffer buffer;
 	protected RandomAccessFile raFile;
 	protected int mark = -1;
+	// the source of the buffer, to which it is released on close; null if
+	// the buffer was supplied by the caller, which may still hold it
+	private FileBuffers source = null;
 	
 	/**
 	 * Creates a new input stream that wraps the specified byte buffer.
@@ -49,7 +51,11 @@ public class ByteBufferInputStream extends InputStream {
 	}
 	
 	/**
-	 * Creates a new input stream that wraps the a byte buffer attached to the specified file.
+	 * Creates a new input stream that wraps the a byte buffer attached to the
+	 * specified file. The buffer is loaded by the shared {@link FileBuffers}
+	 * instance, which reads small files into pooled heap buffers and maps
+	 * large ones. The buffer is never handed out, and is released when the
+	 * stream is closed.
 	 * 
 	 * @param file
 	 *            the file on which the stream should be opened; may not be <code>null</code>
@@ -58,9 +64,30 @@ public class ByteBufferInputStream extends InputStream {
 	 * @since JVerbnet 1.0.0
 	 */
 	public ByteBufferInputStream(File file) throws IOException {
-		raFile = new RandomAccessFile(file, "r");
-		FileChannel channel = raFile.getChannel();
-		buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+		this(file, FileBuffers.getDefault());
+	}
+
+	/**
+	 * Creates a new input stream that wraps a byte buffer with the contents of
+	 * the specified file, loaded by the specified {@link FileBuffers}. The
+	 * buffer is never handed out, and is released to it when the stream is
+	 * closed.
+	 * 
+	 * @param file
+	 *            the file on which the stream should be opened; may not be
+	 *            <code>null</code>
+	 * @param source
+	 *            the loader of the buffer; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @throws IOException
+	 *             if the file cannot be read
+	 * @since JVerbnet 1.3.0
+	 */
+	public ByteBufferInputStream(File file, FileBuffers source) throws IOException {
+		NotNull.check("source", source);
+		this.buffer = source.load(file);
+		this.source = source;
 	}
 	
 	/**
@@ -150,9 +177,13 @@ public class ByteBufferInputStream extends InputStream {
 	 */
 	@Override
 	public void close() throws IOException {
-		buffer = null;
+		// drop the only reference before the buffer may be reused
+		ByteBuffer buffer = this.buffer;
+		this.buffer = null;
 		if(raFile != null)
 			raFile.close();
+		if(source != null && buffer != null)
+			source.release(buffer);
 	}
 
 	/* 
@@ -26,6 +26,8 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import edu.mit.jverbnet.util.collection.CompactCollections;
+
 /** 
  * Utilities for checking variables.
  *
@@ -1075,24 +1077,24 @@ public class Checks {
 		}
 	}
 	
-	// keep only this many IsMinSize or IsMaxSize objects around
+	// keep IsMinSize and IsMaxSize objects for sizes below this around;
+	// the tables are filled once and never written again, so they may be
+	// read by any number of threads, such as those constructing data objects
+	// during a parallel parse, without locking
 	private static final int MAX_ENTRIES = 128;
 	
-	// map for storing instances of IsMinSize
-	@SuppressWarnings("serial")
-	private static final Map<Integer, IsMinSizeAndNotNull> minSizeMap = new LinkedHashMap<Integer, IsMinSizeAndNotNull>(16, 0.75f, true) {
-		protected boolean removeEldestEntry(Map.Entry<Integer, IsMinSizeAndNotNull> eldest) {
-			return size() > MAX_ENTRIES;
-		}
-	};
+	// table of instances of IsMinSize, indexed by size
+	private static final IsMinSizeAndNotNull[] minSizes = new IsMinSizeAndNotNull[MAX_ENTRIES];
 	
-	// map for storing instances of IsMaxSize
-	@SuppressWarnings("serial")
-	private static final Map<Integer, IsMaxSizeAndNotNull> maxSizeMap = new LinkedHashMap<Integer, IsMaxSizeAndNotNull>(16, 0.75f, true) {
-		protected boolean removeEldestEntry(Map.Entry<Integer, IsMaxSizeAndNotNull> eldest) {
-			return size() > MAX_ENTRIES;
+	// table of instances of IsMaxSize, indexed by size
+	private static final IsMaxSizeAndNotNull[] maxSizes = new IsMaxSizeAndNotNull[MAX_ENTRIES];
+	
+	static {
+		for(int i = 0; i < MAX_ENTRIES; i++){
+			minSizes[i] = new IsMinSizeAndNotNull(i);
+			maxSizes[i] = new IsMaxSizeAndNotNull(i);
 		}
-	};
+	}
 	
 	/**
 	 * Returns a mask object whose condition is that the collection be non-
@@ -1107,12 +1109,11 @@ public class Checks {
 	 * @since JVerbnet 1.0.0
 	 */
 	public static final Mask<Collection<?>> minSizeAndNotNull(int size){
-		IsMinSizeAndNotNull result = minSizeMap.get(size);
-		if(result == null){
-			result = new IsMinSizeAndNotNull(size);
-			minSizeMap.put(size, result);
-		}
-		return result;
+		if(size < 0)
+			size = 0;
+		return (size < MAX_ENTRIES) ?
+				minSizes[size] :
+					new IsMinSizeAndNotNull(size);
 	}
 	
 	/**
@@ -1128,12 +1129,11 @@ public class Checks {
 	 * @since JVerbnet 1.0.0
 	 */
 	public static final Mask<Collection<?>> maxSizeAndNotNull(int size){
-		IsMaxSizeAndNotNull result = maxSizeMap.get(size);
-		if(result == null){
-			result = new IsMaxSizeAndNotNull(size);
-			maxSizeMap.put(size, result);
-		}
-		return result;
+		if(size < 0)
+			size = 0;
+		return (size < MAX_ENTRIES) ?
+				maxSizes[size] :
+					new IsMaxSizeAndNotNull(size);
 	}
 
 	/** 
@@ -1358,6 +1358,40 @@ public class Checks {
 		}
 	};
 
+
+
+	/**
+	 * Reallocates collections as compact, array-backed unmodifiable
+	 * collections, preserving iteration order. <code>null</code> collections
+	 * are passed back as unmodifiable empty collections. Maps whose values are
+	 * all booleans have their values packed into bits. Sorted collections are
+	 * reallocated as in {@link #UnmodifiableMaskNullWithEmpty}.
+	 * 
+	 * @see CompactCollections
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final IReallocationStrategy UnmodifiableCompactMaskNullWithEmpty = new IReallocationStrategy() {
+		
+		public <T> List<T> reallocate(List<T> list) {
+			return CompactCollections.list(list);
+		}
+	
+		public <T> Set<T> reallocate(Set<T> set) {
+			return CompactCollections.set(set);
+		}
+	
+		public <T> SortedSet<T> reallocate(SortedSet<T> set) {
+			return UnmodifiableMaskNullWithEmpty.reallocate(set);
+		}
+	
+		public <K, V> Map<K, V> reallocate(Map<K, V> map) {
+			return CompactCollections.map(map);
+		}
+	
+		public <K, V> SortedMap<K, V> reallocate(SortedMap<K, V> map) {
+			return UnmodifiableMaskNullWithEmpty.reallocate(map);
+		}
+	};
 	
 
 	// 
@@ -1454,6 +1488,39 @@ public class Checks {
 		return r.reallocate(set);
 	}
 	
+	/**
+	 * Runs the check object over all elements in the collection, and returns
+	 * the elements in an array. This has the same effect as calling
+	 * {@link #allElementsAre(ICheck, String, List, IReallocationStrategy)} and
+	 * then copying the list into an array, but the collection is only traversed
+	 * once. The returned array is not referenced anywhere else, and so may be
+	 * handed to a constructor that takes ownership of it.
+	 * 
+	 * @param test
+	 *            the test to be applied
+	 * @param varName
+	 *            the variable name to be used in the exception message; if the
+	 *            name is <code>null</code>, empty, or all whitespace, the
+	 *            generic variable name is used.
+	 * @param col
+	 *            the collection to check
+	 * @param a
+	 *            an array of the desired runtime type, as in
+	 *            {@link Collection#toArray(Object[])}
+	 * @return an array holding the checked elements, or <code>null</code> if
+	 *         the collection is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <S,E extends S> E[] toCheckedArray(ICheck<S> test, String varName, Collection<? extends E> col, E[] a) {
+		if(col == null)
+			return null;
+		E[] result = col.toArray(a);
+		String eName = "element of " + varName;
+		for(E e : result)
+			test.check(eName, e);
+		return result;
+	}
+	
 	/**
 	 * Runs the check object over all keys in the map. Returns a map
 	 * reallocated according to the specified reallocation strategy. The
@@ -0,0 +1,233 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the contents of files into byte buffers, choosing the strategy by
+ * file size. Files smaller than the mapping threshold are read with bulk
+ * channel reads into heap buffers, which are pooled and reused once released;
+ * for files of a few kilobytes, as most Verbnet files are, this is cheaper
+ * than setting up and faulting in a mapping. Files at or above the threshold
+ * are memory-mapped.
+ * <p>
+ * A buffer obtained from {@link #load(File)} may be handed back with
+ * {@link #release(ByteBuffer)} once nothing can reach it any more, neither
+ * the buffer itself nor any duplicate or slice of it: a heap buffer goes back
+ * to the pool, to be filled with the contents of another file. Mappings are
+ * never unmapped explicitly, as a read through a reference that survived the
+ * unmapping would crash the virtual machine; they are released when the
+ * buffer is garbage collected. A buffer whose views may outlive its use
+ * should not be released at all, and is then garbage collected as well.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FileBuffers {
+
+	/**
+	 * The default size, in bytes, at and above which files are mapped rather
+	 * than read. In the {@code FileReadBenchmarks} of the test sources,
+	 * reading was faster than mapping at every size up to this one and beyond;
+	 * the threshold bounds the size of the heap buffers kept in the pool, and
+	 * leaves very large files to be paged in by the operating system.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_MAP_THRESHOLD = 1024 * 1024;
+
+	/**
+	 * The default maximum number of idle heap buffers in the pool
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_MAX_IDLE = 4;
+
+	/**
+	 * The capacity of the smallest heap buffer that is allocated
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int MIN_CAPACITY = 8 * 1024;
+
+	// the shared instance
+	private static final FileBuffers defaultInstance = new FileBuffers();
+
+	/**
+	 * Returns the shared instance, which uses the default threshold and pool
+	 * size.
+	 *
+	 * @return the shared instance
+	 * @since JVerbnet 1.3.0
+	 */
+	public static FileBuffers getDefault(){
+		return defaultInstance;
+	}
+
+	// unchanging fields
+	private final int mapThreshold;
+	private final int maxIdle;
+	private final ConcurrentLinkedQueue<ByteBuffer> idle = new ConcurrentLinkedQueue<ByteBuffer>();
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	/**
+	 * Creates a new instance with the default threshold and pool size.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public FileBuffers(){
+		this(DEFAULT_MAP_THRESHOLD, DEFAULT_MAX_IDLE);
+	}
+
+	/**
+	 * Creates a new instance with the specified threshold and pool size.
+	 *
+	 * @param mapThreshold
+	 *            the size, in bytes, at and above which files are mapped; zero
+	 *            maps every file, and {@link Integer#MAX_VALUE} reads every
+	 *            file that fits in a buffer
+	 * @param maxIdle
+	 *            the maximum number of idle heap buffers kept in the pool
+	 * @throws IllegalArgumentException
+	 *             if either number is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public FileBuffers(int mapThreshold, int maxIdle){
+		if(mapThreshold < 0)
+			throw new IllegalArgumentException("mapping threshold may not be negative");
+		if(maxIdle < 0)
+			throw new IllegalArgumentException("maximum number of idle buffers may not be negative");
+		this.mapThreshold = mapThreshold;
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Returns the size, in bytes, at and above which files are mapped.
+	 *
+	 * @return the mapping threshold
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getMapThreshold(){
+		return mapThreshold;
+	}
+
+	/**
+	 * Returns the number of heap buffers currently idle in the pool.
+	 *
+	 * @return the number of idle buffers
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getIdleCount(){
+		return idleCount.get();
+	}
+
+	/**
+	 * Returns a buffer holding the contents of the specified file, positioned
+	 * at zero with its limit at the size of the file. The buffer may be
+	 * released with {@link #release(ByteBuffer)} once it is no longer
+	 * reachable by any caller.
+	 *
+	 * @param file
+	 *            the file to load; may not be <code>null</code>
+	 * @return a buffer with the contents of the file
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @throws IOException
+	 *             if the file cannot be read, or is too large for a buffer
+	 * @since JVerbnet 1.3.0
+	 */
+	public ByteBuffer load(File file) throws IOException {
+		NotNull.check("file", file);
+		RandomAccessFile raFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raFile.getChannel();
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE)
+				throw new IOException("File too large: " + file);
+			// a mapping stays valid after its channel is closed
+			if(size >= mapThreshold)
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			ByteBuffer buffer = take((int)size);
+			while(buffer.hasRemaining())
+				if(channel.read(buffer) < 0)
+					break;
+			buffer.flip();
+			return buffer;
+		} finally {
+			raFile.close();
+		}
+	}
+
+	/**
+	 * Hands back a buffer returned by {@link #load(File)}. A heap buffer is
+	 * returned to the pool, if there is room, and will be overwritten by a
+	 * later load; the caller must therefore hold the only references to the
+	 * buffer and its views, and drop them all before calling this method.
+	 * Other buffers, mappings among them, are left to the garbage collector.
+	 *
+	 * @param buffer
+	 *            the buffer to release; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void release(ByteBuffer buffer){
+		NotNull.check("buffer", buffer);
+		if(buffer.isDirect() || buffer.capacity() > Math.max(mapThreshold, MIN_CAPACITY))
+			return;
+		if(idleCount.incrementAndGet() > maxIdle){
+			idleCount.decrementAndGet();
+			return;
+		}
+		buffer.clear();
+		idle.offer(buffer);
+	}
+
+	/**
+	 * Returns a cleared heap buffer whose limit is the specified size, taken
+	 * from the pool if an idle buffer is large enough, and allocated
+	 * otherwise.
+	 *
+	 * @param size
+	 *            the size of the buffer
+	 * @return a heap buffer with the specified limit
+	 * @since JVerbnet 1.3.0
+	 */
+	protected ByteBuffer take(int size){
+		ByteBuffer result = idle.poll();
+		if(result != null)
+			idleCount.decrementAndGet();
+		// a buffer that is too small is dropped, to be replaced by the
+		// larger buffer allocated here when it is released
+		if(result == null || result.capacity() < size){
+			int capacity = MIN_CAPACITY;
+			while(capacity < size && capacity > 0)
+				capacity <<= 1;
+			result = ByteBuffer.allocate(capacity > 0 ? capacity : size);
+		}
+		result.clear();
+		result.limit(size);
+		return result;
+	}
+
+}
@@ -0,0 +1,34 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util;
+
+/**
+ * An object with an ordinal: a small, non-negative integer that is unique
+ * among the objects of its kind and never changes. The ordinals of the
+ * objects of a kind are dense, starting at zero, so they may be used as
+ * indexes into arrays and bit sets. The constants of an enum satisfy this
+ * interface with their {@link Enum#ordinal()} method.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public interface IHasOrdinal {
+
+	/**
+	 * Returns the ordinal of this object.
+	 *
+	 * @return the ordinal of this object, zero or more
+	 * @since JVerbnet 1.3.0
+	 */
+	public int ordinal();
+
+}
@@ -0,0 +1,497 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A registry of canonical instances of a type, keyed by their ids without
+ * regard to case. The registry is used by the Verbnet types whose values are
+ * not fixed in advance, such as thematic roles or predicates, to ensure that
+ * there is only one instance for each id.
+ * <p>
+ * Ids may be looked up from any character sequence or range of a character
+ * array. Ids are compared and hashed one character at a time, so a lookup of
+ * an id that is already registered neither allocates nor locks. New instances
+ * are created by the registry's factory while holding the registry's lock, so
+ * that two threads registering the same id at once receive the same instance.
+ * <p>
+ * Each new instance is given the next ordinal of the registry, starting at
+ * zero, so the ordinals of the registered instances are dense and never
+ * change. Ordinals let instances be used as indexes into arrays and bit sets.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <T>
+ *            the type of the registered instances
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class TypeRegistry<T extends IHasID & IHasOrdinal> {
+
+	/**
+	 * The default initial capacity of a registry
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	// unchanging fields
+	private final IFactory<? extends T> factory;
+
+	// changeable fields
+	private volatile AtomicReferenceArray<T> table;
+	private volatile AtomicReferenceArray<T> byOrdinal;
+	private volatile int size = 0;
+
+	/**
+	 * Creates a new, empty registry with the default initial capacity.
+	 *
+	 * @param factory
+	 *            the factory that creates new instances; may not be
+	 *            <code>null</code>
+	 * @throws NullPointerException
+	 *             if the factory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public TypeRegistry(IFactory<? extends T> factory){
+		this(factory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new, empty registry with the specified initial capacity. The
+	 * registry grows as needed.
+	 *
+	 * @param factory
+	 *            the factory that creates new instances; may not be
+	 *            <code>null</code>
+	 * @param capacity
+	 *            the number of instances the registry should be able to hold
+	 *            before it must grow
+	 * @throws NullPointerException
+	 *             if the factory is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the capacity is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public TypeRegistry(IFactory<? extends T> factory, int capacity){
+		if(capacity < 0)
+			throw new IllegalArgumentException("capacity may not be negative");
+		this.factory = NotNull.check("factory", factory);
+		this.table = new AtomicReferenceArray<T>(tableSizeFor(capacity));
+		this.byOrdinal = new AtomicReferenceArray<T>(Math.max(capacity, 1));
+	}
+
+	/**
+	 * Returns the registered instance whose id matches the specified
+	 * character sequence without regard to case, or <code>null</code> if
+	 * there is none.
+	 *
+	 * @param id
+	 *            the id to look up; may not be <code>null</code>
+	 * @return the matching instance, or <code>null</code> if none
+	 * @throws NullPointerException
+	 *             if the id is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public T get(CharSequence id){
+		AtomicReferenceArray<T> t = table;
+		int mask = t.length()-1;
+		T value;
+		for(int i = spread(hash(id)) & mask; ; i = (i+1) & mask){
+			value = t.get(i);
+			if(value == null || matches(value.getID(), id))
+				return value;
+		}
+	}
+
+	/**
+	 * Returns the registered instance whose id matches the specified range of
+	 * a character array without regard to case, or <code>null</code> if
+	 * there is none.
+	 *
+	 * @param ch
+	 *            the character array; may not be <code>null</code>
+	 * @param start
+	 *            the index of the first character of the id
+	 * @param length
+	 *            the number of characters in the id
+	 * @return the matching instance, or <code>null</code> if none
+	 * @throws NullPointerException
+	 *             if the character array is <code>null</code>
+	 * @throws IndexOutOfBoundsException
+	 *             if the range is outside the array
+	 * @since JVerbnet 1.3.0
+	 */
+	public T get(char[] ch, int start, int length){
+		if(start < 0 || length < 0 || start+length > ch.length)
+			throw new IndexOutOfBoundsException();
+		AtomicReferenceArray<T> t = table;
+		int mask = t.length()-1;
+		T value;
+		for(int i = spread(hash(ch, start, length)) & mask; ; i = (i+1) & mask){
+			value = t.get(i);
+			if(value == null || matches(value.getID(), ch, start, length))
+				return value;
+		}
+	}
+
+	/**
+	 * Returns the registered instance with the specified ordinal.
+	 *
+	 * @param ordinal
+	 *            the ordinal of the instance
+	 * @return the instance with the specified ordinal
+	 * @throws IndexOutOfBoundsException
+	 *             if no instance has the specified ordinal
+	 * @since JVerbnet 1.3.0
+	 */
+	public T get(int ordinal){
+		if(ordinal < 0 || ordinal >= size)
+			throw new IndexOutOfBoundsException("no instance with ordinal " + ordinal);
+		return byOrdinal.get(ordinal);
+	}
+
+	/**
+	 * Returns the registered instance whose id matches the specified
+	 * character sequence without regard to case. If there is none, the
+	 * factory is asked to create one from the characters of the sequence,
+	 * and the new instance is registered and returned.
+	 *
+	 * @param id
+	 *            the id to look up; may not be <code>null</code>
+	 * @return the matching instance
+	 * @throws NullPointerException
+	 *             if the id is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the factory rejects the id
+	 * @since JVerbnet 1.3.0
+	 */
+	public T intern(CharSequence id){
+		T result = get(id);
+		return (result == null) ? register(id.toString()) : result;
+	}
+
+	/**
+	 * Returns the registered instance whose id matches the specified range of
+	 * a character array without regard to case. If there is none, the
+	 * factory is asked to create one from the characters of the range, and
+	 * the new instance is registered and returned.
+	 *
+	 * @param ch
+	 *            the character array; may not be <code>null</code>
+	 * @param start
+	 *            the index of the first character of the id
+	 * @param length
+	 *            the number of characters in the id
+	 * @return the matching instance
+	 * @throws NullPointerException
+	 *             if the character array is <code>null</code>
+	 * @throws IndexOutOfBoundsException
+	 *             if the range is outside the array
+	 * @throws IllegalArgumentException
+	 *             if the factory rejects the id
+	 * @since JVerbnet 1.3.0
+	 */
+	public T intern(char[] ch, int start, int length){
+		T result = get(ch, start, length);
+		return (result == null) ? register(new String(ch, start, length)) : result;
+	}
+
+	/**
+	 * Returns the number of instances in the registry, which is also the
+	 * ordinal that will be given to the next instance.
+	 *
+	 * @return the number of instances in the registry
+	 * @since JVerbnet 1.3.0
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Returns a snapshot of the instances in the registry, in order of their
+	 * ordinals.
+	 *
+	 * @return an unmodifiable list of the registered instances
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<T> values(){
+		int n = size;
+		AtomicReferenceArray<T> t = byOrdinal;
+		List<T> result = new ArrayList<T>(n);
+		for(int i = 0; i < n; i++)
+			result.add(t.get(i));
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Creates and registers an instance for the specified id, unless another
+	 * thread has registered a matching instance in the meantime. The instance
+	 * is registered under the id it reports, which may differ from the
+	 * specified id if the factory normalizes it; if an instance is already
+	 * registered under the normalized id, that instance is returned instead,
+	 * and the new instance is discarded without using up its ordinal.
+	 *
+	 * @param id
+	 *            the id of the new instance
+	 * @return the registered instance matching the id
+	 * @since JVerbnet 1.3.0
+	 */
+	protected synchronized T register(String id){
+		// the table may have been replaced since the unlocked lookup
+		T result = get(id);
+		if(result != null)
+			return result;
+		result = factory.create(id, size);
+		if(result.ordinal() != size)
+			throw new IllegalStateException("factory did not give the new instance ordinal " + size + ": " + id);
+		String key = result.getID();
+		if(key != id){
+			T existing = get(key);
+			if(existing != null)
+				return existing;
+		}
+		AtomicReferenceArray<T> t = table;
+		if(size+1 > (t.length() >>> 1) + (t.length() >>> 2))
+			t = resize(t, t.length() << 1);
+		insert(t, result);
+		AtomicReferenceArray<T> o = byOrdinal;
+		if(size == o.length())
+			o = copyOf(o, o.length() << 1);
+		o.set(size, result);
+		// publish the tables only once they hold the new instance
+		table = t;
+		byOrdinal = o;
+		size++;
+		return result;
+	}
+
+	/**
+	 * Copies the specified table into a new table of the specified size.
+	 *
+	 * @param oldTable
+	 *            the table to copy
+	 * @param newLength
+	 *            the new table size; must be a power of two larger than the
+	 *            number of instances in the table
+	 * @return the new table
+	 * @since JVerbnet 1.3.0
+	 */
+	protected AtomicReferenceArray<T> resize(AtomicReferenceArray<T> oldTable, int newLength){
+		AtomicReferenceArray<T> newTable = new AtomicReferenceArray<T>(newLength);
+		T value;
+		for(int i = 0; i < oldTable.length(); i++){
+			value = oldTable.get(i);
+			if(value != null)
+				insert(newTable, value);
+		}
+		return newTable;
+	}
+
+	/**
+	 * Copies the specified array into a new array of the specified length.
+	 *
+	 * @param array
+	 *            the array to copy
+	 * @param newLength
+	 *            the new length; must be at least the length of the array
+	 * @return the new array
+	 * @since JVerbnet 1.3.0
+	 */
+	protected AtomicReferenceArray<T> copyOf(AtomicReferenceArray<T> array, int newLength){
+		AtomicReferenceArray<T> result = new AtomicReferenceArray<T>(newLength);
+		for(int i = 0; i < array.length(); i++)
+			result.set(i, array.get(i));
+		return result;
+	}
+
+	/**
+	 * Puts the specified instance in the first free slot of its probe
+	 * sequence in the specified table.
+	 *
+	 * @param t
+	 *            the table
+	 * @param value
+	 *            the instance to insert
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void insert(AtomicReferenceArray<T> t, T value){
+		int mask = t.length()-1;
+		int i;
+		for(i = spread(hash(value.getID())) & mask; t.get(i) != null; i = (i+1) & mask);
+		t.set(i, value);
+	}
+
+	/**
+	 * Returns the case-insensitive hash code of the specified character
+	 * sequence.
+	 *
+	 * @param s
+	 *            the character sequence
+	 * @return the case-insensitive hash code
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int hash(CharSequence s){
+		int hash = 0;
+		for(int i = 0; i < s.length(); i++)
+			hash = 31*hash + fold(s.charAt(i));
+		return hash;
+	}
+
+	/**
+	 * Returns the case-insensitive hash code of the specified range of a
+	 * character array.
+	 *
+	 * @param ch
+	 *            the character array
+	 * @param start
+	 *            the start of the range
+	 * @param length
+	 *            the length of the range
+	 * @return the case-insensitive hash code
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int hash(char[] ch, int start, int length){
+		int hash = 0;
+		for(int i = start; i < start+length; i++)
+			hash = 31*hash + fold(ch[i]);
+		return hash;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified id matches the specified
+	 * character sequence without regard to case.
+	 *
+	 * @param id
+	 *            the id
+	 * @param s
+	 *            the character sequence
+	 * @return <code>true</code> if the id and sequence match;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean matches(String id, CharSequence s){
+		int len = id.length();
+		if(s.length() != len)
+			return false;
+		for(int i = 0; i < len; i++)
+			if(fold(id.charAt(i)) != fold(s.charAt(i)))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified id matches the specified
+	 * range of a character array without regard to case.
+	 *
+	 * @param id
+	 *            the id
+	 * @param ch
+	 *            the character array
+	 * @param start
+	 *            the start of the range
+	 * @param length
+	 *            the length of the range
+	 * @return <code>true</code> if the id and range match;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean matches(String id, char[] ch, int start, int length){
+		if(id.length() != length)
+			return false;
+		for(int i = 0; i < length; i++)
+			if(fold(id.charAt(i)) != fold(ch[start+i]))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns the case-folded form of the specified character, so that two
+	 * characters that differ only in case fold to the same character.
+	 *
+	 * @param c
+	 *            the character
+	 * @return the case-folded character
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static char fold(char c){
+		if(c < 128)
+			return (c >= 'A' && c <= 'Z') ? (char)(c + ('a' - 'A')) : c;
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	/**
+	 * Spreads the bits of a hash code so that ids differing only in their
+	 * last characters do not cluster in the table.
+	 *
+	 * @param h
+	 *            the hash code
+	 * @return the spread hash code
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int spread(int h){
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+
+	/**
+	 * Returns the smallest power of two table size that can hold the specified
+	 * number of instances without exceeding the load factor.
+	 *
+	 * @param capacity
+	 *            the number of instances to hold
+	 * @return a power of two table size
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int tableSizeFor(int capacity){
+		int n = 16;
+		while(n - (n >>> 2) <= capacity && n < (1 << 30))
+			n <<= 1;
+		return n;
+	}
+
+	/**
+	 * Creates the instances of a registry.
+	 *
+	 * @param <T>
+	 *            the type of the created instances
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public interface IFactory<T extends IHasOrdinal> {
+
+		/**
+		 * Creates a new instance with the specified id and ordinal.
+		 *
+		 * @param id
+		 *            the id of the new instance; will not be
+		 *            <code>null</code>
+		 * @param ordinal
+		 *            the ordinal of the new instance, which the instance must
+		 *            return from its {@link IHasOrdinal#ordinal()} method
+		 * @return the new instance
+		 * @throws IllegalArgumentException
+		 *             if the id is not acceptable
+		 * @since JVerbnet 1.3.0
+		 */
+		public T create(String id, int ordinal);
+
+	}
+
+}
@@ -0,0 +1,547 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A bundle of XML files packed into a single file, so that a corpus can be
+ * loaded with one open and one mapping instead of one for each file. The
+ * files are stored unchanged, after a header that indexes them by name. The
+ * header is, in big-endian order:
+ * <ul>
+ * <li>the magic number {@link #MAGIC} and the format version
+ * {@link #FORMAT_VERSION}, as ints;</li>
+ * <li>the number of entries, as an int;</li>
+ * <li>for each entry, the length of its name in bytes as an unsigned short,
+ * the name in UTF-8, and the offset of its data from the start of the bundle
+ * as a long, the length of its data as an int, and the CRC-32 of its data as
+ * an int.</li>
+ * </ul>
+ * The data of the entries follows the header. Bundles are written with
+ * {@link #write(File, File)}, or from the command line with
+ * {@link #main(String[])}, and are recognized by the extension
+ * {@value #EXTENSION}.
+ * <p>
+ * A bundle holds its contents in a buffer loaded by {@link FileBuffers},
+ * which maps large bundles. {@link #close()} only drops the reference of the
+ * bundle to the buffer: the buffer is neither unmapped nor pooled, since the
+ * data handed out by {@link #getData(Entry)} shares it, and is reclaimed by
+ * the garbage collector once no data of the bundle is reachable. The data of
+ * different entries may be read by several threads at once.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class XMLBundle {
+
+	/**
+	 * The file name extension of bundles
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final String EXTENSION = ".vnb";
+
+	/**
+	 * The magic number at the start of a bundle, the bytes <code>JVNB</code>
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int MAGIC = 0x4A564E42;
+
+	/**
+	 * The version of the bundle format written by this class
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	// the encoding of entry names
+	private static final String UTF8 = "UTF-8";
+
+	// unchanging fields
+	private final List<Entry> entries;
+	private final Map<String, Entry> entriesByName;
+
+	// changeable fields
+	private volatile ByteBuffer buffer;
+
+	/**
+	 * Creates a new bundle over the remaining bytes of the specified buffer,
+	 * which must hold a complete bundle. Offsets are counted from the
+	 * position of the buffer.
+	 *
+	 * @param buffer
+	 *            the buffer holding the bundle; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @throws IOException
+	 *             if the buffer does not hold a well-formed bundle
+	 * @since JVerbnet 1.3.0
+	 */
+	public XMLBundle(ByteBuffer buffer) throws IOException {
+		buffer = NotNull.check("buffer", buffer).slice();
+		this.entries = Collections.unmodifiableList(readHeader(buffer.duplicate()));
+		Map<String, Entry> byName = new LinkedHashMap<String, Entry>();
+		for(Entry entry : entries)
+			if(byName.put(entry.getName(), entry) != null)
+				throw new IOException("Duplicate entry in bundle: " + entry.getName());
+		this.entriesByName = Collections.unmodifiableMap(byName);
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Opens the bundle in the specified file, loading it with the shared
+	 * {@link FileBuffers} instance.
+	 *
+	 * @param file
+	 *            the bundle file; may not be <code>null</code>
+	 * @return the opened bundle
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @throws IOException
+	 *             if the file cannot be read, or is not a well-formed bundle
+	 * @since JVerbnet 1.3.0
+	 */
+	public static XMLBundle open(File file) throws IOException {
+		FileBuffers source = FileBuffers.getDefault();
+		ByteBuffer buffer = source.load(file);
+		try {
+			return new XMLBundle(buffer);
+		} catch(IOException e){
+			// nothing else holds the buffer yet
+			source.release(buffer);
+			throw new IOException("Not a bundle: " + file + " (" + e.getMessage() + ")");
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified file has the bundle
+	 * extension.
+	 *
+	 * @param file
+	 *            the file to test; may not be <code>null</code>
+	 * @return <code>true</code> if the file is named as a bundle;
+	 *         <code>false</code> otherwise
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static boolean isBundle(File file){
+		return NotNull.check("file", file).getName().endsWith(EXTENSION);
+	}
+
+	/**
+	 * Returns the entries of this bundle, in the order in which they are
+	 * stored.
+	 *
+	 * @return the unmodifiable list of entries
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Entry> getEntries(){
+		return entries;
+	}
+
+	/**
+	 * Returns the entry with the specified name, or <code>null</code> if
+	 * there is none.
+	 *
+	 * @param name
+	 *            the name of the entry
+	 * @return the entry with the name, or <code>null</code> if there is none
+	 * @since JVerbnet 1.3.0
+	 */
+	public Entry getEntry(String name){
+		return entriesByName.get(name);
+	}
+
+	/**
+	 * Returns a read-only buffer holding the data of the specified entry,
+	 * positioned at zero. The buffer shares the contents of the bundle, and
+	 * remains valid after the bundle is closed.
+	 *
+	 * @param entry
+	 *            an entry of this bundle; may not be <code>null</code>
+	 * @return a buffer with the data of the entry
+	 * @throws NullPointerException
+	 *             if the entry is <code>null</code>
+	 * @throws IllegalStateException
+	 *             if the bundle is closed
+	 * @since JVerbnet 1.3.0
+	 */
+	public ByteBuffer getData(Entry entry){
+		NotNull.check("entry", entry);
+		ByteBuffer buffer = this.buffer;
+		if(buffer == null)
+			throw new IllegalStateException("Bundle is closed");
+		ByteBuffer result = buffer.asReadOnlyBuffer();
+		result.limit((int)entry.getOffset() + entry.getLength());
+		result.position((int)entry.getOffset());
+		return result.slice();
+	}
+
+	/**
+	 * Returns <code>true</code> if the CRC-32 of the data of the specified
+	 * entry matches the checksum in the header.
+	 *
+	 * @param entry
+	 *            an entry of this bundle; may not be <code>null</code>
+	 * @return <code>true</code> if the data is intact; <code>false</code>
+	 *         otherwise
+	 * @throws NullPointerException
+	 *             if the entry is <code>null</code>
+	 * @throws IllegalStateException
+	 *             if the bundle is closed
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean verify(Entry entry){
+		return checksum(getData(entry)) == entry.getChecksum();
+	}
+
+	/**
+	 * Returns <code>true</code> if this bundle has not been closed.
+	 *
+	 * @return <code>true</code> if the bundle is open; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isOpen(){
+		return buffer != null;
+	}
+
+	/**
+	 * Closes the bundle, after which no more data can be obtained from it.
+	 * The buffer of the bundle is not released explicitly, as data obtained
+	 * before may still be in use; it is reclaimed by the garbage collector.
+	 * Closing a closed bundle has no effect.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public void close(){
+		buffer = null;
+	}
+
+	/**
+	 * Reads the header of a bundle, and checks that the entries lie within
+	 * the buffer.
+	 *
+	 * @param buffer
+	 *            the buffer holding the bundle, positioned at zero
+	 * @return the entries of the bundle
+	 * @throws IOException
+	 *             if the header is malformed
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static List<Entry> readHeader(ByteBuffer buffer) throws IOException {
+		try {
+			if(buffer.getInt() != MAGIC)
+				throw new IOException("bad magic number");
+			int version = buffer.getInt();
+			if(version != FORMAT_VERSION)
+				throw new IOException("unsupported format version " + version);
+			int count = buffer.getInt();
+			if(count < 0)
+				throw new IOException("bad entry count " + count);
+			List<Entry> result = new ArrayList<Entry>(count);
+			for(int i = 0; i < count; i++){
+				byte[] name = new byte[buffer.getShort() & 0xFFFF];
+				buffer.get(name);
+				long offset = buffer.getLong();
+				int length = buffer.getInt();
+				int checksum = buffer.getInt();
+				if(offset < 0 || length < 0 || offset + length > buffer.limit())
+					throw new IOException("entry out of bounds: " + new String(name, UTF8));
+				result.add(new Entry(new String(name, UTF8), offset, length, checksum));
+			}
+			return result;
+		} catch(BufferUnderflowException e){
+			throw new IOException("truncated header");
+		}
+	}
+
+	/**
+	 * Returns the CRC-32 of the remaining bytes of the specified buffer. The
+	 * position of the buffer is advanced to its limit.
+	 *
+	 * @param buffer
+	 *            the buffer; may not be <code>null</code>
+	 * @return the CRC-32 of the bytes, as an int
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static int checksum(ByteBuffer buffer){
+		CRC32 crc = new CRC32();
+		if(buffer.hasArray()){
+			crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			buffer.position(buffer.limit());
+		} else {
+			byte[] chunk = new byte[Math.min(buffer.remaining(), 8 * 1024)];
+			while(buffer.hasRemaining()){
+				int len = Math.min(buffer.remaining(), chunk.length);
+				buffer.get(chunk, 0, len);
+				crc.update(chunk, 0, len);
+			}
+		}
+		return (int)crc.getValue();
+	}
+
+	/**
+	 * Writes a bundle of all the XML files in the specified directory, in
+	 * the order of their names.
+	 *
+	 * @param dir
+	 *            the directory of XML files; may not be <code>null</code>
+	 * @param bundle
+	 *            the bundle file to write; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @throws IOException
+	 *             if the directory cannot be listed, or a file cannot be
+	 *             read or written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void write(File dir, File bundle) throws IOException {
+		NotNull.check("dir", dir);
+		File[] files = dir.listFiles(new FileFilter() {
+			public boolean accept(File f) {
+				return f.isFile() && f.getName().endsWith(".xml");
+			}
+		});
+		if(files == null)
+			throw new IOException("Not a directory: " + dir);
+		Arrays.sort(files, new Comparator<File>() {
+			public int compare(File f1, File f2) {
+				return f1.getName().compareTo(f2.getName());
+			}
+		});
+		write(Arrays.asList(files), bundle);
+	}
+
+	/**
+	 * Writes a bundle of the specified files, in the specified order. Each
+	 * entry is named by the name of its file.
+	 *
+	 * @param files
+	 *            the files to bundle; may not be <code>null</code> or
+	 *            contain <code>null</code>
+	 * @param bundle
+	 *            the bundle file to write; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if any argument is <code>null</code>, or the list contains
+	 *             <code>null</code>
+	 * @throws IOException
+	 *             if a file cannot be read or written, or the bundle would be
+	 *             too large
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void write(List<File> files, File bundle) throws IOException {
+		NotNull.check("files", files);
+		NotNull.check("bundle", bundle);
+
+		// read the files and compute the header
+		List<byte[]> names = new ArrayList<byte[]>(files.size());
+		List<byte[]> contents = new ArrayList<byte[]>(files.size());
+		long offset = 12;
+		for(File file : files){
+			byte[] name = NotNull.check("file", file).getName().getBytes(UTF8);
+			if(name.length > 0xFFFF)
+				throw new IOException("Name too long: " + file.getName());
+			names.add(name);
+			contents.add(readFully(file));
+			offset += 2 + name.length + 8 + 4 + 4;
+		}
+
+		// write the header, then the data
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(bundle)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(files.size());
+			for(int i = 0; i < files.size(); i++){
+				byte[] data = contents.get(i);
+				out.writeShort(names.get(i).length);
+				out.write(names.get(i));
+				out.writeLong(offset);
+				out.writeInt(data.length);
+				out.writeInt(checksum(ByteBuffer.wrap(data)));
+				offset += data.length;
+			}
+			if(offset > Integer.MAX_VALUE)
+				throw new IOException("Bundle too large: " + offset + " bytes");
+			for(byte[] data : contents)
+				out.write(data);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads the whole of the specified file.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the contents of the file
+	 * @throws IOException
+	 *             if the file cannot be read
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static byte[] readFully(File file) throws IOException {
+		long size = file.length();
+		if(size > Integer.MAX_VALUE)
+			throw new IOException("File too large: " + file);
+		byte[] result = new byte[(int)size];
+		InputStream in = new FileInputStream(file);
+		try {
+			int read = 0;
+			while(read < result.length){
+				int n = in.read(result, read, result.length - read);
+				if(n < 0)
+					throw new IOException("File truncated while reading: " + file);
+				read += n;
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Writes a bundle of the XML files in a directory. The first argument is
+	 * the directory, and the second the bundle file to write.
+	 *
+	 * @param args
+	 *            the directory and the bundle file
+	 * @throws IOException
+	 *             if the bundle cannot be written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length != 2){
+			System.err.println("usage: XMLBundle <directory> <bundle" + EXTENSION + ">");
+			System.exit(1);
+		}
+		write(new File(args[0]), new File(args[1]));
+	}
+
+	/**
+	 * An entry of a bundle: the name of a bundled file, and the location and
+	 * checksum of its data.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public static class Entry {
+
+		// unchanging fields
+		private final String name;
+		private final long offset;
+		private final int length;
+		private final int checksum;
+
+		/**
+		 * Creates a new entry.
+		 *
+		 * @param name
+		 *            the name of the entry; may not be <code>null</code>
+		 * @param offset
+		 *            the offset of the data from the start of the bundle
+		 * @param length
+		 *            the length of the data
+		 * @param checksum
+		 *            the CRC-32 of the data
+		 * @throws NullPointerException
+		 *             if the name is <code>null</code>
+		 * @since JVerbnet 1.3.0
+		 */
+		public Entry(String name, long offset, int length, int checksum){
+			this.name = NotNull.check("name", name);
+			this.offset = offset;
+			this.length = length;
+			this.checksum = checksum;
+		}
+
+		/**
+		 * Returns the name of this entry, which is the name of the bundled
+		 * file.
+		 *
+		 * @return the name of this entry
+		 * @since JVerbnet 1.3.0
+		 */
+		public String getName(){
+			return name;
+		}
+
+		/**
+		 * Returns the offset of the data of this entry from the start of the
+		 * bundle.
+		 *
+		 * @return the offset of the data
+		 * @since JVerbnet 1.3.0
+		 */
+		public long getOffset(){
+			return offset;
+		}
+
+		/**
+		 * Returns the length of the data of this entry, in bytes.
+		 *
+		 * @return the length of the data
+		 * @since JVerbnet 1.3.0
+		 */
+		public int getLength(){
+			return length;
+		}
+
+		/**
+		 * Returns the CRC-32 of the data of this entry.
+		 *
+		 * @return the checksum of the data
+		 * @since JVerbnet 1.3.0
+		 */
+		public int getChecksum(){
+			return checksum;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return name + "@" + offset + "+" + length;
+		}
+
+	}
+
+}
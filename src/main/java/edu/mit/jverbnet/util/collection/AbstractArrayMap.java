@@ -0,0 +1,308 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Base class for the unmodifiable, array-backed maps in this package. Keys are
+ * kept in an array in iteration order; subclasses decide how the values are
+ * stored. The key set and the values are views that read the arrays by
+ * position; map entries are created only when the entry set is iterated.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public abstract class AbstractArrayMap<K,V> extends AbstractMap<K,V> {
+	
+	// unchanging fields
+	private final Object[] keys;
+	private final int[] table;
+	
+	/**
+	 * Creates a new map with the specified keys. The array is not copied, and
+	 * must not be modified after it is passed to this constructor.
+	 * 
+	 * @param keys
+	 *            the unique, non-<code>null</code> keys of the map
+	 * @since JVerbnet 1.3.0
+	 */
+	protected AbstractArrayMap(Object[] keys){
+		this.keys = keys;
+		this.table = ArrayIndex.build(keys);
+	}
+	
+	/**
+	 * Returns the value at the specified position.
+	 * 
+	 * @param index
+	 *            the position of the value, which is the same as the position
+	 *            of its key
+	 * @return the value at the specified position
+	 * @since JVerbnet 1.3.0
+	 */
+	protected abstract V valueAt(int index);
+	
+	/**
+	 * Returns the key at the specified position.
+	 * 
+	 * @param index
+	 *            the position of the key
+	 * @return the key at the specified position
+	 * @since JVerbnet 1.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	protected K keyAt(int index){
+		return (K)keys[index];
+	}
+	
+	/**
+	 * Returns the position of the specified key, or -1 if it is not a key of
+	 * this map.
+	 * 
+	 * @param key
+	 *            the key to look for
+	 * @return the position of the key, or -1 if none
+	 * @since JVerbnet 1.3.0
+	 */
+	protected int indexOfKey(Object key){
+		return ArrayIndex.indexOf(keys, table, key);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	public V get(Object key) {
+		int idx = indexOfKey(key);
+		return (idx < 0) ? 
+				null : 
+					valueAt(idx);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOfKey(key) > -1;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#keySet()
+	 */
+	@Override
+	public Set<K> keySet() {
+		return new ImmutableArraySet<K>(keys, table);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#values()
+	 */
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			
+			public Iterator<V> iterator() {
+				return new Iterator<V>() {
+					private int next = 0;
+					public boolean hasNext() {
+						return next < keys.length;
+					}
+					public V next() {
+						if(next >= keys.length)
+							throw new NoSuchElementException();
+						return valueAt(next++);
+					}
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+			
+			public int size() {
+				return keys.length;
+			}
+			
+			public boolean contains(Object o) {
+				return containsValue(o);
+			}
+		};
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#containsValue(java.lang.Object)
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		for(int i = 0; i < keys.length; i++){
+			V v = valueAt(i);
+			if(value == null ? v == null : value.equals(v))
+				return true;
+		}
+		return false;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<Entry<K,V>>() {
+			
+			public Iterator<Entry<K, V>> iterator() {
+				return new Iterator<Entry<K,V>>() {
+					private int next = 0;
+					public boolean hasNext() {
+						return next < keys.length;
+					}
+					public Entry<K, V> next() {
+						if(next >= keys.length)
+							throw new NoSuchElementException();
+						Entry<K,V> e = new ImmutableEntry<K,V>(keyAt(next), valueAt(next));
+						next++;
+						return e;
+					}
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+			
+			public int size() {
+				return keys.length;
+			}
+		};
+	}
+	
+	/** 
+	 * An unmodifiable map entry.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public static class ImmutableEntry<K,V> implements Map.Entry<K,V> {
+		
+		// unchanging fields
+		private final K key;
+		private final V value;
+		
+		/**
+		 * Creates a new entry with the specified key and value.
+		 * 
+		 * @param key
+		 *            the key; may be <code>null</code>
+		 * @param value
+		 *            the value; may be <code>null</code>
+		 * @since JVerbnet 1.3.0
+		 */
+		public ImmutableEntry(K key, V value){
+			this.key = key;
+			this.value = value;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.util.Map.Entry#getKey()
+		 */
+		public K getKey() {
+			return key;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.util.Map.Entry#getValue()
+		 */
+		public V getValue() {
+			return value;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.util.Map.Entry#setValue(java.lang.Object)
+		 */
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj)
+				return true;
+			if(!(obj instanceof Map.Entry<?,?>))
+				return false;
+			Map.Entry<?,?> e = (Map.Entry<?,?>)obj;
+			return (key == null ? e.getKey() == null : key.equals(e.getKey())) && 
+					(value == null ? e.getValue() == null : value.equals(e.getValue()));
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+		
+	}
+
+}
@@ -0,0 +1,109 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+/**
+ * Utility methods for looking up elements in the arrays that back the
+ * collections in this package. Small arrays are searched linearly; larger
+ * arrays are given an open-addressing hash table of array positions.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+final class ArrayIndex {
+	
+	/**
+	 * Arrays with this many elements or fewer are searched linearly, and are
+	 * not given a hash table.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	static final int LINEAR_MAX = 8;
+	
+	// no instantiation
+	private ArrayIndex(){}
+
+	/**
+	 * Builds a hash table for the specified elements, or returns
+	 * <code>null</code> if the array is small enough to be searched linearly.
+	 * The elements must be non-<code>null</code> and unique. Each slot in the
+	 * table holds one plus the array position of an element, or zero if the
+	 * slot is empty.
+	 * 
+	 * @param elems
+	 *            the elements to be indexed
+	 * @return the hash table, or <code>null</code> if none is needed
+	 * @since JVerbnet 1.3.0
+	 */
+	static int[] build(Object[] elems){
+		if(elems.length <= LINEAR_MAX)
+			return null;
+		int capacity = Integer.highestOneBit(elems.length) << 2;
+		int[] table = new int[capacity];
+		int mask = capacity-1;
+		for(int i = 0; i < elems.length; i++){
+			int slot = spread(elems[i].hashCode()) & mask;
+			while(table[slot] != 0)
+				slot = (slot+1) & mask;
+			table[slot] = i+1;
+		}
+		return table;
+	}
+	
+	/**
+	 * Returns the position of the specified object in the array, or -1 if it
+	 * is not found.
+	 * 
+	 * @param elems
+	 *            the array to search
+	 * @param table
+	 *            the hash table for the array, or <code>null</code> if the
+	 *            array should be searched linearly
+	 * @param o
+	 *            the object to look for; may be <code>null</code>
+	 * @return the position of the object, or -1 if not found
+	 * @since JVerbnet 1.3.0
+	 */
+	static int indexOf(Object[] elems, int[] table, Object o){
+		if(o == null)
+			return -1;
+		if(table == null){
+			for(int i = 0; i < elems.length; i++)
+				if(elems[i] == o || elems[i].equals(o))
+					return i;
+			return -1;
+		}
+		int mask = table.length-1;
+		int slot = spread(o.hashCode()) & mask;
+		int entry;
+		while((entry = table[slot]) != 0){
+			Object e = elems[entry-1];
+			if(e == o || e.equals(o))
+				return entry-1;
+			slot = (slot+1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Mixes the high bits of a hash code into the low bits.
+	 * 
+	 * @param h
+	 *            the hash code
+	 * @return the spread hash code
+	 * @since JVerbnet 1.3.0
+	 */
+	static int spread(int h){
+		return h ^ (h >>> 16);
+	}
+
+}
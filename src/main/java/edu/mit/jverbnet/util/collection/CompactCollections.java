@@ -0,0 +1,151 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import edu.mit.jverbnet.util.IHasOrdinal;
+
+/**
+ * Factory methods that copy collections into the smallest unmodifiable
+ * representation available: the shared empty collections for empty inputs,
+ * the singleton collections for single elements, and the array-backed
+ * collections of this package otherwise. Iteration order is preserved.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class CompactCollections {
+	
+	// no instantiation
+	private CompactCollections(){}
+	
+	/**
+	 * Returns a compact, unmodifiable copy of the specified list.
+	 * 
+	 * @param list
+	 *            the list to copy; may be <code>null</code>, in which case the
+	 *            empty list is returned
+	 * @return a compact, unmodifiable copy of the list
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <T> List<T> list(Collection<? extends T> list){
+		if(list == null || list.isEmpty())
+			return Collections.emptyList();
+		if(list instanceof ImmutableArrayList<?>){
+			@SuppressWarnings("unchecked")
+			List<T> result = (List<T>)list;
+			return result;
+		}
+		if(list.size() == 1)
+			return Collections.<T>singletonList(list.iterator().next());
+		return ImmutableArrayList.copyOf(list);
+	}
+	
+	/**
+	 * Returns a compact, unmodifiable copy of the specified set.
+	 * 
+	 * @param set
+	 *            the set to copy; may be <code>null</code>, in which case the
+	 *            empty set is returned; may not contain <code>null</code>
+	 * @return a compact, unmodifiable copy of the set
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <T> Set<T> set(Set<? extends T> set){
+		if(set == null || set.isEmpty())
+			return Collections.emptySet();
+		if(set instanceof ImmutableArraySet<?>){
+			@SuppressWarnings("unchecked")
+			Set<T> result = (Set<T>)set;
+			return result;
+		}
+		if(set.size() == 1)
+			return Collections.<T>singleton(set.iterator().next());
+		return ImmutableArraySet.copyOf(set);
+	}
+	
+	/**
+	 * Returns a compact, unmodifiable copy of the specified map. If every value
+	 * in the map is a {@link Boolean}, the values are packed into bits, and if
+	 * the keys also have ordinals, such as the values of the Verbnet types,
+	 * they are indexed by ordinal.
+	 * 
+	 * @param map
+	 *            the map to copy; may be <code>null</code>, in which case the
+	 *            empty map is returned; may not have a <code>null</code> key
+	 * @return a compact, unmodifiable copy of the map
+	 * @since JVerbnet 1.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K,V> Map<K,V> map(Map<? extends K, ? extends V> map){
+		if(map == null || map.isEmpty())
+			return Collections.emptyMap();
+		if(map instanceof AbstractArrayMap<?,?>)
+			return (Map<K,V>)map;
+		if(map.size() == 1){
+			Entry<? extends K, ? extends V> e = map.entrySet().iterator().next();
+			return Collections.<K,V>singletonMap(e.getKey(), e.getValue());
+		}
+		if(allValuesBoolean(map)){
+			Map<K,Boolean> result = null;
+			if(map.keySet().iterator().next() instanceof IHasOrdinal)
+				result = ImmutableOrdinalBooleanMap.copyOf((Map<K,Boolean>)map);
+			if(result == null)
+				result = ImmutableBooleanMap.copyOf((Map<K,Boolean>)map);
+			return (Map<K,V>)result;
+		}
+		return ImmutableArrayMap.copyOf(map);
+	}
+	
+	/**
+	 * Returns a compact, unmodifiable list that takes ownership of the
+	 * specified array. Unlike {@link #list(Collection)}, the elements are
+	 * neither checked nor copied; the caller must not modify the array after
+	 * passing it to this method.
+	 *
+	 * @param elems
+	 *            the elements of the list; may be <code>null</code>, in which
+	 *            case the empty list is returned
+	 * @return a compact, unmodifiable list backed by the array
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <T> List<T> wrapList(T[] elems){
+		if(elems == null || elems.length == 0)
+			return Collections.emptyList();
+		if(elems.length == 1)
+			return Collections.<T>singletonList(elems[0]);
+		return new ImmutableArrayList<T>(elems);
+	}
+
+	/**
+	 * Returns <code>true</code> if every value in the map is a non-
+	 * <code>null</code> {@link Boolean}.
+	 * 
+	 * @param map
+	 *            the map to check
+	 * @return <code>true</code> if all values are booleans; <code>false</code>
+	 *         otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean allValuesBoolean(Map<?,?> map){
+		for(Object value : map.values())
+			if(!(value instanceof Boolean))
+				return false;
+		return true;
+	}
+
+}
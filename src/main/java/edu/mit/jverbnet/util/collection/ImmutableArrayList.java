@@ -0,0 +1,88 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * An unmodifiable list backed directly by an array of exactly the right size.
+ * Unlike an unmodifiable wrapper around an {@link java.util.ArrayList}, this
+ * list has no wrapper layer and no spare capacity.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ImmutableArrayList<E> extends AbstractList<E> implements RandomAccess {
+	
+	// unchanging fields
+	private final Object[] elems;
+	
+	/**
+	 * Creates a new list that uses the specified array as its backing store.
+	 * The array is not copied, and must not be modified after it is passed to
+	 * this constructor.
+	 * 
+	 * @param elems
+	 *            the backing array; may not be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected ImmutableArrayList(Object[] elems){
+		this.elems = elems;
+	}
+
+	/**
+	 * Creates a new list containing the elements of the specified collection,
+	 * in the order returned by its iterator.
+	 * 
+	 * @param c
+	 *            the collection to copy; may not be <code>null</code>
+	 * @return a new unmodifiable list with the same elements
+	 * @throws NullPointerException
+	 *             if the collection is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <E> ImmutableArrayList<E> copyOf(Collection<? extends E> c){
+		return new ImmutableArrayList<E>(c.toArray());
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractList#get(int)
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		return (E)elems[index];
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractCollection#size()
+	 */
+	public int size() {
+		return elems.length;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractCollection#toArray()
+	 */
+	@Override
+	public Object[] toArray() {
+		return elems.clone();
+	}
+
+}
@@ -0,0 +1,78 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An unmodifiable map backed by parallel arrays of keys and values. Iteration
+ * order is the order of the arrays, so a map copied from a
+ * {@link java.util.LinkedHashMap} keeps its insertion order.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ImmutableArrayMap<K,V> extends AbstractArrayMap<K,V> {
+	
+	// unchanging fields
+	private final Object[] values;
+	
+	/**
+	 * Creates a new map backed by the specified arrays, which are not copied.
+	 * 
+	 * @param keys
+	 *            the unique, non-<code>null</code> keys of the map
+	 * @param values
+	 *            the values of the map, in the same order as the keys
+	 * @since JVerbnet 1.3.0
+	 */
+	protected ImmutableArrayMap(Object[] keys, Object[] values){
+		super(keys);
+		this.values = values;
+	}
+	
+	/**
+	 * Creates a new map containing the mappings of the specified map, in the
+	 * order returned by its entry set iterator. The map may not have a
+	 * <code>null</code> key.
+	 * 
+	 * @param map
+	 *            the map to copy; may not be <code>null</code>
+	 * @return a new unmodifiable map with the same mappings
+	 * @throws NullPointerException
+	 *             if the map is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <K,V> ImmutableArrayMap<K,V> copyOf(Map<? extends K, ? extends V> map){
+		Object[] keys = new Object[map.size()];
+		Object[] values = new Object[keys.length];
+		int i = 0;
+		for(Entry<? extends K, ? extends V> e : map.entrySet()){
+			keys[i] = e.getKey();
+			values[i] = e.getValue();
+			i++;
+		}
+		return new ImmutableArrayMap<K,V>(keys, values);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.collection.AbstractArrayMap#valueAt(int)
+	 */
+	@SuppressWarnings("unchecked")
+	protected V valueAt(int index) {
+		return (V)values[index];
+	}
+
+}
@@ -0,0 +1,118 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An unmodifiable set backed by an array. Iteration order is the order of
+ * the array, so a set copied from a {@link java.util.LinkedHashSet} keeps its
+ * insertion order. Small sets are searched linearly; larger sets carry a
+ * compact hash table of array positions.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ImmutableArraySet<E> extends AbstractSet<E> {
+	
+	// unchanging fields
+	private final Object[] elems;
+	private final int[] table;
+	
+	/**
+	 * Creates a new set backed by the specified array and hash table. Neither
+	 * is copied.
+	 * 
+	 * @param elems
+	 *            the unique, non-<code>null</code> elements of the set
+	 * @param table
+	 *            the hash table for the elements, as produced by
+	 *            {@link ArrayIndex#build(Object[])}
+	 * @since JVerbnet 1.3.0
+	 */
+	ImmutableArraySet(Object[] elems, int[] table){
+		this.elems = elems;
+		this.table = table;
+	}
+	
+	/**
+	 * Creates a new set containing the elements of the specified collection,
+	 * which must not contain <code>null</code> or duplicate elements.
+	 * 
+	 * @param c
+	 *            the collection to copy; may not be <code>null</code>
+	 * @return a new unmodifiable set with the same elements
+	 * @throws NullPointerException
+	 *             if the collection is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <E> ImmutableArraySet<E> copyOf(Collection<? extends E> c){
+		Object[] elems = c.toArray();
+		return new ImmutableArraySet<E>(elems, ArrayIndex.build(elems));
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractCollection#contains(java.lang.Object)
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return ArrayIndex.indexOf(elems, table, o) > -1;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractCollection#iterator()
+	 */
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int next = 0;
+			public boolean hasNext() {
+				return next < elems.length;
+			}
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if(next >= elems.length)
+					throw new NoSuchElementException();
+				return (E)elems[next++];
+			}
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractCollection#size()
+	 */
+	public int size() {
+		return elems.length;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractCollection#toArray()
+	 */
+	@Override
+	public Object[] toArray() {
+		return elems.clone();
+	}
+
+}
@@ -0,0 +1,125 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An unmodifiable map from keys to non-<code>null</code> booleans. The keys
+ * are kept in an array, and the values are packed into bits. This is the
+ * representation used for the wordnet key maps of members and the type
+ * restriction maps of selectional restrictions.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ImmutableBooleanMap<K> extends AbstractArrayMap<K,Boolean> {
+	
+	// unchanging fields
+	private final long bits;
+	private final long[] moreBits;
+	
+	/**
+	 * Creates a new map backed by the specified key array, which is not copied.
+	 * 
+	 * @param keys
+	 *            the unique, non-<code>null</code> keys of the map
+	 * @param values
+	 *            the values of the map, in the same order as the keys
+	 * @since JVerbnet 1.3.0
+	 */
+	protected ImmutableBooleanMap(Object[] keys, boolean[] values){
+		super(keys);
+		long bits = 0;
+		long[] moreBits = (values.length > 64) ? 
+				new long[(values.length-1) >>> 6] :
+					null;
+		for(int i = 0; i < values.length; i++){
+			if(!values[i])
+				continue;
+			if(i < 64){
+				bits |= 1L << i;
+			} else {
+				moreBits[(i >>> 6)-1] |= 1L << (i & 63);
+			}
+		}
+		this.bits = bits;
+		this.moreBits = moreBits;
+	}
+	
+	/**
+	 * Creates a new map containing the mappings of the specified map, in the
+	 * order returned by its entry set iterator. The map may not have
+	 * <code>null</code> keys or values.
+	 * 
+	 * @param map
+	 *            the map to copy; may not be <code>null</code>
+	 * @return a new unmodifiable map with the same mappings
+	 * @throws NullPointerException
+	 *             if the map is <code>null</code> or contains a
+	 *             <code>null</code> value
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <K> ImmutableBooleanMap<K> copyOf(Map<? extends K, Boolean> map){
+		Object[] keys = new Object[map.size()];
+		boolean[] values = new boolean[keys.length];
+		int i = 0;
+		for(Entry<? extends K, Boolean> e : map.entrySet()){
+			keys[i] = e.getKey();
+			values[i] = e.getValue().booleanValue();
+			i++;
+		}
+		return new ImmutableBooleanMap<K>(keys, values);
+	}
+	
+	/**
+	 * Returns the primitive value at the specified position.
+	 * 
+	 * @param index
+	 *            the position of the value
+	 * @return the value at the specified position
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean booleanAt(int index){
+		long word = (index < 64) ? 
+				bits : 
+					moreBits[(index >>> 6)-1];
+		return (word & (1L << (index & 63))) != 0;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jverbnet.util.collection.AbstractArrayMap#valueAt(int)
+	 */
+	protected Boolean valueAt(int index) {
+		return Boolean.valueOf(booleanAt(index));
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractMap#containsValue(java.lang.Object)
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		if(!(value instanceof Boolean))
+			return false;
+		boolean b = ((Boolean)value).booleanValue();
+		for(int i = 0; i < size(); i++)
+			if(booleanAt(i) == b)
+				return true;
+		return false;
+	}
+
+}
@@ -0,0 +1,163 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import edu.mit.jverbnet.util.IHasOrdinal;
+
+/**
+ * An unmodifiable map from keys with ordinals to non-<code>null</code>
+ * booleans. Like an {@link ImmutableBooleanMap}, the keys are kept in an array
+ * in iteration order, and the values are packed into bits; in addition, the
+ * map holds a table of key positions indexed by ordinal, so that a lookup is
+ * a single array access rather than a search. Keys are compared by identity,
+ * as is right for the values of the Verbnet types. This is the representation
+ * used for the type restriction maps of selectional restrictions.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ImmutableOrdinalBooleanMap<K> extends ImmutableBooleanMap<K> {
+
+	/**
+	 * The largest number of keys a map may have, so that positions fit in the
+	 * bytes of the ordinal table
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int MAX_SIZE = 127;
+
+	/**
+	 * The largest key ordinal a map may have, which bounds the size of the
+	 * ordinal table
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int MAX_ORDINAL = 1023;
+
+	// unchanging fields
+	private final byte[] positions;
+
+	/**
+	 * Creates a new map backed by the specified key array, which is not
+	 * copied. The keys must have ordinals, as checked by
+	 * {@link #isIndexable(Object[])}.
+	 *
+	 * @param keys
+	 *            the unique, non-<code>null</code> keys of the map
+	 * @param values
+	 *            the values of the map, in the same order as the keys
+	 * @since JVerbnet 1.3.0
+	 */
+	protected ImmutableOrdinalBooleanMap(Object[] keys, boolean[] values){
+		super(keys, values);
+		int max = 0;
+		for(Object key : keys)
+			max = Math.max(max, ((IHasOrdinal)key).ordinal());
+		positions = new byte[max+1];
+		for(int i = 0; i < keys.length; i++)
+			positions[((IHasOrdinal)keys[i]).ordinal()] = (byte)(i+1);
+	}
+
+	/**
+	 * Returns a new map containing the mappings of the specified map, in the
+	 * order returned by its entry set iterator, or <code>null</code> if the
+	 * keys of the map cannot be indexed by ordinal.
+	 *
+	 * @param map
+	 *            the map to copy; may not be <code>null</code>
+	 * @return a new unmodifiable map with the same mappings, or
+	 *         <code>null</code> if the keys cannot be indexed by ordinal
+	 * @throws NullPointerException
+	 *             if the map is <code>null</code> or contains a
+	 *             <code>null</code> value
+	 * @see #isIndexable(Object[])
+	 * @since JVerbnet 1.3.0
+	 */
+	public static <K> ImmutableOrdinalBooleanMap<K> copyOf(Map<? extends K, Boolean> map){
+		if(map.size() > MAX_SIZE)
+			return null;
+		Object[] keys = new Object[map.size()];
+		boolean[] values = new boolean[keys.length];
+		int i = 0;
+		for(Entry<? extends K, Boolean> e : map.entrySet()){
+			keys[i] = e.getKey();
+			values[i] = e.getValue().booleanValue();
+			i++;
+		}
+		return isIndexable(keys) ?
+				new ImmutableOrdinalBooleanMap<K>(keys, values) :
+					null;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified keys can be indexed by
+	 * ordinal: there are no more than {@link #MAX_SIZE} of them, all have
+	 * ordinals between zero and {@link #MAX_ORDINAL}, and no two share an
+	 * ordinal, as keys drawn from different kinds of object might.
+	 *
+	 * @param keys
+	 *            the keys to test
+	 * @return <code>true</code> if the keys can be indexed by ordinal;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public static boolean isIndexable(Object[] keys){
+		if(keys.length > MAX_SIZE)
+			return false;
+		long seen = 0;
+		long[] moreSeen = null;
+		int ordinal;
+		long bit;
+		for(Object key : keys){
+			if(!(key instanceof IHasOrdinal))
+				return false;
+			ordinal = ((IHasOrdinal)key).ordinal();
+			if(ordinal < 0 || ordinal > MAX_ORDINAL)
+				return false;
+			bit = 1L << ordinal;
+			if(ordinal < 64){
+				if((seen & bit) != 0)
+					return false;
+				seen |= bit;
+			} else {
+				if(moreSeen == null)
+					moreSeen = new long[(MAX_ORDINAL >>> 6)];
+				if((moreSeen[(ordinal >>> 6)-1] & bit) != 0)
+					return false;
+				moreSeen[(ordinal >>> 6)-1] |= bit;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jverbnet.util.collection.AbstractArrayMap#indexOfKey(java.lang.Object)
+	 */
+	@Override
+	protected int indexOfKey(Object key) {
+		if(!(key instanceof IHasOrdinal))
+			return -1;
+		int ordinal = ((IHasOrdinal)key).ordinal();
+		if(ordinal < 0 || ordinal >= positions.length)
+			return -1;
+		int idx = positions[ordinal]-1;
+		return (idx > -1 && keyAt(idx) == key) ?
+				idx :
+					-1;
+	}
+
+}
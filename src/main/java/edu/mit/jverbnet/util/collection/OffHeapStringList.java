@@ -0,0 +1,94 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * An unmodifiable list of strings kept in an {@link OffHeapStrings} store.
+ * The list holds only the offsets of its strings; each string is decoded
+ * afresh when it is retrieved. Instances are created by
+ * {@link OffHeapStrings#addAll(java.util.Collection)}.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class OffHeapStringList extends AbstractList<String> implements RandomAccess {
+	
+	// unchanging fields
+	private final OffHeapStrings store;
+	private final int[] offsets;
+
+	/**
+	 * Creates a new list of the strings at the specified offsets of the
+	 * specified store. The offset array is not copied.
+	 * 
+	 * @param store
+	 *            the store that holds the strings; may not be
+	 *            <code>null</code>
+	 * @param offsets
+	 *            the offsets of the strings in the store; may not be
+	 *            <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	OffHeapStringList(OffHeapStrings store, int[] offsets){
+		this.store = store;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Returns the store that holds the strings of this list.
+	 * 
+	 * @return the store that holds the strings of this list
+	 * @since JVerbnet 1.3.0
+	 */
+	public OffHeapStrings getStore(){
+		return store;
+	}
+
+	/**
+	 * Returns <code>true</code> if the string at the specified position is
+	 * empty or all whitespace, without decoding it.
+	 * 
+	 * @param index
+	 *            the position of the string
+	 * @return <code>true</code> if the string is empty or all whitespace;
+	 *         <code>false</code> otherwise
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 * @see OffHeapStrings#isEmptyOrBlank(int)
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isEmptyOrBlank(int index){
+		return store.isEmptyOrBlank(offsets[index]);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractList#get(int)
+	 */
+	public String get(int index) {
+		return store.get(offsets[index]);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.util.AbstractCollection#size()
+	 */
+	public int size() {
+		return offsets.length;
+	}
+
+}
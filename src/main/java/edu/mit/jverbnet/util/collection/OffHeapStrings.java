@@ -0,0 +1,282 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A store that keeps strings outside the Java heap, in a direct byte buffer.
+ * Each string is encoded as UTF-8 and prefixed by its encoded length; it is
+ * identified by its offset in the buffer. Strings are decoded into
+ * {@link String} objects only when they are retrieved, so the store costs the
+ * garbage collector almost nothing to keep. This suits large amounts of text
+ * that are seldom read.
+ * <p>
+ * Strings are added while the store is being filled (typically during a
+ * load), and identical strings are stored only once. Once filling is
+ * finished, the {@link #compact()} method should be called to release the
+ * unused capacity of the buffer and the bookkeeping used to detect
+ * duplicates. Strings may be retrieved concurrently by any number of threads;
+ * adding strings must be confined to one thread at a time.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class OffHeapStrings {
+	
+	/**
+	 * The default initial capacity of the store, in bytes
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	
+	// the character set used for all strings
+	private static final String UTF8 = "UTF-8";
+	
+	// changeable fields
+	private volatile ByteBuffer buffer;
+	private Map<String, Integer> offsets = new HashMap<String, Integer>();
+	private int count = 0;
+	
+	/**
+	 * Creates a new, empty store with the default initial capacity.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public OffHeapStrings(){
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Creates a new, empty store with the specified initial capacity. The
+	 * store grows as needed.
+	 * 
+	 * @param capacity
+	 *            the initial capacity of the store, in bytes
+	 * @throws IllegalArgumentException
+	 *             if the capacity is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public OffHeapStrings(int capacity){
+		if(capacity < 0)
+			throw new IllegalArgumentException("capacity may not be negative");
+		buffer = ByteBuffer.allocateDirect(capacity);
+	}
+	
+	/**
+	 * Adds the specified string to the store, if an identical string is not
+	 * already stored, and returns its offset.
+	 * 
+	 * @param str
+	 *            the string to add; may not be <code>null</code>
+	 * @return the offset of the string in the store
+	 * @throws NullPointerException
+	 *             if the string is <code>null</code>
+	 * @throws IllegalStateException
+	 *             if the store has been compacted
+	 * @since JVerbnet 1.3.0
+	 */
+	public int add(String str){
+		if(str == null)
+			throw new NullPointerException();
+		if(offsets == null)
+			throw new IllegalStateException("The store has been compacted");
+		Integer existing = offsets.get(str);
+		if(existing != null)
+			return existing.intValue();
+		
+		byte[] bytes;
+		try {
+			bytes = str.getBytes(UTF8);
+		} catch(UnsupportedEncodingException e){
+			// every Java platform supports UTF-8
+			throw new IllegalStateException(e.getMessage());
+		}
+		ensureCapacity(4 + bytes.length);
+		ByteBuffer buf = buffer;
+		int offset = buf.position();
+		buf.putInt(bytes.length);
+		buf.put(bytes);
+		offsets.put(str, offset);
+		count++;
+		return offset;
+	}
+	
+	/**
+	 * Adds the specified strings to the store, and returns an unmodifiable
+	 * list view of them, in the same order. The list decodes each string every
+	 * time it is retrieved.
+	 * 
+	 * @param strs
+	 *            the strings to add; may be <code>null</code>, in which case
+	 *            the empty list is returned
+	 * @return an unmodifiable list of the stored strings
+	 * @throws NullPointerException
+	 *             if any of the strings is <code>null</code>
+	 * @throws IllegalStateException
+	 *             if the store has been compacted
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<String> addAll(Collection<String> strs){
+		if(strs == null || strs.isEmpty())
+			return Collections.emptyList();
+		int[] result = new int[strs.size()];
+		int i = 0;
+		for(String str : strs)
+			result[i++] = add(str);
+		return new OffHeapStringList(this, result);
+	}
+	
+	/**
+	 * Returns the string stored at the specified offset.
+	 * 
+	 * @param offset
+	 *            the offset of the string, as returned by {@link #add(String)}
+	 * @return the string at the specified offset
+	 * @throws IndexOutOfBoundsException
+	 *             if the offset is outside of the store
+	 * @since JVerbnet 1.3.0
+	 */
+	public String get(int offset){
+		// absolute reads do not disturb the buffer position, and so are
+		// safe to make from several threads at once
+		ByteBuffer buf = buffer;
+		int len = buf.getInt(offset);
+		byte[] bytes = new byte[len];
+		offset += 4;
+		for(int i = 0; i < len; i++)
+			bytes[i] = buf.get(offset+i);
+		try {
+			return new String(bytes, UTF8);
+		} catch(UnsupportedEncodingException e){
+			// every Java platform supports UTF-8
+			throw new IllegalStateException(e.getMessage());
+		}
+	}
+	
+	/**
+	 * Returns <code>true</code> if the string stored at the specified offset
+	 * is empty or consists only of whitespace, in the sense of
+	 * {@link String#trim()}. The string is not decoded: every character that
+	 * {@link String#trim()} removes is encoded as a single byte no greater
+	 * than that of the space character, and every byte of other characters
+	 * is greater, so the bytes are scanned until one is found that is not
+	 * whitespace, which is usually the first.
+	 * 
+	 * @param offset
+	 *            the offset of the string, as returned by {@link #add(String)}
+	 * @return <code>true</code> if the string is empty or all whitespace;
+	 *         <code>false</code> otherwise
+	 * @throws IndexOutOfBoundsException
+	 *             if the offset is outside of the store
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isEmptyOrBlank(int offset){
+		ByteBuffer buf = buffer;
+		int len = buf.getInt(offset);
+		offset += 4;
+		for(int i = 0; i < len; i++)
+			if((buf.get(offset+i) & 0xFF) > ' ')
+				return false;
+		return true;
+	}
+	
+	/**
+	 * Returns the number of distinct strings in the store.
+	 * 
+	 * @return the number of distinct strings in the store
+	 * @since JVerbnet 1.3.0
+	 */
+	public int size(){
+		return count;
+	}
+	
+	/**
+	 * Returns the number of bytes of the buffer used by stored strings.
+	 * 
+	 * @return the number of bytes used by stored strings
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getByteCount(){
+		return buffer.position();
+	}
+	
+	/**
+	 * Returns <code>true</code> if the {@link #compact()} method has been
+	 * called, and no further strings may be added.
+	 * 
+	 * @return <code>true</code> if the store has been compacted;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isCompacted(){
+		return offsets == null;
+	}
+	
+	/**
+	 * Finishes filling the store. The buffer is reallocated to exactly the
+	 * size of the stored strings, and the on-heap table used to detect
+	 * duplicate strings is released. No strings may be added afterwards. Has
+	 * no effect if the store is already compacted.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public void compact(){
+		if(offsets == null)
+			return;
+		reallocate(buffer.position());
+		offsets = null;
+	}
+	
+	/**
+	 * Makes sure the buffer has room for the specified number of additional
+	 * bytes, growing it if necessary.
+	 * 
+	 * @param needed
+	 *            the number of additional bytes needed
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void ensureCapacity(int needed){
+		ByteBuffer buf = buffer;
+		if(buf.remaining() >= needed)
+			return;
+		long capacity = Math.max((long)buf.capacity() << 1, (long)buf.position() + needed);
+		if(capacity > Integer.MAX_VALUE)
+			throw new IllegalStateException("Store is full");
+		reallocate((int)capacity);
+	}
+	
+	/**
+	 * Copies the contents of the buffer into a new buffer of the specified
+	 * capacity.
+	 * 
+	 * @param capacity
+	 *            the capacity of the new buffer; must not be less than the
+	 *            number of bytes in use
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void reallocate(int capacity){
+		ByteBuffer old = buffer.duplicate();
+		old.flip();
+		ByteBuffer buf = ByteBuffer.allocateDirect(capacity);
+		buf.put(old);
+		buffer = buf;
+	}
+
+}
@@ -0,0 +1,419 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import edu.mit.jverbnet.util.IHasOrdinal;
+
+/**
+ * A map whose keys are looked up by their ordinals. The map holds a table of
+ * entry positions indexed by key ordinal, so finding a key is a single array
+ * access, with no hashing. Entries iterate in insertion order, as in a
+ * {@link java.util.LinkedHashMap}, for which this map is a replacement when
+ * the keys are Verbnet types.
+ * <p>
+ * All the keys of a map must be drawn from a single kind of object, such as
+ * the values of one Verbnet type, so that no two keys share an ordinal. Keys
+ * are compared by identity. Putting a key whose ordinal is already taken by a
+ * different key throws an {@link IllegalArgumentException}. The map does not
+ * permit <code>null</code> keys, but does permit <code>null</code> values.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the values
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class OrdinalMap<K extends IHasOrdinal, V> extends AbstractMap<K,V> {
+
+	// changeable fields
+	private Object[] keys;
+	private Object[] values;
+	private int[] positions;
+	private int size = 0;
+	private int modCount = 0;
+
+	/**
+	 * Creates a new, empty map.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public OrdinalMap(){
+		this(4);
+	}
+
+	/**
+	 * Creates a new, empty map with room for the specified number of entries.
+	 *
+	 * @param capacity
+	 *            the number of entries the map should hold before it must
+	 *            grow
+	 * @throws IllegalArgumentException
+	 *             if the capacity is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public OrdinalMap(int capacity){
+		if(capacity < 0)
+			throw new IllegalArgumentException("capacity may not be negative");
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		positions = new int[capacity];
+	}
+
+	/**
+	 * Creates a new map containing the mappings of the specified map, in the
+	 * order returned by its entry set iterator.
+	 *
+	 * @param map
+	 *            the map to copy; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the map is <code>null</code> or has a <code>null</code>
+	 *             key
+	 * @throws IllegalArgumentException
+	 *             if two keys of the map have the same ordinal
+	 * @since JVerbnet 1.3.0
+	 */
+	public OrdinalMap(Map<? extends K, ? extends V> map){
+		this(map.size());
+		putAll(map);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int idx = indexOfKey(key);
+		return (idx < 0) ?
+				null :
+					(V)values[idx];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOfKey(key) > -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#put(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(K key, V value) {
+		int ordinal = key.ordinal();
+		if(ordinal < 0)
+			throw new IllegalArgumentException("the key " + key + " has a negative ordinal");
+		if(ordinal < positions.length){
+			int pos = positions[ordinal];
+			if(pos != 0){
+				if(keys[pos-1] != key)
+					throw new IllegalArgumentException("the key " + key + " has the same ordinal as the key " + keys[pos-1]);
+				V old = (V)values[pos-1];
+				values[pos-1] = value;
+				return old;
+			}
+		} else {
+			positions = grow(positions, ordinal+1);
+		}
+		if(size == keys.length){
+			int newLength = Math.max(4, size << 1);
+			keys = grow(keys, newLength);
+			values = grow(values, newLength);
+		}
+		keys[size] = key;
+		values[size] = value;
+		size++;
+		positions[ordinal] = size;
+		modCount++;
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#remove(java.lang.Object)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		int idx = indexOfKey(key);
+		if(idx < 0)
+			return null;
+		V old = (V)values[idx];
+		removeAt(idx);
+		return old;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#clear()
+	 */
+	@Override
+	public void clear() {
+		for(int i = 0; i < size; i++){
+			positions[((IHasOrdinal)keys[i]).ordinal()] = 0;
+			keys[i] = null;
+			values[i] = null;
+		}
+		size = 0;
+		modCount++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<Entry<K,V>>() {
+
+			public Iterator<Entry<K, V>> iterator() {
+				return new Iterator<Entry<K,V>>() {
+					private int next = 0;
+					private int last = -1;
+					private int expectedModCount = modCount;
+					public boolean hasNext() {
+						return next < size;
+					}
+					public Entry<K, V> next() {
+						if(expectedModCount != modCount)
+							throw new ConcurrentModificationException();
+						if(next >= size)
+							throw new NoSuchElementException();
+						last = next++;
+						return new OrdinalEntry(last);
+					}
+					public void remove() {
+						if(last < 0)
+							throw new IllegalStateException();
+						if(expectedModCount != modCount)
+							throw new ConcurrentModificationException();
+						removeAt(last);
+						expectedModCount = modCount;
+						next = last;
+						last = -1;
+					}
+				};
+			}
+
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the position of the specified key in insertion order, or -1 if
+	 * it is not a key of this map.
+	 *
+	 * @param key
+	 *            the key to look for; may be <code>null</code>
+	 * @return the position of the key, or -1 if none
+	 * @since JVerbnet 1.3.0
+	 */
+	protected int indexOfKey(Object key){
+		if(!(key instanceof IHasOrdinal))
+			return -1;
+		int ordinal = ((IHasOrdinal)key).ordinal();
+		if(ordinal < 0 || ordinal >= positions.length)
+			return -1;
+		int pos = positions[ordinal];
+		return (pos != 0 && keys[pos-1] == key) ?
+				pos-1 :
+					-1;
+	}
+
+	/**
+	 * Removes the entry at the specified position, moving the later entries
+	 * down by one.
+	 *
+	 * @param idx
+	 *            the position of the entry to remove
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void removeAt(int idx){
+		positions[((IHasOrdinal)keys[idx]).ordinal()] = 0;
+		int moved = size - idx - 1;
+		System.arraycopy(keys, idx+1, keys, idx, moved);
+		System.arraycopy(values, idx+1, values, idx, moved);
+		size--;
+		keys[size] = null;
+		values[size] = null;
+		for(int i = idx; i < size; i++)
+			positions[((IHasOrdinal)keys[i]).ordinal()] = i+1;
+		modCount++;
+	}
+
+	/**
+	 * Returns a copy of the specified array with the specified length.
+	 *
+	 * @param array
+	 *            the array to copy
+	 * @param newLength
+	 *            the length of the copy; must be at least the length of the
+	 *            array
+	 * @return the copy
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static Object[] grow(Object[] array, int newLength){
+		Object[] result = new Object[newLength];
+		System.arraycopy(array, 0, result, 0, array.length);
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the specified array with at least the specified
+	 * length.
+	 *
+	 * @param array
+	 *            the array to copy
+	 * @param minLength
+	 *            the minimum length of the copy
+	 * @return the copy
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int[] grow(int[] array, int minLength){
+		int[] result = new int[Math.max(minLength, array.length + (array.length >>> 1))];
+		System.arraycopy(array, 0, result, 0, array.length);
+		return result;
+	}
+
+	/**
+	 * An entry of the map, which writes its value through to the map. The
+	 * entry refers to a position in the map, and so should not be used after
+	 * an earlier entry is removed.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected class OrdinalEntry implements Map.Entry<K,V> {
+
+		// unchanging fields
+		private final int idx;
+
+		/**
+		 * Creates a new entry for the specified position.
+		 *
+		 * @param idx
+		 *            the position of the entry in the map
+		 * @since JVerbnet 1.3.0
+		 */
+		protected OrdinalEntry(int idx){
+			this.idx = idx;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Map.Entry#getKey()
+		 */
+		@SuppressWarnings("unchecked")
+		public K getKey() {
+			return (K)keys[idx];
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Map.Entry#getValue()
+		 */
+		@SuppressWarnings("unchecked")
+		public V getValue() {
+			return (V)values[idx];
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Map.Entry#setValue(java.lang.Object)
+		 */
+		@SuppressWarnings("unchecked")
+		public V setValue(V value) {
+			V old = (V)values[idx];
+			values[idx] = value;
+			return old;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			Object value = values[idx];
+			return keys[idx].hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj)
+				return true;
+			if(!(obj instanceof Map.Entry<?,?>))
+				return false;
+			Map.Entry<?,?> e = (Map.Entry<?,?>)obj;
+			Object value = values[idx];
+			return keys[idx].equals(e.getKey()) &&
+					(value == null ? e.getValue() == null : value.equals(e.getValue()));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return keys[idx] + "=" + values[idx];
+		}
+
+	}
+
+}
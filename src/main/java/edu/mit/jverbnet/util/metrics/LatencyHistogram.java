@@ -0,0 +1,214 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds, with
+ * logarithmic buckets of bounded relative error. As in HDR histograms, each
+ * power of two is divided into {@value #SUB_BUCKETS} equal sub-buckets, so a
+ * value is recorded with a relative error of at most 1/{@value #SUB_BUCKETS}
+ * across the whole range of <code>long</code>, in a fixed number of buckets.
+ * Recording a value is a constant-time, lock-free increment of one bucket.
+ * Reading the histogram is not an atomic snapshot while values are being
+ * recorded.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class LatencyHistogram {
+	
+	/**
+	 * The number of sub-buckets into which each power of two is divided
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int SUB_BUCKETS = 8;
+	
+	// log2 of the number of sub-buckets
+	private static final int SUB_BITS = 3;
+	
+	// the number of buckets needed to cover all non-negative longs
+	private static final int BUCKETS = bucketOf(Long.MAX_VALUE) + 1;
+	
+	// unchanging fields
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	
+	/**
+	 * Records the specified value. Negative values are recorded as zero.
+	 * 
+	 * @param value
+	 *            the value to record
+	 * @since JVerbnet 1.3.0
+	 */
+	public void record(long value){
+		buckets.incrementAndGet(bucketOf(value < 0 ? 0 : value));
+	}
+	
+	/**
+	 * Returns the number of values recorded.
+	 * 
+	 * @return the number of values recorded
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getCount(){
+		long sum = 0;
+		for(int i = 0; i < BUCKETS; i++)
+			sum += buckets.get(i);
+		return sum;
+	}
+	
+	/**
+	 * Returns an estimate of the mean of the recorded values, or zero if no
+	 * values have been recorded.
+	 * 
+	 * @return an estimate of the mean
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getMean(){
+		double sum = 0;
+		long count = 0;
+		long n;
+		for(int i = 0; i < BUCKETS; i++){
+			n = buckets.get(i);
+			if(n == 0)
+				continue;
+			count += n;
+			sum += n * ((double)lowerBound(i) + upperBound(i)) / 2;
+		}
+		return (count == 0) ? 0 : sum / count;
+	}
+	
+	/**
+	 * Returns an estimate of the value below which the specified fraction of
+	 * the recorded values lie; that is, the upper bound of the bucket that
+	 * contains that quantile. Returns zero if no values have been recorded.
+	 * 
+	 * @param quantile
+	 *            the quantile, between 0 and 1 inclusive, such as 0.99
+	 * @return an estimate of the value at the quantile
+	 * @throws IllegalArgumentException
+	 *             if the quantile is not between 0 and 1
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getValueAtQuantile(double quantile){
+		if(quantile < 0 || quantile > 1)
+			throw new IllegalArgumentException("quantile must be between 0 and 1");
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for(int i = 0; i < BUCKETS; i++){
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		if(total == 0)
+			return 0;
+		long rank = Math.max(1, (long)Math.ceil(quantile * total));
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++){
+			seen += counts[i];
+			if(seen >= rank)
+				return upperBound(i);
+		}
+		return Long.MAX_VALUE;
+	}
+	
+	/**
+	 * Returns the upper bound of the highest non-empty bucket, or zero if no
+	 * values have been recorded.
+	 * 
+	 * @return an estimate of the maximum recorded value
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getMax(){
+		for(int i = BUCKETS-1; i >= 0; i--)
+			if(buckets.get(i) != 0)
+				return upperBound(i);
+		return 0;
+	}
+	
+	/**
+	 * Removes all recorded values. Values recorded during the reset may be
+	 * lost.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public void reset(){
+		for(int i = 0; i < BUCKETS; i++)
+			buckets.set(i, 0);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("count=").append(getCount());
+		sb.append(", mean=").append(Math.round(getMean()));
+		sb.append(", p50=").append(getValueAtQuantile(0.5));
+		sb.append(", p90=").append(getValueAtQuantile(0.9));
+		sb.append(", p99=").append(getValueAtQuantile(0.99));
+		sb.append(", max=").append(getMax());
+		return sb.toString();
+	}
+	
+	/**
+	 * Returns the index of the bucket that holds the specified value.
+	 * 
+	 * @param value
+	 *            the non-negative value
+	 * @return the index of the bucket for the value
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int bucketOf(long value){
+		if(value < SUB_BUCKETS)
+			return (int)value;
+		int exp = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int)(value >>> (exp - SUB_BITS)) & (SUB_BUCKETS-1);
+		return (exp - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+	
+	/**
+	 * Returns the smallest value held by the specified bucket.
+	 * 
+	 * @param bucket
+	 *            the index of the bucket
+	 * @return the smallest value of the bucket
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static long lowerBound(int bucket){
+		if(bucket < SUB_BUCKETS)
+			return bucket;
+		int exp = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		return (1L << exp) + (sub << (exp - SUB_BITS));
+	}
+	
+	/**
+	 * Returns the largest value held by the specified bucket.
+	 * 
+	 * @param bucket
+	 *            the index of the bucket
+	 * @return the largest value of the bucket
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static long upperBound(int bucket){
+		if(bucket < SUB_BUCKETS)
+			return bucket;
+		int exp = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		return lowerBound(bucket) + (1L << (exp - SUB_BITS)) - 1;
+	}
+
+}
@@ -0,0 +1,150 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that many threads can increment at once with little contention.
+ * The count is spread over several cells, padded so that each lies on its own
+ * cache line; a thread always increments the cell chosen by its id. Reading
+ * the count sums the cells, so it is slower than incrementing, and is not an
+ * atomic snapshot while increments are in progress.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class StripedCounter {
+	
+	// the number of longs between used cells, to keep them on separate cache lines
+	private static final int PADDING = 8;
+	
+	// the default number of stripes
+	private static final int DEFAULT_STRIPES = stripesFor(Runtime.getRuntime().availableProcessors());
+	
+	// unchanging fields
+	private final AtomicLongArray cells;
+	private final int mask;
+	
+	/**
+	 * Creates a new counter with a number of stripes suited to the number of
+	 * available processors.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public StripedCounter(){
+		this(DEFAULT_STRIPES);
+	}
+	
+	/**
+	 * Creates a new counter with at least the specified number of stripes.
+	 * 
+	 * @param stripes
+	 *            the minimum number of stripes; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the number of stripes is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public StripedCounter(int stripes){
+		if(stripes < 1)
+			throw new IllegalArgumentException("stripes must be positive");
+		int n = stripesFor(stripes);
+		cells = new AtomicLongArray(n * PADDING);
+		mask = n-1;
+	}
+	
+	/**
+	 * Adds one to the count.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public void increment(){
+		add(1);
+	}
+	
+	/**
+	 * Adds the specified amount to the count.
+	 * 
+	 * @param x
+	 *            the amount to add
+	 * @since JVerbnet 1.3.0
+	 */
+	public void add(long x){
+		cells.addAndGet(cell(), x);
+	}
+	
+	/**
+	 * Returns the current count.
+	 * 
+	 * @return the current count
+	 * @since JVerbnet 1.3.0
+	 */
+	public long get(){
+		long sum = 0;
+		for(int i = 0; i < cells.length(); i += PADDING)
+			sum += cells.get(i);
+		return sum;
+	}
+	
+	/**
+	 * Resets the count to zero. Increments that happen during the reset may
+	 * be lost.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public void reset(){
+		for(int i = 0; i < cells.length(); i += PADDING)
+			cells.set(i, 0);
+	}
+	
+	/**
+	 * Returns the index of the cell for the current thread.
+	 * 
+	 * @return the index of the cell for the current thread
+	 * @since JVerbnet 1.3.0
+	 */
+	protected int cell(){
+		long id = Thread.currentThread().getId();
+		int h = (int)(id ^ (id >>> 32));
+		h ^= (h >>> 16);
+		h *= 0x85ebca6b;
+		h ^= (h >>> 13);
+		return (h & mask) * PADDING;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(get());
+	}
+	
+	/**
+	 * Returns the smallest power of two that is at least the specified number,
+	 * capped at 64.
+	 * 
+	 * @param n
+	 *            the number
+	 * @return the number of stripes to use
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int stripesFor(int n){
+		int result = 1;
+		while(result < n && result < 64)
+			result <<= 1;
+		return result;
+	}
+
+}
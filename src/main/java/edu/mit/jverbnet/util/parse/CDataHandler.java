@@ -17,6 +17,13 @@ import org.xml.sax.XMLReader;
 
 /** 
  * A handler that transforms CDATA into a String.
+ * <p>
+ * The characters of a block are accumulated in a character buffer that the
+ * handler keeps from block to block, growing it as needed, so that reading a
+ * block allocates nothing until the string is built when the block closes.
+ * The string is built through the string pool of the handler, if any, and if
+ * trimming is on, leading and trailing whitespace is dropped by adjusting
+ * the range of the buffer that is used, without copying.
  *
  * @author Mark A. Finlayson
  * @version 1.2.0
@@ -24,7 +31,17 @@ import org.xml.sax.XMLReader;
  */
 public class CDataHandler extends MappedHandler<String> {
 	
-	private StringBuilder sb;
+	/**
+	 * The initial length of the character buffer
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+	
+	// changeable fields
+	private char[] buffer = new char[DEFAULT_CAPACITY];
+	private int length = 0;
+	private boolean trimming = false;
 	
 	/**
 	 * Creates a new CDATA handler with the specified tag.
@@ -108,7 +125,32 @@ public class CDataHandler extends MappedHandler<String> {
 	 */
 	@Override
 	protected void clearLocal() {
-		sb = new StringBuilder();
+		length = 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if this handler drops leading and trailing
+	 * whitespace from the text of its blocks.
+	 * 
+	 * @return <code>true</code> if the handler trims its text;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isTrimming(){
+		return trimming;
+	}
+
+	/**
+	 * Sets whether this handler drops leading and trailing whitespace from the
+	 * text of its blocks. By default, the text is not trimmed.
+	 * 
+	 * @param value
+	 *            <code>true</code> if the handler should trim its text;
+	 *            <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setTrimming(boolean value){
+		trimming = value;
 	}
 
 	/* 
@@ -123,9 +165,16 @@ public class CDataHandler extends MappedHandler<String> {
 		if(!isInsideTaggedBlock())
 			return;
 		// ignore characters not at the level of the tagged block
-		if(tagStack.size() != 1)
+		if(getDepth() != 1)
 			return;
-		sb.append(ch, start, length);
+		int needed = this.length + length;
+		if(needed > buffer.length){
+			char[] newBuffer = new char[Math.max(needed, buffer.length << 1)];
+			System.arraycopy(buffer, 0, newBuffer, 0, this.length);
+			buffer = newBuffer;
+		}
+		System.arraycopy(ch, start, buffer, this.length, length);
+		this.length = needed;
 	}
 
 	/* 
@@ -134,7 +183,15 @@ public class CDataHandler extends MappedHandler<String> {
 	 * @see edu.mit.jverbnet.util.parse.MappedHandler#doGetElement()
 	 */
 	public String doGetElement() {
-		return sb.toString();
+		int start = 0;
+		int end = length;
+		if(trimming){
+			while(start < end && buffer[start] <= ' ')
+				start++;
+			while(end > start && buffer[end-1] <= ' ')
+				end--;
+		}
+		return intern(buffer, start, end-start);
 	}
 
 }
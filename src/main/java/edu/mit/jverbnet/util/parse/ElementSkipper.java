@@ -0,0 +1,118 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.parse;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A handler that passes over an element and everything inside it. While
+ * skipping, the skipper is the content handler of the parser; it only counts
+ * the elements it is given, ignoring their attributes and text, and when the
+ * skipped element ends it hands the parser back to the handler that started
+ * the skip. None of the handlers for the skipped content are invoked, and no
+ * objects are built for it.
+ * <p>
+ * This class is not thread-safe; a skipper should be used by one parse at a
+ * time.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ElementSkipper extends DefaultHandler {
+
+	// changeable fields
+	private XMLReader parser;
+	private ContentHandler returnHandler;
+	private int depth = 0;
+
+	/**
+	 * Starts skipping the element whose start tag the parser has just
+	 * reported. The skipper makes itself the content handler of the parser,
+	 * and makes the return handler the content handler again after the end
+	 * tag of the element.
+	 *
+	 * @param parser
+	 *            the parser; may not be <code>null</code>
+	 * @param returnHandler
+	 *            the handler to which the parser is handed back; may not be
+	 *            <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @throws IllegalStateException
+	 *             if the skipper is already skipping an element
+	 * @since JVerbnet 1.3.0
+	 */
+	public void skip(XMLReader parser, ContentHandler returnHandler){
+		NotNull.check("parser", parser);
+		NotNull.check("returnHandler", returnHandler);
+		if(depth > 0)
+			throw new IllegalStateException("Already skipping an element");
+		this.parser = parser;
+		this.returnHandler = returnHandler;
+		depth = 1;
+		parser.setContentHandler(this);
+	}
+
+	/**
+	 * Returns <code>true</code> if the skipper is inside an element it is
+	 * skipping.
+	 *
+	 * @return <code>true</code> if the skipper is skipping an element;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isSkipping(){
+		return depth > 0;
+	}
+
+	/**
+	 * Abandons any skip in progress, without handing back the parser.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public void clear(){
+		parser = null;
+		returnHandler = null;
+		depth = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.helpers.DefaultHandler#startElement(java.lang.String, java.lang.String, java.lang.String, org.xml.sax.Attributes)
+	 */
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attrs) {
+		depth++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.helpers.DefaultHandler#endElement(java.lang.String, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public void endElement(String uri, String localName, String qName) {
+		if(--depth > 0)
+			return;
+		XMLReader parser = this.parser;
+		ContentHandler returnHandler = this.returnHandler;
+		clear();
+		parser.setContentHandler(returnHandler);
+	}
+
+}
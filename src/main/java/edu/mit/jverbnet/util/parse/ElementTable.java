@@ -0,0 +1,190 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.parse;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.xml.sax.ContentHandler;
+
+/**
+ * A compiled, read-only table from element names to the handlers of those
+ * elements. The table is built from the handler map of a
+ * {@link MappedHandler} and uses a perfect hash: a multiplier is chosen when
+ * the table is built so that no two element names fall in the same slot, so a
+ * lookup is one multiplication, one array access, and one string comparison.
+ * Since the tag sets of the Verbnet handlers are small, the tables are small
+ * too.
+ * <p>
+ * Element names are compared first by identity, which succeeds at once for
+ * parsers that intern names, and otherwise by value.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ElementTable {
+
+	/**
+	 * The empty table
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final ElementTable EMPTY = new ElementTable(new String[2], new ContentHandler[2], 0, 31);
+
+	/**
+	 * The number of multipliers tried for each table size before the table is
+	 * doubled
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int MAX_TRIES = 1024;
+
+	/**
+	 * The number of bits of the largest table that is tried
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int MAX_BITS = 16;
+
+	// unchanging fields
+	private final String[] names;
+	private final ContentHandler[] handlers;
+	private final int multiplier;
+	private final int shift;
+
+	/**
+	 * Creates a new table from the specified arrays, which are not copied.
+	 *
+	 * @param names
+	 *            the element names, indexed by slot
+	 * @param handlers
+	 *            the handlers, indexed by the same slots as the names
+	 * @param multiplier
+	 *            the multiplier of the hash function
+	 * @param shift
+	 *            the number of bits by which the product is shifted
+	 * @since JVerbnet 1.3.0
+	 */
+	protected ElementTable(String[] names, ContentHandler[] handlers, int multiplier, int shift){
+		this.names = names;
+		this.handlers = handlers;
+		this.multiplier = multiplier;
+		this.shift = shift;
+	}
+
+	/**
+	 * Compiles a table holding the mappings of the specified map. If no
+	 * perfect hash is found for the names, as happens if two names have the
+	 * same hash code, returns <code>null</code>, and the caller should look
+	 * names up in the map instead.
+	 *
+	 * @param map
+	 *            the map from element names to handlers; may not be
+	 *            <code>null</code>, and may not contain <code>null</code> keys
+	 *            or values
+	 * @return the compiled table, or <code>null</code> if the names cannot be
+	 *         perfectly hashed
+	 * @throws NullPointerException
+	 *             if the map is <code>null</code>, or contains a
+	 *             <code>null</code> key or value
+	 * @since JVerbnet 1.3.0
+	 */
+	public static ElementTable compile(Map<String, ? extends ContentHandler> map){
+		if(map.isEmpty())
+			return EMPTY;
+		String[] keys = new String[map.size()];
+		ContentHandler[] values = new ContentHandler[keys.length];
+		int i = 0;
+		for(Entry<String, ? extends ContentHandler> e : map.entrySet()){
+			keys[i] = e.getKey();
+			values[i] = e.getValue();
+			if(keys[i] == null || values[i] == null)
+				throw new NullPointerException("element table may not have null names or handlers");
+			i++;
+		}
+
+		// search for a collision-free multiplier, doubling the table as needed
+		int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, keys.length-1));
+		int[] hashes = new int[keys.length];
+		for(i = 0; i < keys.length; i++)
+			hashes[i] = keys[i].hashCode();
+		for(; bits <= MAX_BITS; bits++){
+			int size = 1 << bits;
+			int shift = 32 - bits;
+			int multiplier = 0x9E3779B1;
+			for(int t = 0; t < MAX_TRIES; t++, multiplier += 0x61C88646){
+				if(!isPerfect(hashes, multiplier | 1, shift, size))
+					continue;
+				multiplier |= 1;
+				String[] names = new String[size];
+				ContentHandler[] handlers = new ContentHandler[size];
+				for(i = 0; i < keys.length; i++){
+					int slot = (hashes[i] * multiplier) >>> shift;
+					names[slot] = keys[i];
+					handlers[slot] = values[i];
+				}
+				return new ElementTable(names, handlers, multiplier, shift);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified multiplier sends each of the
+	 * hash codes to a different slot of a table of the specified size.
+	 *
+	 * @param hashes
+	 *            the hash codes of the element names
+	 * @param multiplier
+	 *            the multiplier to test
+	 * @param shift
+	 *            the number of bits by which the product is shifted
+	 * @param size
+	 *            the size of the table
+	 * @return <code>true</code> if there are no collisions;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean isPerfect(int[] hashes, int multiplier, int shift, int size){
+		boolean[] taken = new boolean[size];
+		int slot;
+		for(int h : hashes){
+			slot = (h * multiplier) >>> shift;
+			if(taken[slot])
+				return false;
+			taken[slot] = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the handler for the element with the specified name, or
+	 * <code>null</code> if the element is not in the table.
+	 *
+	 * @param name
+	 *            the element name; may be <code>null</code>
+	 * @return the handler for the element, or <code>null</code> if none
+	 * @since JVerbnet 1.3.0
+	 */
+	public ContentHandler get(String name){
+		if(name == null)
+			return null;
+		int slot = (name.hashCode() * multiplier) >>> shift;
+		String candidate = names[slot];
+		return (candidate == name || (candidate != null && candidate.equals(name))) ?
+				handlers[slot] :
+					null;
+	}
+
+}
@@ -0,0 +1,98 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ * 
+ * JVerbnet is distributed under the terms of the Creative Commons 
+ * Attribution 3.0 Unported License, which means it may be freely used for 
+ * all purposes, as long as proper acknowledgment is made.  See the license 
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.parse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of canonical instances of immutable value objects, used while parsing
+ * to share structurally identical objects (a technique also known as
+ * hash-consing). An object passed to {@link #intern(Object)} is looked up by
+ * its {@link Object#equals(Object)} and {@link Object#hashCode()} methods; if
+ * an equal object of the same class is already present, the pooled instance
+ * is returned, and otherwise the object is added.
+ * <p>
+ * Only immutable objects whose equality is structural should be pooled. The
+ * pool should be used for the duration of a single load, after which it can
+ * be discarded. This class is not thread-safe.
+ * 
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class InstancePool {
+	
+	// unchanging fields
+	private final Map<Object, Object> pool = new HashMap<Object, Object>();
+	
+	// changeable fields
+	private long hits = 0;
+
+	/**
+	 * Returns the canonical instance of the specified object, adding the
+	 * object to the pool if no equal object of the same class is present.
+	 * 
+	 * @param obj
+	 *            the object to canonicalize; may be <code>null</code>
+	 * @return the pooled object equal to the specified object, or
+	 *         <code>null</code> if the specified object is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T intern(T obj){
+		if(obj == null)
+			return null;
+		Object result = pool.get(obj);
+		if(result == null){
+			pool.put(obj, obj);
+			return obj;
+		}
+		// objects of different classes may be equal; don't
+		// return an object the caller may not be able to use
+		if(result.getClass() != obj.getClass())
+			return obj;
+		hits++;
+		return (T)result;
+	}
+
+	/**
+	 * Returns the number of distinct objects in the pool.
+	 * 
+	 * @return the number of distinct objects in the pool
+	 * @since JVerbnet 1.3.0
+	 */
+	public int size(){
+		return pool.size();
+	}
+
+	/**
+	 * Returns the number of times an object was replaced by an equal object
+	 * already in the pool.
+	 * 
+	 * @return the number of objects that were replaced by pooled objects
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getHitCount(){
+		return hits;
+	}
+
+	/**
+	 * Removes all objects from the pool, and resets the hit count.
+	 * 
+	 * @since JVerbnet 1.3.0
+	 */
+	public void clear(){
+		pool.clear();
+		hits = 0;
+	}
+
+}
@@ -26,6 +26,10 @@ import org.xml.sax.XMLReader;
  * A handler that does not instantiate its backing handler until the backing
  * handler is actually needed. This class is useful for handling potentially
  * infinitely recursive XML structures.
+ * <p>
+ * The backing handler is published through a volatile field, so a handler
+ * created by one thread is seen fully configured by any other thread that
+ * calls {@link #getBackingHandler()}.
  * 
  * @author Mark A. Finlayson
  * @version 1.2.0
@@ -44,7 +48,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	private ContentHandler parent;
 	
 	// the backing handler
-	private ITaggedHandler<T> backingHandler = null;
+	private volatile ITaggedHandler<T> backingHandler = null;
 	
 	/**
 	 * Creates a new lazy forwarding handler that uses the specified tag.
@@ -131,9 +135,11 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 * @since JVerbnet 1.0.0
 	 */
 	public final ITaggedHandler<T> getBackingHandler(){
-		if(backingHandler == null){
+		ITaggedHandler<T> result = backingHandler;
+		if(result == null){
 			synchronized(this){
-				if(backingHandler == null){
+				result = backingHandler;
+				if(result == null){
 					ITaggedHandler<T> backingHandler = createBackingHandler();
 					if(!backingHandler.getTag().equals(getTag()))
 						throw new IllegalStateException("The backing handler does not have the same tag as the forwarding handler: forwarding tag='" + getTag() + "', backing tag='" + backingHandler.getTag() + "'");
@@ -143,12 +149,12 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 					backingHandler.getTaggedBlockTasks().addAll(blockTasks.getInternalList());
 					if(clearPending)
 						backingHandler.clear();
-					this.backingHandler = backingHandler;
+					this.backingHandler = result = backingHandler;
 				}
 			}
 
 		}
-		return backingHandler;
+		return result;
 	}
 
 	/**
@@ -167,6 +173,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 */
 	public void setDocumentLocator(Locator locator) {
 		this.locator = locator;
+		ITaggedHandler<T> backingHandler = this.backingHandler;
 		if(backingHandler != null)
 			backingHandler.setDocumentLocator(locator);
 	}
@@ -177,6 +184,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 * @see edu.mit.jverbnet.util.parse.IHasParserHandler#getParser()
 	 */
 	public XMLReader getParser() {
+		ITaggedHandler<T> backingHandler = this.backingHandler;
 		return backingHandler == null ?
 				parser :
 					backingHandler.getParser();
@@ -189,6 +197,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 */
 	public void setParser(XMLReader parser) {
 		this.parser = parser;
+		ITaggedHandler<T> backingHandler = this.backingHandler;
 		if(backingHandler != null)
 			backingHandler.setParser(parser);
 	}
@@ -199,6 +208,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 * @see edu.mit.jverbnet.util.parse.ITaggedHandler#getTag()
 	 */
 	public String getTag() {
+		ITaggedHandler<T> backingHandler = this.backingHandler;
 		return (backingHandler == null) ?
 				tag :
 					backingHandler.getTag();
@@ -210,6 +220,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 * @see edu.mit.jverbnet.util.parse.ITaggedHandler#getParent()
 	 */
 	public ContentHandler getParent() {
+		ITaggedHandler<T> backingHandler = this.backingHandler;
 		return backingHandler == null ?
 				parent :
 					backingHandler.getParent();
@@ -222,6 +233,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 */
 	public void setParent(ContentHandler parent) {
 		this.parent = parent;
+		ITaggedHandler<T> backingHandler = this.backingHandler;
 		if(backingHandler != null)
 			backingHandler.setParent(parent);
 	}
@@ -241,6 +253,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 	 * @see edu.mit.jverbnet.util.parse.ITaggedHandler#clear()
 	 */
 	public void clear() {
+		ITaggedHandler<T> backingHandler = this.backingHandler;
 		if(backingHandler == null){
 			clearPending = true;
 		} else {
@@ -372,6 +385,7 @@ public abstract class LazyForwardingHandler<T> implements ITaggedHandler<T> {
 		 * @since JVerbnet 1.0.0
 		 */
 		protected List<ITaggedBlockTaskHandler> getBackingList(){
+			ITaggedHandler<T> backingHandler = LazyForwardingHandler.this.backingHandler;
 			return backingHandler == null ?
 				internalList :
 					backingHandler.getTaggedBlockTasks();
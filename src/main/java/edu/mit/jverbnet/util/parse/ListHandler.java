@@ -12,7 +12,7 @@ package edu.mit.jverbnet.util.parse;
 
 import static edu.mit.jverbnet.util.Checks.NotNull;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -33,7 +33,7 @@ public class ListHandler<T> extends MappedHandler<List<T>> {
 	private final ITaggedHandler<? extends T> listElementHandler;
 
 	// this contains the elements parsed from the SAX stream
-	private List<T> elements = new LinkedList<T>();
+	private List<T> elements = new ArrayList<T>();
 	private boolean allowNullElements = false;
 	
 	/**
@@ -145,7 +145,7 @@ public class ListHandler<T> extends MappedHandler<List<T>> {
 	 * @see edu.mit.jverbnet.util.parse.MappedHandler#clearLocal()
 	 */
 	public void clearLocal() {
-		elements = new LinkedList<T>();
+		elements = new ArrayList<T>();
 	}
 	
 	/**
@@ -20,6 +20,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -34,10 +35,29 @@ import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
 import edu.mit.jverbnet.util.Checks;
+import edu.mit.jverbnet.util.collection.OffHeapStrings;
 
 /**
  * A handler which processes tags internal to its tagged block by assigning
  * handlers to qNames.
+ * <p>
+ * The handler map is compiled into an {@link ElementTable} the first time it
+ * is needed, so that finding the handler for an element is a single probe of
+ * a perfect hash table. Inside its tagged block, the handler keeps a count
+ * of the open elements it is responsible for, the names of the unmapped ones
+ * among them, against which end tags are checked, and the parser it found on
+ * entering the block.
+ * <p>
+ * A handler may be given a set of element names to skip. A mapped element
+ * whose name is in the set is passed over by an {@link ElementSkipper}
+ * without its handler being invoked, so that its handler produces no
+ * element. The set is inherited, like the string pool, by descendants that
+ * have none of their own.
+ * <p>
+ * A handler holds the state of a single parse and so may not be used by two
+ * threads at once; but the class keeps no shared mutable state, so any number
+ * of handlers may parse concurrently in different threads. Warning messages
+ * are built for each warning, and only when warnings are reported.
  * 
  * @author Mark A. Finlayson
  * @version 1.2.0
@@ -50,8 +70,28 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 	public static final String messageIgnoringElementBlockExternal = "Ignoring element outside of TAG tagged block: ";
 	public static final String messageUnmappedElementBlockInternal = "Found unmapped element inside TAG tagged block: ";
 	
-	// notification-creation objects
+	/**
+	 * A matcher for the <code>TAG</code> placeholder of
+	 * {@link #messageIgnoringElementBlockExternal}. Matchers are not
+	 * thread-safe, so this shared instance may not be used while other
+	 * threads parse; it is no longer used by this class.
+	 * 
+	 * @deprecated use {@link #createMessage(String, String)} instead
+	 * @since JVerbnet 1.0.0
+	 */
+	@Deprecated
 	protected static final Matcher messageMatcherIgnoreExternal = Pattern.compile("TAG").matcher(messageIgnoringElementBlockExternal);
+	
+	/**
+	 * A matcher for the <code>TAG</code> placeholder of
+	 * {@link #messageUnmappedElementBlockInternal}. Matchers are not
+	 * thread-safe, so this shared instance may not be used while other
+	 * threads parse; it is no longer used by this class.
+	 * 
+	 * @deprecated use {@link #createMessage(String, String)} instead
+	 * @since JVerbnet 1.0.0
+	 */
+	@Deprecated
 	protected static final Matcher messageMatcherIgnoreInternal = Pattern.compile("TAG").matcher(messageUnmappedElementBlockInternal);
 
 	// the tag that this handler handles
@@ -67,10 +107,32 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 	private IHasParserHandler parentHasP = null;
 	// null means the list hasn't been initialized
 	private Map<String, ContentHandler> elementMap = null;
+	// the compiled element map; null if not compiled, or if it cannot be
+	private ElementTable elementTable = null;
+	// the number of open elements inside the tagged block, including the block itself
+	private int depth = 0;
+	// the names of the open elements, indexed by depth less one; only
+	// unmapped elements below the tagged block are stored, and the array is
+	// created when the first one is found
+	private String[] openTags = null;
+	// the parser found on entering the tagged block
+	private XMLReader blockParser = null;
+	// the names of the elements to skip, found on entering the tagged block
+	private Set<String> blockSkipped = null;
+	// the skipper for skipped elements; created when first needed
+	private ElementSkipper skipper = null;
+	// the names of the elements to skip, if set on this handler
+	private Set<String> skippedElements = null;
 	// flag for whether this handler should report as warnings unmapped elements
 	private boolean reportWarnings = true;
 	// xml locator
 	private Locator locator;
+	// the string pool of this handler, if any
+	private StringPool stringPool = null;
+	// the instance pool of this handler, if any
+	private InstancePool instancePool = null;
+	// the off-heap text store of this handler, if any
+	private OffHeapStrings textStore = null;
 	
 	/**
 	 * Creates a new mapped handler which is assigned to the specified tag.
@@ -182,6 +244,206 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 		this.parser = parser;
 	}
 
+	/**
+	 * Returns the string pool used by this handler to canonicalize the strings
+	 * it reads. If no pool has been set on this handler, the pool of the
+	 * parent is returned, if the parent is a mapped handler.
+	 * 
+	 * @return the string pool for this handler, or <code>null</code> if there
+	 *         is none
+	 * @since JVerbnet 1.3.0
+	 */
+	public StringPool getStringPool(){
+		if(stringPool != null)
+			return stringPool;
+		return (parent instanceof MappedHandler<?>) ?
+				((MappedHandler<?>)parent).getStringPool() :
+					null;
+	}
+
+	/**
+	 * Sets the string pool for this handler. The pool is also used by all
+	 * descendants of this handler that do not have their own pool.
+	 * 
+	 * @param pool
+	 *            the string pool; may be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setStringPool(StringPool pool){
+		this.stringPool = pool;
+	}
+
+	/**
+	 * Returns the names of the mapped elements this handler skips. If no set
+	 * has been given to this handler, the set of the parent is returned, if
+	 * the parent is a mapped handler.
+	 * 
+	 * @return the names of the skipped elements, or <code>null</code> if
+	 *         there are none
+	 * @since JVerbnet 1.3.0
+	 */
+	public Set<String> getSkippedElements(){
+		if(skippedElements != null)
+			return skippedElements;
+		return (parent instanceof MappedHandler<?>) ?
+				((MappedHandler<?>)parent).getSkippedElements() :
+					null;
+	}
+
+	/**
+	 * Sets the names of the mapped elements this handler skips. The set is
+	 * also used by all descendants of this handler that do not have their own
+	 * set. The set is not copied, and should not change while a parse is
+	 * under way. The set takes effect when the handler next enters its
+	 * tagged block.
+	 * 
+	 * @param names
+	 *            the names of the elements to skip; may be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setSkippedElements(Set<String> names){
+		this.skippedElements = names;
+	}
+
+	/**
+	 * Returns <code>true</code> if elements with the specified name are
+	 * skipped by this handler.
+	 * 
+	 * @param qName
+	 *            the element name
+	 * @return <code>true</code> if the elements are skipped;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected boolean isSkipped(String qName){
+		Set<String> skipped = getSkippedElements();
+		return skipped != null && skipped.contains(qName);
+	}
+
+	/**
+	 * Returns the instance pool used by this handler to share identical value
+	 * objects it creates. If no pool has been set on this handler, the pool of
+	 * the parent is returned, if the parent is a mapped handler.
+	 * 
+	 * @return the instance pool for this handler, or <code>null</code> if there
+	 *         is none
+	 * @since JVerbnet 1.3.0
+	 */
+	public InstancePool getInstancePool(){
+		if(instancePool != null)
+			return instancePool;
+		return (parent instanceof MappedHandler<?>) ?
+				((MappedHandler<?>)parent).getInstancePool() :
+					null;
+	}
+
+	/**
+	 * Sets the instance pool for this handler. The pool is also used by all
+	 * descendants of this handler that do not have their own pool.
+	 * 
+	 * @param pool
+	 *            the instance pool; may be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setInstancePool(InstancePool pool){
+		this.instancePool = pool;
+	}
+
+	/**
+	 * Returns the canonical instance of the specified object from the instance
+	 * pool of this handler. If there is no pool, the object itself is
+	 * returned.
+	 * 
+	 * @param obj
+	 *            the object to canonicalize; may be <code>null</code>
+	 * @return the canonical instance, or <code>null</code> if the object is
+	 *         <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected <E> E share(E obj){
+		InstancePool pool = getInstancePool();
+		return (pool == null) ? 
+				obj : 
+					pool.intern(obj);
+	}
+
+	/**
+	 * Returns the store in which this handler should keep long, seldom-read
+	 * text, such as example sentences, outside the heap. If no store has been
+	 * set on this handler, the store of the parent is returned, if the parent
+	 * is a mapped handler. If this method returns <code>null</code>, such text
+	 * should be kept on the heap as usual.
+	 * 
+	 * @return the off-heap text store for this handler, or <code>null</code>
+	 *         if there is none
+	 * @since JVerbnet 1.3.0
+	 */
+	public OffHeapStrings getTextStore(){
+		if(textStore != null)
+			return textStore;
+		return (parent instanceof MappedHandler<?>) ?
+				((MappedHandler<?>)parent).getTextStore() :
+					null;
+	}
+
+	/**
+	 * Sets the off-heap text store for this handler. The store is also used by
+	 * all descendants of this handler that do not have their own store.
+	 * 
+	 * @param store
+	 *            the off-heap text store; may be <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setTextStore(OffHeapStrings store){
+		this.textStore = store;
+	}
+
+	/**
+	 * Returns the canonical version of the specified characters from the
+	 * string pool of this handler. If there is no pool, the characters are
+	 * simply converted to a string.
+	 * 
+	 * @param chars
+	 *            the characters to canonicalize; may be <code>null</code>
+	 * @return the canonical string, or <code>null</code> if the characters
+	 *         are <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected String intern(CharSequence chars){
+		if(chars == null)
+			return null;
+		StringPool pool = getStringPool();
+		return (pool == null) ? 
+				chars.toString() : 
+					pool.intern(chars);
+	}
+
+	/**
+	 * Returns the canonical version of the specified range of a character
+	 * array from the string pool of this handler. If there is no pool, the
+	 * characters are simply converted to a string. Either way, no
+	 * intermediate objects are created.
+	 * 
+	 * @param ch
+	 *            the character array; may not be <code>null</code>
+	 * @param start
+	 *            the index of the first character
+	 * @param length
+	 *            the number of characters
+	 * @return the canonical string
+	 * @throws NullPointerException
+	 *             if the character array is <code>null</code>
+	 * @throws IndexOutOfBoundsException
+	 *             if the range is outside the array
+	 * @since JVerbnet 1.3.0
+	 */
+	protected String intern(char[] ch, int start, int length){
+		StringPool pool = getStringPool();
+		return (pool == null) ? 
+				new String(ch, start, length) : 
+					pool.intern(ch, start, length);
+	}
+
 	/**
 	 * Returns the parent of this child handler. If the 
 	 * 
@@ -299,11 +561,30 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 			} else {
 				map = Collections.unmodifiableMap(new HashMap<String, ContentHandler>(map));
 			}
+			elementTable = ElementTable.compile(map);
 			elementMap = map;
 		}
 		return elementMap;
 	}
 	
+	/**
+	 * Returns the handler mapped to the specified element name, or
+	 * <code>null</code> if none. The lookup uses the compiled element table,
+	 * if there is one.
+	 * 
+	 * @param qName
+	 *            the element name
+	 * @return the handler for the element, or <code>null</code> if none
+	 * @since JVerbnet 1.3.0
+	 */
+	protected final ContentHandler getHandlerMapping(String qName) {
+		Map<String, ContentHandler> map = getHandlerMappings();
+		ElementTable table = elementTable;
+		return (table == null) ? 
+				map.get(qName) :
+					table.get(qName);
+	}
+	
 	/**
 	 * Adds handlers to the element map. Subclasses may override this to provide
 	 * handlers for different tags.
@@ -323,7 +604,12 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 	 */
 	public final void clear() {
 		// clear handler state
-		tagStack.clear();
+		depth = 0;
+		openTags = null;
+		blockParser = null;
+		blockSkipped = null;
+		if(skipper != null)
+			skipper.clear();
 		clearLocal();
 		// clear children's states
 		for(ContentHandler h : getHandlerMappings().values())
@@ -342,12 +628,42 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 	}
 
 	/**
-	 * The stack of tags encountered inside the tagged block (including the
-	 * tagged block tag itself)
+	 * Returns the number of elements currently open inside the tagged block
+	 * that this handler is responsible for, including the tagged block
+	 * element itself, but not elements handled by mapped handlers. Returns
+	 * zero if the handler is outside its tagged block. This replaces the
+	 * <code>tagStack</code> field of earlier versions, whose size it is.
 	 * 
-	 * @since JVerbnet 1.0.0
+	 * @return the number of open elements in the tagged block
+	 * @since JVerbnet 1.3.0
 	 */
-	protected Stack<String> tagStack = new Stack<String>();
+	protected int getDepth(){
+		return depth;
+	}
+
+	/**
+	 * Returns a snapshot of the stack of tags encountered inside the tagged
+	 * block, as the <code>tagStack</code> field of earlier versions held it:
+	 * the tagged block tag at the bottom, and the innermost open unmapped
+	 * element at the top. The stack is empty if the handler is outside its
+	 * tagged block. Changes to the returned stack do not affect this handler.
+	 * 
+	 * @return a new stack holding the open tags of the tagged block
+	 * @deprecated this handler no longer keeps its open tags on a stack, and
+	 *             this method copies them on every call; use
+	 *             {@link #getDepth()} or {@link #isInsideTaggedBlock()}
+	 *             instead
+	 * @since JVerbnet 1.3.0
+	 */
+	@Deprecated
+	protected Stack<String> getTagStack(){
+		Stack<String> result = new Stack<String>();
+		if(depth > 0)
+			result.push(tag);
+		for(int i = 1; i < depth; i++)
+			result.push(openTags[i]);
+		return result;
+	}
 
 	/**
 	 * Returns <code>true</code> if the handler currently thinks it is inside of
@@ -358,7 +674,7 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 	 * @since JVerbnet 1.0.0
 	 */
 	public boolean isInsideTaggedBlock(){
-		return !tagStack.isEmpty();
+		return depth > 0;
 	}
 
 	/**
@@ -390,16 +706,18 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 	 */
 	public final void startElement(String uri, String localName, String qName, Attributes attrs) throws SAXException {
 		
-		// make sure parser is set
-		checkParserSet();
-		
 		// first case: we are not inside the tagged block
-		if(!isInsideTaggedBlock()){
+		if(depth == 0){
+			
+			// make sure parser is set
+			checkParserSet();
 			
 			// if it's the right tag, enter the tagged block
-			if(getTag().equals(qName)){
-				tagStack.push(qName);
-				getParser().setContentHandler(this);
+			if(tag == qName || tag.equals(qName)){
+				depth = 1;
+				blockParser = getParser();
+				blockParser.setContentHandler(this);
+				blockSkipped = getSkippedElements();
 				
 				// run tagged block tasks
 				startTaggedBlock(uri, localName, qName, attrs);
@@ -410,29 +728,45 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 				
 			// otherwise report element to error stream
 			} else {
-				reportWarning(messageMatcherIgnoreExternal.replaceAll(getTag()) + qName);
+				if(reportWarnings)
+					reportWarning(createMessage(messageIgnoringElementBlockExternal, qName));
 			}
 		// second case: we are inside the tagged block	
 		} else {
 			
 			// see if this element is mapped
-			ContentHandler child = getHandlerMappings().get(qName);
+			ContentHandler child = getHandlerMapping(qName);
 			
 			// if the element is mapped
 			if(child != null){
 				// if the child is a tagged handler, clear it
 				if(child instanceof ITaggedHandler)
 					((ITaggedHandler<?>)child).clear();
+				// pass over skipped elements; control returns here after
+				// the end tag, which this handler never sees
+				if(blockSkipped != null && blockSkipped.contains(qName)){
+					if(skipper == null)
+						skipper = new ElementSkipper();
+					skipper.skip(blockParser, this);
+					return;
+				}
 				// hand over control to the child; the expectation is that the child
 				// will set itself as the handler for the parser, and when it exits
 				// its block will hand control back to the parent
 				child.startElement(uri, localName, qName, attrs);
 			// if the element is not mapped
 			} else {
-				// add to tag stack so we know when to exit the block
-				tagStack.push(qName);
+				// record the element so we know when to exit the block
+				if(openTags == null || depth == openTags.length){
+					String[] tags = new String[Math.max(4, depth * 2)];
+					if(openTags != null)
+						System.arraycopy(openTags, 0, tags, 0, depth);
+					openTags = tags;
+				}
+				openTags[depth++] = qName;
 				// report a warning
-				reportWarning(messageMatcherIgnoreInternal.replaceAll(getTag()) + qName);
+				if(reportWarnings)
+					reportWarning(createMessage(messageUnmappedElementBlockInternal, qName));
 				// allow subclasses to do something with unmapped elements
 				handleUnmappedStartElement(uri, localName, qName, attrs);
 			}
@@ -498,39 +832,38 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 	@Override
 	public final void endElement(String uri, String localName, String qName) throws SAXException {
 		
-		// make sure parser is set
-		checkParserSet();
-
-		
 		// first case: we are inside the tagged block
-		if(isInsideTaggedBlock()){
+		if(depth > 0){
 			
-			// we've reached the end of a tagged block
-			if(tagStack.peek().equals(qName)){
-				tagStack.pop();
-
-				// we're exiting the tagged block
-				if(tagStack.isEmpty()){
-					if(getParent() != null)
-						getParser().setContentHandler(getParent());
-					
-					// run tagged block tasks
-					endTaggedBlock(uri, localName, qName);
-					for(ITaggedBlockTaskHandler h : getTaggedBlockTasks())
-						h.endTaggedBlock(uri, localName, qName);
-					
-				} else {
-					// report unmapped end element
-					handleUnmappedEndElement(uri, localName, qName);
-				}
-
+			// we're exiting the tagged block
+			if(depth == 1){
+				if(tag != qName && !tag.equals(qName))
+					throw new SAXException("Unmatched end tag: " + qName);
+				depth = 0;
+				XMLReader parser = blockParser;
+				blockParser = null;
+				if(getParent() != null)
+					parser.setContentHandler(getParent());
+				
+				// run tagged block tasks
+				endTaggedBlock(uri, localName, qName);
+				for(ITaggedBlockTaskHandler h : getTaggedBlockTasks())
+					h.endTaggedBlock(uri, localName, qName);
+				
 			// we have reached the end tag of an unmapped element
 			} else {
-				throw new SAXException("Unmatched end tag: " + qName);
+				String open = openTags[depth-1];
+				if(open != qName && !open.equals(qName))
+					throw new SAXException("Unmatched end tag: " + qName);
+				openTags[--depth] = null;
+				// report unmapped end element
+				handleUnmappedEndElement(uri, localName, qName);
 			}
 			
 		// second case: we are not inside the tagged block
 		} else {
+			// make sure parser is set
+			checkParserSet();
 			// do nothing; we already reported the unhandled element
 		}
 	}
@@ -565,6 +898,25 @@ public class MappedHandler<T> extends DefaultHandler implements ITaggedHandler<T
 		// do nothing
 	}
 	
+	/**
+	 * Creates a warning message from the specified template by substituting
+	 * the tag of this handler for the <code>TAG</code> placeholder, and
+	 * appending the specified element name. The message is built anew on each
+	 * call, so that handlers in different threads share no formatting state.
+	 * 
+	 * @param template
+	 *            the message template; may not be <code>null</code>
+	 * @param qName
+	 *            the name of the element the warning concerns
+	 * @return the warning message
+	 * @throws NullPointerException
+	 *             if the template is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	protected String createMessage(String template, String qName){
+		return template.replace("TAG", getTag()) + qName;
+	}
+	
 	/**
 	 * Reports a warning. Tries to report the warning first to the parser's
 	 * error handler, if any. If there is none, it reports the warning to
@@ -24,7 +24,7 @@ import org.xml.sax.SAXParseException;
 public class NullErrorHandler implements ErrorHandler {
 	
 	// singleton instance
-	private static NullErrorHandler instance;
+	private static volatile NullErrorHandler instance;
 	
 	/**
 	 * Returns the singleton instance of this object, creating it if necessary.
@@ -0,0 +1,348 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.parse;
+
+/**
+ * A pool of canonical strings used while parsing. Strings passed to the
+ * {@code intern} methods are looked up in the pool; if an equal string is
+ * already present, the pooled instance is returned, and otherwise the string
+ * is added. Unlike {@link String#intern()}, the pool is an ordinary object
+ * with a bounded lifetime, typically that of a single load, and so involves
+ * neither the global string table nor any synchronization.
+ * <p>
+ * The pool keeps track of how often a string was found in the pool, and an
+ * estimate of the number of bytes that were saved by not retaining duplicate
+ * strings.
+ * <p>
+ * This class is not thread-safe; a pool should be used by one parse at a time.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class StringPool {
+
+	/**
+	 * The default initial capacity of the pool
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	// changeable fields
+	private String[] table;
+	private int size = 0;
+	private long hits = 0;
+	private long savedBytes = 0;
+
+	/**
+	 * Creates a new, empty string pool with the default initial capacity.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public StringPool(){
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new, empty string pool with the specified initial capacity.
+	 * The pool grows as needed.
+	 *
+	 * @param capacity
+	 *            the number of strings the pool should be able to hold before
+	 *            it must grow
+	 * @throws IllegalArgumentException
+	 *             if the capacity is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public StringPool(int capacity){
+		if(capacity < 0)
+			throw new IllegalArgumentException("capacity may not be negative");
+		table = new String[tableSizeFor(capacity)];
+	}
+
+	/**
+	 * Returns the canonical instance of the specified string, adding the
+	 * string to the pool if no equal string is present.
+	 *
+	 * @param str
+	 *            the string to canonicalize; may be <code>null</code>
+	 * @return the pooled string equal to the specified string, or
+	 *         <code>null</code> if the specified string is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public String intern(String str){
+		if(str == null)
+			return null;
+		int hash = str.hashCode();
+		int mask = table.length-1;
+		String s;
+		for(int i = spread(hash) & mask; ; i = (i+1) & mask){
+			s = table[i];
+			if(s == null){
+				insert(i, str);
+				return str;
+			}
+			if(s.hashCode() == hash && s.equals(str)){
+				recordHit(s.length());
+				return s;
+			}
+		}
+	}
+
+	/**
+	 * Returns the canonical string with the same characters as the specified
+	 * character sequence. If an equal string is already in the pool, no new
+	 * string is created.
+	 *
+	 * @param chars
+	 *            the characters of the string; may be <code>null</code>
+	 * @return the pooled string with the same characters as the specified
+	 *         sequence, or <code>null</code> if the sequence is
+	 *         <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public String intern(CharSequence chars){
+		if(chars == null)
+			return null;
+		if(chars instanceof String)
+			return intern((String)chars);
+		int len = chars.length();
+		int hash = 0;
+		for(int i = 0; i < len; i++)
+			hash = 31*hash + chars.charAt(i);
+		int mask = table.length-1;
+		String s;
+		for(int i = spread(hash) & mask; ; i = (i+1) & mask){
+			s = table[i];
+			if(s == null){
+				s = chars.toString();
+				insert(i, s);
+				return s;
+			}
+			if(s.hashCode() == hash && s.length() == len && s.contentEquals(chars)){
+				recordHit(len);
+				return s;
+			}
+		}
+	}
+
+	/**
+	 * Returns the canonical string with the same characters as the specified
+	 * range of a character array. If an equal string is already in the pool,
+	 * no new string is created.
+	 *
+	 * @param ch
+	 *            the character array; may not be <code>null</code>
+	 * @param start
+	 *            the index of the first character of the string
+	 * @param length
+	 *            the number of characters in the string
+	 * @return the pooled string with the same characters as the specified
+	 *         range
+	 * @throws NullPointerException
+	 *             if the character array is <code>null</code>
+	 * @throws IndexOutOfBoundsException
+	 *             if the range is outside the array
+	 * @since JVerbnet 1.3.0
+	 */
+	public String intern(char[] ch, int start, int length){
+		if(start < 0 || length < 0 || start+length > ch.length)
+			throw new IndexOutOfBoundsException();
+		int hash = 0;
+		for(int i = start; i < start+length; i++)
+			hash = 31*hash + ch[i];
+		int mask = table.length-1;
+		String s;
+		for(int i = spread(hash) & mask; ; i = (i+1) & mask){
+			s = table[i];
+			if(s == null){
+				s = new String(ch, start, length);
+				insert(i, s);
+				return s;
+			}
+			if(s.hashCode() == hash && equals(s, ch, start, length)){
+				recordHit(length);
+				return s;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of distinct strings in the pool.
+	 *
+	 * @return the number of distinct strings in the pool
+	 * @since JVerbnet 1.3.0
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Returns the number of times a string was found already in the pool
+	 *
+	 * @return the number of times a string was found already in the pool
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getHitCount(){
+		return hits;
+	}
+
+	/**
+	 * Returns an estimate of the number of bytes that were saved by the pool;
+	 * that is, the estimated size of all the duplicate strings that were
+	 * either discarded in favor of a pooled instance or never created.
+	 *
+	 * @return the estimated number of bytes saved
+	 * @see #estimateSize(int)
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getSavedBytes(){
+		return savedBytes;
+	}
+
+	/**
+	 * Removes all strings from the pool, and resets the statistics.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public void clear(){
+		for(int i = 0; i < table.length; i++)
+			table[i] = null;
+		size = 0;
+		hits = 0;
+		savedBytes = 0;
+	}
+
+	/**
+	 * Returns an estimate of the number of heap bytes occupied by a string
+	 * of the specified length, including its character array. The estimate
+	 * assumes a 64-bit virtual machine with compressed object references and
+	 * two bytes per character.
+	 *
+	 * @param length
+	 *            the length of the string
+	 * @return the estimated size of the string, in bytes
+	 * @since JVerbnet 1.3.0
+	 */
+	public static long estimateSize(int length){
+		// string object: 12 header + 4 value + 4 hash, padded
+		// character array: 12 header + 4 length + 2 per char, padded
+		return 24 + ((16 + 2L*length + 7) & ~7L);
+	}
+
+	/**
+	 * Adds the specified string at the specified slot, growing the table if
+	 * necessary.
+	 *
+	 * @param slot
+	 *            the empty slot for the string
+	 * @param str
+	 *            the string to add
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void insert(int slot, String str){
+		table[slot] = str;
+		size++;
+		if(size > (table.length >>> 1) + (table.length >>> 2))
+			resize(table.length << 1);
+	}
+
+	/**
+	 * Records that a string of the specified length was found in the pool.
+	 *
+	 * @param length
+	 *            the length of the string
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void recordHit(int length){
+		hits++;
+		savedBytes += estimateSize(length);
+	}
+
+	/**
+	 * Rehashes the pool into a table of the specified size.
+	 *
+	 * @param newLength
+	 *            the new table size; must be a power of two larger than the
+	 *            number of strings in the pool
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void resize(int newLength){
+		String[] oldTable = table;
+		String[] newTable = new String[newLength];
+		int mask = newLength-1;
+		int i;
+		for(String s : oldTable){
+			if(s == null)
+				continue;
+			for(i = spread(s.hashCode()) & mask; newTable[i] != null; i = (i+1) & mask);
+			newTable[i] = s;
+		}
+		table = newTable;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified string has the same
+	 * characters as the specified range of the character array.
+	 *
+	 * @param s
+	 *            the string
+	 * @param ch
+	 *            the character array
+	 * @param start
+	 *            the start of the range
+	 * @param length
+	 *            the length of the range
+	 * @return <code>true</code> if the string and range have the same
+	 *         characters; <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static boolean equals(String s, char[] ch, int start, int length){
+		if(s.length() != length)
+			return false;
+		for(int i = 0; i < length; i++)
+			if(s.charAt(i) != ch[start+i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Spreads the bits of a string hash code so that strings differing only
+	 * in their last characters do not cluster in the table.
+	 *
+	 * @param h
+	 *            the hash code
+	 * @return the spread hash code
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int spread(int h){
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+
+	/**
+	 * Returns the smallest power of two table size that can hold the specified
+	 * number of strings without exceeding the load factor.
+	 *
+	 * @param capacity
+	 *            the number of strings to hold
+	 * @return a power of two table size
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static int tableSizeFor(int capacity){
+		int n = 16;
+		while(n - (n >>> 2) <= capacity && n < (1 << 30))
+			n <<= 1;
+		return n;
+	}
+
+}
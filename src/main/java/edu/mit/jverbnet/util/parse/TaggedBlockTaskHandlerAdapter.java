@@ -23,7 +23,7 @@ import org.xml.sax.SAXException;
 public class TaggedBlockTaskHandlerAdapter implements ITaggedBlockTaskHandler {
 	
 	// singleton instance
-	private static TaggedBlockTaskHandlerAdapter instance;
+	private static volatile TaggedBlockTaskHandlerAdapter instance;
 	
 	/**
 	 * Returns the singleton instance of this object, creating it if necessary.
@@ -0,0 +1,296 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.mit.jverbnet.bench.RegressionReport.Status;
+
+/**
+ * Checks the number of bytes allocated per call by the methods of a verb
+ * index, and by the parsing code beneath it, against fixed budgets. Lookups
+ * that hit, such as {@link edu.mit.jverbnet.index.IVerbIndex#getVerb(String)}
+ * and
+ * {@link edu.mit.jverbnet.index.IVerbIndex#getMembers(edu.mit.jverbnet.data.IWordnetKey)},
+ * have a budget of zero; iterators may allocate the iterator itself; wordnet
+ * key parsing may allocate the key and its parts; and handler dispatch is
+ * budgeted per SAX event replayed through the handlers.
+ * <p>
+ * Each budget is checked after the benchmark has been run for
+ * {@value #WARMUP_MILLIS} milliseconds, so that the compiler has had the
+ * chance to eliminate short-lived objects, and the lowest of several
+ * measurements is used. Allocation is measured with an
+ * {@link AllocationMeter}; if it is not supported by the virtual machine, no
+ * budget can be checked, and every budget is reported as
+ * {@link Status#MISSING}.
+ * <p>
+ * The default budgets are checked by the build, in
+ * {@link AllocationBudgetsTest}, and may also be checked from the command
+ * line with {@link #main(String[])}.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class AllocationBudgets {
+
+	/**
+	 * The number of milliseconds each benchmark is run before its allocation
+	 * is measured
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final long WARMUP_MILLIS = 1000;
+
+	// the number of times allocation is measured; the lowest is used
+	private static final int ROUNDS = 3;
+
+	// no instantiation
+	private AllocationBudgets(){}
+
+	/**
+	 * Returns the default budgets for the specified corpus: one for each
+	 * lookup and iterator of the index, one for wordnet key parsing, and one
+	 * for handler dispatch of the largest file in the corpus.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the default budgets
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @throws Exception
+	 *             if the largest file cannot be read
+	 * @since JVerbnet 1.3.0
+	 */
+	public static List<Budget> defaults(File dir) throws Exception {
+		NotNull.check("dir", dir);
+		List<Budget> result = new ArrayList<Budget>();
+		result.add(new Budget(VerbIndexBenchmarks.getVerb(dir), 0));
+		result.add(new Budget(VerbIndexBenchmarks.getRootVerb(dir), 0));
+		result.add(new Budget(VerbIndexBenchmarks.getMembersByKey(dir), 0));
+		result.add(new Budget(VerbIndexBenchmarks.getMembersByGroup(dir), 0));
+		result.add(new Budget(VerbIndexBenchmarks.iterate(dir), 96));
+		result.add(new Budget(VerbIndexBenchmarks.iterateRoots(dir), 96));
+		result.add(new Budget(VerbIndexBenchmarks.iterateWordnetKeys(dir), 96));
+		result.add(new Budget(VerbIndexBenchmarks.iterateGroups(dir), 96));
+		result.add(new Budget(VerbIndexBenchmarks.parseKey(dir), 512));
+		File file = VerbIndexBenchmarks.largestFile(dir);
+		int events = EventReplayReader.record(new FileInputStream(file)).size();
+		result.add(new Budget(VerbIndexBenchmarks.dispatch(file), 256, events));
+		return result;
+	}
+
+	/**
+	 * Measures the allocation of each budgeted benchmark, and compares it with
+	 * its budget. In the returned report, the baseline of each entry is the
+	 * budget, and the current value is the measured allocation; an entry is
+	 * {@link Status#REGRESSED} if it is over budget, and {@link Status#OK}
+	 * otherwise.
+	 *
+	 * @param budgets
+	 *            the budgets to check; may not be <code>null</code>
+	 * @return the comparison of each measurement with its budget
+	 * @throws NullPointerException
+	 *             if the budgets are <code>null</code>
+	 * @throws Exception
+	 *             if a benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public static RegressionReport check(List<Budget> budgets) throws Exception {
+		NotNull.check("budgets", budgets);
+		List<RegressionReport.Entry> entries = new ArrayList<RegressionReport.Entry>(budgets.size());
+		for(Budget b : budgets){
+			double bytes = measure(b);
+			Status status;
+			if(bytes < 0){
+				status = Status.MISSING;
+			} else {
+				status = (bytes > b.getMaxBytes()) ? Status.REGRESSED : Status.OK;
+			}
+			entries.add(new RegressionReport.Entry(b.getName(), b.getMaxBytes(), (bytes < 0) ? Double.NaN : bytes, status));
+		}
+		return new RegressionReport(entries);
+	}
+
+	/**
+	 * Returns the number of bytes allocated per unit of the specified budget,
+	 * or -1 if allocation cannot be measured.
+	 *
+	 * @param budget
+	 *            the budget; may not be <code>null</code>
+	 * @return the bytes allocated per unit, or -1
+	 * @throws NullPointerException
+	 *             if the budget is <code>null</code>
+	 * @throws Exception
+	 *             if the benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public static double measure(Budget budget) throws Exception {
+		NotNull.check("budget", budget);
+		if(!AllocationMeter.isSupported())
+			return -1;
+		Benchmark benchmark = budget.getBenchmark();
+		benchmark.setUp();
+		try {
+			// warm up, counting how many invocations fit in the time
+			int n = 0;
+			long end = System.currentTimeMillis() + WARMUP_MILLIS;
+			do {
+				benchmark.invoke(n++);
+			} while(System.currentTimeMillis() < end);
+			n = Math.max(1, Math.min(100000, n / 4));
+			double bytes = Double.MAX_VALUE;
+			for(int i = 0; i < ROUNDS; i++)
+				bytes = Math.min(bytes, AllocationMeter.measure(benchmark, n));
+			return bytes / budget.getUnits();
+		} finally {
+			benchmark.tearDown();
+		}
+	}
+
+	/**
+	 * Checks the default budgets from the command line, and exits with status
+	 * 1 if any is exceeded. The single optional argument is the corpus
+	 * directory; if it is omitted, or is <code>-</code>, a corpus is
+	 * generated with the default settings of {@link CorpusGenerator}.
+	 *
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             if a benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws Exception {
+		if(args.length > 1){
+			System.err.println("usage: AllocationBudgets [dir|-]");
+			System.exit(1);
+		}
+		File dir = (args.length == 0 || args[0].equals("-")) ?
+				CorpusGenerator.generateTemporaryCorpus() :
+					new File(args[0]);
+		if(!AllocationMeter.isSupported())
+			System.err.println("Allocation cannot be measured on this virtual machine");
+		RegressionReport report = check(defaults(dir));
+		System.out.print(report);
+		if(report.hasRegressions())
+			System.exit(1);
+	}
+
+	/**
+	 * The maximum number of bytes a benchmark may allocate per unit of work.
+	 * By default, a unit is a single invocation of the benchmark.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public static class Budget {
+
+		// unchanging fields
+		private final Benchmark benchmark;
+		private final double maxBytes;
+		private final int units;
+
+		/**
+		 * Creates a new budget, in bytes per invocation.
+		 *
+		 * @param benchmark
+		 *            the benchmark; may not be <code>null</code>
+		 * @param maxBytes
+		 *            the maximum number of bytes per invocation; may not be
+		 *            negative
+		 * @throws NullPointerException
+		 *             if the benchmark is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the maximum is negative
+		 * @since JVerbnet 1.3.0
+		 */
+		public Budget(Benchmark benchmark, double maxBytes){
+			this(benchmark, maxBytes, 1);
+		}
+
+		/**
+		 * Creates a new budget, in bytes per unit of work.
+		 *
+		 * @param benchmark
+		 *            the benchmark; may not be <code>null</code>
+		 * @param maxBytes
+		 *            the maximum number of bytes per unit; may not be
+		 *            negative
+		 * @param units
+		 *            the number of units of work done by each invocation of
+		 *            the benchmark; must be positive
+		 * @throws NullPointerException
+		 *             if the benchmark is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the maximum is negative, or the number of units is
+		 *             not positive
+		 * @since JVerbnet 1.3.0
+		 */
+		public Budget(Benchmark benchmark, double maxBytes, int units){
+			if(maxBytes < 0)
+				throw new IllegalArgumentException("budget may not be negative");
+			if(units < 1)
+				throw new IllegalArgumentException("unit count must be positive");
+			this.benchmark = NotNull.check("benchmark", benchmark);
+			this.maxBytes = maxBytes;
+			this.units = units;
+		}
+
+		/**
+		 * Returns the name of the budgeted benchmark.
+		 *
+		 * @return the name of the benchmark
+		 * @since JVerbnet 1.3.0
+		 */
+		public String getName(){
+			return benchmark.getName();
+		}
+
+		/**
+		 * Returns the budgeted benchmark.
+		 *
+		 * @return the benchmark
+		 * @since JVerbnet 1.3.0
+		 */
+		public Benchmark getBenchmark(){
+			return benchmark;
+		}
+
+		/**
+		 * Returns the maximum number of bytes per unit of work.
+		 *
+		 * @return the maximum number of bytes per unit
+		 * @since JVerbnet 1.3.0
+		 */
+		public double getMaxBytes(){
+			return maxBytes;
+		}
+
+		/**
+		 * Returns the number of units of work done by each invocation of the
+		 * benchmark.
+		 *
+		 * @return the number of units per invocation
+		 * @since JVerbnet 1.3.0
+		 */
+		public int getUnits(){
+			return units;
+		}
+
+	}
+
+}
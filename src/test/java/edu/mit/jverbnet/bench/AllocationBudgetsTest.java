@@ -0,0 +1,53 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.mit.jverbnet.bench.AllocationBudgets.Budget;
+import edu.mit.jverbnet.bench.RegressionReport.Status;
+
+/**
+ * Checks the default {@link AllocationBudgets} on the default corpus, so that
+ * a change that makes a lookup, an iterator, or the parsing code allocate
+ * more than its budget fails the build. The test is skipped on virtual
+ * machines where allocation cannot be measured.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class AllocationBudgetsTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void budgetsAreKept() throws Exception {
+		assumeTrue(AllocationMeter.isSupported());
+		File dir = tmp.newFolder();
+		new CorpusGenerator().generate(dir);
+		List<Budget> budgets = AllocationBudgets.defaults(dir);
+		RegressionReport report = AllocationBudgets.check(budgets);
+		assertFalse(report.toString(), report.hasRegressions());
+		assertEquals(report.toString(), budgets.size(), report.getEntries(Status.OK).size());
+	}
+
+}
@@ -0,0 +1,146 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+/**
+ * Measures the number of bytes allocated on the heap by the current thread.
+ * The measurement relies on the <code>com.sun.management.ThreadMXBean</code>
+ * extension, which is found on HotSpot and OpenJDK virtual machines; since it
+ * is not part of the Java platform, it is accessed by reflection. Where it is
+ * not available, {@link #isSupported()} returns <code>false</code> and
+ * {@link #getAllocatedBytes()} returns -1.
+ * <p>
+ * The virtual machine counts allocations in thread-local buffers, so small
+ * measurements may be off by a few bytes; {@link #measure(Benchmark, int)}
+ * subtracts the cost of the measurement itself.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class AllocationMeter {
+
+	// the thread bean and its allocation method; null if not supported
+	private static final Object bean;
+	private static final Method allocatedBytes;
+
+	static {
+		Object b = null;
+		Method m = null;
+		try {
+			b = ManagementFactory.getThreadMXBean();
+			m = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+			Method enable = Class.forName("com.sun.management.ThreadMXBean").getMethod("setThreadAllocatedMemoryEnabled", boolean.class);
+			enable.invoke(b, true);
+			if(((Long)m.invoke(b, Thread.currentThread().getId())).longValue() < 0)
+				m = null;
+		} catch (Throwable t) {
+			m = null;
+		}
+		bean = (m == null) ? null : b;
+		allocatedBytes = m;
+	}
+
+	// consumes the results of measured invocations
+	private static volatile int sink;
+
+	// no instantiation
+	private AllocationMeter(){}
+
+	/**
+	 * Returns <code>true</code> if this virtual machine can report the bytes
+	 * allocated by a thread; <code>false</code> otherwise.
+	 *
+	 * @return <code>true</code> if allocations can be measured;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public static boolean isSupported(){
+		return allocatedBytes != null;
+	}
+
+	/**
+	 * Returns the total number of bytes allocated by the current thread since
+	 * it started, or -1 if allocations cannot be measured.
+	 *
+	 * @return the bytes allocated by the current thread, or -1
+	 * @since JVerbnet 1.3.0
+	 */
+	public static long getAllocatedBytes(){
+		if(allocatedBytes == null)
+			return -1;
+		try {
+			return ((Long)allocatedBytes.invoke(bean, Thread.currentThread().getId())).longValue();
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the mean number of bytes allocated by each invocation of the
+	 * specified benchmark on the current thread, or -1 if allocations cannot
+	 * be measured. The benchmark must already be set up. It is invoked the
+	 * specified number of times to warm up, and then the same number of times
+	 * to measure.
+	 *
+	 * @param benchmark
+	 *            the benchmark; may not be <code>null</code>
+	 * @param ops
+	 *            the number of invocations to measure; must be positive
+	 * @return the mean number of bytes allocated per invocation, or -1
+	 * @throws NullPointerException
+	 *             if the benchmark is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the number of invocations is not positive
+	 * @throws Exception
+	 *             if the benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public static double measure(Benchmark benchmark, int ops) throws Exception {
+		NotNull.check("benchmark", benchmark);
+		if(ops < 1)
+			throw new IllegalArgumentException("invocation count must be positive");
+		if(!isSupported())
+			return -1;
+		int hash = 0;
+		for(int i = 0; i < ops; i++)
+			hash ^= System.identityHashCode(benchmark.invoke(i));
+		long overhead = overhead();
+		long start = getAllocatedBytes();
+		for(int i = 0; i < ops; i++)
+			hash ^= System.identityHashCode(benchmark.invoke(i));
+		long allocated = getAllocatedBytes() - start - overhead;
+		sink = hash;
+		return Math.max(0, allocated) / (double)ops;
+	}
+
+	/**
+	 * Returns the number of bytes allocated by a call to
+	 * {@link #getAllocatedBytes()} itself.
+	 *
+	 * @return the bytes allocated by a measurement
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static long overhead(){
+		long min = Long.MAX_VALUE;
+		for(int i = 0; i < 8; i++){
+			long start = getAllocatedBytes();
+			min = Math.min(min, getAllocatedBytes() - start);
+		}
+		return min;
+	}
+
+}
@@ -0,0 +1,123 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+
+/**
+ * A single operation to be timed by a {@link BenchmarkRunner}. The runner
+ * calls {@link #setUp()} once, then calls {@link #invoke(int)} repeatedly,
+ * possibly from several threads at once, and finally calls
+ * {@link #tearDown()}. Work that should not be measured, such as opening an
+ * index for a lookup benchmark, belongs in {@link #setUp()}.
+ * <p>
+ * Subclasses whose {@link #invoke(int)} method may not be called concurrently
+ * should override {@link #isThreadSafe()}; the runner then times them with a
+ * single thread only.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public abstract class Benchmark {
+
+	// unchanging fields
+	private final String name;
+
+	/**
+	 * Creates a new benchmark with the specified name.
+	 *
+	 * @param name
+	 *            the name of the benchmark; may not be <code>null</code>,
+	 *            empty, or all whitespace
+	 * @throws NullPointerException
+	 *             if the name is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the name is empty or all whitespace
+	 * @since JVerbnet 1.3.0
+	 */
+	public Benchmark(String name){
+		this.name = NotNullEmptyOrBlank.check("name", name);
+	}
+
+	/**
+	 * Returns the name of this benchmark.
+	 *
+	 * @return the non-<code>null</code>, non-empty name of this benchmark
+	 * @since JVerbnet 1.3.0
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * Returns <code>true</code> if {@link #invoke(int)} may be called from
+	 * several threads at once. This implementation returns <code>true</code>.
+	 *
+	 * @return <code>true</code> if the benchmark may be run by several threads
+	 *         at once; <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isThreadSafe(){
+		return true;
+	}
+
+	/**
+	 * Prepares the benchmark. This method is called once, before any call to
+	 * {@link #invoke(int)}, and is not timed. This implementation does
+	 * nothing.
+	 *
+	 * @throws Exception
+	 *             if the benchmark could not be prepared
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setUp() throws Exception {
+		// do nothing
+	}
+
+	/**
+	 * Performs the operation being timed once. The result of the operation
+	 * should be returned, so that the runner can consume it and the virtual
+	 * machine cannot eliminate the operation as dead code.
+	 *
+	 * @param i
+	 *            the number of operations the calling thread has performed
+	 *            before this one; benchmarks may use this to cycle through
+	 *            their inputs
+	 * @return the result of the operation; may be <code>null</code>
+	 * @throws Exception
+	 *             if the operation fails, which aborts the benchmark
+	 * @since JVerbnet 1.3.0
+	 */
+	public abstract Object invoke(int i) throws Exception;
+
+	/**
+	 * Releases any resources held by the benchmark. This method is called
+	 * once, after the last call to {@link #invoke(int)}, and is not timed.
+	 * This implementation does nothing.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public void tearDown() {
+		// do nothing
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
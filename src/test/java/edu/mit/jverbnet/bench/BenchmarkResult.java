@@ -0,0 +1,151 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+
+import java.util.Formatter;
+
+/**
+ * The measurements of one benchmark at one thread count. Each sample is the
+ * throughput, in operations per second summed over all threads, of one
+ * measurement iteration.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class BenchmarkResult {
+
+	// unchanging fields
+	private final String name;
+	private final int threads;
+	private final double[] samples;
+
+	/**
+	 * Creates a new benchmark result.
+	 *
+	 * @param name
+	 *            the name of the benchmark; may not be <code>null</code>,
+	 *            empty, or all whitespace
+	 * @param threads
+	 *            the number of threads that ran the benchmark; must be
+	 *            positive
+	 * @param samples
+	 *            the throughput of each measurement iteration, in operations
+	 *            per second; may not be <code>null</code> or empty
+	 * @throws NullPointerException
+	 *             if the name or samples are <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the name is empty or all whitespace, the thread count is
+	 *             not positive, or there are no samples
+	 * @since JVerbnet 1.3.0
+	 */
+	public BenchmarkResult(String name, int threads, double[] samples){
+		NotNull.check("samples", samples);
+		if(threads < 1)
+			throw new IllegalArgumentException("thread count must be positive");
+		if(samples.length == 0)
+			throw new IllegalArgumentException("there must be at least one sample");
+		this.name = NotNullEmptyOrBlank.check("name", name);
+		this.threads = threads;
+		this.samples = samples.clone();
+	}
+
+	/**
+	 * Returns the name of the benchmark.
+	 *
+	 * @return the name of the benchmark
+	 * @since JVerbnet 1.3.0
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * Returns the number of threads that ran the benchmark.
+	 *
+	 * @return the number of threads that ran the benchmark
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getThreadCount(){
+		return threads;
+	}
+
+	/**
+	 * Returns the throughput of each measurement iteration, in operations per
+	 * second.
+	 *
+	 * @return a copy of the samples of this result
+	 * @since JVerbnet 1.3.0
+	 */
+	public double[] getSamples(){
+		return samples.clone();
+	}
+
+	/**
+	 * Returns the mean throughput, in operations per second.
+	 *
+	 * @return the mean throughput
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getMean(){
+		double sum = 0;
+		for(double s : samples)
+			sum += s;
+		return sum / samples.length;
+	}
+
+	/**
+	 * Returns the sample standard deviation of the throughput, in operations
+	 * per second; zero if there is only one sample.
+	 *
+	 * @return the standard deviation of the throughput
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getStandardDeviation(){
+		if(samples.length < 2)
+			return 0;
+		double mean = getMean();
+		double sum = 0;
+		for(double s : samples)
+			sum += (s-mean)*(s-mean);
+		return Math.sqrt(sum / (samples.length-1));
+	}
+
+	/**
+	 * Returns the mean time a single thread took per operation, in
+	 * nanoseconds.
+	 *
+	 * @return the mean time per operation
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getNanosPerOperation(){
+		double mean = getMean();
+		return (mean == 0) ?
+				Double.POSITIVE_INFINITY :
+					threads * 1e9 / mean;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		Formatter f = new Formatter();
+		f.format("%-32s %3d %16.1f +- %14.1f ops/s %14.1f ns/op", name, threads, getMean(), getStandardDeviation(), getNanosPerOperation());
+		return f.toString();
+	}
+
+}
@@ -0,0 +1,380 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Times {@link Benchmark}s. Each benchmark is run for a number of warmup
+ * iterations, whose results are discarded so that the virtual machine can
+ * compile the code under test, and then for a number of measurement
+ * iterations. Each iteration lasts for a fixed time, during which every
+ * thread calls the benchmark as often as it can; the throughput of the
+ * iteration is the sum of the throughputs of the threads. This is repeated
+ * for each configured thread count.
+ * <p>
+ * The result of every operation is consumed, so that the virtual machine
+ * cannot remove the operation as dead code.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * The default number of warmup iterations
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_WARMUP_ITERATIONS = 3;
+
+	/**
+	 * The default number of measurement iterations
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int DEFAULT_MEASUREMENT_ITERATIONS = 5;
+
+	/**
+	 * The default length of an iteration, in milliseconds
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final long DEFAULT_ITERATION_MILLIS = 1000;
+
+	// the results of operations are folded into this field
+	private static volatile int sink;
+
+	// configuration
+	private int warmupIterations = DEFAULT_WARMUP_ITERATIONS;
+	private int measurementIterations = DEFAULT_MEASUREMENT_ITERATIONS;
+	private long iterationMillis = DEFAULT_ITERATION_MILLIS;
+	private int[] threadCounts = defaultThreadCounts(Runtime.getRuntime().availableProcessors());
+	private PrintStream log = null;
+
+	/**
+	 * Sets the number of warmup iterations for each benchmark and thread
+	 * count.
+	 *
+	 * @param count
+	 *            the number of warmup iterations; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the count is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setWarmupIterations(int count){
+		if(count < 0)
+			throw new IllegalArgumentException("warmup iterations may not be negative");
+		warmupIterations = count;
+	}
+
+	/**
+	 * Returns the number of warmup iterations for each benchmark and thread
+	 * count.
+	 *
+	 * @return the number of warmup iterations
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getWarmupIterations(){
+		return warmupIterations;
+	}
+
+	/**
+	 * Sets the number of measurement iterations for each benchmark and thread
+	 * count.
+	 *
+	 * @param count
+	 *            the number of measurement iterations; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setMeasurementIterations(int count){
+		if(count < 1)
+			throw new IllegalArgumentException("measurement iterations must be positive");
+		measurementIterations = count;
+	}
+
+	/**
+	 * Returns the number of measurement iterations for each benchmark and
+	 * thread count.
+	 *
+	 * @return the number of measurement iterations
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getMeasurementIterations(){
+		return measurementIterations;
+	}
+
+	/**
+	 * Sets the length of each iteration. An operation that is still running
+	 * when the time is up is allowed to finish, and is counted.
+	 *
+	 * @param millis
+	 *            the length of an iteration, in milliseconds; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the length is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setIterationMillis(long millis){
+		if(millis < 1)
+			throw new IllegalArgumentException("iteration length must be positive");
+		iterationMillis = millis;
+	}
+
+	/**
+	 * Returns the length of each iteration, in milliseconds.
+	 *
+	 * @return the length of each iteration, in milliseconds
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getIterationMillis(){
+		return iterationMillis;
+	}
+
+	/**
+	 * Sets the thread counts at which each benchmark is run. By default, the
+	 * benchmarks are run with one thread, with each power of two less than
+	 * the number of available processors, and with the number of available
+	 * processors.
+	 *
+	 * @param counts
+	 *            the thread counts; may not be <code>null</code> or empty, and
+	 *            each count must be positive
+	 * @throws NullPointerException
+	 *             if the array is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the array is empty, or contains a count that is not
+	 *             positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setThreadCounts(int... counts){
+		NotNull.check("counts", counts);
+		if(counts.length == 0)
+			throw new IllegalArgumentException("there must be at least one thread count");
+		for(int count : counts)
+			if(count < 1)
+				throw new IllegalArgumentException("thread counts must be positive");
+		threadCounts = counts.clone();
+	}
+
+	/**
+	 * Returns the thread counts at which each benchmark is run.
+	 *
+	 * @return a copy of the thread counts
+	 * @since JVerbnet 1.3.0
+	 */
+	public int[] getThreadCounts(){
+		return threadCounts.clone();
+	}
+
+	/**
+	 * Sets the stream to which the runner reports its progress and results.
+	 *
+	 * @param log
+	 *            the stream; may be <code>null</code>, in which case nothing
+	 *            is reported
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setLog(PrintStream log){
+		this.log = log;
+	}
+
+	/**
+	 * Runs all of the specified benchmarks in turn.
+	 *
+	 * @param benchmarks
+	 *            the benchmarks to run; may not be <code>null</code>
+	 * @return the results, in the order the benchmarks were run
+	 * @throws NullPointerException
+	 *             if the list is <code>null</code>
+	 * @throws Exception
+	 *             if a benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<BenchmarkResult> runAll(List<? extends Benchmark> benchmarks) throws Exception {
+		NotNull.check("benchmarks", benchmarks);
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+		for(Benchmark b : benchmarks)
+			results.addAll(run(b));
+		return results;
+	}
+
+	/**
+	 * Runs the specified benchmark at each configured thread count. A
+	 * benchmark that is not thread-safe is only run with one thread.
+	 *
+	 * @param benchmark
+	 *            the benchmark to run; may not be <code>null</code>
+	 * @return the results, one for each thread count
+	 * @throws NullPointerException
+	 *             if the benchmark is <code>null</code>
+	 * @throws Exception
+	 *             if the benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<BenchmarkResult> run(Benchmark benchmark) throws Exception {
+		NotNull.check("benchmark", benchmark);
+		int[] counts = benchmark.isThreadSafe() ?
+				threadCounts :
+					new int[]{ 1 };
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>(counts.length);
+		benchmark.setUp();
+		try {
+			for(int threads : counts){
+				for(int i = 0; i < warmupIterations; i++)
+					runIteration(benchmark, threads);
+				double[] samples = new double[measurementIterations];
+				for(int i = 0; i < measurementIterations; i++)
+					samples[i] = runIteration(benchmark, threads);
+				BenchmarkResult result = new BenchmarkResult(benchmark.getName(), threads, samples);
+				if(log != null)
+					log.println(result);
+				results.add(result);
+			}
+		} finally {
+			benchmark.tearDown();
+		}
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * Runs a single iteration of the benchmark with the specified number of
+	 * threads.
+	 *
+	 * @param benchmark
+	 *            the benchmark to run
+	 * @param threads
+	 *            the number of threads
+	 * @return the throughput of the iteration, in operations per second
+	 * @throws Exception
+	 *             if the benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	protected double runIteration(Benchmark benchmark, int threads) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		Worker[] workers = new Worker[threads];
+		for(int i = 0; i < threads; i++){
+			workers[i] = new Worker(benchmark, i, start);
+			workers[i].start();
+		}
+		start.countDown();
+		Thread.sleep(iterationMillis);
+		for(Worker w : workers)
+			w.stopped = true;
+		double throughput = 0;
+		for(Worker w : workers){
+			w.join();
+			if(w.failure != null)
+				throw w.failure;
+			if(w.elapsedNanos > 0)
+				throughput += w.operations * 1e9 / w.elapsedNanos;
+		}
+		return throughput;
+	}
+
+	/**
+	 * Returns the default thread counts for the specified number of
+	 * processors: one, each power of two less than the number of processors,
+	 * and the number of processors.
+	 *
+	 * @param processors
+	 *            the number of available processors
+	 * @return the default thread counts
+	 * @since JVerbnet 1.3.0
+	 */
+	public static int[] defaultThreadCounts(int processors){
+		List<Integer> counts = new ArrayList<Integer>();
+		for(int n = 1; n < processors; n <<= 1)
+			counts.add(n);
+		counts.add(Math.max(1, processors));
+		int[] result = new int[counts.size()];
+		for(int i = 0; i < result.length; i++)
+			result[i] = counts.get(i);
+		return result;
+	}
+
+	/**
+	 * A thread that calls a benchmark until told to stop.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class Worker extends Thread {
+
+		// unchanging fields
+		private final Benchmark benchmark;
+		private final int index;
+		private final CountDownLatch start;
+
+		// changeable fields
+		protected volatile boolean stopped = false;
+		protected long operations = 0;
+		protected long elapsedNanos = 0;
+		protected Exception failure = null;
+
+		/**
+		 * Creates a new worker.
+		 *
+		 * @param benchmark
+		 *            the benchmark to call
+		 * @param index
+		 *            the index of this worker among the workers of the
+		 *            iteration
+		 * @param start
+		 *            the latch that signals the start of the iteration
+		 * @since JVerbnet 1.3.0
+		 */
+		public Worker(Benchmark benchmark, int index, CountDownLatch start){
+			super(benchmark.getName() + "-" + index);
+			this.benchmark = benchmark;
+			this.index = index;
+			this.start = start;
+			setDaemon(true);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Thread#run()
+		 */
+		@Override
+		public void run() {
+			int folded = 0;
+			long ops = 0;
+			// spread the threads over the inputs of the benchmark
+			int i = index * 1031;
+			try {
+				start.await();
+				long begin = System.nanoTime();
+				while(!stopped){
+					folded += System.identityHashCode(benchmark.invoke(i++));
+					ops++;
+				}
+				elapsedNanos = System.nanoTime() - begin;
+			} catch(Exception e){
+				failure = e;
+			}
+			operations = ops;
+			sink += folded;
+		}
+
+	}
+
+}
@@ -0,0 +1,363 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import edu.mit.jverbnet.parse.ParseContext;
+
+/**
+ * An XML reader that replays a recorded sequence of SAX events instead of
+ * parsing its input. Each event is delivered to whatever content handler is
+ * set on the reader at that moment, so handlers that pass control to one
+ * another by resetting the content handler of the parser, such as
+ * {@link edu.mit.jverbnet.util.parse.MappedHandler}, behave exactly as they
+ * would during a real parse. This isolates the cost of dispatching events
+ * from the cost of reading and tokenizing XML.
+ * <p>
+ * The input source passed to {@link #parse(InputSource)} is ignored. Only
+ * element and character events are recorded.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class EventReplayReader implements XMLReader {
+
+	// event types
+	private static final byte START = 0;
+	private static final byte END = 1;
+	private static final byte CHARS = 2;
+
+	// the recorded events
+	private final byte[] types;
+	private final String[] names;
+	private final Attributes[] attrs;
+	private final char[][] chars;
+
+	// reader state
+	private final Map<String, Boolean> features = new HashMap<String, Boolean>();
+	private final Map<String, Object> properties = new HashMap<String, Object>();
+	private ContentHandler contentHandler;
+	private DTDHandler dtdHandler;
+	private EntityResolver entityResolver;
+	private ErrorHandler errorHandler;
+
+	/**
+	 * Creates a new reader that replays the events of the specified
+	 * recorder.
+	 *
+	 * @param recorder
+	 *            the recorder whose events should be replayed; may not be
+	 *            <code>null</code>
+	 * @throws NullPointerException
+	 *             if the recorder is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public EventReplayReader(Recorder recorder){
+		NotNull.check("recorder", recorder);
+		int size = recorder.types.size();
+		types = new byte[size];
+		names = new String[size];
+		attrs = new Attributes[size];
+		chars = new char[size][];
+		for(int i = 0; i < size; i++){
+			types[i] = recorder.types.get(i);
+			names[i] = recorder.names.get(i);
+			attrs[i] = recorder.attrs.get(i);
+			chars[i] = recorder.chars.get(i);
+		}
+	}
+
+	/**
+	 * Returns the number of recorded events.
+	 *
+	 * @return the number of recorded events
+	 * @since JVerbnet 1.3.0
+	 */
+	public int size(){
+		return types.length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#parse(org.xml.sax.InputSource)
+	 */
+	public void parse(InputSource input) throws IOException, SAXException {
+		replay();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#parse(java.lang.String)
+	 */
+	public void parse(String systemId) throws IOException, SAXException {
+		replay();
+	}
+
+	/**
+	 * Delivers the recorded events, in order, to the current content handler
+	 * of this reader.
+	 *
+	 * @throws SAXException
+	 *             if a handler throws an exception
+	 * @throws IllegalStateException
+	 *             if no content handler is set
+	 * @since JVerbnet 1.3.0
+	 */
+	public void replay() throws SAXException {
+		if(contentHandler == null)
+			throw new IllegalStateException("no content handler is set");
+		contentHandler.startDocument();
+		for(int i = 0; i < types.length; i++){
+			switch(types[i]){
+			case START:
+				contentHandler.startElement("", "", names[i], attrs[i]);
+				break;
+			case END:
+				contentHandler.endElement("", "", names[i]);
+				break;
+			default:
+				contentHandler.characters(chars[i], 0, chars[i].length);
+			}
+		}
+		contentHandler.endDocument();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#getFeature(java.lang.String)
+	 */
+	public boolean getFeature(String name) {
+		Boolean value = features.get(name);
+		return value != null && value.booleanValue();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#setFeature(java.lang.String, boolean)
+	 */
+	public void setFeature(String name, boolean value) {
+		features.put(name, Boolean.valueOf(value));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#getProperty(java.lang.String)
+	 */
+	public Object getProperty(String name) {
+		return properties.get(name);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#setProperty(java.lang.String, java.lang.Object)
+	 */
+	public void setProperty(String name, Object value) {
+		properties.put(name, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#getContentHandler()
+	 */
+	public ContentHandler getContentHandler() {
+		return contentHandler;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#setContentHandler(org.xml.sax.ContentHandler)
+	 */
+	public void setContentHandler(ContentHandler handler) {
+		contentHandler = handler;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#getDTDHandler()
+	 */
+	public DTDHandler getDTDHandler() {
+		return dtdHandler;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#setDTDHandler(org.xml.sax.DTDHandler)
+	 */
+	public void setDTDHandler(DTDHandler handler) {
+		dtdHandler = handler;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#getEntityResolver()
+	 */
+	public EntityResolver getEntityResolver() {
+		return entityResolver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#setEntityResolver(org.xml.sax.EntityResolver)
+	 */
+	public void setEntityResolver(EntityResolver resolver) {
+		entityResolver = resolver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#getErrorHandler()
+	 */
+	public ErrorHandler getErrorHandler() {
+		return errorHandler;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.xml.sax.XMLReader#setErrorHandler(org.xml.sax.ErrorHandler)
+	 */
+	public void setErrorHandler(ErrorHandler handler) {
+		errorHandler = handler;
+	}
+
+	/**
+	 * Records the events of the specified XML stream. The stream is parsed
+	 * with the default SAX parser, without validation or external DTDs, and
+	 * is closed afterwards.
+	 *
+	 * @param in
+	 *            the stream to record; may not be <code>null</code>
+	 * @return a reader that replays the events of the stream
+	 * @throws NullPointerException
+	 *             if the stream is <code>null</code>
+	 * @throws IOException
+	 *             if the stream cannot be read
+	 * @throws SAXException
+	 *             if the stream cannot be parsed
+	 * @since JVerbnet 1.3.0
+	 */
+	public static EventReplayReader record(InputStream in) throws IOException, SAXException {
+		NotNull.check("in", in);
+		try {
+			XMLReader parser = ParseContext.createXMLReader();
+			Recorder recorder = new Recorder();
+			parser.setContentHandler(recorder);
+			parser.parse(new InputSource(in));
+			return new EventReplayReader(recorder);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * A content handler that records the element and character events it
+	 * receives.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public static class Recorder extends DefaultHandler {
+
+		// the recorded events
+		private final List<Byte> types = new ArrayList<Byte>();
+		private final List<String> names = new ArrayList<String>();
+		private final List<Attributes> attrs = new ArrayList<Attributes>();
+		private final List<char[]> chars = new ArrayList<char[]>();
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.xml.sax.helpers.DefaultHandler#startElement(java.lang.String, java.lang.String, java.lang.String, org.xml.sax.Attributes)
+		 */
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			add(START, qName, new AttributesImpl(attributes), null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.xml.sax.helpers.DefaultHandler#endElement(java.lang.String, java.lang.String, java.lang.String)
+		 */
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			add(END, qName, null, null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.xml.sax.helpers.DefaultHandler#characters(char[], int, int)
+		 */
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			char[] copy = new char[length];
+			System.arraycopy(ch, start, copy, 0, length);
+			add(CHARS, null, null, copy);
+		}
+
+		/**
+		 * Records a single event.
+		 *
+		 * @param type
+		 *            the type of the event
+		 * @param name
+		 *            the element name, if any
+		 * @param atts
+		 *            the attributes, if any
+		 * @param ch
+		 *            the characters, if any
+		 * @since JVerbnet 1.3.0
+		 */
+		protected void add(byte type, String name, Attributes atts, char[] ch){
+			types.add(type);
+			names.add(name);
+			attrs.add(atts);
+			chars.add(ch);
+		}
+
+	}
+
+}
@@ -0,0 +1,304 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.mit.jverbnet.util.FileBuffers;
+
+/**
+ * Benchmarks for the strategies of {@link FileBuffers}: reading files into
+ * pooled heap buffers, and mapping them. Each benchmark loads a file, reads
+ * every byte of it, and releases the buffer, so that the cost of faulting in
+ * the pages of a mapping is counted. The benchmarks are run on generated files
+ * of a range of sizes, to find the size at which mapping starts to pay, and on
+ * the files of a corpus directory, to compare the default choice with always
+ * reading and always mapping.
+ * <p>
+ * The {@link #main(String[])} method runs the suite and prints the smallest
+ * size at which mapping was faster, along with the default threshold of
+ * {@link FileBuffers}.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FileReadBenchmarks {
+
+	/**
+	 * The sizes, in bytes, of the generated files
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int[] SIZES = {
+		4 * 1024,
+		16 * 1024,
+		64 * 1024,
+		256 * 1024,
+		1024 * 1024,
+		4 * 1024 * 1024,
+	};
+
+	// no instantiation
+	private FileReadBenchmarks(){}
+
+	/**
+	 * Returns the read and map benchmarks for each of the specified files,
+	 * in that order.
+	 *
+	 * @param files
+	 *            the files; may not be <code>null</code>
+	 * @return a list of benchmarks, two for each file
+	 * @throws NullPointerException
+	 *             if the array is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static List<Benchmark> sizeSuite(File[] files){
+		NotNull.check("files", files);
+		List<Benchmark> result = new ArrayList<Benchmark>(2*files.length);
+		for(File file : files){
+			result.add(loadFile("read." + file.length(), new FileBuffers(Integer.MAX_VALUE, FileBuffers.DEFAULT_MAX_IDLE), file));
+			result.add(loadFile("map." + file.length(), new FileBuffers(0, 0), file));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns benchmarks that load all the XML files of the specified
+	 * directory by reading, by mapping, and with the default choice.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a list of benchmarks for loading the corpus
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static List<Benchmark> corpusSuite(File dir){
+		NotNull.check("dir", dir);
+		List<Benchmark> result = new ArrayList<Benchmark>(3);
+		result.add(loadDirectory("corpus.read", new FileBuffers(Integer.MAX_VALUE, FileBuffers.DEFAULT_MAX_IDLE), dir));
+		result.add(loadDirectory("corpus.map", new FileBuffers(0, 0), dir));
+		result.add(loadDirectory("corpus.default", FileBuffers.getDefault(), dir));
+		return result;
+	}
+
+	/**
+	 * Returns a benchmark that loads, reads, and releases the specified file.
+	 *
+	 * @param name
+	 *            the name of the benchmark; may not be <code>null</code>,
+	 *            empty, or all whitespace
+	 * @param buffers
+	 *            the loader to use; may not be <code>null</code>
+	 * @param file
+	 *            the file; may not be <code>null</code>
+	 * @return a benchmark for loading the file
+	 * @throws NullPointerException
+	 *             if any argument is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark loadFile(String name, final FileBuffers buffers, final File file){
+		NotNull.check("buffers", buffers);
+		NotNull.check("file", file);
+		return new Benchmark(name) {
+			public Object invoke(int i) throws Exception {
+				return load(buffers, file);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that loads, reads, and releases all the XML files
+	 * of the specified directory.
+	 *
+	 * @param name
+	 *            the name of the benchmark; may not be <code>null</code>,
+	 *            empty, or all whitespace
+	 * @param buffers
+	 *            the loader to use; may not be <code>null</code>
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for loading the directory
+	 * @throws NullPointerException
+	 *             if any argument is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark loadDirectory(String name, final FileBuffers buffers, final File dir){
+		NotNull.check("buffers", buffers);
+		NotNull.check("dir", dir);
+		return new Benchmark(name) {
+			private File[] files;
+			@Override
+			public void setUp() throws Exception {
+				files = dir.listFiles(new FileFilter() {
+					public boolean accept(File file) {
+						return file.isFile() && file.getName().endsWith(".xml");
+					}
+				});
+				if(files == null || files.length == 0)
+					throw new IllegalArgumentException("No XML files in " + dir);
+			}
+			public Object invoke(int i) throws Exception {
+				long sum = 0;
+				for(File file : files)
+					sum += load(buffers, file);
+				return Long.valueOf(sum);
+			}
+		};
+	}
+
+	/**
+	 * Loads the specified file, reads every byte of it, and releases the
+	 * buffer.
+	 *
+	 * @param buffers
+	 *            the loader to use
+	 * @param file
+	 *            the file
+	 * @return the sum of the bytes of the file
+	 * @throws IOException
+	 *             if the file cannot be read
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static long load(FileBuffers buffers, File file) throws IOException {
+		ByteBuffer buffer = buffers.load(file);
+		try {
+			long sum = 0;
+			for(int i = buffer.position(); i < buffer.limit(); i++)
+				sum += buffer.get(i);
+			return sum;
+		} finally {
+			buffers.release(buffer);
+		}
+	}
+
+	/**
+	 * Writes a file of each of the specified sizes into the specified
+	 * directory, filled with printable bytes.
+	 *
+	 * @param dir
+	 *            the directory; may not be <code>null</code>
+	 * @param sizes
+	 *            the sizes of the files; may not be <code>null</code>
+	 * @return the files, in the order of the sizes
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @throws IOException
+	 *             if a file cannot be written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static File[] generateFiles(File dir, int... sizes) throws IOException {
+		NotNull.check("dir", dir);
+		NotNull.check("sizes", sizes);
+		Random random = new Random(sizes.length);
+		byte[] chunk = new byte[8 * 1024];
+		File[] result = new File[sizes.length];
+		for(int i = 0; i < sizes.length; i++){
+			result[i] = new File(dir, "size" + sizes[i] + ".dat");
+			OutputStream out = new FileOutputStream(result[i]);
+			try {
+				for(int left = sizes[i]; left > 0; left -= chunk.length){
+					for(int j = 0; j < chunk.length; j++)
+						chunk[j] = (byte)(' ' + random.nextInt(95));
+					out.write(chunk, 0, Math.min(left, chunk.length));
+				}
+			} finally {
+				out.close();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the smallest size at which mapping was faster than reading in
+	 * the specified results of {@link #sizeSuite(File[])}, for the specified
+	 * thread count.
+	 *
+	 * @param results
+	 *            the results; may not be <code>null</code>
+	 * @param threads
+	 *            the thread count
+	 * @return the smallest size at which mapping was faster, or -1 if
+	 *         reading was faster at every size
+	 * @throws NullPointerException
+	 *             if the list is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static long crossover(List<BenchmarkResult> results, int threads){
+		NotNull.check("results", results);
+		long result = -1;
+		for(BenchmarkResult read : results){
+			if(read.getThreadCount() != threads || !read.getName().startsWith("read."))
+				continue;
+			String size = read.getName().substring("read.".length());
+			for(BenchmarkResult map : results){
+				if(map.getThreadCount() != threads || !map.getName().equals("map." + size))
+					continue;
+				long bytes = Long.parseLong(size);
+				if(map.getMean() > read.getMean() && (result < 0 || bytes < result))
+					result = bytes;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Runs the benchmarks and prints the results to standard out, followed by
+	 * the smallest size at which mapping was faster and the default threshold.
+	 * The optional argument is a corpus directory, whose files are also
+	 * loaded. Warmup iterations, measurement iterations, and iteration length
+	 * may be set with the system properties <code>bench.warmup</code>,
+	 * <code>bench.iterations</code>, and <code>bench.millis</code>. The
+	 * benchmarks are run on a single thread.
+	 *
+	 * @param args
+	 *            the optional corpus directory
+	 * @throws Exception
+	 *             if a benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws Exception {
+		File tmp = File.createTempFile("jverbnet-files", "");
+		if(!tmp.delete() || !tmp.mkdir())
+			throw new IOException("unable to create directory " + tmp);
+		tmp.deleteOnExit();
+		File[] files = generateFiles(tmp, SIZES);
+		for(File f : files)
+			f.deleteOnExit();
+
+		BenchmarkRunner runner = new BenchmarkRunner();
+		runner.setWarmupIterations(Integer.getInteger("bench.warmup", BenchmarkRunner.DEFAULT_WARMUP_ITERATIONS));
+		runner.setMeasurementIterations(Integer.getInteger("bench.iterations", BenchmarkRunner.DEFAULT_MEASUREMENT_ITERATIONS));
+		runner.setIterationMillis(Long.getLong("bench.millis", BenchmarkRunner.DEFAULT_ITERATION_MILLIS));
+		runner.setThreadCounts(1);
+		runner.setLog(System.out);
+
+		List<BenchmarkResult> results = runner.runAll(sizeSuite(files));
+		if(args.length > 0)
+			runner.runAll(corpusSuite(new File(args[0])));
+
+		long crossover = crossover(results, 1);
+		System.out.println("mapping faster from: " + (crossover < 0 ? "never" : crossover + " bytes"));
+		System.out.println("default threshold: " + FileBuffers.DEFAULT_MAP_THRESHOLD + " bytes");
+	}
+
+}
@@ -0,0 +1,572 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import edu.mit.jverbnet.bench.RegressionReport.Status;
+import edu.mit.jverbnet.index.VerbIndex;
+
+/**
+ * Measures a fixed set of load, parse, and lookup scenarios, and compares the
+ * measurements with a stored baseline, so that performance regressions can
+ * fail a build. Three kinds of metric are measured, distinguished by the
+ * suffix of their names:
+ * <ul>
+ * <li><code>.ops</code>, the single-threaded throughput of a scenario, in
+ * operations per second, taken from its best measurement iteration, where
+ * higher is better;</li>
+ * <li><code>.alloc</code>, the bytes allocated per operation of a scenario,
+ * taken from the lowest of several measurements, where lower is better;
+ * and</li>
+ * <li><code>.heap</code>, the estimated retained heap of a loaded index, in
+ * total and for each structure category of the {@link FootprintAnalyzer},
+ * where lower is better.</li>
+ * </ul>
+ * A metric regresses if it is worse than its baseline by more than the
+ * tolerance for its kind, given as a fraction of the baseline. Throughput
+ * depends on the machine, and so has a generous default tolerance; the other
+ * metrics depend only on the virtual machine and the code. Allocation also
+ * has an absolute allowance of {@value #ALLOCATION_SLACK} bytes, since
+ * whether the compiler eliminates a short-lived object, such as an iterator,
+ * can vary from run to run.
+ * <p>
+ * Baselines are stored as property files, with one metric per line. The
+ * baseline in this package, a resource of the test sources, was measured
+ * against the corpus generated by the default settings of
+ * {@link CorpusGenerator}.
+ * <p>
+ * The heap metrics are computed from a model of object layout, and so are
+ * the same on every machine; they are checked against the baseline by the
+ * unit tests of the build. The whole gate, which takes about a minute, is
+ * run with <code>sbt regressionGate</code>, which fails if any metric
+ * regressed. After a deliberate change in performance, the baseline is
+ * updated with <code>sbt "regressionGate -record &lt;file&gt;"</code>.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class RegressionGate {
+
+	/**
+	 * The name of the baseline resource in this package
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final String DEFAULT_BASELINE = "regression-baseline.properties";
+
+	/**
+	 * The default tolerance for throughput metrics
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final double DEFAULT_THROUGHPUT_TOLERANCE = 0.30;
+
+	/**
+	 * The default tolerance for allocation metrics
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final double DEFAULT_ALLOCATION_TOLERANCE = 0.10;
+
+	/**
+	 * The default tolerance for heap metrics
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final double DEFAULT_HEAP_TOLERANCE = 0.02;
+
+	/**
+	 * The number of bytes per operation by which an allocation metric may
+	 * exceed its baseline, in addition to the tolerance
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final double ALLOCATION_SLACK = 32;
+
+	/**
+	 * The suffix of throughput metrics
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final String THROUGHPUT = ".ops";
+
+	/**
+	 * The suffix of allocation metrics
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final String ALLOCATION = ".alloc";
+
+	/**
+	 * The suffix of heap metrics
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final String HEAP = ".heap";
+
+	// the number of seconds of operations over which allocation is measured,
+	// and the number of times it is measured; the compiler may or may not
+	// eliminate short-lived objects, so the lowest measurement is used
+	private static final double ALLOCATION_SECONDS = 0.25;
+	private static final int ALLOCATION_ROUNDS = 3;
+
+	// configuration
+	private final BenchmarkRunner runner = new BenchmarkRunner();
+	private double throughputTolerance = DEFAULT_THROUGHPUT_TOLERANCE;
+	private double allocationTolerance = DEFAULT_ALLOCATION_TOLERANCE;
+	private double heapTolerance = DEFAULT_HEAP_TOLERANCE;
+
+	/**
+	 * Creates a new regression gate, whose runner uses a single thread.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public RegressionGate(){
+		runner.setThreadCounts(1);
+	}
+
+	/**
+	 * Returns the runner that measures throughput, so that its iterations
+	 * may be configured.
+	 *
+	 * @return the benchmark runner of this gate
+	 * @since JVerbnet 1.3.0
+	 */
+	public BenchmarkRunner getRunner(){
+		return runner;
+	}
+
+	/**
+	 * Sets the tolerance for throughput metrics.
+	 *
+	 * @param tolerance
+	 *            the tolerance, as a fraction of the baseline; may not be
+	 *            negative
+	 * @throws IllegalArgumentException
+	 *             if the tolerance is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setThroughputTolerance(double tolerance){
+		throughputTolerance = checkTolerance(tolerance);
+	}
+
+	/**
+	 * Returns the tolerance for throughput metrics.
+	 *
+	 * @return the tolerance, as a fraction of the baseline
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getThroughputTolerance(){
+		return throughputTolerance;
+	}
+
+	/**
+	 * Sets the tolerance for allocation metrics.
+	 *
+	 * @param tolerance
+	 *            the tolerance, as a fraction of the baseline; may not be
+	 *            negative
+	 * @throws IllegalArgumentException
+	 *             if the tolerance is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setAllocationTolerance(double tolerance){
+		allocationTolerance = checkTolerance(tolerance);
+	}
+
+	/**
+	 * Returns the tolerance for allocation metrics.
+	 *
+	 * @return the tolerance, as a fraction of the baseline
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getAllocationTolerance(){
+		return allocationTolerance;
+	}
+
+	/**
+	 * Sets the tolerance for heap metrics.
+	 *
+	 * @param tolerance
+	 *            the tolerance, as a fraction of the baseline; may not be
+	 *            negative
+	 * @throws IllegalArgumentException
+	 *             if the tolerance is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setHeapTolerance(double tolerance){
+		heapTolerance = checkTolerance(tolerance);
+	}
+
+	/**
+	 * Returns the tolerance for heap metrics.
+	 *
+	 * @return the tolerance, as a fraction of the baseline
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getHeapTolerance(){
+		return heapTolerance;
+	}
+
+	/**
+	 * Returns the scenarios measured by this gate: opening an index, handler
+	 * dispatch for the largest file, each index lookup, iteration, and
+	 * wordnet key parsing.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the scenarios to measure
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Benchmark> scenarios(File dir){
+		List<Benchmark> result = new ArrayList<Benchmark>();
+		result.add(VerbIndexBenchmarks.openDirectory(dir));
+		result.add(VerbIndexBenchmarks.dispatch(VerbIndexBenchmarks.largestFile(dir)));
+		result.add(VerbIndexBenchmarks.getVerb(dir));
+		result.add(VerbIndexBenchmarks.getMembersByKey(dir));
+		result.add(VerbIndexBenchmarks.getMembersByGroup(dir));
+		result.add(VerbIndexBenchmarks.iterate(dir));
+		result.add(VerbIndexBenchmarks.parseKey(dir));
+		return result;
+	}
+
+	/**
+	 * Measures all metrics against the specified corpus.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the measurements, by metric name, in the order measured
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @throws Exception
+	 *             if a scenario fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public Map<String, Double> measure(File dir) throws Exception {
+		Map<String, Double> result = new LinkedHashMap<String, Double>();
+		for(Benchmark b : scenarios(dir)){
+			double ops = 0;
+			for(double sample : runner.run(b).get(0).getSamples())
+				ops = Math.max(ops, sample);
+			result.put(b.getName() + THROUGHPUT, ops);
+			if(!AllocationMeter.isSupported())
+				continue;
+			b.setUp();
+			try {
+				int n = (int)Math.max(1, Math.min(100000, ops * ALLOCATION_SECONDS));
+				double bytes = Double.MAX_VALUE;
+				for(int i = 0; i < ALLOCATION_ROUNDS; i++)
+					bytes = Math.min(bytes, AllocationMeter.measure(b, n));
+				result.put(b.getName() + ALLOCATION, bytes);
+			} finally {
+				b.tearDown();
+			}
+		}
+		result.putAll(measureFootprint(dir));
+		return result;
+	}
+
+	/**
+	 * Measures the heap metrics against the specified corpus: the estimated
+	 * retained heap of the loaded index, in total and for each structure
+	 * category. Unlike the other metrics, these do not depend on the machine.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the heap measurements, by metric name, in the order measured
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @throws IOException
+	 *             if the index cannot be opened
+	 * @since JVerbnet 1.3.0
+	 */
+	public Map<String, Double> measureFootprint(File dir) throws IOException {
+		NotNull.check("dir", dir);
+		VerbIndex index = new VerbIndex(dir);
+		if(!index.open())
+			throw new IOException("unable to open index at " + dir);
+		try {
+			Map<String, Double> result = new LinkedHashMap<String, Double>();
+			FootprintReport footprint = new FootprintAnalyzer().analyze(index);
+			result.put("footprint.total" + HEAP, (double)footprint.getTotalBytes());
+			for(FootprintReport.Usage u : footprint.getCategories())
+				result.put("footprint." + u.getName().replace(' ', '-') + HEAP, (double)u.getBytes());
+			return result;
+		} finally {
+			index.close();
+		}
+	}
+
+	/**
+	 * Compares measurements with a baseline.
+	 *
+	 * @param baseline
+	 *            the baseline values, by metric name; may not be
+	 *            <code>null</code>
+	 * @param current
+	 *            the measured values, by metric name; may not be
+	 *            <code>null</code>
+	 * @return the comparison
+	 * @throws NullPointerException
+	 *             if either map is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public RegressionReport compare(Map<String, Double> baseline, Map<String, Double> current){
+		NotNull.check("baseline", baseline);
+		NotNull.check("current", current);
+		Set<String> names = new LinkedHashSet<String>(current.keySet());
+		names.addAll(baseline.keySet());
+		List<RegressionReport.Entry> entries = new ArrayList<RegressionReport.Entry>(names.size());
+		for(String name : names){
+			Double base = baseline.get(name);
+			Double cur = current.get(name);
+			Status status;
+			if(base == null){
+				status = Status.NEW;
+			} else if(cur == null){
+				status = Status.MISSING;
+			} else {
+				status = compare(name, base.doubleValue(), cur.doubleValue());
+			}
+			entries.add(new RegressionReport.Entry(name,
+					(base == null) ? Double.NaN : base.doubleValue(),
+					(cur == null) ? Double.NaN : cur.doubleValue(),
+					status));
+		}
+		return new RegressionReport(entries);
+	}
+
+	/**
+	 * Compares a single measurement with its baseline.
+	 *
+	 * @param name
+	 *            the name of the metric
+	 * @param base
+	 *            the baseline value
+	 * @param cur
+	 *            the measured value
+	 * @return the outcome of the comparison; one of
+	 *         {@link Status#REGRESSED}, {@link Status#OK}, or
+	 *         {@link Status#IMPROVED}
+	 * @since JVerbnet 1.3.0
+	 */
+	protected Status compare(String name, double base, double cur){
+		if(name.endsWith(THROUGHPUT)){
+			if(cur < base * (1 - throughputTolerance))
+				return Status.REGRESSED;
+			if(cur > base * (1 + throughputTolerance))
+				return Status.IMPROVED;
+			return Status.OK;
+		}
+		double tolerance = heapTolerance;
+		double slack = 0;
+		if(name.endsWith(ALLOCATION)){
+			tolerance = allocationTolerance;
+			slack = ALLOCATION_SLACK;
+		}
+		if(cur > base * (1 + tolerance) + slack)
+			return Status.REGRESSED;
+		if(cur < base * (1 - tolerance) - slack)
+			return Status.IMPROVED;
+		return Status.OK;
+	}
+
+	/**
+	 * Reads a baseline from the specified stream, which is closed
+	 * afterwards.
+	 *
+	 * @param in
+	 *            the stream; may not be <code>null</code>
+	 * @return the baseline values, by metric name
+	 * @throws NullPointerException
+	 *             if the stream is <code>null</code>
+	 * @throws IOException
+	 *             if the baseline cannot be read
+	 * @throws NumberFormatException
+	 *             if a value is not a number
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Map<String, Double> readBaseline(InputStream in) throws IOException {
+		NotNull.check("in", in);
+		Properties props = new Properties();
+		try {
+			props.load(in);
+		} finally {
+			in.close();
+		}
+		Map<String, Double> result = new LinkedHashMap<String, Double>();
+		for(Object name : props.keySet())
+			result.put((String)name, Double.valueOf(props.getProperty((String)name)));
+		return result;
+	}
+
+	/**
+	 * Reads the baseline stored in this package.
+	 *
+	 * @return the baseline values, by metric name
+	 * @throws IOException
+	 *             if the baseline resource is missing or cannot be read
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Map<String, Double> readDefaultBaseline() throws IOException {
+		InputStream in = RegressionGate.class.getResourceAsStream(DEFAULT_BASELINE);
+		if(in == null)
+			throw new IOException("baseline resource not found: " + DEFAULT_BASELINE);
+		return readBaseline(in);
+	}
+
+	/**
+	 * Writes a baseline to the specified stream, one metric per line, in the
+	 * order of the map. The stream is closed afterwards.
+	 *
+	 * @param values
+	 *            the values, by metric name; may not be <code>null</code>
+	 * @param out
+	 *            the stream; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @throws IOException
+	 *             if the baseline cannot be written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void writeBaseline(Map<String, Double> values, OutputStream out) throws IOException {
+		NotNull.check("values", values);
+		NotNull.check("out", out);
+		Writer w = new BufferedWriter(new OutputStreamWriter(out, "ISO-8859-1"));
+		try {
+			w.write("# JVerbnet performance baseline, measured with Java ");
+			w.write(System.getProperty("java.version"));
+			w.write(" on ");
+			w.write(System.getProperty("os.arch"));
+			w.write('\n');
+			for(Map.Entry<String, Double> e : values.entrySet()){
+				w.write(e.getKey());
+				w.write('=');
+				w.write(String.format(Locale.US, "%.1f", e.getValue()));
+				w.write('\n');
+			}
+		} finally {
+			w.close();
+		}
+	}
+
+	/**
+	 * Checks that a tolerance is not negative.
+	 *
+	 * @param tolerance
+	 *            the tolerance
+	 * @return the tolerance
+	 * @throws IllegalArgumentException
+	 *             if the tolerance is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static double checkTolerance(double tolerance){
+		if(tolerance < 0 || Double.isNaN(tolerance))
+			throw new IllegalArgumentException("tolerance may not be negative");
+		return tolerance;
+	}
+
+	/**
+	 * Runs the gate from the command line, and exits with status 1 if any
+	 * metric regressed. The arguments are options of the form
+	 * <code>-name value</code>:
+	 * <ul>
+	 * <li><code>-corpus</code>, the corpus directory; by default, a corpus
+	 * is generated with the default settings of {@link CorpusGenerator};</li>
+	 * <li><code>-baseline</code>, the baseline file; by default, the baseline
+	 * in this package;</li>
+	 * <li><code>-record</code>, a file to which the measurements are written
+	 * as a new baseline, instead of being compared; and</li>
+	 * <li><code>-ops</code>, <code>-alloc</code>, and <code>-heap</code>, the
+	 * tolerances for each kind of metric.</li>
+	 * </ul>
+	 * Warmup iterations, measurement iterations, and iteration length may be
+	 * set with the system properties <code>bench.warmup</code>,
+	 * <code>bench.iterations</code>, and <code>bench.millis</code>.
+	 *
+	 * @param args
+	 *            the options
+	 * @throws Exception
+	 *             if a scenario fails, or the baseline cannot be read or
+	 *             written
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws Exception {
+		if(args.length % 2 != 0){
+			System.err.println("usage: RegressionGate [-corpus dir] [-baseline file] [-record file] [-ops tolerance] [-alloc tolerance] [-heap tolerance]");
+			System.exit(1);
+		}
+		RegressionGate gate = new RegressionGate();
+		BenchmarkRunner runner = gate.getRunner();
+		runner.setWarmupIterations(Integer.getInteger("bench.warmup", BenchmarkRunner.DEFAULT_WARMUP_ITERATIONS));
+		runner.setMeasurementIterations(Integer.getInteger("bench.iterations", BenchmarkRunner.DEFAULT_MEASUREMENT_ITERATIONS));
+		runner.setIterationMillis(Long.getLong("bench.millis", BenchmarkRunner.DEFAULT_ITERATION_MILLIS));
+		File corpus = null, baseline = null, record = null;
+		for(int i = 0; i < args.length; i += 2){
+			String opt = args[i];
+			String value = args[i+1];
+			if(opt.equals("-corpus")){
+				corpus = new File(value);
+			} else if(opt.equals("-baseline")){
+				baseline = new File(value);
+			} else if(opt.equals("-record")){
+				record = new File(value);
+			} else if(opt.equals("-ops")){
+				gate.setThroughputTolerance(Double.parseDouble(value));
+			} else if(opt.equals("-alloc")){
+				gate.setAllocationTolerance(Double.parseDouble(value));
+			} else if(opt.equals("-heap")){
+				gate.setHeapTolerance(Double.parseDouble(value));
+			} else {
+				throw new IllegalArgumentException("unknown option: " + opt);
+			}
+		}
+		if(corpus == null)
+			corpus = CorpusGenerator.generateTemporaryCorpus();
+
+		Map<String, Double> current = gate.measure(corpus);
+		if(record != null){
+			writeBaseline(current, new FileOutputStream(record));
+			System.out.println("Wrote " + current.size() + " metrics to " + record);
+			return;
+		}
+		Map<String, Double> values = (baseline == null) ?
+				readDefaultBaseline() :
+					readBaseline(new FileInputStream(baseline));
+		RegressionReport report = gate.compare(values, current);
+		System.out.print(report);
+		if(report.hasRegressions())
+			System.exit(1);
+	}
+
+}
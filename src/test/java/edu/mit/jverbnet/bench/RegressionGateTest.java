@@ -0,0 +1,112 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.mit.jverbnet.bench.RegressionReport.Status;
+
+/**
+ * Tests the {@link RegressionGate}, and checks the heap metrics of the
+ * default corpus against the stored baseline, so that a change that grows
+ * the footprint of an index fails the build. The throughput and allocation
+ * metrics depend on the machine and are left to <code>sbt
+ * regressionGate</code>.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class RegressionGateTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void footprintWithinBaseline() throws IOException {
+		Map<String, Double> baseline = new LinkedHashMap<String, Double>();
+		for(Map.Entry<String, Double> e : RegressionGate.readDefaultBaseline().entrySet())
+			if(e.getKey().endsWith(RegressionGate.HEAP))
+				baseline.put(e.getKey(), e.getValue());
+		assertFalse("baseline has no heap metrics", baseline.isEmpty());
+
+		File dir = tmp.newFolder();
+		new CorpusGenerator().generate(dir);
+		RegressionGate gate = new RegressionGate();
+		RegressionReport report = gate.compare(baseline, gate.measureFootprint(dir));
+		assertFalse(report.toString(), report.hasRegressions());
+		assertTrue(report.toString(), report.getEntries(Status.MISSING).isEmpty());
+		assertTrue(report.toString(), report.getEntries(Status.NEW).isEmpty());
+	}
+
+	@Test
+	public void compareAppliesTolerances() {
+		RegressionGate gate = new RegressionGate();
+		Map<String, Double> baseline = new LinkedHashMap<String, Double>();
+		Map<String, Double> current = new LinkedHashMap<String, Double>();
+		put(baseline, current, "a" + RegressionGate.THROUGHPUT, 100, 60);
+		put(baseline, current, "b" + RegressionGate.THROUGHPUT, 100, 80);
+		put(baseline, current, "c" + RegressionGate.ALLOCATION, 0, RegressionGate.ALLOCATION_SLACK);
+		put(baseline, current, "d" + RegressionGate.ALLOCATION, 1000, 1200);
+		put(baseline, current, "e" + RegressionGate.HEAP, 1000, 1030);
+		put(baseline, current, "f" + RegressionGate.HEAP, 1000, 900);
+		baseline.put("g" + RegressionGate.HEAP, 1.0);
+		current.put("h" + RegressionGate.HEAP, 1.0);
+
+		Map<String, Status> expected = new LinkedHashMap<String, Status>();
+		expected.put("a" + RegressionGate.THROUGHPUT, Status.REGRESSED);
+		expected.put("b" + RegressionGate.THROUGHPUT, Status.OK);
+		expected.put("c" + RegressionGate.ALLOCATION, Status.OK);
+		expected.put("d" + RegressionGate.ALLOCATION, Status.REGRESSED);
+		expected.put("e" + RegressionGate.HEAP, Status.REGRESSED);
+		expected.put("f" + RegressionGate.HEAP, Status.IMPROVED);
+		expected.put("g" + RegressionGate.HEAP, Status.MISSING);
+		expected.put("h" + RegressionGate.HEAP, Status.NEW);
+
+		RegressionReport report = gate.compare(baseline, current);
+		assertTrue(report.hasRegressions());
+		Map<String, Status> actual = new LinkedHashMap<String, Status>();
+		for(RegressionReport.Entry e : report.getEntries())
+			actual.put(e.getName(), e.getStatus());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void baselineRoundTrips() throws IOException {
+		Map<String, Double> values = new LinkedHashMap<String, Double>();
+		values.put("open.directory" + RegressionGate.THROUGHPUT, 6.8);
+		values.put("open.directory" + RegressionGate.ALLOCATION, 18119968.0);
+		values.put("footprint.total" + RegressionGate.HEAP, 1319984.0);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		RegressionGate.writeBaseline(values, out);
+		Map<String, Double> read = RegressionGate.readBaseline(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(values, read);
+	}
+
+	protected static void put(Map<String, Double> baseline, Map<String, Double> current, String name, double base, double cur){
+		baseline.put(name, base);
+		current.put(name, cur);
+	}
+
+}
@@ -0,0 +1,268 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.List;
+
+/**
+ * The comparison of a set of performance measurements with a baseline, as
+ * produced by a {@link RegressionGate}. The {@link #toString()} method renders
+ * the comparison as a table, with the regressions listed first.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class RegressionReport {
+
+	/**
+	 * The outcome of comparing one metric with its baseline.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public enum Status {
+
+		/**
+		 * The metric is worse than its baseline by more than the tolerance.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		REGRESSED,
+
+		/**
+		 * The metric is in the baseline but was not measured.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		MISSING,
+
+		/**
+		 * The metric is within the tolerance of its baseline.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		OK,
+
+		/**
+		 * The metric is better than its baseline by more than the tolerance.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		IMPROVED,
+
+		/**
+		 * The metric was measured but is not in the baseline.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		NEW;
+
+	}
+
+	// unchanging fields
+	private final List<Entry> entries;
+
+	/**
+	 * Creates a new report.
+	 *
+	 * @param entries
+	 *            the comparison of each metric; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the entries are <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public RegressionReport(List<Entry> entries){
+		this.entries = Collections.unmodifiableList(new ArrayList<Entry>(NotNull.check("entries", entries)));
+	}
+
+	/**
+	 * Returns the comparison of each metric, in the order they were
+	 * measured.
+	 *
+	 * @return an unmodifiable list of the entries of this report
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Entry> getEntries(){
+		return entries;
+	}
+
+	/**
+	 * Returns the entries with the specified status.
+	 *
+	 * @param status
+	 *            the status; may not be <code>null</code>
+	 * @return the entries with the status
+	 * @throws NullPointerException
+	 *             if the status is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Entry> getEntries(Status status){
+		NotNull.check("status", status);
+		List<Entry> result = new ArrayList<Entry>();
+		for(Entry e : entries)
+			if(e.getStatus() == status)
+				result.add(e);
+		return result;
+	}
+
+	/**
+	 * Returns <code>true</code> if any metric regressed or was missing;
+	 * <code>false</code> otherwise.
+	 *
+	 * @return <code>true</code> if the measurements fail the gate;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean hasRegressions(){
+		for(Entry e : entries)
+			if(e.getStatus() == Status.REGRESSED || e.getStatus() == Status.MISSING)
+				return true;
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		Formatter f = new Formatter();
+		f.format("%-40s %18s %18s %9s  %s%n", "metric", "baseline", "current", "change", "status");
+		for(Status status : Status.values())
+			for(Entry e : getEntries(status))
+				f.format("%s%n", e);
+		int regressed = getEntries(Status.REGRESSED).size();
+		int missing = getEntries(Status.MISSING).size();
+		f.format("%n%d metrics, %d regressed, %d missing, %d improved, %d new%n", entries.size(), regressed, missing, getEntries(Status.IMPROVED).size(), getEntries(Status.NEW).size());
+		f.format(hasRegressions() ? "FAILED%n" : "PASSED%n");
+		return f.toString();
+	}
+
+	/**
+	 * The comparison of a single metric with its baseline.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public static class Entry {
+
+		// unchanging fields
+		private final String name;
+		private final double baseline;
+		private final double current;
+		private final Status status;
+
+		/**
+		 * Creates a new entry.
+		 *
+		 * @param name
+		 *            the name of the metric; may not be <code>null</code>,
+		 *            empty, or all whitespace
+		 * @param baseline
+		 *            the baseline value, or {@link Double#NaN} if there is none
+		 * @param current
+		 *            the measured value, or {@link Double#NaN} if it was not
+		 *            measured
+		 * @param status
+		 *            the outcome of the comparison; may not be
+		 *            <code>null</code>
+		 * @throws NullPointerException
+		 *             if the name or status is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the name is empty or all whitespace
+		 * @since JVerbnet 1.3.0
+		 */
+		public Entry(String name, double baseline, double current, Status status){
+			this.name = NotNullEmptyOrBlank.check("name", name);
+			this.baseline = baseline;
+			this.current = current;
+			this.status = NotNull.check("status", status);
+		}
+
+		/**
+		 * Returns the name of the metric.
+		 *
+		 * @return the name of the metric
+		 * @since JVerbnet 1.3.0
+		 */
+		public String getName(){
+			return name;
+		}
+
+		/**
+		 * Returns the baseline value, or {@link Double#NaN} if there is none.
+		 *
+		 * @return the baseline value
+		 * @since JVerbnet 1.3.0
+		 */
+		public double getBaseline(){
+			return baseline;
+		}
+
+		/**
+		 * Returns the measured value, or {@link Double#NaN} if it was not
+		 * measured.
+		 *
+		 * @return the measured value
+		 * @since JVerbnet 1.3.0
+		 */
+		public double getCurrent(){
+			return current;
+		}
+
+		/**
+		 * Returns the relative change from the baseline to the measured
+		 * value, or {@link Double#NaN} if either is missing or the baseline
+		 * is zero.
+		 *
+		 * @return the relative change
+		 * @since JVerbnet 1.3.0
+		 */
+		public double getChange(){
+			return (baseline == 0) ? Double.NaN : (current - baseline) / baseline;
+		}
+
+		/**
+		 * Returns the outcome of the comparison.
+		 *
+		 * @return the outcome of the comparison
+		 * @since JVerbnet 1.3.0
+		 */
+		public Status getStatus(){
+			return status;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			Formatter f = new Formatter();
+			double change = getChange();
+			f.format("%-40s %18.1f %18.1f %9s  %s", name, baseline, current, Double.isNaN(change) ? "" : String.format("%+.1f%%", 100 * change), status);
+			return f.toString();
+		}
+
+	}
+
+}
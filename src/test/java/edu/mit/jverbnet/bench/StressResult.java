@@ -0,0 +1,284 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.List;
+
+/**
+ * The outcome of a run of a {@link StressScenario}: how many operations were
+ * performed, how many failed and in what way, and how the throughput of each
+ * thread of the stressed run compares to the throughput of a single thread.
+ * Scenarios in which one thread does different work from the others, such
+ * as closing the index, do a different mix of operations with one thread
+ * than with many, so their scaling is only a rough guide.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class StressResult {
+
+	/**
+	 * The overall outcome of a run.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public enum Status {
+
+		/**
+		 * An operation threw an unexpected exception or observed torn state,
+		 * or a thread did not stop.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		FAILED,
+
+		/**
+		 * No operation failed, but the throughput of all the threads
+		 * together fell below the allowed fraction of the throughput of a
+		 * single thread.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		COLLAPSED,
+
+		/**
+		 * No operation failed, and the throughput held up.
+		 *
+		 * @since JVerbnet 1.3.0
+		 */
+		OK;
+
+	}
+
+	// unchanging fields
+	private final String name;
+	private final int threads;
+	private final double baselineThroughput;
+	private final double throughput;
+	private final long operations;
+	private final long expected;
+	private final long exceptions;
+	private final long tornStates;
+	private final int hungThreads;
+	private final List<Throwable> failures;
+	private final Status status;
+
+	/**
+	 * Creates a new stress result.
+	 *
+	 * @param name
+	 *            the name of the scenario; may not be <code>null</code>,
+	 *            empty, or all whitespace
+	 * @param threads
+	 *            the number of threads of the stressed run; must be positive
+	 * @param baselineThroughput
+	 *            the throughput of a single thread, in operations per second
+	 * @param throughput
+	 *            the throughput of all the threads of the stressed run
+	 *            together, in operations per second
+	 * @param operations
+	 *            the number of operations performed in all runs
+	 * @param expected
+	 *            the number of operations that threw an expected exception
+	 * @param exceptions
+	 *            the number of operations that threw an unexpected exception
+	 * @param tornStates
+	 *            the number of operations that observed torn state
+	 * @param hungThreads
+	 *            the number of threads that did not stop when told to
+	 * @param failures
+	 *            a sample of the exceptions behind the failures; may not be
+	 *            <code>null</code>
+	 * @param status
+	 *            the overall outcome of the run; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the name, failures, or status is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the name is empty or all whitespace, or the thread count
+	 *             is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public StressResult(String name, int threads, double baselineThroughput, double throughput, long operations, long expected, long exceptions, long tornStates, int hungThreads, List<Throwable> failures, Status status){
+		if(threads < 1)
+			throw new IllegalArgumentException("thread count must be positive");
+		this.name = NotNullEmptyOrBlank.check("name", name);
+		this.threads = threads;
+		this.baselineThroughput = baselineThroughput;
+		this.throughput = throughput;
+		this.operations = operations;
+		this.expected = expected;
+		this.exceptions = exceptions;
+		this.tornStates = tornStates;
+		this.hungThreads = hungThreads;
+		this.failures = Collections.unmodifiableList(new ArrayList<Throwable>(NotNull.check("failures", failures)));
+		this.status = NotNull.check("status", status);
+	}
+
+	/**
+	 * Returns the name of the scenario.
+	 *
+	 * @return the name of the scenario
+	 * @since JVerbnet 1.3.0
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * Returns the number of threads of the stressed run.
+	 *
+	 * @return the number of threads
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getThreadCount(){
+		return threads;
+	}
+
+	/**
+	 * Returns the throughput of a single thread, in operations per second.
+	 *
+	 * @return the single-threaded throughput
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getBaselineThroughput(){
+		return baselineThroughput;
+	}
+
+	/**
+	 * Returns the throughput of all the threads of the stressed run
+	 * together, in operations per second.
+	 *
+	 * @return the stressed throughput
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getThroughput(){
+		return throughput;
+	}
+
+	/**
+	 * Returns the throughput of each thread of the stressed run, on average,
+	 * in operations per second.
+	 *
+	 * @return the stressed throughput per thread
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getThroughputPerThread(){
+		return throughput / threads;
+	}
+
+	/**
+	 * Returns the ratio of the stressed throughput per thread to the
+	 * single-threaded throughput, or {@link Double#NaN} if the
+	 * single-threaded throughput is zero. A scaling of 1 means that each
+	 * thread ran as fast as a thread on its own; with more threads than
+	 * processors, the scaling is at most the number of processors divided by
+	 * the number of threads.
+	 *
+	 * @return the scaling of the throughput per thread
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getScaling(){
+		return (baselineThroughput == 0) ? Double.NaN : getThroughputPerThread() / baselineThroughput;
+	}
+
+	/**
+	 * Returns the number of operations performed in all runs.
+	 *
+	 * @return the number of operations
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getOperations(){
+		return operations;
+	}
+
+	/**
+	 * Returns the number of operations that threw an expected exception.
+	 *
+	 * @return the number of expected exceptions
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getExpected(){
+		return expected;
+	}
+
+	/**
+	 * Returns the number of operations that threw an unexpected exception.
+	 *
+	 * @return the number of unexpected exceptions
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getExceptions(){
+		return exceptions;
+	}
+
+	/**
+	 * Returns the number of operations that observed torn state.
+	 *
+	 * @return the number of torn states observed
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getTornStates(){
+		return tornStates;
+	}
+
+	/**
+	 * Returns the number of threads that did not stop when told to, and so
+	 * are presumed to be deadlocked or looping.
+	 *
+	 * @return the number of hung threads
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getHungThreads(){
+		return hungThreads;
+	}
+
+	/**
+	 * Returns a sample of the exceptions behind the failures of the run.
+	 *
+	 * @return an unmodifiable list of failures
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<Throwable> getFailures(){
+		return failures;
+	}
+
+	/**
+	 * Returns the overall outcome of the run.
+	 *
+	 * @return the outcome of the run
+	 * @since JVerbnet 1.3.0
+	 */
+	public Status getStatus(){
+		return status;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		Formatter f = new Formatter();
+		f.format("%-24s %3d %14.1f %16.1f %6.2fx %,12d %,10d %,8d %,8d %4d  %s", name, threads, baselineThroughput, getThroughputPerThread(), getScaling(), operations, expected, exceptions, tornStates, hungThreads, status);
+		return f.toString();
+	}
+
+}
@@ -0,0 +1,408 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import edu.mit.jverbnet.bench.StressResult.Status;
+
+/**
+ * Runs {@link StressScenario}s from many threads at once. Each scenario is
+ * run three times: on a single thread, to warm it up, again on a single
+ * thread, to measure its baseline throughput, and then on the configured
+ * number of threads. An operation that throws
+ * an exception the scenario does not expect, or that observes torn state,
+ * fails the scenario, as does a thread that does not stop within
+ * {@value #STOP_TIMEOUT_MILLIS} milliseconds of being told to, since it is
+ * presumably deadlocked or looping. A scenario whose stressed throughput is
+ * less than the configured fraction of its single-threaded throughput has
+ * collapsed.
+ * <p>
+ * By default, the stressed run uses twice as many threads as there are
+ * processors, and at least four, so that the threads contend even on small
+ * machines.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class StressRunner {
+
+	/**
+	 * The default number of milliseconds of each run
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final long DEFAULT_RUN_MILLIS = 2000;
+
+	/**
+	 * The default fraction of the single-threaded throughput below which the
+	 * stressed throughput has collapsed
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final double DEFAULT_COLLAPSE_RATIO = 0.5;
+
+	/**
+	 * The number of milliseconds a thread has to stop before it is considered
+	 * hung
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final long STOP_TIMEOUT_MILLIS = 10000;
+
+	/**
+	 * The number of failures kept as samples by each thread
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public static final int MAX_FAILURE_SAMPLES = 3;
+
+	// configuration
+	private int threads = defaultThreadCount(Runtime.getRuntime().availableProcessors());
+	private long runMillis = DEFAULT_RUN_MILLIS;
+	private double collapseRatio = DEFAULT_COLLAPSE_RATIO;
+	private PrintStream log = null;
+
+	/**
+	 * Sets the number of threads of the stressed run.
+	 *
+	 * @param count
+	 *            the number of threads; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setThreadCount(int count){
+		if(count < 1)
+			throw new IllegalArgumentException("thread count must be positive");
+		threads = count;
+	}
+
+	/**
+	 * Returns the number of threads of the stressed run.
+	 *
+	 * @return the number of threads
+	 * @since JVerbnet 1.3.0
+	 */
+	public int getThreadCount(){
+		return threads;
+	}
+
+	/**
+	 * Sets the length of each run.
+	 *
+	 * @param millis
+	 *            the length of each run, in milliseconds; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the length is not positive
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setRunMillis(long millis){
+		if(millis < 1)
+			throw new IllegalArgumentException("run length must be positive");
+		runMillis = millis;
+	}
+
+	/**
+	 * Returns the length of each run, in milliseconds.
+	 *
+	 * @return the length of each run
+	 * @since JVerbnet 1.3.0
+	 */
+	public long getRunMillis(){
+		return runMillis;
+	}
+
+	/**
+	 * Sets the fraction of the single-threaded throughput below which the
+	 * stressed throughput has collapsed.
+	 *
+	 * @param ratio
+	 *            the fraction; may not be negative
+	 * @throws IllegalArgumentException
+	 *             if the fraction is negative
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setCollapseRatio(double ratio){
+		if(ratio < 0)
+			throw new IllegalArgumentException("collapse ratio may not be negative");
+		collapseRatio = ratio;
+	}
+
+	/**
+	 * Returns the fraction of the single-threaded throughput below which the
+	 * stressed throughput has collapsed.
+	 *
+	 * @return the collapse ratio
+	 * @since JVerbnet 1.3.0
+	 */
+	public double getCollapseRatio(){
+		return collapseRatio;
+	}
+
+	/**
+	 * Sets the stream to which each result is printed as soon as it is
+	 * available.
+	 *
+	 * @param log
+	 *            the stream; may be <code>null</code> for no logging
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setLog(PrintStream log){
+		this.log = log;
+	}
+
+	/**
+	 * Runs all of the specified scenarios in turn.
+	 *
+	 * @param scenarios
+	 *            the scenarios to run; may not be <code>null</code>
+	 * @return the results, in the order the scenarios were run
+	 * @throws NullPointerException
+	 *             if the list is <code>null</code>
+	 * @throws Exception
+	 *             if a scenario cannot be set up
+	 * @since JVerbnet 1.3.0
+	 */
+	public List<StressResult> runAll(List<? extends StressScenario> scenarios) throws Exception {
+		NotNull.check("scenarios", scenarios);
+		List<StressResult> results = new ArrayList<StressResult>();
+		for(StressScenario s : scenarios)
+			results.add(run(s));
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * Runs the specified scenario on a single thread, to warm it up, again on
+	 * a single thread, and then on the configured number of threads. The
+	 * counts of the warm-up run are kept, but not its throughput.
+	 *
+	 * @param scenario
+	 *            the scenario to run; may not be <code>null</code>
+	 * @return the result of the scenario
+	 * @throws NullPointerException
+	 *             if the scenario is <code>null</code>
+	 * @throws Exception
+	 *             if the scenario cannot be set up
+	 * @since JVerbnet 1.3.0
+	 */
+	public StressResult run(StressScenario scenario) throws Exception {
+		NotNull.check("scenario", scenario);
+		Tally single = new Tally();
+		Tally stressed = new Tally();
+		scenario.setUp();
+		try {
+			runThreads(scenario, 1, single);
+			single.throughput = 0;
+			if(single.hungThreads == 0)
+				runThreads(scenario, 1, single);
+			if(single.hungThreads == 0)
+				runThreads(scenario, threads, stressed);
+		} finally {
+			scenario.tearDown();
+		}
+		List<Throwable> failures = new ArrayList<Throwable>(single.failures);
+		failures.addAll(stressed.failures);
+		long exceptions = single.exceptions + stressed.exceptions;
+		long torn = single.tornStates + stressed.tornStates;
+		int hung = single.hungThreads + stressed.hungThreads;
+		Status status;
+		if(exceptions > 0 || torn > 0 || hung > 0){
+			status = Status.FAILED;
+		} else if(stressed.throughput < collapseRatio * single.throughput){
+			status = Status.COLLAPSED;
+		} else {
+			status = Status.OK;
+		}
+		StressResult result = new StressResult(scenario.getName(), threads,
+				single.throughput, stressed.throughput,
+				single.operations + stressed.operations,
+				single.expected + stressed.expected,
+				exceptions, torn, hung, failures, status);
+		if(log != null)
+			log.println(result);
+		return result;
+	}
+
+	/**
+	 * Runs the scenario on the specified number of threads for the configured
+	 * length of time, and adds the counts of the threads to the tally.
+	 *
+	 * @param scenario
+	 *            the scenario to run
+	 * @param count
+	 *            the number of threads
+	 * @param tally
+	 *            the tally to which the counts are added
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted
+	 * @since JVerbnet 1.3.0
+	 */
+	protected void runThreads(StressScenario scenario, int count, Tally tally) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		Worker[] workers = new Worker[count];
+		for(int i = 0; i < count; i++){
+			workers[i] = new Worker(scenario, i, start);
+			workers[i].start();
+		}
+		start.countDown();
+		Thread.sleep(runMillis);
+		for(Worker w : workers)
+			w.stopped = true;
+		long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+		for(Worker w : workers){
+			w.join(Math.max(1, deadline - System.currentTimeMillis()));
+			if(w.isAlive()){
+				// the counts of a running thread cannot be read safely
+				tally.hungThreads++;
+				continue;
+			}
+			tally.operations += w.operations;
+			tally.expected += w.expected;
+			tally.exceptions += w.exceptions;
+			tally.tornStates += w.tornStates;
+			tally.failures.addAll(w.failures);
+			if(w.elapsedNanos > 0)
+				tally.throughput += w.operations * 1e9 / w.elapsedNanos;
+		}
+	}
+
+	/**
+	 * Returns the default number of threads for the specified number of
+	 * processors: twice the number of processors, and at least four.
+	 *
+	 * @param processors
+	 *            the number of available processors
+	 * @return the default number of threads
+	 * @since JVerbnet 1.3.0
+	 */
+	public static int defaultThreadCount(int processors){
+		return Math.max(4, 2 * processors);
+	}
+
+	/**
+	 * The counts accumulated over the threads of a run.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class Tally {
+
+		// changeable fields
+		protected long operations = 0;
+		protected long expected = 0;
+		protected long exceptions = 0;
+		protected long tornStates = 0;
+		protected int hungThreads = 0;
+		protected double throughput = 0;
+		protected final List<Throwable> failures = new ArrayList<Throwable>();
+	}
+
+	/**
+	 * A thread that calls a scenario until told to stop, counting the
+	 * outcomes of its operations.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class Worker extends Thread {
+
+		// unchanging fields
+		private final StressScenario scenario;
+		private final int index;
+		private final CountDownLatch start;
+
+		// changeable fields
+		protected volatile boolean stopped = false;
+		protected long operations = 0;
+		protected long expected = 0;
+		protected long exceptions = 0;
+		protected long tornStates = 0;
+		protected long elapsedNanos = 0;
+		protected final List<Throwable> failures = new ArrayList<Throwable>();
+
+		/**
+		 * Creates a new worker.
+		 *
+		 * @param scenario
+		 *            the scenario to call
+		 * @param index
+		 *            the index of this worker among the workers of the run
+		 * @param start
+		 *            the latch that signals the start of the run
+		 * @since JVerbnet 1.3.0
+		 */
+		public Worker(StressScenario scenario, int index, CountDownLatch start){
+			super(scenario.getName() + "-" + index);
+			this.scenario = scenario;
+			this.index = index;
+			this.start = start;
+			setDaemon(true);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Thread#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				start.await();
+			} catch(InterruptedException e){
+				return;
+			}
+			long begin = System.nanoTime();
+			int i = 0;
+			while(!stopped){
+				try {
+					scenario.invoke(index, i);
+				} catch(TornStateException e){
+					tornStates++;
+					sample(e);
+				} catch(Throwable t){
+					if(scenario.isExpected(t)){
+						expected++;
+					} else {
+						exceptions++;
+						sample(t);
+					}
+				}
+				i++;
+				operations++;
+			}
+			elapsedNanos = System.nanoTime() - begin;
+		}
+
+		/**
+		 * Keeps the specified failure as a sample, if there is room.
+		 *
+		 * @param t
+		 *            the failure
+		 * @since JVerbnet 1.3.0
+		 */
+		protected void sample(Throwable t){
+			if(failures.size() < MAX_FAILURE_SAMPLES)
+				failures.add(t);
+		}
+
+	}
+
+}
@@ -0,0 +1,144 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNullEmptyOrBlank;
+
+/**
+ * A unit of work that is run by many threads at once by a
+ * {@link StressRunner}. Unlike a {@link Benchmark}, each invocation checks
+ * what it observes, and throws a {@link TornStateException} if the state is
+ * inconsistent. Any other exception is counted as a failure, unless the
+ * scenario declares it to be expected, as a lookup on an index that another
+ * thread has just closed may be.
+ * <p>
+ * The {@link #setUp()} and {@link #tearDown()} methods are called once per
+ * run of the scenario, outside of the stressed threads. The
+ * {@link #invoke(int, int)} method is called concurrently by all the threads
+ * of the run.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public abstract class StressScenario {
+
+	// unchanging fields
+	private final String name;
+
+	/**
+	 * Creates a new scenario with the specified name.
+	 *
+	 * @param name
+	 *            the name of the scenario; may not be <code>null</code>,
+	 *            empty, or all whitespace
+	 * @throws NullPointerException
+	 *             if the name is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the name is empty or all whitespace
+	 * @since JVerbnet 1.3.0
+	 */
+	public StressScenario(String name){
+		this.name = NotNullEmptyOrBlank.check("name", name);
+	}
+
+	/**
+	 * Returns the name of this scenario.
+	 *
+	 * @return the name of this scenario
+	 * @since JVerbnet 1.3.0
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * Prepares the state shared by the threads of a run. By default, does
+	 * nothing.
+	 *
+	 * @throws Exception
+	 *             if the scenario cannot be set up
+	 * @since JVerbnet 1.3.0
+	 */
+	public void setUp() throws Exception {
+		// do nothing
+	}
+
+	/**
+	 * Performs one operation of the scenario, and checks its outcome.
+	 *
+	 * @param thread
+	 *            the index of the calling thread among the threads of the
+	 *            run, starting at zero
+	 * @param i
+	 *            the number of operations the calling thread has performed
+	 *            so far in the run
+	 * @throws TornStateException
+	 *             if the operation observes inconsistent state
+	 * @throws Exception
+	 *             if the operation fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public abstract void invoke(int thread, int i) throws Exception;
+
+	/**
+	 * Returns <code>true</code> if the specified exception is a legitimate
+	 * outcome of an operation of this scenario, and should not be counted as
+	 * a failure. By default, returns <code>false</code>.
+	 *
+	 * @param t
+	 *            the exception thrown by an operation
+	 * @return <code>true</code> if the exception is expected;
+	 *         <code>false</code> otherwise
+	 * @since JVerbnet 1.3.0
+	 */
+	public boolean isExpected(Throwable t){
+		return false;
+	}
+
+	/**
+	 * Releases the state shared by the threads of a run. By default, does
+	 * nothing.
+	 *
+	 * @since JVerbnet 1.3.0
+	 */
+	public void tearDown() {
+		// do nothing
+	}
+
+	/**
+	 * Throws a {@link TornStateException} with the specified message if the
+	 * condition does not hold.
+	 *
+	 * @param condition
+	 *            the condition that must hold
+	 * @param message
+	 *            a description of the state if it does not hold
+	 * @throws TornStateException
+	 *             if the condition does not hold
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static void check(boolean condition, String message){
+		if(!condition)
+			throw new TornStateException(message);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
@@ -0,0 +1,39 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+/**
+ * Thrown by a {@link StressScenario} when it observes state that could not
+ * have been produced by any serial ordering of the operations of its threads,
+ * such as a lookup returning the wrong object, or a registry returning two
+ * different objects for the same id.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class TornStateException extends IllegalStateException {
+
+	// serial version id
+	private static final long serialVersionUID = -4719832650132147793L;
+
+	/**
+	 * Creates a new exception with the specified message.
+	 *
+	 * @param message
+	 *            a description of the state that was observed
+	 * @since JVerbnet 1.3.0
+	 */
+	public TornStateException(String message){
+		super(message);
+	}
+
+}
@@ -0,0 +1,797 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import edu.mit.jverbnet.data.IVerbClass;
+import edu.mit.jverbnet.data.IWordnetKey;
+import edu.mit.jverbnet.data.WordnetKey;
+import edu.mit.jverbnet.index.LookupMetrics;
+import edu.mit.jverbnet.index.VerbIndex;
+import edu.mit.jverbnet.parse.ParseContext;
+import edu.mit.jverbnet.parse.ParseContextPool;
+import edu.mit.jverbnet.parse.ParseProfile;
+import edu.mit.jverbnet.parse.VerbClassHandler;
+import edu.mit.jverbnet.util.XMLBundle;
+import edu.mit.jverbnet.util.parse.NullErrorHandler;
+
+/**
+ * The standard benchmarks for loading and querying a {@link VerbIndex}. Each
+ * benchmark is created for a corpus directory holding Verbnet XML files, such
+ * as the Verbnet distribution or a corpus produced by a generator. The
+ * benchmarks that load a single file use the largest file in the directory.
+ * <p>
+ * The {@link #main(String[])} method runs the whole suite and prints the
+ * results. Without a corpus directory, it runs on a corpus produced by
+ * {@link CorpusGenerator}, so that it needs no downloaded data.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class VerbIndexBenchmarks {
+
+	// no instantiation
+	private VerbIndexBenchmarks(){}
+
+	/**
+	 * Returns all the standard benchmarks for the specified corpus directory.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a list of all the standard benchmarks
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the directory contains no XML files
+	 * @since JVerbnet 1.3.0
+	 */
+	public static List<Benchmark> suite(File dir){
+		File file = largestFile(dir);
+		List<Benchmark> result = new ArrayList<Benchmark>();
+		result.add(openDirectory(dir));
+		result.add(openDirectoryMembersOnly(dir));
+		result.add(openBundle(dir, 1));
+		int processors = Runtime.getRuntime().availableProcessors();
+		if(processors > 1)
+			result.add(openBundle(dir, processors));
+		result.add(openFile(file));
+		result.add(openStream(file));
+		result.add(dispatch(file));
+		result.add(parseFragment(file));
+		result.add(parseFragmentPooled(file));
+		result.add(getVerb(dir));
+		result.add(getVerbWithMetrics(dir));
+		result.add(getMembersByKey(dir));
+		result.add(getMembersByGroup(dir));
+		result.add(iterate(dir));
+		result.add(parseKey(dir));
+		return result;
+	}
+
+	/**
+	 * Returns a benchmark that opens and closes an index on the specified
+	 * directory.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for opening an index on a directory
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark openDirectory(final File dir){
+		NotNull.check("dir", dir);
+		return new Benchmark("open.directory") {
+			public Object invoke(int i) throws Exception {
+				return open(new VerbIndex(dir));
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that opens and closes an index on the specified
+	 * directory with the {@link ParseProfile#MEMBERS_ONLY} profile, which
+	 * skips everything but the members and the class hierarchy.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for opening an index with a members-only profile
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark openDirectoryMembersOnly(final File dir){
+		NotNull.check("dir", dir);
+		return new Benchmark("open.directory.membersOnly") {
+			public Object invoke(int i) throws Exception {
+				VerbIndex index = new VerbIndex(dir);
+				index.setParseProfile(ParseProfile.MEMBERS_ONLY);
+				return open(index);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that opens and closes an index on a bundle of the
+	 * XML files of the specified directory, written to a temporary file
+	 * beforehand, parsing the entries with the specified number of threads.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @param threads
+	 *            the number of parse threads
+	 * @return a benchmark for opening an index on a bundle
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the number of threads is less than one
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark openBundle(final File dir, final int threads){
+		NotNull.check("dir", dir);
+		if(threads < 1)
+			throw new IllegalArgumentException("number of parse threads must be at least one");
+		return new Benchmark(threads == 1 ? "open.bundle" : "open.bundle.threads" + threads) {
+			private File bundle;
+			@Override
+			public void setUp() throws Exception {
+				bundle = File.createTempFile("jverbnet-bundle", XMLBundle.EXTENSION);
+				bundle.deleteOnExit();
+				XMLBundle.write(dir, bundle);
+			}
+			public Object invoke(int i) throws Exception {
+				VerbIndex index = new VerbIndex(bundle);
+				index.setParseThreads(threads);
+				return open(index);
+			}
+			@Override
+			public void tearDown() {
+				bundle.delete();
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that opens and closes an index on the specified
+	 * single XML file.
+	 *
+	 * @param file
+	 *            the XML file; may not be <code>null</code>
+	 * @return a benchmark for opening an index on a single file
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark openFile(final File file){
+		NotNull.check("file", file);
+		return new Benchmark("open.file") {
+			public Object invoke(int i) throws Exception {
+				return open(new VerbIndex(file));
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that opens and closes an index on a URL that streams
+	 * the contents of the specified XML file. The file is read into memory
+	 * beforehand, so the benchmark does not include disk access.
+	 *
+	 * @param file
+	 *            the XML file; may not be <code>null</code>
+	 * @return a benchmark for opening an index on a URL stream
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark openStream(final File file){
+		NotNull.check("file", file);
+		return new Benchmark("open.stream") {
+			private URL url;
+			@Override
+			public void setUp() throws Exception {
+				url = toMemoryURL(file.getName(), readFully(new FileInputStream(file)));
+			}
+			public Object invoke(int i) throws Exception {
+				return open(new VerbIndex(url));
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that delivers the recorded SAX events of the
+	 * specified file to a verb class handler tree, and retrieves the resulting
+	 * verb class. This measures handler dispatch and object construction
+	 * without the cost of reading and tokenizing XML.
+	 *
+	 * @param file
+	 *            the XML file; may not be <code>null</code>
+	 * @return a benchmark for handler dispatch
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark dispatch(final File file){
+		NotNull.check("file", file);
+		return new Benchmark("handler.dispatch") {
+			private EventReplayReader reader;
+			private VerbClassHandler handler;
+			@Override
+			public boolean isThreadSafe() {
+				return false;
+			}
+			@Override
+			public void setUp() throws Exception {
+				reader = EventReplayReader.record(new FileInputStream(file));
+				reader.setErrorHandler(NullErrorHandler.getInstance());
+				handler = new VerbClassHandler(reader, true);
+			}
+			public Object invoke(int i) throws Exception {
+				handler.clear();
+				reader.setContentHandler(handler);
+				reader.replay();
+				return handler.getElement();
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that parses the specified file as a verb class
+	 * fragment from memory with a new {@link ParseContext} each time, which
+	 * includes the cost of creating the parser and the handler tree.
+	 *
+	 * @param file
+	 *            the XML file; may not be <code>null</code>
+	 * @return a benchmark for parsing a fragment without reuse
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark parseFragment(final File file){
+		NotNull.check("file", file);
+		return new Benchmark("parse.fragment") {
+			private ByteBuffer buffer;
+			@Override
+			public void setUp() throws Exception {
+				buffer = ByteBuffer.wrap(readFully(new FileInputStream(file)));
+			}
+			public Object invoke(int i) throws Exception {
+				return new ParseContext().parse(buffer);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that parses the specified file as a verb class
+	 * fragment from memory with contexts borrowed from a shared
+	 * {@link ParseContextPool}.
+	 *
+	 * @param file
+	 *            the XML file; may not be <code>null</code>
+	 * @return a benchmark for parsing a fragment with pooled contexts
+	 * @throws NullPointerException
+	 *             if the file is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark parseFragmentPooled(final File file){
+		NotNull.check("file", file);
+		return new Benchmark("parse.fragment.pooled") {
+			private ByteBuffer buffer;
+			private ParseContextPool pool;
+			@Override
+			public void setUp() throws Exception {
+				buffer = ByteBuffer.wrap(readFully(new FileInputStream(file)));
+				pool = new ParseContextPool();
+			}
+			public Object invoke(int i) throws Exception {
+				return pool.parse(buffer);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that looks up verb classes by id, cycling through
+	 * all the classes in the index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#getVerb(String)}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark getVerb(File dir){
+		return new IndexBenchmark("index.getVerb", dir) {
+			private String[] ids;
+			@Override
+			protected void setUp(VerbIndex index) {
+				ids = verbIds(index);
+			}
+			public Object invoke(int i) {
+				return getIndex().getVerb(ids[(i & Integer.MAX_VALUE) % ids.length]);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that looks up root verb classes by id, cycling
+	 * through the ids of all the root classes in the index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#getRootVerb(String)}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark getRootVerb(File dir){
+		return new IndexBenchmark("index.getRootVerb", dir) {
+			private String[] ids;
+			@Override
+			protected void setUp(VerbIndex index) {
+				List<String> list = new ArrayList<String>();
+				for(Iterator<IVerbClass> i = index.iteratorRoots(); i.hasNext(); )
+					list.add(i.next().getID());
+				ids = list.toArray(new String[list.size()]);
+			}
+			public Object invoke(int i) {
+				return getIndex().getRootVerb(ids[(i & Integer.MAX_VALUE) % ids.length]);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that looks up verb classes by id, like
+	 * {@link #getVerb(File)}, but with {@link LookupMetrics} attached to the
+	 * index. Comparing the two shows the cost of recording metrics; the
+	 * {@link #getVerb(File)} benchmark itself shows the cost of the check for
+	 * metrics when none are attached.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#getVerb(String)} with metrics
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark getVerbWithMetrics(File dir){
+		return new IndexBenchmark("index.getVerb.metrics", dir) {
+			private String[] ids;
+			@Override
+			protected void setUp(VerbIndex index) {
+				index.setLookupMetrics(new LookupMetrics());
+				ids = verbIds(index);
+			}
+			public Object invoke(int i) {
+				return getIndex().getVerb(ids[(i & Integer.MAX_VALUE) % ids.length]);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that looks up members by wordnet key, cycling
+	 * through all the keys in the index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#getMembers(IWordnetKey)}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark getMembersByKey(File dir){
+		return new IndexBenchmark("index.getMembers.key", dir) {
+			private IWordnetKey[] keys;
+			@Override
+			protected void setUp(VerbIndex index) {
+				List<IWordnetKey> list = new ArrayList<IWordnetKey>();
+				for(Iterator<IWordnetKey> i = index.iteratorWordnetKeys(); i.hasNext(); )
+					list.add(i.next());
+				keys = list.toArray(new IWordnetKey[list.size()]);
+			}
+			public Object invoke(int i) {
+				return getIndex().getMembers(keys[(i & Integer.MAX_VALUE) % keys.length]);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that looks up members by grouping, cycling through
+	 * all the groupings in the index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#getMembers(String)}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark getMembersByGroup(File dir){
+		return new IndexBenchmark("index.getMembers.group", dir) {
+			private String[] groups;
+			@Override
+			protected void setUp(VerbIndex index) {
+				List<String> list = new ArrayList<String>();
+				for(Iterator<String> i = index.iteratorGroups(); i.hasNext(); )
+					list.add(i.next());
+				groups = list.toArray(new String[list.size()]);
+			}
+			public Object invoke(int i) {
+				return getIndex().getMembers(groups[(i & Integer.MAX_VALUE) % groups.length]);
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that iterates over all the verb classes in the
+	 * index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#iterator()}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark iterate(File dir){
+		return new IndexBenchmark("index.iterator", dir) {
+			public Object invoke(int i) {
+				IVerbClass last = null;
+				for(Iterator<IVerbClass> itr = getIndex().iterator(); itr.hasNext(); )
+					last = itr.next();
+				return last;
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that iterates over all the root verb classes in the
+	 * index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#iteratorRoots()}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark iterateRoots(File dir){
+		return new IndexBenchmark("index.iteratorRoots", dir) {
+			public Object invoke(int i) {
+				IVerbClass last = null;
+				for(Iterator<IVerbClass> itr = getIndex().iteratorRoots(); itr.hasNext(); )
+					last = itr.next();
+				return last;
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that iterates over all the wordnet keys in the
+	 * index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#iteratorWordnetKeys()}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark iterateWordnetKeys(File dir){
+		return new IndexBenchmark("index.iteratorWordnetKeys", dir) {
+			public Object invoke(int i) {
+				IWordnetKey last = null;
+				for(Iterator<IWordnetKey> itr = getIndex().iteratorWordnetKeys(); itr.hasNext(); )
+					last = itr.next();
+				return last;
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that iterates over all the groupings in the index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link VerbIndex#iteratorGroups()}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark iterateGroups(File dir){
+		return new IndexBenchmark("index.iteratorGroups", dir) {
+			public Object invoke(int i) {
+				String last = null;
+				for(Iterator<String> itr = getIndex().iteratorGroups(); itr.hasNext(); )
+					last = itr.next();
+				return last;
+			}
+		};
+	}
+
+	/**
+	 * Returns a benchmark that parses wordnet sense keys, cycling through the
+	 * string forms of all the keys in the index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a benchmark for {@link WordnetKey#parseKey(String)}
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static Benchmark parseKey(File dir){
+		return new IndexBenchmark("wordnetKey.parse", dir) {
+			private String[] keys;
+			@Override
+			protected void setUp(VerbIndex index) {
+				List<String> list = new ArrayList<String>();
+				for(Iterator<IWordnetKey> i = index.iteratorWordnetKeys(); i.hasNext(); )
+					list.add(i.next().toString());
+				keys = list.toArray(new String[list.size()]);
+			}
+			public Object invoke(int i) {
+				return WordnetKey.parseKey(keys[(i & Integer.MAX_VALUE) % keys.length]);
+			}
+		};
+	}
+
+	/**
+	 * Returns the ids of all the verb classes in the specified index.
+	 *
+	 * @param index
+	 *            the open index
+	 * @return the ids of the verb classes in the index
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static String[] verbIds(VerbIndex index){
+		List<String> list = new ArrayList<String>();
+		for(Iterator<IVerbClass> i = index.iterator(); i.hasNext(); )
+			list.add(i.next().getID());
+		return list.toArray(new String[list.size()]);
+	}
+
+	/**
+	 * Opens the specified index, closes it again, and returns it.
+	 *
+	 * @param index
+	 *            the index to open
+	 * @return the closed index
+	 * @throws IOException
+	 *             if the index could not be read
+	 * @throws IllegalStateException
+	 *             if the index could not be opened
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static VerbIndex open(VerbIndex index) throws IOException {
+		if(!index.open())
+			throw new IllegalStateException("unable to open index");
+		index.close();
+		return index;
+	}
+
+	/**
+	 * Returns the largest XML file in the specified directory.
+	 *
+	 * @param dir
+	 *            the directory to search; may not be <code>null</code>
+	 * @return the largest XML file in the directory
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the directory contains no XML files
+	 * @since JVerbnet 1.3.0
+	 */
+	public static File largestFile(File dir){
+		NotNull.check("dir", dir);
+		File[] files = dir.listFiles(new FileFilter() {
+			public boolean accept(File f) {
+				return f.getName().endsWith(".xml");
+			}
+		});
+		if(files == null || files.length == 0)
+			throw new IllegalArgumentException("no xml files in " + dir);
+		File result = files[0];
+		for(File f : files)
+			if(f.length() > result.length())
+				result = f;
+		return result;
+	}
+
+	/**
+	 * Reads the specified stream to its end, and closes it.
+	 *
+	 * @param in
+	 *            the stream to read
+	 * @return the contents of the stream
+	 * @throws IOException
+	 *             if the stream cannot be read
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static byte[] readFully(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[8192];
+			for(int n = in.read(buf); n >= 0; n = in.read(buf))
+				out.write(buf, 0, n);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns a URL whose stream serves the specified bytes from memory. The
+	 * URL does not use the 'file' protocol, so an index opened on it reads
+	 * the stream as it would a remote resource.
+	 *
+	 * @param name
+	 *            the name of the resource
+	 * @param data
+	 *            the contents of the resource
+	 * @return a URL serving the data
+	 * @throws IOException
+	 *             if the URL cannot be created
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static URL toMemoryURL(String name, final byte[] data) throws IOException {
+		return new URL("memory", null, -1, "/" + name, new URLStreamHandler() {
+			protected URLConnection openConnection(URL u) {
+				return new URLConnection(u) {
+					public void connect() {
+						connected = true;
+					}
+					@Override
+					public InputStream getInputStream() {
+						return new ByteArrayInputStream(data);
+					}
+				};
+			}
+		});
+	}
+
+	/**
+	 * Runs the standard benchmarks on a corpus directory and prints the
+	 * results to standard out. The first argument is the corpus directory,
+	 * or <code>-</code> to use a generated corpus, which is also used if there
+	 * are no arguments; any further arguments are the thread counts to use.
+	 * Warmup iterations,
+	 * measurement iterations, and iteration length may be set with the system
+	 * properties <code>bench.warmup</code>, <code>bench.iterations</code>, and
+	 * <code>bench.millis</code>.
+	 *
+	 * @param args
+	 *            the optional corpus directory, followed by optional thread
+	 *            counts
+	 * @throws Exception
+	 *             if a benchmark fails
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws Exception {
+		File dir = (args.length < 1 || args[0].equals("-")) ?
+				CorpusGenerator.generateTemporaryCorpus() :
+					new File(args[0]);
+		BenchmarkRunner runner = new BenchmarkRunner();
+		runner.setWarmupIterations(Integer.getInteger("bench.warmup", BenchmarkRunner.DEFAULT_WARMUP_ITERATIONS));
+		runner.setMeasurementIterations(Integer.getInteger("bench.iterations", BenchmarkRunner.DEFAULT_MEASUREMENT_ITERATIONS));
+		runner.setIterationMillis(Long.getLong("bench.millis", BenchmarkRunner.DEFAULT_ITERATION_MILLIS));
+		if(args.length > 1){
+			int[] counts = new int[args.length-1];
+			for(int i = 1; i < args.length; i++)
+				counts[i-1] = Integer.parseInt(args[i]);
+			runner.setThreadCounts(counts);
+		}
+		runner.setLog(System.out);
+		System.out.println("corpus: " + dir + ", threads: " + Arrays.toString(runner.getThreadCounts()));
+		runner.runAll(suite(dir));
+	}
+
+	/**
+	 * A benchmark that runs against an index that is opened before, and
+	 * closed after, the benchmark is run.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public abstract static class IndexBenchmark extends Benchmark {
+
+		// unchanging fields
+		private final File dir;
+
+		// changeable fields
+		private VerbIndex index;
+
+		/**
+		 * Creates a new index benchmark.
+		 *
+		 * @param name
+		 *            the name of the benchmark; may not be <code>null</code>,
+		 *            empty, or all whitespace
+		 * @param dir
+		 *            the corpus directory; may not be <code>null</code>
+		 * @throws NullPointerException
+		 *             if the name or directory is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the name is empty or all whitespace
+		 * @since JVerbnet 1.3.0
+		 */
+		public IndexBenchmark(String name, File dir){
+			super(name);
+			this.dir = NotNull.check("dir", dir);
+		}
+
+		/**
+		 * Returns the open index; only valid while the benchmark is set up.
+		 *
+		 * @return the open index
+		 * @since JVerbnet 1.3.0
+		 */
+		public VerbIndex getIndex(){
+			return index;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see edu.mit.jverbnet.bench.Benchmark#setUp()
+		 */
+		@Override
+		public void setUp() throws Exception {
+			index = new VerbIndex(dir);
+			if(!index.open())
+				throw new IllegalStateException("unable to open index on " + dir);
+			setUp(index);
+		}
+
+		/**
+		 * Prepares the inputs of the benchmark from the open index. This
+		 * implementation does nothing.
+		 *
+		 * @param index
+		 *            the open index
+		 * @since JVerbnet 1.3.0
+		 */
+		protected void setUp(VerbIndex index) {
+			// do nothing
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see edu.mit.jverbnet.bench.Benchmark#tearDown()
+		 */
+		@Override
+		public void tearDown() {
+			index.close();
+			index = null;
+		}
+
+	}
+
+}
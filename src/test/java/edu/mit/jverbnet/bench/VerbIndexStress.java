@@ -0,0 +1,816 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.bench;
+
+import static edu.mit.jverbnet.util.Checks.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+
+import edu.mit.jverbnet.data.FrameType;
+import edu.mit.jverbnet.data.IMember;
+import edu.mit.jverbnet.data.IVerbClass;
+import edu.mit.jverbnet.data.IWordnetKey;
+import edu.mit.jverbnet.data.ThematicRoleType;
+import edu.mit.jverbnet.data.semantics.PredicateType;
+import edu.mit.jverbnet.index.IVerbIndex;
+import edu.mit.jverbnet.index.VerbIndex;
+import edu.mit.jverbnet.parse.ParseContext;
+import edu.mit.jverbnet.parse.ParseContextPool;
+import edu.mit.jverbnet.parse.VerbClassHandler;
+import edu.mit.jverbnet.util.IHasLifecycle.ObjectClosedException;
+import edu.mit.jverbnet.util.parse.ITaggedHandler;
+import edu.mit.jverbnet.util.parse.LazyForwardingHandler;
+import edu.mit.jverbnet.util.parse.MappedHandler;
+import edu.mit.jverbnet.util.parse.NullErrorHandler;
+
+/**
+ * The standard concurrency stress scenarios for a {@link VerbIndex} and the
+ * shared state beneath it. The scenarios cover lookups and iteration on a
+ * shared index, lookups while the index is closed and reopened, concurrent
+ * loads of separate indexes, concurrent parses that report warnings, parses
+ * with a shared pool of parse contexts, the static type registries, the lazy creation of backing handlers, and the
+ * setting of verb class parents. Each scenario
+ * checks what it observes, so that races show up as torn state rather than
+ * going unnoticed.
+ * <p>
+ * The {@link #main(String[])} method runs all the scenarios with a
+ * {@link StressRunner}, prints the results, and exits with status 1 if any
+ * scenario failed or collapsed. Without a corpus directory, it runs on a
+ * corpus produced by {@link CorpusGenerator}.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class VerbIndexStress {
+
+	// the number of shared objects the registry, handler, and parent
+	// scenarios cycle through; a power of two
+	private static final int SLOTS = 64;
+
+	// the number of fresh ids each run of the registry scenario creates for
+	// each type; a power of two
+	private static final int REGISTRY_IDS = 4096;
+
+	// no instantiation
+	private VerbIndexStress(){}
+
+	/**
+	 * Returns all the standard stress scenarios for the specified corpus
+	 * directory.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return a list of all the standard stress scenarios
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static List<StressScenario> suite(File dir){
+		NotNull.check("dir", dir);
+		List<StressScenario> result = new ArrayList<StressScenario>();
+		result.add(lookups(dir));
+		result.add(openClose(dir));
+		result.add(loads(dir));
+		result.add(warnings(dir));
+		result.add(pooledParses(dir));
+		result.add(registries());
+		result.add(lazyHandlers());
+		result.add(parents(dir));
+		return result;
+	}
+
+	/**
+	 * Returns a scenario in which all threads look up verb classes and
+	 * members in, and iterate over, a single open index, checking each result
+	 * against the contents of the index.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the lookup scenario
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario lookups(File dir){
+		return new IndexScenario("stress.lookups", dir) {
+			@Override
+			public void invoke(int thread, int i) {
+				lookup(thread, i);
+			}
+		};
+	}
+
+	/**
+	 * Returns a scenario in which all threads look up verb classes and
+	 * members in a single index, as in {@link #lookups(File)}, while the first
+	 * thread also closes and reopens the index every so often. Lookups that
+	 * find the index closed are expected to fail with an
+	 * {@link ObjectClosedException}; any other failure is not.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the open and close scenario
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario openClose(File dir){
+		return new IndexScenario("stress.openClose", dir) {
+			@Override
+			public void invoke(int thread, int i) throws Exception {
+				if(thread == 0 && (i & 63) == 63){
+					getIndex().close();
+					check(!getIndex().isOpen(), "index open after close");
+					check(getIndex().open(), "index failed to reopen");
+					return;
+				}
+				lookup(thread, i);
+			}
+			@Override
+			public boolean isExpected(Throwable t) {
+				return t instanceof ObjectClosedException;
+			}
+		};
+	}
+
+	/**
+	 * Returns a scenario in which every thread repeatedly loads its own index
+	 * from the corpus, so that the parsers and the static state they share
+	 * are exercised concurrently. Each loaded index must have the same
+	 * {@link #fingerprint(IVerbIndex)} as an index loaded beforehand on a
+	 * single thread.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the load scenario
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario loads(final File dir){
+		NotNull.check("dir", dir);
+		return new StressScenario("stress.loads") {
+			private String expected;
+			@Override
+			public void setUp() throws Exception {
+				expected = load();
+			}
+			@Override
+			public void invoke(int thread, int i) throws Exception {
+				String actual = load();
+				check(expected.equals(actual), "concurrent load produced " + actual + ", expected " + expected);
+			}
+			protected String load() throws Exception {
+				VerbIndex index = new VerbIndex(dir);
+				if(!index.open())
+					throw new IllegalStateException("unable to open index on " + dir);
+				try {
+					return fingerprint(index);
+				} finally {
+					index.close();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns a scenario in which every thread repeatedly parses a verb class
+	 * with its own parser and handler, with warnings turned on. Each document
+	 * carries an unmapped element with a name of its own, and the warnings
+	 * reported for it must be exactly those reported by a parse of the same
+	 * document on a single thread, so that warning messages formatted by one
+	 * parse cannot leak into another.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the warning scenario
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario warnings(File dir){
+		NotNull.check("dir", dir);
+		final File file = VerbIndexBenchmarks.largestFile(dir);
+		return new StressScenario("stress.warnings") {
+			private byte[][] documents;
+			private List<List<String>> expected;
+			private String[] ids;
+			@Override
+			public void setUp() throws Exception {
+				// give each document an unmapped element inside the class
+				// block, named for the document
+				String xml = new String(VerbIndexBenchmarks.readFully(new FileInputStream(file)), "UTF-8");
+				int start = xml.indexOf("<" + VerbClassHandler.XML_TAG_VNCLASS);
+				int end = (start < 0) ? -1 : xml.indexOf('>', start);
+				if(end < 0)
+					throw new IllegalStateException("no verb class in " + file);
+				documents = new byte[SLOTS][];
+				expected = new ArrayList<List<String>>(SLOTS);
+				ids = new String[SLOTS];
+				String element;
+				List<String> messages;
+				for(int i = 0; i < SLOTS; i++){
+					element = "Stress" + i;
+					documents[i] = (xml.substring(0, end+1) + "<" + element + "/>" + xml.substring(end+1)).getBytes("UTF-8");
+					messages = new ArrayList<String>();
+					ids[i] = parse(documents[i], messages).getID();
+					check(messages.contains(MappedHandler.messageUnmappedElementBlockInternal.replace("TAG", VerbClassHandler.XML_TAG_VNCLASS) + element), "no warning for unmapped element " + element);
+					expected.add(messages);
+				}
+			}
+			@Override
+			public void invoke(int thread, int i) throws Exception {
+				int slot = (thread * 31 + i) & (SLOTS - 1);
+				List<String> messages = new ArrayList<String>();
+				IVerbClass verb = parse(documents[slot], messages);
+				check(ids[slot].equals(verb.getID()), "concurrent parse produced class " + verb.getID() + ", expected " + ids[slot]);
+				check(expected.get(slot).equals(messages), "concurrent parse reported " + messages + ", expected " + expected.get(slot));
+			}
+			protected IVerbClass parse(byte[] document, List<String> messages) throws Exception {
+				return new ParseContext(new WarningCollector(messages)).parse(ByteBuffer.wrap(document));
+			}
+			@Override
+			public void tearDown() {
+				documents = null;
+				expected = null;
+				ids = null;
+			}
+		};
+	}
+
+	/**
+	 * Returns a scenario in which the threads parse verb class fragments with
+	 * contexts borrowed from a single {@link ParseContextPool}. The fragments
+	 * are the files of the corpus, and each parse must produce a class with
+	 * the same id and numbers of members, roles, frames, and subclasses as a
+	 * parse of the same file on a single thread.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the pooled parse scenario
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario pooledParses(final File dir){
+		NotNull.check("dir", dir);
+		return new StressScenario("stress.pooledParse") {
+			private ParseContextPool pool;
+			private ByteBuffer[] documents;
+			private String[] expected;
+			@Override
+			public void setUp() throws Exception {
+				File[] files = dir.listFiles(new FileFilter() {
+					public boolean accept(File f) {
+						return f.getName().endsWith(".xml");
+					}
+				});
+				int count = Math.min(files.length, SLOTS);
+				pool = new ParseContextPool();
+				documents = new ByteBuffer[count];
+				expected = new String[count];
+				for(int i = 0; i < count; i++){
+					documents[i] = ByteBuffer.wrap(VerbIndexBenchmarks.readFully(new FileInputStream(files[i])));
+					expected[i] = summarize(pool.parse(documents[i]));
+				}
+			}
+			@Override
+			public void invoke(int thread, int i) throws Exception {
+				int slot = (thread * 31 + i) % documents.length;
+				String actual = summarize(pool.parse(documents[slot]));
+				check(expected[slot].equals(actual), "pooled parse produced " + actual + ", expected " + expected[slot]);
+			}
+			protected String summarize(IVerbClass verb){
+				return verb.getID() + " members=" + verb.getMembers().size() + " roles=" + verb.getThematicRoles().size() + " frames=" + verb.getFrames().size() + " subclasses=" + verb.getSubclasses().size();
+			}
+			@Override
+			public void tearDown() {
+				pool = null;
+				documents = null;
+				expected = null;
+			}
+		};
+	}
+
+	/**
+	 * Returns a scenario in which the threads look up thematic role,
+	 * predicate, and frame types by id in their static registries. Each run
+	 * uses fresh ids, so that threads race to create the same type; the
+	 * registries must hand every thread the same object for the same id.
+	 * Each run adds a few thousand ids to the registries, which are never
+	 * removed.
+	 *
+	 * @return the registry scenario
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario registries(){
+		return new StressScenario("stress.registries") {
+			private final AtomicInteger sequence = new AtomicInteger();
+			private final ConcurrentMap<String, Object> seen = new ConcurrentHashMap<String, Object>();
+			private String prefix;
+			@Override
+			public void setUp() {
+				prefix = "Stress" + Long.toString(System.nanoTime(), 36) + "x";
+				sequence.set(0);
+				seen.clear();
+			}
+			@Override
+			public void invoke(int thread, int i) {
+				// consecutive operations request the same id, so that the
+				// threads race to create it
+				int k = sequence.getAndIncrement() >>> 2;
+				String id = prefix + (k & (REGISTRY_IDS - 1));
+				String typeId;
+				Object type;
+				switch(k % 3){
+				case 0:
+					ThematicRoleType role = ThematicRoleType.getById(id);
+					typeId = role.getID();
+					type = role;
+					break;
+				case 1:
+					PredicateType pred = PredicateType.getById(id);
+					typeId = pred.getID();
+					type = pred;
+					break;
+				default:
+					FrameType frame = FrameType.getById(id);
+					typeId = frame.getID();
+					type = frame;
+				}
+				check(id.equals(typeId), "registry returned " + typeId + " for " + id);
+				Object prior = seen.putIfAbsent(type.getClass().getName() + ":" + id, type);
+				check(prior == null || prior == type, "registry returned two instances of " + type.getClass().getSimpleName() + " for " + id);
+			}
+			@Override
+			public void tearDown() {
+				seen.clear();
+			}
+		};
+	}
+
+	/**
+	 * Returns a scenario in which the threads ask a set of lazy forwarding
+	 * handlers for their backing handlers, while the first thread keeps
+	 * replacing the handlers with fresh ones. Every thread must receive the
+	 * same, fully configured, backing handler from the same forwarding
+	 * handler.
+	 *
+	 * @return the lazy handler scenario
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario lazyHandlers(){
+		return new StressScenario("stress.lazyHandler") {
+			private final AtomicReferenceArray<HandlerSlot> slots = new AtomicReferenceArray<HandlerSlot>(SLOTS);
+			private XMLReader parser;
+			@Override
+			public void setUp() throws Exception {
+				parser = ParseContext.createXMLReader();
+				for(int i = 0; i < SLOTS; i++)
+					slots.set(i, new HandlerSlot(parser));
+			}
+			@Override
+			public void invoke(int thread, int i) {
+				if(thread == 0)
+					slots.set((i * 7) & (SLOTS - 1), new HandlerSlot(parser));
+				HandlerSlot slot = slots.get(i & (SLOTS - 1));
+				ITaggedHandler<IVerbClass> backing = slot.handler.getBackingHandler();
+				check(backing != null, "null backing handler");
+				check(VerbClassHandler.XML_TAG_VNSUBCLASS.equals(backing.getTag()), "backing handler has tag " + backing.getTag());
+				check(backing.getParser() == parser, "backing handler has no parser");
+				if(!slot.backing.compareAndSet(null, backing))
+					check(slot.backing.get() == backing, "two backing handlers created for one forwarding handler");
+			}
+			@Override
+			public void tearDown() {
+				for(int i = 0; i < SLOTS; i++)
+					slots.set(i, null);
+				parser = null;
+			}
+		};
+	}
+
+	/**
+	 * Returns a scenario in which the threads race to set the parents of a
+	 * set of verb classes, while the first thread keeps replacing the classes
+	 * with freshly parsed ones. Exactly one thread may succeed in setting the
+	 * parent of each class; all the others must see the parent that it set.
+	 *
+	 * @param dir
+	 *            the corpus directory; may not be <code>null</code>
+	 * @return the parent scenario
+	 * @throws NullPointerException
+	 *             if the directory is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static StressScenario parents(File dir){
+		NotNull.check("dir", dir);
+		final File file = VerbIndexBenchmarks.largestFile(dir);
+		return new StressScenario("stress.setParent") {
+			private final AtomicReferenceArray<ParentSlot> slots = new AtomicReferenceArray<ParentSlot>(SLOTS);
+			private EventReplayReader reader;
+			private VerbClassHandler handler;
+			private IVerbClass[] candidates;
+			@Override
+			public void setUp() throws Exception {
+				// replay the file as a subclass, so that the classes it
+				// produces have no parent set
+				String xml = new String(VerbIndexBenchmarks.readFully(new FileInputStream(file)), "UTF-8");
+				xml = xml.replace("<" + VerbClassHandler.XML_TAG_VNCLASS, "<" + VerbClassHandler.XML_TAG_VNSUBCLASS);
+				xml = xml.replace("</" + VerbClassHandler.XML_TAG_VNCLASS + ">", "</" + VerbClassHandler.XML_TAG_VNSUBCLASS + ">");
+				reader = EventReplayReader.record(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+				reader.setErrorHandler(NullErrorHandler.getInstance());
+				handler = new VerbClassHandler(reader, false);
+				candidates = new IVerbClass[]{ parse(), parse() };
+				for(int i = 0; i < SLOTS; i++)
+					slots.set(i, new ParentSlot(parse()));
+			}
+			@Override
+			public void invoke(int thread, int i) throws Exception {
+				if(thread == 0)
+					slots.set((i * 7) & (SLOTS - 1), new ParentSlot(parse()));
+				ParentSlot slot = slots.get(i & (SLOTS - 1));
+				IVerbClass candidate = candidates[thread & 1];
+				boolean won;
+				try {
+					slot.verb.setParent(candidate);
+					won = true;
+				} catch(IllegalStateException e){
+					// another thread set the parent first
+					won = false;
+				}
+				if(won)
+					check(slot.winners.incrementAndGet() == 1, "parent set by more than one thread");
+				IVerbClass parent = slot.verb.getParent();
+				check(parent == candidates[0] || parent == candidates[1], "verb class has parent " + parent);
+				check(!slot.verb.isRoot(), "verb class with a parent is a root");
+			}
+			protected IVerbClass parse() throws Exception {
+				// only called by one thread at a time
+				handler.clear();
+				reader.setContentHandler(handler);
+				reader.replay();
+				return handler.getElement();
+			}
+			@Override
+			public void tearDown() {
+				for(int i = 0; i < SLOTS; i++)
+					slots.set(i, null);
+				reader = null;
+				handler = null;
+				candidates = null;
+			}
+		};
+	}
+
+	/**
+	 * Returns a summary of the contents of the specified index, made of the
+	 * numbers of verb classes, root classes, members, thematic roles, frames,
+	 * wordnet keys, and groupings. Two loads of the same data must have the
+	 * same fingerprint.
+	 *
+	 * @param index
+	 *            the open index; may not be <code>null</code>
+	 * @return the fingerprint of the index
+	 * @throws NullPointerException
+	 *             if the index is <code>null</code>
+	 * @since JVerbnet 1.3.0
+	 */
+	public static String fingerprint(IVerbIndex index){
+		NotNull.check("index", index);
+		int classes = 0, roots = 0, members = 0, roles = 0, frames = 0, keys = 0, groups = 0;
+		for(Iterator<IVerbClass> i = index.iterator(); i.hasNext(); ){
+			IVerbClass vc = i.next();
+			classes++;
+			if(vc.isRoot())
+				roots++;
+			members += vc.getMembers().size();
+			roles += vc.getThematicRoles().size();
+			frames += vc.getFrames().size();
+		}
+		for(Iterator<IWordnetKey> i = index.iteratorWordnetKeys(); i.hasNext(); i.next())
+			keys++;
+		for(Iterator<String> i = index.iteratorGroups(); i.hasNext(); i.next())
+			groups++;
+		return "classes=" + classes + " roots=" + roots + " members=" + members + " roles=" + roles + " frames=" + frames + " keys=" + keys + " groups=" + groups;
+	}
+
+	/**
+	 * Runs the standard stress scenarios on a corpus directory, prints the
+	 * results to standard out, and exits with status 1 if any scenario failed
+	 * or collapsed. The single optional argument is the corpus directory; if
+	 * it is omitted, or is <code>-</code>, a generated corpus is used. The
+	 * thread count, run length, and collapse ratio may be set with the system
+	 * properties <code>stress.threads</code>, <code>stress.millis</code>, and
+	 * <code>stress.collapse</code>.
+	 *
+	 * @param args
+	 *            the optional corpus directory
+	 * @throws Exception
+	 *             if a scenario cannot be set up
+	 * @since JVerbnet 1.3.0
+	 */
+	public static void main(String[] args) throws Exception {
+		if(args.length > 1){
+			System.err.println("usage: VerbIndexStress [dir|-]");
+			System.exit(1);
+		}
+		File dir = (args.length == 0 || args[0].equals("-")) ?
+				CorpusGenerator.generateTemporaryCorpus() :
+					new File(args[0]);
+		StressRunner runner = new StressRunner();
+		runner.setThreadCount(Integer.getInteger("stress.threads", runner.getThreadCount()));
+		runner.setRunMillis(Long.getLong("stress.millis", StressRunner.DEFAULT_RUN_MILLIS));
+		String collapse = System.getProperty("stress.collapse");
+		if(collapse != null)
+			runner.setCollapseRatio(Double.parseDouble(collapse));
+		System.out.println("corpus: " + dir + ", threads: " + runner.getThreadCount());
+		System.out.format("%-24s %3s %14s %16s %7s %12s %10s %8s %8s %4s  %s%n", "scenario", "thr", "1-thread ops/s", "per-thread ops/s", "scale", "operations", "expected", "errors", "torn", "hung", "status");
+		runner.setLog(System.out);
+		List<StressResult> results = runner.runAll(suite(dir));
+		boolean passed = true;
+		for(StressResult r : results){
+			if(r.getStatus() == StressResult.Status.OK)
+				continue;
+			passed = false;
+			for(Throwable t : r.getFailures()){
+				System.out.println();
+				System.out.print(r.getName() + ": ");
+				t.printStackTrace(System.out);
+			}
+		}
+		System.out.println();
+		System.out.println(passed ? "PASSED" : "FAILED");
+		if(!passed)
+			System.exit(1);
+	}
+
+	/**
+	 * A scenario that runs against an index that is opened before, and closed
+	 * after, the scenario is run. It provides a checked lookup for use by its
+	 * subclasses.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	public abstract static class IndexScenario extends StressScenario {
+
+		// unchanging fields
+		private final File dir;
+
+		// changeable fields
+		private VerbIndex index;
+		private String[] ids;
+		private IWordnetKey[] keys;
+		private String[] groups;
+		private int classCount;
+
+		/**
+		 * Creates a new index scenario.
+		 *
+		 * @param name
+		 *            the name of the scenario; may not be <code>null</code>,
+		 *            empty, or all whitespace
+		 * @param dir
+		 *            the corpus directory; may not be <code>null</code>
+		 * @throws NullPointerException
+		 *             if the name or directory is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the name is empty or all whitespace
+		 * @since JVerbnet 1.3.0
+		 */
+		public IndexScenario(String name, File dir){
+			super(name);
+			this.dir = NotNull.check("dir", dir);
+		}
+
+		/**
+		 * Returns the index; only valid while the scenario is set up.
+		 *
+		 * @return the index
+		 * @since JVerbnet 1.3.0
+		 */
+		public VerbIndex getIndex(){
+			return index;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see edu.mit.jverbnet.bench.StressScenario#setUp()
+		 */
+		@Override
+		public void setUp() throws Exception {
+			index = new VerbIndex(dir);
+			if(!index.open())
+				throw new IllegalStateException("unable to open index on " + dir);
+			ids = VerbIndexBenchmarks.verbIds(index);
+			classCount = ids.length;
+			List<IWordnetKey> keyList = new ArrayList<IWordnetKey>();
+			for(Iterator<IWordnetKey> i = index.iteratorWordnetKeys(); i.hasNext(); )
+				keyList.add(i.next());
+			keys = keyList.toArray(new IWordnetKey[keyList.size()]);
+			List<String> groupList = new ArrayList<String>();
+			for(Iterator<String> i = index.iteratorGroups(); i.hasNext(); )
+				groupList.add(i.next());
+			groups = groupList.toArray(new String[groupList.size()]);
+			if(ids.length == 0 || keys.length == 0 || groups.length == 0)
+				throw new IllegalStateException("corpus has no classes, keys, or groupings: " + dir);
+		}
+
+		/**
+		 * Performs one checked lookup on the index: a verb class by id, the
+		 * members with a wordnet key, the members with a grouping, or an
+		 * iteration over all verb classes, depending on the operation number.
+		 *
+		 * @param thread
+		 *            the index of the calling thread
+		 * @param i
+		 *            the operation number of the calling thread
+		 * @throws TornStateException
+		 *             if the result is inconsistent with the index
+		 * @since JVerbnet 1.3.0
+		 */
+		protected void lookup(int thread, int i){
+			// spread the threads over the inputs
+			int n = (i + thread * 1031) & Integer.MAX_VALUE;
+			switch(i & 3){
+			case 0:
+				String id = ids[n % ids.length];
+				IVerbClass vc = index.getVerb(id);
+				check(vc != null, "no verb class for " + id);
+				check(id.equals(vc.getID()), "verb class " + vc.getID() + " returned for " + id);
+				return;
+			case 1:
+				IWordnetKey key = keys[n % keys.length];
+				check(!index.getMembers(key).isEmpty(), "no members for key " + key);
+				return;
+			case 2:
+				String group = groups[n % groups.length];
+				for(IMember m : index.getMembers(group))
+					check(m.getGroupings().contains(group), "member " + m.getName() + " returned for grouping " + group);
+				return;
+			default:
+				int count = 0;
+				for(Iterator<IVerbClass> itr = index.iterator(); itr.hasNext(); itr.next())
+					count++;
+				check(count == classCount, "iterated " + count + " verb classes, expected " + classCount);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see edu.mit.jverbnet.bench.StressScenario#tearDown()
+		 */
+		@Override
+		public void tearDown() {
+			if(index != null)
+				index.close();
+			index = null;
+			ids = null;
+			keys = null;
+			groups = null;
+		}
+
+	}
+
+	/**
+	 * A lazy forwarding handler, and the first backing handler any thread
+	 * received from it.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class HandlerSlot {
+
+		// unchanging fields
+		protected final LazyForwardingHandler<IVerbClass> handler;
+		protected final AtomicReference<ITaggedHandler<IVerbClass>> backing = new AtomicReference<ITaggedHandler<IVerbClass>>();
+
+		/**
+		 * Creates a new slot with a fresh handler for subclasses.
+		 *
+		 * @param parser
+		 *            the parser of the handler
+		 * @since JVerbnet 1.3.0
+		 */
+		public HandlerSlot(XMLReader parser){
+			handler = new LazyForwardingHandler<IVerbClass>(parser, VerbClassHandler.XML_TAG_VNSUBCLASS) {
+				protected ITaggedHandler<IVerbClass> createBackingHandler() {
+					return new VerbClassHandler(false);
+				}
+			};
+		}
+
+	}
+
+	/**
+	 * An error handler that collects the messages of warnings in a list, and
+	 * rethrows errors.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class WarningCollector implements ErrorHandler {
+
+		// unchanging fields
+		protected final List<String> messages;
+
+		/**
+		 * Creates a new collector that adds to the specified list.
+		 *
+		 * @param messages
+		 *            the list to which warning messages are added
+		 * @since JVerbnet 1.3.0
+		 */
+		public WarningCollector(List<String> messages){
+			this.messages = messages;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see org.xml.sax.ErrorHandler#warning(org.xml.sax.SAXParseException)
+		 */
+		public void warning(SAXParseException exception) {
+			messages.add(exception.getMessage());
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see org.xml.sax.ErrorHandler#error(org.xml.sax.SAXParseException)
+		 */
+		public void error(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see org.xml.sax.ErrorHandler#fatalError(org.xml.sax.SAXParseException)
+		 */
+		public void fatalError(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+
+	}
+
+	/**
+	 * A verb class whose parent has not been set, and the number of threads
+	 * that succeeded in setting it.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 1.3.0
+	 * @since JVerbnet 1.3.0
+	 */
+	protected static class ParentSlot {
+
+		// unchanging fields
+		protected final IVerbClass verb;
+		protected final AtomicInteger winners = new AtomicInteger();
+
+		/**
+		 * Creates a new slot for the specified verb class.
+		 *
+		 * @param verb
+		 *            the verb class, whose parent must not be set
+		 * @since JVerbnet 1.3.0
+		 */
+		public ParentSlot(IVerbClass verb){
+			this.verb = verb;
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.mit.jverbnet.data.semantics.SemanticDesc;
+import edu.mit.jverbnet.util.collection.OffHeapStringList;
+import edu.mit.jverbnet.util.collection.OffHeapStrings;
+
+/**
+ * Tests the checking of frame examples, in particular of examples held off
+ * the heap.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FrameTest {
+
+	@Test
+	public void offHeapExamplesAreKept() {
+		List<String> examples = new OffHeapStrings().addAll(Arrays.asList("Jackie accompanied Rose.", " \u00e9t\u00e9 "));
+		assertFalse(((OffHeapStringList)examples).isEmptyOrBlank(1));
+		Frame frame = frame(examples);
+		assertSame(examples, frame.getExamples());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void blankOffHeapExampleIsRejected() {
+		List<String> examples = new OffHeapStrings().addAll(Arrays.asList("Jackie accompanied Rose.", " \t\n"));
+		assertTrue(((OffHeapStringList)examples).isEmptyOrBlank(1));
+		frame(examples);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyOffHeapExampleIsRejected() {
+		frame(new OffHeapStrings().addAll(Arrays.asList("")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void blankExampleIsRejected() {
+		frame(Arrays.asList("Jackie accompanied Rose.", "  "));
+	}
+
+	@Test
+	public void examplesAreCopied() {
+		List<String> examples = Arrays.asList("Jackie accompanied Rose.");
+		Frame frame = frame(examples);
+		assertEquals(examples, frame.getExamples());
+	}
+
+	protected static Frame frame(List<String> examples){
+		return new Frame(parent(), "0.2", FrameType.getById("NP V NP"), null, null, examples, null, SemanticDesc.EMPTY_SEMANTICS);
+	}
+
+	protected static IVerbClass parent(){
+		return (IVerbClass)Proxy.newProxyInstance(FrameTest.class.getClassLoader(), new Class<?>[]{ IVerbClass.class }, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+}
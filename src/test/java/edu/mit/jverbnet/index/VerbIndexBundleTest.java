@@ -0,0 +1,228 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.XMLReader;
+
+import edu.mit.jverbnet.bench.CorpusGenerator;
+import edu.mit.jverbnet.data.IVerbClass;
+import edu.mit.jverbnet.util.FileBuffers;
+import edu.mit.jverbnet.util.XMLBundle;
+
+/**
+ * Tests loading a {@link VerbIndex} from an {@link XMLBundle}, in particular
+ * that a corrupt entry parsed by several threads fails the load cleanly,
+ * without the bundle being closed while workers still read it, and that the
+ * data of entries stays intact after their bundle is closed.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class VerbIndexBundleTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void parallelLoadMatchesDirectory() throws IOException {
+		File dir = corpus(40);
+		File bundle = bundle(dir);
+		VerbIndex index = new VerbIndex(bundle);
+		index.setParseThreads(4);
+		assertEquals(ids(new VerbIndex(bundle)), ids(index));
+		assertEquals(ids(new VerbIndex(dir)).size(), ids(index).size());
+	}
+
+	@Test
+	public void corruptEntryFailsParallelLoadOfMappedBundle() throws Exception {
+		File dir = corpus(300);
+		File bundle = bundle(dir);
+		assertTrue("bundle too small to be mapped", bundle.length() >= FileBuffers.DEFAULT_MAP_THRESHOLD);
+		File corrupt = corrupt(bundle);
+		for(int i = 0; i < 5; i++)
+			assertCorrupt(corrupt, 4);
+	}
+
+	@Test
+	public void corruptEntryFailsParallelLoadOfHeapBundle() throws Exception {
+		File dir = corpus(40);
+		File bundle = bundle(dir);
+		assertTrue("bundle too large to be read", bundle.length() < FileBuffers.DEFAULT_MAP_THRESHOLD);
+		File corrupt = corrupt(bundle);
+		List<String> expected = ids(new VerbIndex(bundle));
+		for(int i = 0; i < 5; i++){
+			assertCorrupt(corrupt, 4);
+			// the buffer of the failed load must not be shared with this one
+			VerbIndex index = new VerbIndex(bundle);
+			index.setParseThreads(4);
+			assertEquals(expected, ids(index));
+		}
+	}
+
+	@Test
+	public void dataOutlivesClose() throws IOException {
+		assertDataOutlivesClose(bundle(corpus(300)), bundle(corpus(299)));
+		assertDataOutlivesClose(bundle(corpus(40)), bundle(corpus(39)));
+	}
+
+	/**
+	 * Closes the first bundle while holding the data of its entries, then
+	 * opens the second, which is smaller, as many times as there may be idle buffers, so that
+	 * one copy would be loaded into the buffer of the first had it been
+	 * pooled, and checks the data of the first.
+	 */
+	protected void assertDataOutlivesClose(File first, File second) throws IOException {
+		XMLBundle bundle = XMLBundle.open(first);
+		List<XMLBundle.Entry> entries = bundle.getEntries();
+		List<ByteBuffer> data = new ArrayList<ByteBuffer>(entries.size());
+		for(XMLBundle.Entry entry : entries)
+			data.add(bundle.getData(entry));
+		bundle.close();
+		List<XMLBundle> others = new ArrayList<XMLBundle>();
+		try {
+			for(int i = 0; i <= FileBuffers.DEFAULT_MAX_IDLE; i++)
+				others.add(XMLBundle.open(second));
+			for(int i = 0; i < entries.size(); i++)
+				assertEquals(entries.get(i).getName(), entries.get(i).getChecksum(), XMLBundle.checksum(data.get(i)));
+		} finally {
+			for(XMLBundle other : others)
+				other.close();
+		}
+	}
+
+	protected void assertCorrupt(File bundle, int threads) throws InterruptedException {
+		SlowIndex index = new SlowIndex(bundle);
+		index.setParseThreads(threads);
+		try {
+			index.open();
+			fail("corrupt bundle was loaded");
+		} catch(IOException e){
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Checksum mismatch"));
+		}
+		assertTrue(!index.isOpen());
+		// workers that outlive the load would still be parsing
+		for(int i = 0; i < 100 && index.inFlight.get() > 0; i++)
+			Thread.sleep(20);
+		assertEquals("workers still running after the load failed", 0, index.inFlight.get());
+		assertEquals("entries read after the bundle was closed", 0, index.readsAfterClose.get());
+	}
+
+	protected File corpus(int classes) throws IOException {
+		File dir = tmp.newFolder();
+		CorpusGenerator generator = new CorpusGenerator();
+		generator.setClassCount(classes);
+		generator.generate(dir);
+		return dir;
+	}
+
+	protected File bundle(File dir) throws IOException {
+		File bundle = new File(tmp.getRoot(), dir.getName() + XMLBundle.EXTENSION);
+		XMLBundle.write(dir, bundle);
+		return bundle;
+	}
+
+	/**
+	 * Copies the bundle, flipping a byte in the data of its first entry, so
+	 * that the worker given that entry fails while the others are parsing.
+	 */
+	protected File corrupt(File bundle) throws IOException {
+		XMLBundle.Entry entry;
+		XMLBundle opened = XMLBundle.open(bundle);
+		try {
+			entry = opened.getEntries().get(0);
+		} finally {
+			opened.close();
+		}
+		File result = new File(tmp.getRoot(), "corrupt-" + bundle.getName());
+		byte[] bytes = new byte[(int)bundle.length()];
+		RandomAccessFile in = new RandomAccessFile(bundle, "r");
+		try {
+			in.readFully(bytes);
+		} finally {
+			in.close();
+		}
+		bytes[(int)entry.getOffset() + entry.getLength() / 2] ^= 1;
+		RandomAccessFile out = new RandomAccessFile(result, "rw");
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+		return result;
+	}
+
+	/**
+	 * An index that delays the parse of the first entry a little, so that the
+	 * other workers have taken entries, and delays the other entries longer,
+	 * so that those workers are still busy when the worker with the corrupt
+	 * first entry fails. It counts the entries that are read after the bundle
+	 * has been closed.
+	 */
+	protected static class SlowIndex extends VerbIndex {
+
+		protected final AtomicInteger readsAfterClose = new AtomicInteger();
+		protected final AtomicInteger inFlight = new AtomicInteger();
+
+		public SlowIndex(File file){
+			super(file);
+		}
+
+		@Override
+		protected boolean parseEntry(XMLReader parser, XMLBundle bundle, XMLBundle.Entry entry) throws IOException {
+			inFlight.incrementAndGet();
+			try {
+				boolean first = (entry == bundle.getEntries().get(0));
+				try {
+					Thread.sleep(first ? 10 : 100);
+				} catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+				if(!first && !bundle.isOpen()){
+					readsAfterClose.incrementAndGet();
+					return true;
+				}
+				return super.parseEntry(parser, bundle, entry);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+	}
+
+	protected static List<String> ids(VerbIndex index) throws IOException {
+		index.open();
+		try {
+			List<String> result = new ArrayList<String>();
+			for(IVerbClass vc : index)
+				result.add(vc.getID() + "/" + vc.getMembers().size() + "/" + vc.getFrames().size());
+			return result;
+		} finally {
+			index.close();
+		}
+	}
+
+}
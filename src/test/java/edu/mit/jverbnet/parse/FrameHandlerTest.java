@@ -0,0 +1,73 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.parse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Tests the handling of frame examples by {@link FrameHandler}.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FrameHandlerTest {
+
+	protected static final String FRAME =
+			"<FRAME>" +
+			"<DESCRIPTION descriptionNumber=\"0.2\" primary=\"NP V NP\" secondary=\"\" xtag=\"0.2\"/>" +
+			"<EXAMPLES>" +
+			"<EXAMPLE>Jackie accompanied Rose.</EXAMPLE>" +
+			"<EXAMPLE>\n  Jackie accompanied Rose to the store. </EXAMPLE>" +
+			"</EXAMPLES>" +
+			"<SYNTAX><NP value=\"Agent\"><SYNRESTRS/></NP><VERB/><NP value=\"Theme\"><SYNRESTRS/></NP></SYNTAX>" +
+			"<SEMANTICS><PRED value=\"cause\"><ARGS><ARG type=\"Event\" value=\"E\"/><ARG type=\"ThemRole\" value=\"Agent\"/></ARGS></PRED></SEMANTICS>" +
+			"</FRAME>";
+
+	@Test
+	public void examplesAreKeptAsInTheData() throws Exception {
+		FrameHandler handler = new FrameHandler(createParser());
+		assertFalse(handler.isTrimmingExamples());
+		assertEquals(Arrays.asList("Jackie accompanied Rose.", "\n  Jackie accompanied Rose to the store. "), parse(handler));
+	}
+
+	@Test
+	public void examplesAreTrimmedOnRequest() throws Exception {
+		FrameHandler handler = new FrameHandler(createParser());
+		handler.setTrimmingExamples(true);
+		assertTrue(handler.isTrimmingExamples());
+		assertEquals(Arrays.asList("Jackie accompanied Rose.", "Jackie accompanied Rose to the store."), parse(handler));
+	}
+
+	protected static List<String> parse(FrameHandler handler) throws Exception {
+		XMLReader parser = handler.getParser();
+		parser.setContentHandler(handler);
+		parser.parse(new InputSource(new StringReader(FRAME)));
+		return handler.getElement().getExamples();
+	}
+
+	protected static XMLReader createParser() throws Exception {
+		return SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+	}
+
+}
@@ -0,0 +1,135 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.mit.jverbnet.bench.CorpusGenerator;
+import edu.mit.jverbnet.index.VerbIndex;
+
+/**
+ * Tests the collection size masks of {@link Checks}, which are shared by all
+ * threads, including those constructing verb classes in parallel parses.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class ChecksTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void sizeMasks() {
+		List<Integer> three = Collections.nCopies(3, 0);
+		assertTrue(Checks.minSizeAndNotNull(3).is(three));
+		assertFalse(Checks.minSizeAndNotNull(4).is(three));
+		assertTrue(Checks.minSizeAndNotNull(-1).is(Collections.emptyList()));
+		assertFalse(Checks.minSizeAndNotNull(0).is(null));
+		assertTrue(Checks.maxSizeAndNotNull(3).is(three));
+		assertFalse(Checks.maxSizeAndNotNull(2).is(three));
+		assertFalse(Checks.maxSizeAndNotNull(-1).is(three));
+		assertFalse(Checks.maxSizeAndNotNull(0).is(null));
+		assertFalse(Checks.minSizeAndNotNull(1000).is(three));
+		assertTrue(Checks.maxSizeAndNotNull(1000).is(three));
+		assertSame(Checks.minSizeAndNotNull(5), Checks.minSizeAndNotNull(5));
+		assertSame(Checks.maxSizeAndNotNull(5), Checks.maxSizeAndNotNull(5));
+	}
+
+	/**
+	 * Checks masks of many sizes, more than are kept, from several threads,
+	 * while other threads open indexes, whose verb classes check their
+	 * builders with the same masks.
+	 */
+	@Test
+	public void sizeMasksAreThreadSafe() throws Exception {
+		final File dir = tmp.newFolder();
+		CorpusGenerator generator = new CorpusGenerator();
+		generator.setClassCount(20);
+		generator.generate(dir);
+		final int expected = open(dir);
+
+		final int threads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		List<Thread> workers = new ArrayList<Thread>(threads);
+		for(int t = 0; t < threads; t++){
+			final int seed = t;
+			Thread worker = new Thread(){
+				public void run() {
+					try {
+						start.await();
+						if(seed % 2 == 0){
+							for(int i = 0; i < 5; i++)
+								assertEquals(expected, open(dir));
+						} else {
+							checkMasks(new Random(seed));
+						}
+					} catch(Throwable e){
+						error.compareAndSet(null, e);
+					}
+				}
+			};
+			workers.add(worker);
+			worker.start();
+		}
+		start.countDown();
+		for(Thread worker : workers)
+			worker.join();
+		if(error.get() != null)
+			throw new AssertionError(error.get());
+	}
+
+	protected static void checkMasks(Random random) {
+		List<List<Integer>> lists = new ArrayList<List<Integer>>();
+		for(int n = 0; n < 300; n++)
+			lists.add(Collections.nCopies(n, 0));
+		for(int i = 0; i < 100000; i++){
+			int size = random.nextInt(300);
+			List<Integer> list = lists.get(random.nextInt(300));
+			assertEquals(list.size() >= size, Checks.minSizeAndNotNull(size).is(list));
+			assertEquals(list.size() <= size, Checks.maxSizeAndNotNull(size).is(list));
+		}
+	}
+
+	protected static int open(File dir) throws IOException {
+		VerbIndex index = new VerbIndex(dir);
+		index.open();
+		try {
+			int count = 0;
+			for(Object vc : index){
+				assertTrue(vc != null);
+				count++;
+			}
+			return count;
+		} finally {
+			index.close();
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the release of buffers by {@link FileBuffers}: heap buffers are
+ * reused, and mappings stay readable through the references that remain.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class FileBuffersTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void heapBufferIsReused() throws IOException {
+		FileBuffers buffers = new FileBuffers(Integer.MAX_VALUE, 1);
+		ByteBuffer buffer = buffers.load(file("a", 100));
+		assertFalse(buffer.isDirect());
+		buffers.release(buffer);
+		assertEquals(1, buffers.getIdleCount());
+		assertSame(buffer, buffers.load(file("b", 50)));
+		assertEquals(0, buffers.getIdleCount());
+	}
+
+	@Test
+	public void mappingOutlivesRelease() throws IOException {
+		FileBuffers buffers = new FileBuffers(0, 1);
+		ByteBuffer buffer = buffers.load(file("a", 100));
+		ByteBuffer slice = buffer.slice();
+		buffers.release(buffer);
+		assertEquals(0, buffers.getIdleCount());
+		for(int i = 0; i < 100; i++)
+			assertEquals('a', slice.get(i));
+	}
+
+	protected File file(String name, int size) throws IOException {
+		File file = tmp.newFile(name);
+		byte[] bytes = new byte[size];
+		Arrays.fill(bytes, (byte)name.charAt(0));
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+}
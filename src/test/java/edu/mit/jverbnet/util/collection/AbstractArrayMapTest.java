@@ -0,0 +1,69 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the views of the array-backed maps.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class AbstractArrayMapTest {
+
+	@Test
+	public void viewsFollowKeyOrder() {
+		Map<String, Object> source = new LinkedHashMap<String, Object>();
+		source.put("c", 3);
+		source.put("a", null);
+		source.put("b", 2);
+		Map<String, Object> map = ImmutableArrayMap.copyOf(source);
+		assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<String>(map.keySet()));
+		assertEquals(Arrays.<Object>asList(3, null, 2), new ArrayList<Object>(map.values()));
+		assertEquals(3, map.values().size());
+		assertTrue(map.values().contains(null));
+		assertTrue(map.containsValue(2));
+		assertFalse(map.containsValue(4));
+		assertEquals(source, map);
+		assertEquals(source.hashCode(), map.hashCode());
+	}
+
+	@Test
+	public void booleanMapValues() {
+		Map<String, Boolean> source = new LinkedHashMap<String, Boolean>();
+		source.put("x", true);
+		source.put("y", false);
+		Map<String, Boolean> map = ImmutableBooleanMap.copyOf(source);
+		assertEquals(Arrays.asList(true, false), new ArrayList<Boolean>(map.values()));
+		assertTrue(map.containsValue(false));
+		assertFalse(map.containsValue(null));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void valuesAreUnmodifiable() {
+		Map<String, Object> source = new LinkedHashMap<String, Object>();
+		source.put("a", 1);
+		source.put("b", 2);
+		ImmutableArrayMap.copyOf(source).values().iterator().remove();
+	}
+
+}
@@ -0,0 +1,122 @@
+/***************************************************************************
+ * JVerbnet v1.2.0
+ * Copyright (c) 2012 Massachusetts Institute of Technology
+ *
+ * JVerbnet is distributed under the terms of the Creative Commons
+ * Attribution 3.0 Unported License, which means it may be freely used for
+ * all purposes, as long as proper acknowledgment is made.  See the license
+ * file included with this distribution for more details.
+ ****************************************************************************/
+
+package edu.mit.jverbnet.util.parse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Tests the tracking of open elements by {@link MappedHandler}. The events
+ * are sent to the handler directly, since a SAX parser would reject a
+ * document whose tags do not match before the handler saw it.
+ *
+ * @author Mark A. Finlayson
+ * @version 1.3.0
+ * @since JVerbnet 1.3.0
+ */
+public class MappedHandlerTest {
+
+	protected MappedHandler<Object> handler;
+
+	@Before
+	public void setUp() throws Exception {
+		XMLReader parser = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+		handler = new MappedHandler<Object>(parser, "BLOCK");
+		handler.setReportWarnings(false);
+	}
+
+	@Test
+	public void nestedUnmappedElements() throws SAXException {
+		start("BLOCK");
+		for(int i = 0; i < 10; i++)
+			start("E" + i);
+		assertEquals(11, handler.getDepth());
+		for(int i = 9; i >= 0; i--)
+			end("E" + i);
+		assertEquals(1, handler.getDepth());
+		end("BLOCK");
+		assertFalse(handler.isInsideTaggedBlock());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void tagStackSnapshot() throws SAXException {
+		assertTrue(handler.getTagStack().isEmpty());
+		start("BLOCK");
+		start("A");
+		start("B");
+		assertEquals(Arrays.asList("BLOCK", "A", "B"), handler.getTagStack());
+		assertEquals("B", handler.getTagStack().peek());
+		end("B");
+		assertEquals(Arrays.asList("BLOCK", "A"), handler.getTagStack());
+		end("A");
+		end("BLOCK");
+		assertTrue(handler.getTagStack().isEmpty());
+	}
+
+	@Test
+	public void unmatchedNestedEndTag() throws SAXException {
+		start("BLOCK");
+		start("A");
+		start("B");
+		try {
+			end("A");
+			fail("unmatched end tag was accepted");
+		} catch(SAXException e){
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Unmatched end tag"));
+		}
+	}
+
+	@Test
+	public void unmatchedBlockEndTag() throws SAXException {
+		start("BLOCK");
+		try {
+			end("A");
+			fail("unmatched end tag was accepted");
+		} catch(SAXException e){
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Unmatched end tag"));
+		}
+	}
+
+	@Test
+	public void clearForgetsOpenElements() throws SAXException {
+		start("BLOCK");
+		start("A");
+		handler.clear();
+		assertFalse(handler.isInsideTaggedBlock());
+		start("BLOCK");
+		start("B");
+		end("B");
+		end("BLOCK");
+		assertFalse(handler.isInsideTaggedBlock());
+	}
+
+	protected void start(String qName) throws SAXException {
+		handler.startElement("", qName, qName, new AttributesImpl());
+	}
+
+	protected void end(String qName) throws SAXException {
+		handler.endElement("", qName, qName);
+	}
+
+}